@@ -29,7 +29,7 @@ public class MessageDispatcher {
 
     private static final String LOG_TAG = MessageDispatcher.class.getSimpleName();
 
-    private static final Pool<Telegram> pool = new Pool<Telegram>(16) {
+    private final Pool<Telegram> pool = new Pool<Telegram>(16) {
         @Override
         protected Telegram newObject() {
             return new Telegram();
@@ -24,13 +24,34 @@ public class MessageManager extends MessageDispatcher {
 
     private static final MessageManager instance = new MessageManager();
 
+    /** Instances bound to a thread instead of the singleton */
+    private static final ThreadLocal<MessageManager> bound = new ThreadLocal<>();
+
     /** Don't let anyone else instantiate this class */
     private MessageManager() {
     }
 
-    /** Returns the singleton instance of the message dispatcher. */
+    /** Returns the singleton instance of the message dispatcher or the instance bound to the current thread. */
     public static MessageManager getInstance() {
-        return instance;
+        MessageManager manager = bound.get();
+        return manager != null ? manager : instance;
+    }
+
+    /** Creates an independent instance. Used by {@link #bind(MessageManager)} to run several worlds in parallel.
+     * @return a new message manager */
+    public static MessageManager newInstance() {
+        return new MessageManager();
+    }
+
+    /** Lets {@link #getInstance()} return the given instance on the current thread.
+     * @param manager null to use the singleton again */
+    public static void bind(MessageManager manager) {
+        bound.set(manager);
+    }
+
+    /** @return the instance bound to the current thread, null if the singleton is used */
+    public static MessageManager getBound() {
+        return bound.get();
     }
 
 }
@@ -51,7 +51,7 @@ import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
 import com.bombinggames.wurfelengine.core.map.rendering.SideSprite;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.List;
 
 import static com.badlogic.gdx.graphics.GL20.GL_BLEND;
 
@@ -62,6 +62,12 @@ import static com.badlogic.gdx.graphics.GL20.GL_BLEND;
  */
 public class Camera {
 
+    /**
+     * uniforms used if there is no moon
+     */
+    private static final Vector3 NO_NORMAL = new Vector3();
+    private static final Color NO_COLOR = new Color(0, 0, 0, 0);
+
     /**
      * the position of the camera in view space. Y-up. Read only field.
      */
@@ -84,10 +90,25 @@ public class Camera {
     private final Matrix4 combined = new Matrix4();
     private final Vector2 screenshake = new Vector2(0, 0);
     private final GameView gameView;
-    private final LinkedList<Renderable> depthlist = new LinkedList<>();
+    private final ArrayList<Renderable> depthlist = new ArrayList<>(1000);
+    /**
+     * the front-most rendered objects, used for picking
+     */
+    private final PickingBuffer pickingBuffer = new PickingBuffer();
     private final Point center = new Point(0, 0, 0);
     private final ArrayList<RenderCell> modifiedCells = new ArrayList<>(30);
-    private final LinkedList<AbstractEntity> renderAppendix = new LinkedList<>();
+    private final ArrayList<AbstractEntity> renderAppendix = new ArrayList<>(10);
+    /**
+     * temporaries to avoid allocation every frame
+     */
+    private final Vector2 tmpVec2 = new Vector2();
+    /**
+     * the interpolated position of the focus entity
+     */
+    private final Point tmpFocus = new Point(0, 0, 0);
+    private final Vector3 tmpVec3 = new Vector3(), tmpVec3b = new Vector3();
+    private final Color tmpColor = new Color();
+    private Sprite damageOverlaySprite;
     /**
      * top limit in game space
      */
@@ -132,6 +153,26 @@ public class Camera {
      */
     private int loadingRadius = 10;
     private int id;
+    /**
+     * the camera which builds the depth list rendered by this camera. Is this camera if it builds its own.
+     */
+    private Camera depthListSource = this;
+    /**
+     * cameras which render the depth list of this camera
+     */
+    private final ArrayList<Camera> depthListSharedWith = new ArrayList<>(5);
+    /**
+     * true if the depth list was already built by the {@link GameView} this frame
+     */
+    private boolean depthListPrepared;
+    /**
+     * the area in view space covered by the depth list. Larger than the view frustum if the list is shared.
+     */
+    private float areaLeft, areaRight, areaBottom, areaTop;
+    /**
+     * if true {@link #inViewFrustum(int, int)} checks against the depth list area
+     */
+    private boolean useDepthListArea;
 
     /**
      * Creates a fullscale camera pointing at the middle of the map.
@@ -267,19 +308,21 @@ public class Camera {
     public final void update(float dt) {
         if (active) {
             if (focusEntity != null && focusEntity.hasPosition()) {
-                //update camera's position according to focusEntity
-                Vector2 newPos = new Vector2(
-                        focusEntity.getPosition().getViewSpcX(),
-                        (int) (focusEntity.getPosition().getViewSpcY()
-                                + focusEntity.getDimensionZ() * RenderCell.ZAXISSHORTENING / 2)//have middle of object in center
-                );
+                //update camera's position according to focusEntity where it is rendered
+                Point focus = focusEntity.getPosition();
+                if (WE.getGameplay() != null && WE.getGameplay().getSimulationClock().getInterpolatedPosition(focusEntity, tmpFocus)) {
+                    focus = tmpFocus;
+                }
+                float newPosX = focus.getViewSpcX();
+                float newPosY = (int) (focus.getViewSpcY()
+                        + focusEntity.getDimensionZ() * RenderCell.ZAXISSHORTENING / 2);//have middle of object in center
 
                 //only follow if outside leap radius
-                if (position.dst(newPos) > WE.getCVars().getValueI("CameraLeapRadius")) {
-                    Vector2 diff = position.cpy().sub(newPos);
+                if (position.dst(newPosX, newPosY) > WE.getCVars().getValueI("CameraLeapRadius")) {
+                    Vector2 diff = tmpVec2.set(position).sub(newPosX, newPosY);
                     diff.nor().scl(WE.getCVars().getValueI("CameraLeapRadius"));
-                    position.x = newPos.x;
-                    position.y = newPos.y;
+                    position.x = newPosX;
+                    position.y = newPosY;
                     position.add(diff);
                 }
             }
@@ -299,8 +342,8 @@ public class Camera {
 
             //move camera to the focus
             viewMat.setToLookAt(
-                    new Vector3(position, 0),
-                    new Vector3(position, -1),
+                    tmpVec3.set(position, 0),
+                    tmpVec3b.set(position, -1),
                     up
             );
 
@@ -449,49 +492,58 @@ public class Camera {
             );
 
             //render map
-            createDepthList();
+            if (!depthListPrepared) {
+                createDepthList();
+            }
+            depthListPrepared = false;
+            ArrayList<Renderable> depthlist = depthListSource.depthlist;
+            boolean shared = depthListSource != this || !depthListSharedWith.isEmpty();
 
             Gdx.gl20.glEnable(GL_BLEND); // Enable the OpenGL Blending functionality
             //Gdx.gl20.glBlendFunc(GL_SRC_ALPHA, GL20.GL_CONSTANT_COLOR);
 
+            //far terrain behind and beside the detailed chunks
+            view.getFarTerrain().render(view.getShapeRenderer(), view.getRenderStorage(), this, false);
+
             view.setDebugRendering(false);
             view.getSpriteBatch().begin();
             //send a Vector4f to GLSL
             if (WE.getCVars().getValueB("enablelightengine")) {
+                Point center = getCenter();
                 view.getShader().setUniformf(
                         "sunNormal",
-                        Controller.getLightEngine().getSun(getCenter()).getNormal()
+                        Controller.getLightEngine().getSun(center).getNormal(tmpVec3)
                 );
                 view.getShader().setUniformf(
                         "sunColor",
-                        Controller.getLightEngine().getSun(getCenter()).getLight()
+                        Controller.getLightEngine().getSun(center).getLight(tmpColor)
                 );
 
-                if (Controller.getLightEngine().getMoon(getCenter()) == null) {
+                if (Controller.getLightEngine().getMoon(center) == null) {
                     view.getShader().setUniformf(
                             "moonNormal",
-                            new Vector3()
+                            NO_NORMAL
                     );
                     view.getShader().setUniformf(
                             "moonColor",
-                            new Color()
+                            NO_COLOR
                     );
                     view.getShader().setUniformf(
                             "ambientColor",
-                            new Color()
+                            NO_COLOR
                     );
                 } else {
                     view.getShader().setUniformf(
                             "moonNormal",
-                            Controller.getLightEngine().getMoon(getCenter()).getNormal()
+                            Controller.getLightEngine().getMoon(center).getNormal(tmpVec3)
                     );
                     view.getShader().setUniformf(
                             "moonColor",
-                            Controller.getLightEngine().getMoon(getCenter()).getLight()
+                            Controller.getLightEngine().getMoon(center).getLight(tmpColor)
                     );
                     view.getShader().setUniformf(
                             "ambientColor",
-                            Controller.getLightEngine().getAmbient(getCenter())
+                            Controller.getLightEngine().getAmbient(center, tmpColor)
                     );
                 }
             }
@@ -509,19 +561,42 @@ public class Camera {
             RenderCell.setStaticShade(WE.getCVars().getValueB("enableAutoShade"));
             SideSprite.setAO(WE.getCVars().getValueF("ambientOcclusion"));
 
+            boolean picking = WE.getCVars().getValueB("pickingBuffer");
+            if (picking) {
+                pickingBuffer.begin(
+                        position.x - getWidthInProjSpc() / 2,
+                        position.y - getHeightInProjSpc() / 2,
+                        getWidthInProjSpc(),
+                        getHeightInProjSpc()
+                );
+            } else {
+                pickingBuffer.invalidate();
+            }
+
             //render vom bottom to top
-            for (Renderable obj : depthlist) {
-                obj.render(view, camera);
+            for (int i = 0; i < depthlist.size(); i++) {
+                Renderable obj = depthlist.get(i);
+                if (!shared || inViewFrustum(obj.getPosition().getViewSpcX(), obj.getPosition().getViewSpcY())) {
+                    obj.render(view, camera);
+                    if (picking) {
+                        pickingBuffer.add(obj);
+                    }
+                }
             }
             view.getSpriteBatch().end();
 
+            //far terrain in front of the detailed chunks
+            view.getFarTerrain().render(view.getShapeRenderer(), view.getRenderStorage(), this, true);
+
             //if debugging render outline again
             if (WE.getCVars().getValueB("DevDebugRendering")) {
                 view.setDebugRendering(true);
                 view.getSpriteBatch().begin();
                 //render vom bottom to top
                 for (Renderable obj : depthlist) {
-                    obj.render(view, camera);
+                    if (!shared || inViewFrustum(obj.getPosition().getViewSpcX(), obj.getPosition().getViewSpcY())) {
+                        obj.render(view, camera);
+                    }
                 }
                 view.getSpriteBatch().end();
             }
@@ -533,8 +608,11 @@ public class Camera {
             if (damageOverlay > 0.0f) {
                 //WE.getEngineView().getSpriteBatch().setShader(new custom shader);
                 WE.getEngineView().getSpriteBatch().begin();
-                Texture texture = WE.getAsset("com/bombinggames/wurfelengine/core/images/bloodblur.png");
-                Sprite overlay = new Sprite(texture);
+                if (damageOverlaySprite == null) {
+                    Texture texture = WE.getAsset("com/bombinggames/wurfelengine/core/images/bloodblur.png");
+                    damageOverlaySprite = new Sprite(texture);
+                }
+                Sprite overlay = damageOverlaySprite;
                 overlay.setOrigin(0, 0);
                 //somehow reverse the viewport transformation, needed for split-screen
                 overlay.setSize(
@@ -545,16 +623,80 @@ public class Camera {
                 overlay.draw(WE.getEngineView().getSpriteBatch());
                 WE.getEngineView().getSpriteBatch().end();
             }
+        } else {
+            pickingBuffer.invalidate();
         }
     }
 
+    /**
+     * The front-most objects of the last rendered frame.
+     *
+     * @return
+     */
+    PickingBuffer getPickingBuffer() {
+        return pickingBuffer;
+    }
+
     /**
      * Fills the cameracontent plus entities into a list and sorts it in the order of the rendering,
      * called the "depthlist". This is done every frame.
-     *
-     * @return the depthlist
      */
     private void createDepthList() {
+        resetDepthListArea();
+        prepareDepthList();
+        sortDepthList();
+        finishDepthList();
+    }
+
+    /**
+     * Resets the depth list area to the view frustum. The camera then builds its own depth list.
+     */
+    void resetDepthListArea() {
+        areaLeft = position.x - getWidthInProjSpc() / 2;
+        areaRight = position.x + getWidthInProjSpc() / 2;
+        areaBottom = position.y - getHeightInProjSpc() / 2;
+        areaTop = position.y + getHeightInProjSpc() / 2;
+        depthListSource = this;
+        depthListSharedWith.clear();
+    }
+
+    /**
+     * This camera builds the depth list for the other camera and every camera the other one shared with. The depth list area gets extended.
+     *
+     * @param other
+     */
+    void shareDepthList(Camera other) {
+        areaLeft = Math.min(areaLeft, other.areaLeft);
+        areaRight = Math.max(areaRight, other.areaRight);
+        areaBottom = Math.min(areaBottom, other.areaBottom);
+        areaTop = Math.max(areaTop, other.areaTop);
+        depthListSharedWith.add(other);
+        other.depthListSource = this;
+        for (Camera camera : other.depthListSharedWith) {
+            depthListSharedWith.add(camera);
+            camera.depthListSource = this;
+        }
+        other.depthListSharedWith.clear();
+    }
+
+    /**
+     * Checks if an object can be visible in both depth list areas.
+     *
+     * @param other
+     * @return true if the depth lists can contain the same objects
+     */
+    boolean depthListAreaOverlaps(Camera other) {
+        return areaLeft - RenderCell.VIEW_WIDTH2 < other.areaRight + RenderCell.VIEW_WIDTH2
+                && other.areaLeft - RenderCell.VIEW_WIDTH2 < areaRight + RenderCell.VIEW_WIDTH2
+                && areaBottom - RenderCell.VIEW_HEIGHT2 - RenderCell.VIEW_DEPTH < other.areaTop + RenderCell.VIEW_HEIGHT * 2
+                && other.areaBottom - RenderCell.VIEW_HEIGHT2 - RenderCell.VIEW_DEPTH < areaTop + RenderCell.VIEW_HEIGHT * 2;
+    }
+
+    /**
+     * First step of building the depth list. Adds the entities inside the depth list area to the cells above them. Must run on the main thread.
+     */
+    void prepareDepthList() {
+        useDepthListArea = true;
         depthlist.clear();
         maxsprites = WE.getCVars().getValueI("MaxSprites");
 
@@ -568,10 +710,11 @@ public class Camera {
         ArrayList<RenderCell> modifiedCells = this.modifiedCells;
         modifiedCells.clear();
         modifiedCells.ensureCapacity(ents.size());
-        LinkedList<AbstractEntity> renderAppendix = this.renderAppendix;
+        ArrayList<AbstractEntity> renderAppendix = this.renderAppendix;
         renderAppendix.clear();
 
-        for (AbstractEntity ent : ents) {
+        for (int i = 0; i < ents.size(); i++) {
+            AbstractEntity ent = ents.get(i);
             if (ent.hasPosition()
                     && !ent.isHidden()
                     && inViewFrustum(ent.getPosition().getViewSpcX(),
@@ -591,13 +734,30 @@ public class Camera {
             }
         }
 
-        //iterate over renderstorage
+        //particles are added in groups per cell
+        Controller.getMap().getParticleSystem().addToDepthList(this, gameView.getRenderStorage(), zRenderingLimit, modifiedCells, renderAppendix);
+    }
+
+    /**
+     * Second step of building the depth list. Sorts the cells around the center of this camera and every camera sharing the list. May run on a worker thread if the depth list areas of the building cameras do not overlap.
+     */
+    void sortDepthList() {
         objectsToBeRendered = 0;
-        //clear/reset flags
+        sortChunksAround(centerChunkX, centerChunkY);
+        for (int i = 0; i < depthListSharedWith.size(); i++) {
+            Camera other = depthListSharedWith.get(i);
+            //the 3x3 chunks around the center of the other camera may not be visited yet
+            if (other.centerChunkX != centerChunkX || other.centerChunkY != centerChunkY) {
+                sortChunksAround(other.centerChunkX, other.centerChunkY);
+            }
+        }
+    }
+
+    private void sortChunksAround(int chunkX, int chunkY) {
         CameraSpaceIterator iterator = new CameraSpaceIterator(
                 gameView.getRenderStorage(),
-                centerChunkX,
-                centerChunkY,
+                chunkX,
+                chunkY,
                 0,
                 Chunk.getBlocksZ() - 1
         );
@@ -614,10 +774,23 @@ public class Camera {
                 }
             }
         }
-        for (RenderCell modifiedCell : modifiedCells) {
-            modifiedCell.clearCoveredEnts();
+    }
+
+    /**
+     * Last step of building the depth list. Removes the entities from the cells. Must run on the main thread.
+     */
+    void finishDepthList() {
+        for (int i = 0; i < modifiedCells.size(); i++) {
+            modifiedCells.get(i).clearCoveredEnts();
+        }
+        for (int i = 0; i < renderAppendix.size(); i++) {
+            depthlist.add(renderAppendix.get(i));//render every entity which has not parent block at the end
+        }
+        useDepthListArea = false;
+        depthListPrepared = true;
+        for (Camera camera : depthListSharedWith) {
+            camera.depthListPrepared = true;
         }
-        depthlist.addAll(renderAppendix);//render every entity which has not parent block at the end
     }
 
     /**
@@ -627,10 +800,11 @@ public class Camera {
      */
     private void visit(AbstractGameObject n) {
         if (!n.isMarkedDS(id)) {
-            LinkedList<AbstractGameObject> covered = n.getCovered(gameView.getRenderStorage());
+            List<AbstractGameObject> covered = n.getCovered(gameView.getRenderStorage());
             if (covered.size() > 0) {
                 n.markPermanentDS(id);
-                for (AbstractGameObject m : covered) {
+                for (int i = 0; i < covered.size(); i++) {
+                    AbstractGameObject m = covered.get(i);
                     if (inViewFrustum(
                             m.getPosition().getViewSpcX(),
                             m.getPosition().getViewSpcY()
@@ -657,6 +831,12 @@ public class Camera {
      * @return
      */
     public boolean inViewFrustum(int proX, int proY) {
+        if (useDepthListArea) {
+            return areaTop > proY - RenderCell.VIEW_HEIGHT * 2//bottom of sprite
+                    && proY + RenderCell.VIEW_HEIGHT2 + RenderCell.VIEW_DEPTH > areaBottom//top of sprite
+                    && proX + RenderCell.VIEW_WIDTH2 > areaLeft//right side of sprite
+                    && proX - RenderCell.VIEW_WIDTH2 < areaRight;//left side of sprite
+        }
         return
                 (position.y + getHeightInProjSpc() / 2)
                         >
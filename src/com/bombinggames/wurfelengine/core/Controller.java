@@ -48,6 +48,7 @@ import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
 
 /**
  * A controller manages the map and the game data.
@@ -58,6 +59,10 @@ public class Controller implements GameManager {
 
     private static LightEngine lightEngine;
     private static Map map;
+    /**
+     * maps bound to a thread instead of the global map
+     */
+    private static final ThreadLocal<Map> boundMap = new ThreadLocal<>();
     private final SelectionIndicator selectionIndicator = new SelectionIndicator();
     private final Command[] commandHistory = new Command[WE.getCVars().getValueI("undohistorySize")];
     private DevTools devtools;
@@ -73,11 +78,22 @@ public class Controller implements GameManager {
      * @param dt
      */
     public static void staticUpdate(float dt) {
+        staticUpdate(dt, dt);
+    }
+
+    /**
+     * update every static update method
+     *
+     * @param dt
+     * @param rawDelta time in ms without game speed for entities using the raw delta
+     */
+    public static void staticUpdate(float dt, float rawDelta) {
         if (lightEngine != null) {
             lightEngine.update(dt);
         }
-        map.update(dt);
-        map.modificationCheck();
+        Map current = getMap();
+        current.update(dt, rawDelta);
+        current.modificationCheck();
     }
 
     /**
@@ -109,6 +125,10 @@ public class Controller implements GameManager {
      * @return the map
      */
     public static Map getMap() {
+        Map bound = boundMap.get();
+        if (bound != null) {
+            return bound;
+        }
         if (map == null) {
             throw new NullPointerException("There is no map yet.");
         } else {
@@ -116,6 +136,77 @@ public class Controller implements GameManager {
         }
     }
 
+    /**
+     * Binds a map to the current thread. {@link #getMap()} then returns this map on this thread instead of the global map. Used to simulate several maps in parallel.
+     *
+     * @param map null to use the global map again
+     * @see MessageManager#bind(MessageManager)
+     */
+    public static void bindMap(Map map) {
+        //set instead of remove so that binding again does not allocate an entry
+        boundMap.set(map);
+    }
+
+    /**
+     * @return the map bound to the current thread, null if the global map is used
+     */
+    public static Map getBoundMap() {
+        return boundMap.get();
+    }
+
+    /**
+     * Wraps a task for a worker thread so that it runs with the map and the messages bound to the calling thread.
+     *
+     * @param <T>
+     * @param task
+     * @return the task itself if nothing is bound
+     */
+    public static <T> Callable<T> bindTask(Callable<T> task) {
+        Map map = boundMap.get();
+        MessageManager messages = MessageManager.getBound();
+        if (map == null && messages == null) {
+            return task;
+        }
+        return () -> {
+            Map previousMap = boundMap.get();
+            MessageManager previousMessages = MessageManager.getBound();
+            bindMap(map);
+            MessageManager.bind(messages);
+            try {
+                return task.call();
+            } finally {
+                bindMap(previousMap);
+                MessageManager.bind(previousMessages);
+            }
+        };
+    }
+
+    /**
+     * Wraps a task for another thread so that it runs with the map and the messages bound to the calling thread.
+     *
+     * @param task
+     * @return the task itself if nothing is bound
+     */
+    public static Runnable bindTask(Runnable task) {
+        Map map = boundMap.get();
+        MessageManager messages = MessageManager.getBound();
+        if (map == null && messages == null) {
+            return task;
+        }
+        return () -> {
+            Map previousMap = boundMap.get();
+            MessageManager previousMessages = MessageManager.getBound();
+            bindMap(map);
+            MessageManager.bind(messages);
+            try {
+                task.run();
+            } finally {
+                bindMap(previousMap);
+                MessageManager.bind(previousMessages);
+            }
+        };
+    }
+
     /**
      * @param map
      */
@@ -138,6 +229,9 @@ public class Controller implements GameManager {
      * @param le
      */
     public static void setLightEngine(LightEngine le) {
+        if (lightEngine != null && lightEngine != le) {
+            lightEngine.dispose();
+        }
         lightEngine = le;
     }
 
@@ -150,6 +244,9 @@ public class Controller implements GameManager {
         RenderCell.staticDispose();
         map.dispose(false);
         map = null;
+        if (lightEngine != null) {
+            lightEngine.dispose();
+        }
         lightEngine = null;
     }
 
@@ -34,7 +34,9 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.bombinggames.wurfelengine.WE;
 import com.bombinggames.wurfelengine.core.gameobjects.AbstractGameObject;
+import com.bombinggames.wurfelengine.core.map.EntityScheduler;
 import com.bombinggames.wurfelengine.mapeditor.EditorView;
 
 import java.text.DecimalFormat;
@@ -110,6 +112,14 @@ public class DevTools {
             //draw FPS-String
             view.drawString("FPS: " + Gdx.graphics.getFramesPerSecond(), 15, 15, true);
             view.drawString("Drawcalls: " + AbstractGameObject.getDrawCalls(), 15, 30, true);
+            if (WE.getGameplay() != null) {
+                SimulationClock clock = WE.getGameplay().getSimulationClock();
+                view.drawString("Simulation: " + clock.getLastSimulationTime() / 1000 / 1000f + " ms, " + clock.getLastTicks() + " ticks", 15, 45, true);
+            }
+            if (Controller.getMap() != null) {
+                EntityScheduler scheduler = Controller.getMap().getEntityScheduler();
+                view.drawString("Entities: " + scheduler.getUpdated() + " updated, " + scheduler.getSkipped() + " skipped, " + scheduler.getSleeping() + " sleeping, " + Controller.getMap().getParticleSystem().getCount() + " particles", 15, 60, true);
+            }
 
             //draw diagramm
             ShapeRenderer shr = view.getShapeRenderer();
@@ -89,7 +89,22 @@ public enum Events {
 
     mapChanged(22),
 
-    mapReloaded(23);
+    mapReloaded(23),
+
+    /**
+     * the light of point lights changed. extra information contains the changed box as int[]{minX, minY, minZ, maxX, maxY, maxZ}
+     */
+    lightChanged(24),
+
+    /**
+     * the sun shadows of a chunk changed. extra information contains the {@link com.bombinggames.wurfelengine.core.map.Chunk}
+     */
+    sunShadowChanged(25),
+
+    /**
+     * blocks were changed in a {@link com.bombinggames.wurfelengine.core.map.Map#beginEdit()} block. extra information contains the changed box as int[]{minX, minY, minZ, maxX, maxY, maxZ}, which is reused and only valid while the message is handled
+     */
+    blocksChanged(26);
 
     private final int id;
 
@@ -0,0 +1,169 @@
+/*
+ * If this software is used for a game the official „Wurfel Engine“ logo or its name must be visible in an intro screen or main menu.
+ *
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, 
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice, 
+ *   this list of conditions and the following disclaimer in the documentation 
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors 
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core;
+
+import com.bombinggames.wurfelengine.WE;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the time and the bytes allocated by the main thread during the update and render path of a frame. Counting bytes uses the thread allocation counter of the JVM if supported.
+ *
+ * @author agent
+ */
+public class FrameProfiler {
+
+    private static final com.sun.management.ThreadMXBean THREADBEAN;
+
+    static {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            THREADBEAN = (com.sun.management.ThreadMXBean) bean;
+            THREADBEAN.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            THREADBEAN = null;
+        }
+    }
+
+    private static long frameStart;
+    private static long frameStartTime;
+    private static long lastFrame;
+    private static long lastFrameTime;
+    /**
+     * frames left to record. If 0 not recording.
+     */
+    private static int framesLeft;
+    private static int warmupLeft;
+    private static int recordedFrames;
+    private static long recordedTotal;
+    private static long recordedMax;
+    private static long recordedTime;
+    private static long recordedMaxTime;
+    private static long threshold;
+
+    /**
+     * @return true if the JVM can count the allocated bytes per thread
+     */
+    public static boolean isSupported() {
+        return THREADBEAN != null;
+    }
+
+    /**
+     * Call before the update of a frame.
+     */
+    public static void beginFrame() {
+        frameStartTime = System.nanoTime();
+        if (THREADBEAN != null) {
+            frameStart = THREADBEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+
+    /**
+     * Call after the rendering of a frame.
+     */
+    public static void endFrame() {
+        lastFrameTime = System.nanoTime() - frameStartTime;
+        if (THREADBEAN != null) {
+            lastFrame = THREADBEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - frameStart;
+        }
+        if (warmupLeft > 0) {
+            warmupLeft--;
+        } else if (framesLeft > 0) {
+            recordedFrames++;
+            recordedTotal += lastFrame;
+            if (lastFrame > recordedMax) {
+                recordedMax = lastFrame;
+            }
+            recordedTime += lastFrameTime;
+            if (lastFrameTime > recordedMaxTime) {
+                recordedMaxTime = lastFrameTime;
+            }
+            framesLeft--;
+            if (framesLeft == 0) {
+                report();
+            }
+        }
+    }
+
+    /**
+     * Starts a recording. The result is printed to the console.
+     *
+     * @param frames              amount of frames to record
+     * @param warmup              amount of frames skipped before recording
+     * @param maxBytesPerFrame    the recording fails if one frame allocates more. If negative only the numbers are reported.
+     */
+    public static void record(int frames, int warmup, long maxBytesPerFrame) {
+        framesLeft = frames;
+        warmupLeft = warmup;
+        threshold = maxBytesPerFrame;
+        recordedFrames = 0;
+        recordedTotal = 0;
+        recordedMax = 0;
+        recordedTime = 0;
+        recordedMaxTime = 0;
+    }
+
+    /**
+     * @return true if currently recording
+     */
+    public static boolean isRecording() {
+        return framesLeft > 0;
+    }
+
+    /**
+     * @return bytes allocated in the last frame by the main thread
+     */
+    public static long getLastFrame() {
+        return lastFrame;
+    }
+
+    /**
+     * @return update and render time of the last frame in ns
+     */
+    public static long getLastFrameTime() {
+        return lastFrameTime;
+    }
+
+    private static void report() {
+        String time = "avg " + (recordedTime / recordedFrames) / 1e6f + " ms/frame, max " + recordedMaxTime / 1e6f + " ms/frame";
+        if (threshold < 0) {
+            WE.getConsole().add(recordedFrames + " frames, " + time + "\n", "System");
+            return;
+        }
+        long avg = recordedTotal / recordedFrames;
+        boolean passed = recordedMax <= threshold;
+        WE.getConsole().add(
+                (passed ? "passed" : "FAILED") + ": " + recordedFrames + " frames, avg " + avg + " B/frame, max " + recordedMax + " B/frame, limit " + threshold + " B/frame, " + time + "\n",
+                "System"
+        );
+    }
+}
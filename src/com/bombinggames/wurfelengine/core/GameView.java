@@ -45,15 +45,23 @@ import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.viewport.StretchViewport;
 import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.gameobjects.AbstractEntity;
 import com.bombinggames.wurfelengine.core.gameobjects.AbstractGameObject;
 import com.bombinggames.wurfelengine.core.map.Chunk;
 import com.bombinggames.wurfelengine.core.map.Intersection;
 import com.bombinggames.wurfelengine.core.map.LoadMenu;
 import com.bombinggames.wurfelengine.core.map.Point;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+import com.bombinggames.wurfelengine.core.map.rendering.FarTerrain;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderStorage;
 
 import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -68,10 +76,19 @@ public class GameView implements GameManager {
      * saves the amount of active cameras
      */
     private static int cameraIdCounter = 0;
+    /**
+     * worker threads sorting the depth lists of cameras with disjoint views
+     */
+    private ExecutorService depthListExecutor;
     /**
      * the cameras rendering the scene
      */
     private final ArrayList<Camera> cameras = new ArrayList<>(6);//max 6 cameras
+    /**
+     * the cameras building a depth list in the current frame
+     */
+    private final ArrayList<Camera> depthListBuilders = new ArrayList<>(6);
+    private final ArrayList<Callable<Object>> depthListTasks = new ArrayList<>(6);
     private final SpriteBatch spriteBatch = new SpriteBatch(2000);
     /**
      * true if current rendering is debug only
@@ -101,6 +118,10 @@ public class GameView implements GameManager {
     private float gameSpeed = 1f;
     private boolean useDefaultShader;
     private RenderStorage renderstorage;
+    /**
+     * coarse terrain outside the render storage
+     */
+    private FarTerrain farTerrain;
 
     /**
      * Shoud be called before the object get initialized.
@@ -151,6 +172,11 @@ public class GameView implements GameManager {
 
         renderstorage = new RenderStorage();
         MessageManager.getInstance().addListener(renderstorage, Events.mapChanged.getId());
+        MessageManager.getInstance().addListener(renderstorage, Events.lightChanged.getId());
+        MessageManager.getInstance().addListener(renderstorage, Events.blocksChanged.getId());
+        MessageManager.getInstance().addListener(renderstorage, Events.sunShadowChanged.getId());
+        farTerrain = new FarTerrain();
+        MessageManager.getInstance().addListener(farTerrain, Events.chunkChanged.getId());
         initalized = true;
     }
 
@@ -292,6 +318,7 @@ public class GameView implements GameManager {
         }
         if (cameraactive) {
             renderstorage.update(dt);
+            farTerrain.update(cameras);
         }
 
         // toggle the dev menu?
@@ -306,9 +333,85 @@ public class GameView implements GameManager {
         return renderstorage;
     }
 
+    /**
+     * @return the coarse terrain rendered outside the render storage
+     */
+    public FarTerrain getFarTerrain() {
+        return farTerrain;
+    }
+
+    /**
+     * Builds the depth lists of every active camera before rendering. Cameras with overlapping views share one depth list which each camera filters with its frustum. Groups of cameras with disjoint views sort their depth lists in parallel.
+     */
+    private void createDepthLists() {
+        ArrayList<Camera> builders = depthListBuilders;
+        builders.clear();
+        for (Camera camera : cameras) {
+            if (camera.isEnabled()) {
+                camera.resetDepthListArea();
+                builders.add(camera);
+            }
+        }
+
+        //merge cameras until every depth list area is disjoint
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < builders.size() && !merged; i++) {
+                for (int j = i + 1; j < builders.size() && !merged; j++) {
+                    if (builders.get(i).depthListAreaOverlaps(builders.get(j))) {
+                        builders.get(i).shareDepthList(builders.remove(j));
+                        merged = true;
+                    }
+                }
+            }
+        }
+
+        //entities are added to the cells on the main thread
+        for (Camera camera : builders) {
+            camera.prepareDepthList();
+        }
+
+        if (builders.size() > 1) {
+            if (depthListExecutor == null) {
+                depthListExecutor = Executors.newFixedThreadPool(
+                        Math.min(Runtime.getRuntime().availableProcessors(), 6),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "depthList");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                );
+            }
+            depthListTasks.clear();
+            for (Camera camera : builders) {
+                depthListTasks.add(Executors.callable(camera::sortDepthList));
+            }
+            try {
+                for (Future<Object> future : depthListExecutor.invokeAll(depthListTasks)) {
+                    future.get();
+                }
+            } catch (InterruptedException | ExecutionException ex) {
+                Logger.getLogger(GameView.class.getName()).log(Level.SEVERE, null, ex);
+            }
+        } else {
+            for (Camera camera : builders) {
+                camera.sortDepthList();
+            }
+        }
+
+        for (Camera camera : builders) {
+            camera.finishDepthList();
+        }
+    }
+
     public void setRenderStorage(RenderStorage renderstorage) {
-        if (this.renderstorage != null)
+        if (this.renderstorage != null) {
             MessageManager.getInstance().removeListener(this.renderstorage, Events.mapChanged.getId());
+            MessageManager.getInstance().removeListener(this.renderstorage, Events.lightChanged.getId());
+            MessageManager.getInstance().removeListener(this.renderstorage, Events.blocksChanged.getId());
+            MessageManager.getInstance().removeListener(this.renderstorage, Events.sunShadowChanged.getId());
+        }
         this.renderstorage = renderstorage;
     }
 
@@ -331,6 +434,9 @@ public class GameView implements GameManager {
             drawString("No camera set up", Gdx.graphics.getWidth() / 2, Gdx.graphics.getHeight() / 2, Color.BLACK.cpy());
         } else {
             setShader(getShader());
+            if (WE.getCVars().getValueB("shareDepthList") && Controller.getMap() != null) {
+                createDepthLists();
+            }
             for (Camera camera : cameras) {
                 camera.render(this, camera);
             }
@@ -407,15 +513,7 @@ public class GameView implements GameManager {
      */
     public Point screenToGameBasic(final int x, final int y) {
         if (cameras.size() > 0) {
-            //identify clicked camera
-            Camera camera;
-            int i = 0;
-            do {
-                camera = cameras.get(i);
-                i++;
-            }
-            while (i < cameras.size() && !(x > camera.getScreenPosX() && x < camera.getScreenPosX() + camera.getWidthInScreenSpc() && y > camera.getScreenPosY() && y < camera.getScreenPosY() + camera.getHeightInScreenSpc()));
-
+            Camera camera = getCameraAt(x, y);
             //find points
             return new Point(screenXtoView(x, camera), screenYtoView(y, camera) * -2, 0);
         } else {
@@ -423,6 +521,24 @@ public class GameView implements GameManager {
         }
     }
 
+    /**
+     * identify clicked camera
+     *
+     * @param x screen space
+     * @param y screen space
+     * @return the last camera if none contains the position
+     */
+    private Camera getCameraAt(final int x, final int y) {
+        Camera camera;
+        int i = 0;
+        do {
+            camera = cameras.get(i);
+            i++;
+        }
+        while (i < cameras.size() && !(x > camera.getScreenPosX() && x < camera.getScreenPosX() + camera.getWidthInScreenSpc() && y > camera.getScreenPosY() && y < camera.getScreenPosY() + camera.getHeightInScreenSpc()));
+        return camera;
+    }
+
     /**
      * Returns the approximated game position belonging to a point on the screen. Does raytracing to find the intersection. Because information is lost if you do game to screen reverting this can only be done by approximating what happens in view -&gt; game. First does screen -&gt; view and then via raytracing view -&gt; game.
      *
@@ -437,6 +553,13 @@ public class GameView implements GameManager {
             float deltaZ = Chunk.getGameHeight() - RenderCell.GAME_EDGELENGTH - p.getZ();
             p.add(0, deltaZ * Point.SQRT2, deltaZ);//top of map
 
+            //look up the front-most cells of the last frame
+            Camera camera = getCameraAt(x, y);
+            Intersection picked = camera.getPickingBuffer().pick(screenXtoView(x, camera), screenYtoView(y, camera), p);
+            if (picked != null) {
+                return picked;
+            }
+
             return p.rayMarching(new Vector3(0, -1, -RenderCell.ZAXISSHORTENING),//shoot in viewing direction, can not find correct vector: todo. Was -Point.SQRT12
                     Float.POSITIVE_INFINITY, this, null);
         } else {
@@ -444,6 +567,42 @@ public class GameView implements GameManager {
         }
     }
 
+    /**
+     * Finds the front-most entity under a point on the screen.
+     *
+     * @param x      the x position on the screen from left
+     * @param y      the y position on the screen from bottom
+     * @param filter can be null
+     * @return null if there is no entity
+     */
+    public AbstractEntity screenToEntity(final int x, final int y, Predicate<AbstractEntity> filter) {
+        if (cameras.isEmpty()) {
+            return null;
+        }
+        Camera camera = getCameraAt(x, y);
+        float viewX = screenXtoView(x, camera);
+        float viewY = screenYtoView(y, camera);
+        PickingBuffer buffer = camera.getPickingBuffer();
+        if (buffer.isValid()) {
+            AbstractEntity picked = buffer.pickEntity(viewX, viewY, filter);
+            //if the remembered entities were filtered out a dropped one may match
+            if (picked != null || !buffer.hasDroppedEntities(viewX, viewY)) {
+                return picked;
+            }
+        }
+        AbstractEntity found = null;
+        for (AbstractEntity ent : Controller.getMap().getEntities()) {
+            if (ent.hasPosition()
+                    && ent.getSpriteId() > 0
+                    && ent.getSpriteValue() > -1
+                    && PickingBuffer.isUnder(ent, viewX, viewY)
+                    && (filter == null || filter.test(ent))) {
+                found = ent;
+            }
+        }
+        return found;
+    }
+
     /**
      * Not a homomorphism, which means f(a*b) != f(a)*f(b)
      *
@@ -619,14 +778,23 @@ public class GameView implements GameManager {
         for (Camera camera : cameras) {
             camera.dispose();
         }
-        if (this.renderstorage != null)
+        if (this.renderstorage != null) {
             MessageManager.getInstance().removeListener(this.renderstorage, Events.mapChanged.getId());
+            MessageManager.getInstance().removeListener(this.renderstorage, Events.lightChanged.getId());
+            MessageManager.getInstance().removeListener(this.renderstorage, Events.blocksChanged.getId());
+            MessageManager.getInstance().removeListener(this.renderstorage, Events.sunShadowChanged.getId());
+        }
         renderstorage.dispose();
+        farTerrain.dispose();
         shRenderer.dispose();
         spriteBatch.dispose();
         stage.dispose();
 
         cameraIdCounter = 0;
+        if (depthListExecutor != null) {
+            depthListExecutor.shutdown();
+            depthListExecutor = null;
+        }
     }
 
 }
\ No newline at end of file
@@ -56,6 +56,7 @@ public class GameplayScreen extends WEScreen {
     private EditorView editorView;
     private LoadingScreen loadingScreen;
     private long frameNum;
+    private final SimulationClock simulationClock = new SimulationClock();
 
     /**
      * Create the gameplay state. This shows the loading screen.
@@ -110,18 +111,28 @@ public class GameplayScreen extends WEScreen {
     @Override
     public void renderImpl(final float delta) {
         frameNum++;
+        FrameProfiler.beginFrame();
 
         //aply game world speed
-        float dt = delta * WE.getCVars().getValueF("timespeed");
+        float timespeed = WE.getCVars().getValueF("timespeed");
+        float dt = delta * timespeed;
         //update data
         MessageManager.getInstance().update(delta);
         view.preUpdate(dt);
         controller.update(dt);
-        Controller.staticUpdate(dt);
+        //simulate in fixed ticks, entities using the raw delta run in real time
+        simulationClock.beginFrame(delta);
+        while (simulationClock.nextTick()) {
+            Controller.staticUpdate(simulationClock.getTickDelta() * timespeed, simulationClock.getTickDelta());
+        }
+        simulationClock.endFrame();
         view.update(dt);
         getMap().postUpdate(dt);//hack to prevent 1-frame lag by too late write access via view update
-        //render data
+        //render data, the view and map updates work on the simulated positions
+        simulationClock.beginInterpolation();
         view.render();
+        simulationClock.endInterpolation();
+        FrameProfiler.endFrame();
         WE.getEngineView().getStage().draw();
     }
 
@@ -161,6 +172,15 @@ public class GameplayScreen extends WEScreen {
     }
 
 
+    /**
+     * The clock running the simulation ticks.
+     *
+     * @return
+     */
+    public SimulationClock getSimulationClock() {
+        return simulationClock;
+    }
+
     /**
      * the number of the current frame
      *
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Audio;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.LifecycleListener;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.backends.lwjgl.LwjglPreferences;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Clipboard;
+import java.util.HashMap;
+
+/**
+ * An application without window, graphics, audio and input. Provides only logging, files and preferences so that the simulation can run without an OpenGL context.
+ *
+ * @author agent
+ * @see HeadlessSimulation
+ */
+public class HeadlessApplication implements Application {
+
+    private final Files files = new LwjglFiles();
+    private final HashMap<String, Preferences> preferences = new HashMap<>(2);
+    private final Array<Runnable> runnables = new Array<>();
+    private final Array<Runnable> executed = new Array<>();
+    private final Array<LifecycleListener> lifecycleListeners = new Array<>();
+    private int logLevel = LOG_INFO;
+
+    /**
+     * Installs the headless application in {@link Gdx} if there is none yet.
+     */
+    public static void install() {
+        if (Gdx.app == null) {
+            HeadlessApplication app = new HeadlessApplication();
+            Gdx.app = app;
+            Gdx.files = app.files;
+        }
+    }
+
+    /**
+     * Runs the runnables posted via {@link #postRunnable(java.lang.Runnable)}.
+     */
+    public void executeRunnables() {
+        synchronized (runnables) {
+            executed.addAll(runnables);
+            runnables.clear();
+        }
+        for (Runnable runnable : executed) {
+            runnable.run();
+        }
+        executed.clear();
+    }
+
+    @Override
+    public ApplicationListener getApplicationListener() {
+        return null;
+    }
+
+    @Override
+    public Graphics getGraphics() {
+        return null;
+    }
+
+    @Override
+    public Audio getAudio() {
+        return null;
+    }
+
+    @Override
+    public Input getInput() {
+        return null;
+    }
+
+    @Override
+    public Files getFiles() {
+        return files;
+    }
+
+    @Override
+    public Net getNet() {
+        return null;
+    }
+
+    @Override
+    public void log(String tag, String message) {
+        if (logLevel >= LOG_INFO) {
+            System.out.println(tag + ": " + message);
+        }
+    }
+
+    @Override
+    public void log(String tag, String message, Throwable exception) {
+        if (logLevel >= LOG_INFO) {
+            System.out.println(tag + ": " + message);
+            exception.printStackTrace(System.out);
+        }
+    }
+
+    @Override
+    public void error(String tag, String message) {
+        if (logLevel >= LOG_ERROR) {
+            System.err.println(tag + ": " + message);
+        }
+    }
+
+    @Override
+    public void error(String tag, String message, Throwable exception) {
+        if (logLevel >= LOG_ERROR) {
+            System.err.println(tag + ": " + message);
+            exception.printStackTrace(System.err);
+        }
+    }
+
+    @Override
+    public void debug(String tag, String message) {
+        if (logLevel >= LOG_DEBUG) {
+            System.out.println(tag + ": " + message);
+        }
+    }
+
+    @Override
+    public void debug(String tag, String message, Throwable exception) {
+        if (logLevel >= LOG_DEBUG) {
+            System.out.println(tag + ": " + message);
+            exception.printStackTrace(System.out);
+        }
+    }
+
+    @Override
+    public void setLogLevel(int logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    @Override
+    public int getLogLevel() {
+        return logLevel;
+    }
+
+    @Override
+    public ApplicationType getType() {
+        return ApplicationType.HeadlessDesktop;
+    }
+
+    @Override
+    public int getVersion() {
+        return 0;
+    }
+
+    @Override
+    public long getJavaHeap() {
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    @Override
+    public long getNativeHeap() {
+        return getJavaHeap();
+    }
+
+    @Override
+    public Preferences getPreferences(String name) {
+        Preferences prefs = preferences.get(name);
+        if (prefs == null) {
+            prefs = new LwjglPreferences(name, ".prefs/");
+            preferences.put(name, prefs);
+        }
+        return prefs;
+    }
+
+    @Override
+    public Clipboard getClipboard() {
+        return null;
+    }
+
+    @Override
+    public void postRunnable(Runnable runnable) {
+        synchronized (runnables) {
+            runnables.add(runnable);
+        }
+    }
+
+    @Override
+    public void exit() {
+        for (LifecycleListener listener : lifecycleListeners) {
+            listener.pause();
+            listener.dispose();
+        }
+    }
+
+    @Override
+    public void addLifecycleListener(LifecycleListener listener) {
+        lifecycleListeners.add(listener);
+    }
+
+    @Override
+    public void removeLifecycleListener(LifecycleListener listener) {
+        lifecycleListeners.removeValue(listener, true);
+    }
+
+}
@@ -0,0 +1,670 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ai.msg.MessageManager;
+import com.badlogic.gdx.math.Vector3;
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.cvar.CVar;
+import com.bombinggames.wurfelengine.core.gameobjects.AbstractEntity;
+import com.bombinggames.wurfelengine.core.gameobjects.BenchmarkBall;
+import com.bombinggames.wurfelengine.core.lightengine.LightEngine;
+import com.bombinggames.wurfelengine.core.lightengine.LightingTable;
+import com.bombinggames.wurfelengine.core.map.AbstractBlockLogicExtension;
+import com.bombinggames.wurfelengine.core.map.Chunk;
+import com.bombinggames.wurfelengine.core.map.Coordinate;
+import com.bombinggames.wurfelengine.core.map.Generator;
+import com.bombinggames.wurfelengine.core.map.Generators.IslandGenerator;
+import com.bombinggames.wurfelengine.core.map.Map;
+import com.bombinggames.wurfelengine.core.map.Point;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static com.bombinggames.wurfelengine.core.map.rendering.RenderCell.GAME_EDGELENGTH;
+
+/**
+ * Runs the map and the entities without window, view and sound. The ticks are simulated as fast as the CPU allows. Used for servers, soak tests and performance regression runs on machines without GPU.<br>
+ * Sounds are not registered so playing them does nothing. Entities must not rely on {@link WE#getGameplay()}.<br>
+ * An isolated simulation has its own {@link MessageManager} and binds its map to the simulating thread so that several can run in parallel.
+ *
+ * @author agent
+ */
+public class HeadlessSimulation {
+
+    /**
+     * Counts the random ticks it receives.
+     */
+    private static class RandomTickCounter extends AbstractBlockLogicExtension {
+
+        private int ticks;
+
+        RandomTickCounter(byte blockId, Coordinate coord) {
+            super(blockId, coord);
+            setRandomTicks(true);
+        }
+
+        @Override
+        public boolean isScheduled() {
+            return true;
+        }
+
+        @Override
+        public void onRandomTick() {
+            ticks++;
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+
+    private static boolean initialized;
+
+    private final Map map;
+    /**
+     * null if the global message manager is used
+     */
+    private final MessageManager messages;
+    /**
+     * length of a tick in ms
+     */
+    private final float tickDelta;
+    private long ticks;
+    private long simulationTime;
+    /**
+     * reused so that a tick does not allocate
+     */
+    private final Runnable tickTask = this::simulateTick;
+    private final ArrayList<RandomTickCounter> randomTickCounters = new ArrayList<>();
+
+    /**
+     * Loads a map without GameView.
+     *
+     * @param mapPath   the folder of the map
+     * @param saveSlot
+     * @param generator used for chunks which are not saved
+     * @throws IOException if the map can not be accessed
+     */
+    public HeadlessSimulation(File mapPath, int saveSlot, Generator generator) throws IOException {
+        this(mapPath, saveSlot, generator, false);
+    }
+
+    /**
+     * Loads a map without GameView.
+     *
+     * @param mapPath   the folder of the map
+     * @param saveSlot
+     * @param generator used for chunks which are not saved. Must not be changed while the map is simulated.
+     * @param isolated  if true the map is not set in the {@link Controller} but bound to the thread while simulating
+     * @throws IOException if the map can not be accessed
+     */
+    public HeadlessSimulation(File mapPath, int saveSlot, Generator generator, boolean isolated) throws IOException {
+        init();
+        if (isolated) {
+            messages = MessageManager.newInstance();
+            MessageManager previous = MessageManager.getBound();
+            MessageManager.bind(messages);
+            try {
+                map = new Map(mapPath, generator, saveSlot);
+            } finally {
+                MessageManager.bind(previous);
+            }
+            map.setModified();
+        } else {
+            messages = null;
+            map = new Map(mapPath, generator, saveSlot);
+            Controller.setMap(map);
+        }
+        int tickRate = WE.getCVars().getValueI("tickRate");
+        tickDelta = tickRate > 0 ? 1000f / tickRate : 1000f / 60f;
+    }
+
+    /**
+     * Installs the {@link HeadlessApplication} if no application is running and loads the CVars.
+     */
+    private static void init() {
+        if (!initialized) {
+            initialized = true;
+            if (Gdx.app == null) {
+                HeadlessApplication.install();
+                WE.getCVars().load();
+                AbstractEntity.registerEngineEntities();
+            }
+        }
+    }
+
+    /**
+     * Loads the chunks around a chunk and waits until they are added to the map.
+     *
+     * @param chunkX
+     * @param chunkY
+     * @param radius in chunks
+     * @throws RuntimeException if a chunk failed to load
+     */
+    public void loadChunks(int chunkX, int chunkY, int radius) {
+        execute(() -> {
+            for (int x = -radius; x <= radius; x++) {
+                for (int y = -radius; y <= radius; y++) {
+                    map.loadChunk(chunkX + x, chunkY + y);
+                }
+            }
+            while (map.addLoadedChunks() > 0) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            for (int x = -radius; x <= radius; x++) {
+                for (int y = -radius; y <= radius; y++) {
+                    if (map.getChunkChecked(chunkX + x, chunkY + y) == null) {
+                        throw new RuntimeException("Loading chunk " + (chunkX + x) + "," + (chunkY + y) + " failed");
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs a task with the map of this simulation. Isolated simulations bind their map and messages to the current thread while the task runs.
+     *
+     * @param task
+     */
+    public void execute(Runnable task) {
+        if (messages == null) {
+            task.run();
+            return;
+        }
+        Map previousMap = Controller.getBoundMap();
+        MessageManager previousMessages = MessageManager.getBound();
+        Controller.bindMap(map);
+        MessageManager.bind(messages);
+        try {
+            task.run();
+        } finally {
+            Controller.bindMap(previousMap);
+            MessageManager.bind(previousMessages);
+        }
+    }
+
+    /**
+     * Simulates one tick.
+     */
+    public void tick() {
+        long start = System.nanoTime();
+        execute(tickTask);
+        ticks++;
+        simulationTime += System.nanoTime() - start;
+    }
+
+    private void simulateTick() {
+        if (messages == null && Gdx.app instanceof HeadlessApplication) {
+            ((HeadlessApplication) Gdx.app).executeRunnables();
+        }
+        MessageManager.getInstance().update(tickDelta);
+        Controller.staticUpdate(tickDelta);
+        map.postUpdate(tickDelta);
+    }
+
+    /**
+     * Simulates ticks without waiting between them.
+     *
+     * @param amount
+     */
+    public void run(long amount) {
+        for (long i = 0; i < amount; i++) {
+            tick();
+        }
+    }
+
+    /**
+     * Pours a layer of water in the top layer of a chunk so that the map changes while simulating.
+     *
+     * @param chunkX
+     * @param chunkY
+     */
+    public void pourWater(int chunkX, int chunkY) {
+        execute(() -> {
+            int z = Chunk.getBlocksZ() - 1;
+            map.beginEdit();
+            for (int x = chunkX * Chunk.getBlocksX(); x < (chunkX + 1) * Chunk.getBlocksX(); x++) {
+                for (int y = chunkY * Chunk.getBlocksY(); y < (chunkY + 1) * Chunk.getBlocksY(); y++) {
+                    Coordinate coord = new Coordinate(x, y, z);
+                    if (map.getBlockId(coord) == 0) {
+                        map.setBlock(coord, (byte) 9, (byte) 0);
+                    }
+                }
+            }
+            map.commit();
+        });
+    }
+
+    /**
+     * Spawns balls above the center of the map which bounce without spawning new ones so that entities are simulated.
+     *
+     * @param amount
+     * @param seed   the same seed spawns the same balls
+     */
+    public void spawnBalls(int amount, long seed) {
+        execute(() -> {
+            Random random = new Random(seed);
+            Point origin = map.getCenter(Chunk.getGameHeight() - 2 * GAME_EDGELENGTH);
+            for (int i = 0; i < amount; i++) {
+                BenchmarkBall ball = new BenchmarkBall();
+                ball.disableSpawning();
+                ball.setObstacle(true);
+                ball.setSaveToDisk(false);
+                ball.setMovement(new Vector3(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2, -1));
+                ball.spawn(new Point(
+                        origin.x + (random.nextFloat() - 0.5f) * 10 * GAME_EDGELENGTH,
+                        origin.y + (random.nextFloat() - 0.5f) * 10 * GAME_EDGELENGTH,
+                        origin.z
+                ));
+            }
+        });
+    }
+
+    /**
+     * Places a logic block receiving random ticks in every column of a chunk at the bottom.
+     *
+     * @param chunkX
+     * @param chunkY
+     */
+    public void addRandomTickedLogic(int chunkX, int chunkY) {
+        execute(() -> {
+            for (int x = chunkX * Chunk.getBlocksX(); x < (chunkX + 1) * Chunk.getBlocksX(); x++) {
+                for (int y = chunkY * Chunk.getBlocksY(); y < (chunkY + 1) * Chunk.getBlocksY(); y++) {
+                    Coordinate coord = new Coordinate(x, y, 0);
+                    RandomTickCounter logic = new RandomTickCounter(map.getBlockId(coord), coord);
+                    map.addLogic(logic);
+                    randomTickCounters.add(logic);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return random ticks received by the logic added with {@link #addRandomTickedLogic(int, int)}
+     */
+    public int getRandomTicks() {
+        int sum = 0;
+        for (RandomTickCounter counter : randomTickCounters) {
+            sum += counter.ticks;
+        }
+        return sum;
+    }
+
+    /**
+     * Hash of the blocks around a chunk, the positions of the entities and the random ticks of every logic added with {@link #addRandomTickedLogic(int, int)}.
+     *
+     * @param chunkX
+     * @param chunkY
+     * @param radius in chunks
+     * @return
+     */
+    public int getChecksum(int chunkX, int chunkY, int radius) {
+        int hash = getBlockChecksum(chunkX, chunkY, radius);
+        for (AbstractEntity entity : map.getEntities()) {
+            Point pos = entity.getPosition();
+            if (pos != null) {
+                hash = 31 * hash + Float.floatToIntBits(pos.x);
+                hash = 31 * hash + Float.floatToIntBits(pos.y);
+                hash = 31 * hash + Float.floatToIntBits(pos.z);
+            }
+        }
+        for (RandomTickCounter counter : randomTickCounters) {
+            hash = 31 * hash + counter.ticks;
+        }
+        return hash;
+    }
+
+    /**
+     * Hash of the blocks around a chunk.
+     *
+     * @param chunkX
+     * @param chunkY
+     * @param radius in chunks
+     * @return
+     */
+    public int getBlockChecksum(int chunkX, int chunkY, int radius) {
+        int hash = 1;
+        for (int x = (chunkX - radius) * Chunk.getBlocksX(); x < (chunkX + radius + 1) * Chunk.getBlocksX(); x++) {
+            for (int y = (chunkY - radius) * Chunk.getBlocksY(); y < (chunkY + radius + 1) * Chunk.getBlocksY(); y++) {
+                for (int z = 0; z < Chunk.getBlocksZ(); z++) {
+                    hash = 31 * hash + map.getBlock(x, y, z);
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @return
+     */
+    public Map getMap() {
+        return map;
+    }
+
+    /**
+     * @return length of a tick in ms
+     */
+    public float getTickDelta() {
+        return tickDelta;
+    }
+
+    /**
+     * @return simulated ticks
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return time spent in {@link #tick()} in ns
+     */
+    public long getSimulationTime() {
+        return simulationTime;
+    }
+
+    /**
+     * @return ticks per second of real time
+     */
+    public float getTicksPerSecond() {
+        if (simulationTime == 0) {
+            return 0;
+        }
+        return ticks * 1e9f / simulationTime;
+    }
+
+    /**
+     * @param save save the chunks
+     */
+    public void dispose(boolean save) {
+        execute(() -> map.dispose(save));
+    }
+
+    /**
+     * Simulates one world alone and then several isolated worlds on own threads at the same time. Every world pours water, spawns balls and places random ticked logic. The worlds are loaded and prepared on their threads too. Every world must end with the same blocks, entity positions and random ticks as the one simulated alone.
+     *
+     * @param mapPath
+     * @param slot
+     * @param worlds amount of parallel worlds
+     * @param amount ticks
+     * @param radius chunks loaded around the center
+     * @return true if every world has the same result
+     * @throws IOException
+     */
+    public static boolean runParallelWorlds(File mapPath, int slot, int worlds, long amount, int radius) throws IOException {
+        init();
+        //the poured water must flow
+        CVar cellSimulation = WE.getCVars().get("cellSimulation");
+        Object previous = cellSimulation.getValue();
+        cellSimulation.setValue(true);
+        try {
+            return compareParallelWorlds(mapPath, slot, worlds, amount, radius);
+        } finally {
+            cellSimulation.setValue(previous);
+        }
+    }
+
+    private static boolean compareParallelWorlds(File mapPath, int slot, int worlds, long amount, int radius) throws IOException {
+        //only read while simulating
+        Generator generator = new IslandGenerator();
+
+        HeadlessSimulation reference = createWorld(mapPath, slot, generator, radius);
+        reference.run(amount);
+        int expected = reference.getChecksum(0, 0, radius);
+        reference.dispose(false);
+
+        HeadlessSimulation[] simulations = new HeadlessSimulation[worlds];
+        Thread[] threads = new Thread[worlds];
+        CountDownLatch prepared = new CountDownLatch(worlds);
+        CountDownLatch started = new CountDownLatch(1);
+        for (int i = 0; i < worlds; i++) {
+            int world = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    simulations[world] = createWorld(mapPath, slot, generator, radius);
+                } catch (IOException | RuntimeException ex) {
+                    Gdx.app.error("HeadlessSimulation", "World " + world + " could not be loaded", ex);
+                    return;
+                } finally {
+                    prepared.countDown();
+                }
+                try {
+                    started.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                simulations[world].run(amount);
+            }, "world " + i);
+            threads[i].start();
+        }
+        long start;
+        try {
+            prepared.await();
+            start = System.nanoTime();
+            started.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        long time = System.nanoTime() - start;
+
+        boolean same = true;
+        for (HeadlessSimulation simulation : simulations) {
+            if (simulation == null) {
+                same = false;
+            } else {
+                same &= simulation.getChecksum(0, 0, radius) == expected;
+                simulation.dispose(false);
+            }
+        }
+        Gdx.app.log(
+                "HeadlessSimulation",
+                worlds + " worlds of " + amount + " ticks in parallel in " + time / 1000 / 1000 + " ms, alone "
+                + reference.getSimulationTime() / 1000 / 1000 + " ms, " + reference.getRandomTicks() + " random ticks. "
+                + (same ? "Every world has the same result." : "The worlds differ!")
+        );
+        return same;
+    }
+
+    /**
+     * Loads an isolated world for {@link #runParallelWorlds(File, int, int, long, int)}.
+     *
+     * @param mapPath
+     * @param slot
+     * @param generator
+     * @param radius
+     * @return
+     * @throws IOException
+     */
+    private static HeadlessSimulation createWorld(File mapPath, int slot, Generator generator, int radius) throws IOException {
+        HeadlessSimulation simulation;
+        //the map constructor sets the global map CVars
+        synchronized (HeadlessSimulation.class) {
+            simulation = new HeadlessSimulation(mapPath, slot, generator, true);
+        }
+        simulation.loadChunks(0, 0, radius);
+        simulation.pourWater(0, 0);
+        simulation.spawnBalls(50, 1);
+        simulation.addRandomTickedLogic(0, 0);
+        return simulation;
+    }
+
+    /**
+     * Simulates a map and measures the bytes the simulating thread allocates per tick after a warm up. The average is checked because a recompilation by the JIT can allocate in a single tick. The render path needs a GL context and is checked with the console command "alloc" instead.
+     *
+     * @param mapPath
+     * @param slot
+     * @param amount           ticks
+     * @param radius           chunks loaded around the center
+     * @param maxBytesPerTick the check fails if the ticks allocate more on average
+     * @return true if the ticks did not allocate more than the limit on average
+     * @throws IOException
+     */
+    public static boolean runAllocationCheck(File mapPath, int slot, long amount, int radius, long maxBytesPerTick) throws IOException {
+        if (!FrameProfiler.isSupported()) {
+            Gdx.app.error("HeadlessSimulation", "The JVM does not support counting allocated bytes per thread.");
+            return false;
+        }
+        HeadlessSimulation simulation = new HeadlessSimulation(mapPath, slot, new IslandGenerator(), true);
+        simulation.loadChunks(0, 0, radius);
+        simulation.run(2000);//warm up until the JIT compiled the update path
+        long total = 0;
+        long max = 0;
+        for (long i = 0; i < amount; i++) {
+            FrameProfiler.beginFrame();
+            simulation.tick();
+            FrameProfiler.endFrame();
+            total += FrameProfiler.getLastFrame();
+            max = Math.max(max, FrameProfiler.getLastFrame());
+        }
+        simulation.dispose(false);
+        long avg = amount > 0 ? total / amount : 0;
+        boolean passed = avg <= maxBytesPerTick;
+        Gdx.app.log(
+                "HeadlessSimulation",
+                (passed ? "passed" : "FAILED") + ": " + amount + " ticks, avg " + avg
+                + " B/tick, max " + max + " B/tick, limit " + maxBytesPerTick + " B/tick"
+        );
+        return passed;
+    }
+
+    /**
+     * Compares the lighting table of the light engine with the analytic formulas. Needs no map.
+     *
+     * @param samples per axis
+     * @return true if the biggest error is within {@link LightingTable#TOLERANCE}
+     */
+    public static boolean runLightingTableCheck(int samples) {
+        init();
+        float[] err = LightEngine.createLightingTable().getMaxError(samples);
+        boolean passed = true;
+        for (float e : err) {
+            passed &= e <= LightingTable.TOLERANCE;
+        }
+        Gdx.app.log(
+                "HeadlessSimulation",
+                (passed ? "passed" : "FAILED") + ": lighting table max error left " + err[0] + ", top " + err[1]
+                + ", right " + err[2] + ", specular " + err[3] + ", tolerance " + LightingTable.TOLERANCE
+        );
+        return passed;
+    }
+
+    /**
+     * Runs a map headless and prints the ticks per second.<br>
+     * Parameters: -map name, -slot number, -ticks amount, -radius chunks, -save, -worlds amount to check parallel worlds instead, -alloc max average bytes per tick to check the allocations instead, -lighttable samples per axis to check the lighting table instead. The checks exit with 1 if they fail.
+     *
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        String mapName = "default";
+        int slot = 0;
+        long amount = 600;
+        int radius = 1;
+        boolean save = false;
+        int worlds = 0;
+        long maxBytesPerTick = -1;
+        int lightSamples = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-map":
+                    mapName = args[++i];
+                    break;
+                case "-slot":
+                    slot = Integer.parseInt(args[++i]);
+                    break;
+                case "-ticks":
+                    amount = Long.parseLong(args[++i]);
+                    break;
+                case "-radius":
+                    radius = Integer.parseInt(args[++i]);
+                    break;
+                case "-save":
+                    save = true;
+                    break;
+                case "-worlds":
+                    worlds = Integer.parseInt(args[++i]);
+                    break;
+                case "-alloc":
+                    maxBytesPerTick = Long.parseLong(args[++i]);
+                    break;
+                case "-lighttable":
+                    lightSamples = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.out.println("Unknown parameter " + args[i]);
+            }
+        }
+
+        if (worlds > 0) {
+            boolean same = runParallelWorlds(new File(WorkingDirectory.getMapsFolder(), mapName), slot, worlds, amount, radius);
+            System.exit(same ? 0 : 1);
+            return;
+        }
+        if (lightSamples > 0) {
+            System.exit(runLightingTableCheck(lightSamples) ? 0 : 1);
+            return;
+        }
+        if (maxBytesPerTick >= 0) {
+            boolean passed = runAllocationCheck(new File(WorkingDirectory.getMapsFolder(), mapName), slot, amount, radius, maxBytesPerTick);
+            System.exit(passed ? 0 : 1);
+            return;
+        }
+
+        HeadlessSimulation simulation = new HeadlessSimulation(
+                new File(WorkingDirectory.getMapsFolder(), mapName),
+                slot,
+                new IslandGenerator()
+        );
+        simulation.loadChunks(0, 0, radius);
+        simulation.run(amount);
+        System.out.println(
+                simulation.getTicks() + " ticks of " + simulation.getTickDelta() + " ms in "
+                + simulation.getSimulationTime() / 1000 / 1000 + " ms, "
+                + simulation.getTicksPerSecond() + " ticks/s, "
+                + simulation.getMap().getEntities().size() + " entities"
+        );
+        simulation.dispose(save);
+        System.exit(0);
+    }
+}
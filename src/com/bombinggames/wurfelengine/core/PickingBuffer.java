@@ -0,0 +1,283 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core;
+
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.bombinggames.wurfelengine.core.gameobjects.AbstractEntity;
+import com.bombinggames.wurfelengine.core.gameobjects.Renderable;
+import com.bombinggames.wurfelengine.core.gameobjects.Side;
+import com.bombinggames.wurfelengine.core.map.Coordinate;
+import com.bombinggames.wurfelengine.core.map.Intersection;
+import com.bombinggames.wurfelengine.core.map.Point;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Remembers for every tile of the view which cells and entities were rendered last, so the front-most ones. Filled while the depth list is rendered. Picking is then a lookup and an exact test against the few candidates of one tile instead of a ray through the map.
+ *
+ * @author agent
+ */
+class PickingBuffer {
+
+    /**
+     * size of a tile in view space
+     */
+    private static final int TILESIZE = RenderCell.VIEW_WIDTH2;
+    /**
+     * how many cells are remembered per tile
+     */
+    private static final int CELLDEPTH = 8;
+    /**
+     * how many entities are remembered per tile
+     */
+    private static final int ENTDEPTH = 4;
+
+    private float left, bottom;
+    private int cols, rows;
+    /**
+     * ring buffer of every tile
+     */
+    private RenderCell[] cells = new RenderCell[0];
+    private AbstractEntity[] ents = new AbstractEntity[0];
+    /**
+     * how many were added to each tile
+     */
+    private int[] cellCount = new int[0];
+    private int[] entCount = new int[0];
+    private boolean valid;
+
+    /**
+     * Clears the buffer for a new frame.
+     *
+     * @param left   view space
+     * @param bottom view space
+     * @param width  view space
+     * @param height view space
+     */
+    void begin(float left, float bottom, float width, float height) {
+        this.left = left;
+        this.bottom = bottom;
+        cols = (int) Math.ceil(width / TILESIZE) + 1;
+        rows = (int) Math.ceil(height / TILESIZE) + 1;
+        int tiles = cols * rows;
+        if (cellCount.length < tiles) {
+            cells = new RenderCell[tiles * CELLDEPTH];
+            ents = new AbstractEntity[tiles * ENTDEPTH];
+            cellCount = new int[tiles];
+            entCount = new int[tiles];
+        } else {
+            Arrays.fill(cells, null);
+            Arrays.fill(ents, null);
+            Arrays.fill(cellCount, 0);
+            Arrays.fill(entCount, 0);
+        }
+        valid = true;
+    }
+
+    /**
+     * The buffer does not show the current frame.
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * @return true if filled in the last rendered frame
+     */
+    boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Adds a rendered object. Must be called in render order.
+     *
+     * @param obj
+     */
+    void add(Renderable obj) {
+        if (obj instanceof RenderCell) {
+            Coordinate coord = ((RenderCell) obj).getPosition();
+            int x = coord.getViewSpcX();
+            int y = coord.getViewSpcY();
+            int tx0 = tileX(x - RenderCell.VIEW_WIDTH2);
+            int tx1 = tileX(x + RenderCell.VIEW_WIDTH2);
+            int ty0 = tileY(y - RenderCell.VIEW_DEPTH2);
+            int ty1 = tileY(y + RenderCell.VIEW_HEIGHT + RenderCell.VIEW_DEPTH2);
+            for (int tx = tx0; tx <= tx1; tx++) {
+                for (int ty = ty0; ty <= ty1; ty++) {
+                    int tile = tx * rows + ty;
+                    cells[tile * CELLDEPTH + cellCount[tile] % CELLDEPTH] = (RenderCell) obj;
+                    cellCount[tile]++;
+                }
+            }
+        } else if (obj instanceof AbstractEntity) {
+            AbstractEntity ent = (AbstractEntity) obj;
+            if (ent.getSpriteId() <= 0 || ent.getSpriteValue() < 0) {
+                return;
+            }
+            AtlasRegion sprite = ent.getSprite();
+            if (sprite == null) {
+                return;
+            }
+            int x = ent.getPosition().getViewSpcX();
+            int y = ent.getPosition().getViewSpcY();
+            int tx0 = tileX(x - sprite.getRegionWidth() / 2);
+            int tx1 = tileX(x + sprite.getRegionWidth() / 2);
+            int ty0 = tileY(y - sprite.getRegionHeight() / 2);
+            int ty1 = tileY(y + sprite.getRegionHeight() / 2);
+            for (int tx = tx0; tx <= tx1; tx++) {
+                for (int ty = ty0; ty <= ty1; ty++) {
+                    int tile = tx * rows + ty;
+                    ents[tile * ENTDEPTH + entCount[tile] % ENTDEPTH] = ent;
+                    entCount[tile]++;
+                }
+            }
+        }
+    }
+
+    private int tileX(float viewX) {
+        return Math.max(0, Math.min(cols - 1, (int) ((viewX - left) / TILESIZE)));
+    }
+
+    private int tileY(float viewY) {
+        return Math.max(0, Math.min(rows - 1, (int) ((viewY - bottom) / TILESIZE)));
+    }
+
+    /**
+     * Finds the front-most cell at a position.
+     *
+     * @param viewX  view space
+     * @param viewY  view space
+     * @param origin used to calculate the distance of the intersection
+     * @return null if the buffer can not decide, then a raycast is needed
+     */
+    Intersection pick(float viewX, float viewY, Point origin) {
+        if (!valid
+                || viewX < left || viewX >= left + cols * TILESIZE
+                || viewY < bottom || viewY >= bottom + rows * TILESIZE) {
+            return null;
+        }
+        int tile = tileX(viewX) * rows + tileY(viewY);
+        int count = cellCount[tile];
+        //newest first
+        for (int i = count - 1; i >= Math.max(0, count - CELLDEPTH); i--) {
+            RenderCell cell = cells[tile * CELLDEPTH + i % CELLDEPTH];
+            Coordinate coord = cell.getPosition();
+            float dx = viewX - coord.getViewSpcX();
+            if (Math.abs(dx) > RenderCell.VIEW_WIDTH2) {
+                continue;
+            }
+            //the cell is a hexagon in view space
+            float half = (RenderCell.VIEW_WIDTH2 - Math.abs(dx)) / 2f;
+            float topCenter = coord.getViewSpcY() + RenderCell.VIEW_HEIGHT;
+            if (viewY < coord.getViewSpcY() - half || viewY > topCenter + half) {
+                continue;
+            }
+            float cellY = coord.getY() * RenderCell.GAME_DIAGLENGTH2;
+            Point point;
+            Side side;
+            if (viewY >= topCenter - half) {
+                side = Side.TOP;
+                float z = (coord.getZ() + 1) * RenderCell.GAME_EDGELENGTH;
+                point = new Point(viewX, 2 * (z * RenderCell.ZAXISSHORTENING - viewY), z - 1);
+            } else {
+                //the front faces are vertical planes through the front corner
+                float y = dx < 0 ? cellY + RenderCell.GAME_DIAGLENGTH2 + dx : cellY + RenderCell.GAME_DIAGLENGTH2 - dx;
+                float z = (viewY + y / 2) / RenderCell.ZAXISSHORTENING;
+                z = Math.max(coord.getZ() * RenderCell.GAME_EDGELENGTH, Math.min((coord.getZ() + 1) * RenderCell.GAME_EDGELENGTH - 1, z));
+                side = dx < 0 ? Side.LEFT : Side.RIGHT;
+                //move a bit into the cell
+                point = new Point(viewX + (dx < 0 ? 1 : -1), y - 1, z);
+            }
+            return new Intersection(point, side, origin.dst(point));
+        }
+        return null;
+    }
+
+    /**
+     * Finds the front-most entity at a position.
+     *
+     * @param viewX  view space
+     * @param viewY  view space
+     * @param filter can be null
+     * @return null if there is none
+     */
+    AbstractEntity pickEntity(float viewX, float viewY, Predicate<AbstractEntity> filter) {
+        if (!valid
+                || viewX < left || viewX >= left + cols * TILESIZE
+                || viewY < bottom || viewY >= bottom + rows * TILESIZE) {
+            return null;
+        }
+        int tile = tileX(viewX) * rows + tileY(viewY);
+        int count = entCount[tile];
+        for (int i = count - 1; i >= Math.max(0, count - ENTDEPTH); i--) {
+            AbstractEntity ent = ents[tile * ENTDEPTH + i % ENTDEPTH];
+            if (ent.hasPosition() && isUnder(ent, viewX, viewY) && (filter == null || filter.test(ent))) {
+                return ent;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param viewX view space
+     * @param viewY view space
+     * @return true if more entities cover the tile than are remembered, so {@link #pickEntity(float, float, Predicate)} may have missed one
+     */
+    boolean hasDroppedEntities(float viewX, float viewY) {
+        if (!valid
+                || viewX < left || viewX >= left + cols * TILESIZE
+                || viewY < bottom || viewY >= bottom + rows * TILESIZE) {
+            return false;
+        }
+        return entCount[tileX(viewX) * rows + tileY(viewY)] > ENTDEPTH;
+    }
+
+    /**
+     * @param ent
+     * @param viewX
+     * @param viewY
+     * @return true if the sprite of the entity covers the position
+     */
+    static boolean isUnder(AbstractEntity ent, float viewX, float viewY) {
+        AtlasRegion sprite = ent.getSprite();
+        if (sprite == null) {
+            return false;
+        }
+        int x = ent.getPosition().getViewSpcX();
+        int y = ent.getPosition().getViewSpcY();
+        return x + sprite.getRegionWidth() / 2 >= (int) viewX //right sprite border
+                && x - sprite.getRegionWidth() / 2 <= (int) viewX //left sprite border
+                && y - sprite.getRegionHeight() / 2 <= (int) viewY //bottom sprite border
+                && y + sprite.getRegionHeight() / 2 >= (int) viewY; //top sprite border
+    }
+}
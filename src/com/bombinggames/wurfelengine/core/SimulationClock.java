@@ -0,0 +1,254 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core;
+
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.gameobjects.AbstractEntity;
+import com.bombinggames.wurfelengine.core.map.Point;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+
+import java.util.ArrayList;
+
+/**
+ * Runs the simulation in ticks of fixed length independent of the frame rate. The frame time is accumulated and as many ticks are simulated as fit in, at most "maxTicksPerFrame". Rendering then interpolates the entities between the last two ticks.<br>
+ * With "tickRate" 0 every frame is one tick with the frame time.
+ *
+ * @author agent
+ */
+public class SimulationClock {
+
+    /**
+     * entities moving further in one tick are not interpolated, e.g. when teleported
+     */
+    private static final float MAXINTERPOLATION2 = (2 * RenderCell.GAME_EDGELENGTH) * (2 * RenderCell.GAME_EDGELENGTH);
+
+    private float accumulator;
+    private float frameDelta;
+    private float tickDelta;
+    private boolean fixed;
+    private int maxTicks;
+    private float budget;
+    private int ticks;
+    private long frameStart;
+    private long lastSimulationTime;
+    private int lastTicks;
+    /**
+     * how far the rendered frame is between the last and the next tick, 0-1
+     */
+    private float alpha = 1;
+    /**
+     * true if the entities are rendered between the last two ticks in this frame
+     */
+    private boolean interpolating;
+    /**
+     * the entities which are rendered at an interpolated position
+     */
+    private final ArrayList<AbstractEntity> interpolated = new ArrayList<>(40);
+    /**
+     * the simulated position of the interpolated entities followed by the interpolated position, six per entity
+     */
+    private float[] positions = new float[6 * 40];
+
+    /**
+     * Call once per frame before {@link #nextTick()}.
+     *
+     * @param dt frame time in ms without game speed, so that the ticks keep running when the game is slowed down
+     */
+    public void beginFrame(float dt) {
+        frameStart = System.nanoTime();
+        int tickRate = WE.getCVars().getValueI("tickRate");
+        fixed = tickRate > 0;
+        maxTicks = Math.max(1, WE.getCVars().getValueI("maxTicksPerFrame"));
+        budget = WE.getCVars().getValueF("simulationBudget");
+        ticks = 0;
+        if (fixed) {
+            tickDelta = 1000f / tickRate;
+            accumulator += dt;
+        } else {
+            tickDelta = dt;
+            accumulator = 0;
+        }
+        frameDelta = dt;
+    }
+
+    /**
+     * Starts the next tick if there is time left in this frame. Saves the positions of the entities for the interpolation.
+     *
+     * @return false if no more tick should be simulated in this frame
+     */
+    public boolean nextTick() {
+        if (!fixed) {
+            return ticks++ == 0;
+        }
+        boolean overBudget = ticks > 0 && budget > 0 && (System.nanoTime() - frameStart) / 1e6f > budget;
+        if (accumulator < tickDelta) {
+            return false;
+        }
+        if (ticks >= maxTicks || overBudget) {
+            //give up catching up, the simulation slows down instead
+            accumulator %= tickDelta;
+            return false;
+        }
+        accumulator -= tickDelta;
+        ticks++;
+        if (Controller.getMap() != null) {
+            ArrayList<AbstractEntity> ents = Controller.getMap().getEntities();
+            for (int i = 0; i < ents.size(); i++) {
+                ents.get(i).saveTickStartPosition();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Call once per frame after the last tick.
+     */
+    public void endFrame() {
+        alpha = fixed ? accumulator / tickDelta : 1;
+        interpolating = fixed && alpha < 1 && WE.getCVars().getValueB("interpolateEntities");
+        lastTicks = ticks;
+        lastSimulationTime = System.nanoTime() - frameStart;
+    }
+
+    /**
+     * @return the time which is simulated in a tick in ms
+     */
+    public float getTickDelta() {
+        return tickDelta;
+    }
+
+    /**
+     * @return the time of the frame in ms
+     */
+    public float getFrameDelta() {
+        return frameDelta;
+    }
+
+    /**
+     * How far the frame is between the last and the next tick.
+     *
+     * @return 0-1
+     */
+    public float getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * @return ticks simulated in the last frame
+     */
+    public int getLastTicks() {
+        return lastTicks;
+    }
+
+    /**
+     * @return time spent simulating in the last frame in ns
+     */
+    public long getLastSimulationTime() {
+        return lastSimulationTime;
+    }
+
+    /**
+     * The position at which an entity is rendered in this frame. Used to follow an entity with the camera.
+     *
+     * @param ent
+     * @param store gets the interpolated position
+     * @return false if the entity is rendered at its simulated position. store is then unchanged.
+     */
+    public boolean getInterpolatedPosition(AbstractEntity ent, Point store) {
+        if (!interpolating) {
+            return false;
+        }
+        Point from = ent.getTickStartPosition();
+        Point to = ent.getPosition();
+        if (!isInterpolated(from, to)) {
+            return false;
+        }
+        store.set(
+                from.x + (to.x - from.x) * alpha,
+                from.y + (to.y - from.y) * alpha,
+                from.z + (to.z - from.z) * alpha
+        );
+        return true;
+    }
+
+    private static boolean isInterpolated(Point from, Point to) {
+        return from != null && to != null && from.dst2(to) <= MAXINTERPOLATION2;
+    }
+
+    /**
+     * Moves the entities to the interpolated position for rendering. Must be followed by {@link #endInterpolation()}.
+     */
+    public void beginInterpolation() {
+        interpolated.clear();
+        if (!interpolating || Controller.getMap() == null) {
+            return;
+        }
+        ArrayList<AbstractEntity> ents = Controller.getMap().getEntities();
+        if (positions.length < ents.size() * 6) {
+            positions = new float[ents.size() * 12];
+        }
+        for (int i = 0; i < ents.size(); i++) {
+            AbstractEntity ent = ents.get(i);
+            Point from = ent.getTickStartPosition();
+            Point to = ent.getPosition();
+            if (!isInterpolated(from, to)) {
+                continue;
+            }
+            int j = interpolated.size() * 6;
+            positions[j] = to.x;
+            positions[j + 1] = to.y;
+            positions[j + 2] = to.z;
+            to.x = from.x + (to.x - from.x) * alpha;
+            to.y = from.y + (to.y - from.y) * alpha;
+            to.z = from.z + (to.z - from.z) * alpha;
+            positions[j + 3] = to.x;
+            positions[j + 4] = to.y;
+            positions[j + 5] = to.z;
+            interpolated.add(ent);
+        }
+    }
+
+    /**
+     * Restores the simulated positions. Entities moved while interpolated keep their new position.
+     */
+    public void endInterpolation() {
+        for (int i = 0; i < interpolated.size(); i++) {
+            Point pos = interpolated.get(i).getPosition();
+            int j = i * 6;
+            if (pos != null && pos.x == positions[j + 3] && pos.y == positions[j + 4] && pos.z == positions[j + 5]) {
+                pos.x = positions[j];
+                pos.y = positions[j + 1];
+                pos.z = positions[j + 2];
+            }
+        }
+        interpolated.clear();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * If this software is used for a game the official „Wurfel Engine“ logo or its name must be visible in an intro screen or main menu.
+ *
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, 
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice, 
+ *   this list of conditions and the following disclaimer in the documentation 
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors 
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.console;
+
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.FrameProfiler;
+import com.bombinggames.wurfelengine.core.GameplayScreen;
+
+import java.util.StringTokenizer;
+
+/**
+ * Records the allocation of the main thread per frame.
+ *
+ * @author agent
+ */
+public class AllocCommand implements ConsoleCommand {
+
+    @Override
+    public String getCommandName() {
+        return "alloc";
+    }
+
+    @Override
+    public boolean perform(StringTokenizer parameters, GameplayScreen gameplay) {
+        if (!FrameProfiler.isSupported()) {
+            WE.getConsole().add("The JVM does not support counting allocated bytes per thread.\n", "System");
+            return false;
+        }
+        int frames = 300;
+        long limit = 0;
+        if (parameters.hasMoreElements()) {
+            frames = Integer.parseInt(parameters.nextToken());
+        }
+        if (parameters.hasMoreElements()) {
+            limit = Long.parseLong(parameters.nextToken());
+        }
+        FrameProfiler.record(frames, 60, limit);
+        WE.getConsole().add("Recording " + frames + " frames after 60 warm up frames.\n", "System");
+        return true;
+    }
+
+    @Override
+    public String getManual() {
+        return "Records the bytes the main thread allocates per frame while updating and rendering and checks them against a limit. Parameters: [frames] [max bytes per frame]";
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.console;
+
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.GameplayScreen;
+import com.bombinggames.wurfelengine.core.map.CellularAutomaton;
+import com.bombinggames.wurfelengine.core.map.Chunk;
+import com.bombinggames.wurfelengine.core.map.Coordinate;
+import com.bombinggames.wurfelengine.core.map.Map;
+import java.util.StringTokenizer;
+
+/**
+ * Pours water above the camera and runs the {@link CellularAutomaton} until it rests. Prints the processed cells per second.
+ *
+ * @author agent
+ */
+public class CellBenchCommand implements ConsoleCommand {
+
+    @Override
+    public String getCommandName() {
+        return "cellbench";
+    }
+
+    @Override
+    public boolean perform(StringTokenizer parameters, GameplayScreen gameplay) {
+        Map map = Controller.getMap();
+        if (map == null) {
+            WE.getConsole().add("No map loaded.\n", "System");
+            return false;
+        }
+        if (!WE.getCVars().getValueB("cellSimulation")) {
+            WE.getConsole().add("The simulation of liquid and falling blocks is disabled. Enable the CVar cellSimulation first.\n", "System");
+            return false;
+        }
+        int size = 20;
+        int maxSteps = 200;
+        if (parameters.hasMoreElements()) {
+            size = Integer.parseInt(parameters.nextToken());
+        }
+        if (parameters.hasMoreElements()) {
+            maxSteps = Integer.parseInt(parameters.nextToken());
+        }
+
+        Coordinate origin;
+        if (gameplay.getView().getCameras().isEmpty()) {
+            origin = map.getCenter().toCoord();
+        } else {
+            origin = gameplay.getView().getCameras().get(0).getCenter().toCoord();
+        }
+        int z = Chunk.getBlocksZ() - 1;
+
+        //pour a slab of water in the top layer
+        map.beginEdit();
+        for (int x = origin.getX() - size / 2; x < origin.getX() + size / 2; x++) {
+            for (int y = origin.getY() - size; y < origin.getY() + size; y++) {
+                Coordinate coord = new Coordinate(x, y, z);
+                if (map.getBlockId(coord) == 0) {
+                    map.setBlock(coord, (byte) 9, (byte) 0);
+                }
+            }
+        }
+        map.commit();
+
+        CellularAutomaton automaton = map.getCellularAutomaton();
+        long processed = automaton.getProcessedCells();
+        long time = automaton.getProcessingTime();
+        int steps = 0;
+        while (steps < maxSteps && automaton.getActiveCount() > 0) {
+            automaton.step();
+            steps++;
+        }
+        processed = automaton.getProcessedCells() - processed;
+        time = automaton.getProcessingTime() - time;
+
+        WE.getConsole().add(
+                processed + " cells in " + steps + " steps, " + time / 1000 / 1000f + " ms, "
+                + (time > 0 ? (long) (processed * 1e9 / time) : 0) + " cells/s, "
+                + automaton.getActiveCount() + " still active.\n",
+                "System"
+        );
+        return true;
+    }
+
+    @Override
+    public String getManual() {
+        return "Pours water above the camera and simulates it until it rests. Prints the processed cells per second. Changes the map! Parameters: [size] [max steps]";
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * If this software is used for a game the official „Wurfel Engine“ logo or its name must be visible in an intro screen or main menu.
+ *
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, 
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice, 
+ *   this list of conditions and the following disclaimer in the documentation 
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors 
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.console;
+
+import com.badlogic.gdx.math.Vector3;
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.GameplayScreen;
+import com.bombinggames.wurfelengine.core.gameobjects.BenchmarkBall;
+import com.bombinggames.wurfelengine.core.map.Chunk;
+import com.bombinggames.wurfelengine.core.map.Point;
+import com.bombinggames.wurfelengine.core.map.VoxelCollision;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.bombinggames.wurfelengine.core.map.rendering.RenderCell.GAME_EDGELENGTH;
+
+/**
+ * Spawns {@link BenchmarkBall}s in the loaded map and simulates them with the {@link VoxelCollision} of the movable entities. Runs the same balls once serially with {@link BenchmarkBall#update(float)} and once in phases like the entity scheduler, computing in parallel and committing serially. Checks that both runs end at the same positions.
+ *
+ * @author agent
+ */
+public class CollisionBenchCommand implements ConsoleCommand {
+
+    private static final long SEED = 42;
+    private static final float DT = 1000 / 60f;
+
+    @Override
+    public String getCommandName() {
+        return "collisionbench";
+    }
+
+    @Override
+    public boolean perform(StringTokenizer parameters, GameplayScreen gameplay) {
+        if (Controller.getMap() == null) {
+            WE.getConsole().add("No map loaded.\n", "System");
+            return false;
+        }
+        int balls = 5000;
+        int ticks = 60;
+        if (parameters.hasMoreElements()) {
+            balls = Integer.parseInt(parameters.nextToken());
+        }
+        if (parameters.hasMoreElements()) {
+            ticks = Integer.parseInt(parameters.nextToken());
+        }
+
+        Point origin;
+        if (gameplay.getView().getCameras().isEmpty()) {
+            origin = Controller.getMap().getCenter();
+        } else {
+            origin = gameplay.getView().getCameras().get(0).getCenter().cpy();
+        }
+        origin.setZ(Chunk.getGameHeight() - 2 * GAME_EDGELENGTH);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "collisionBench");
+            thread.setDaemon(true);
+            return thread;
+        });
+        float[] serial = new float[balls * 3];
+        float[] phased = new float[balls * 3];
+        long serialTime;
+        long phasedTime;
+        try {
+            serialTime = simulate(origin, balls, ticks, null, threads, serial);
+            phasedTime = simulate(origin, balls, ticks, workers, threads, phased);
+        } finally {
+            workers.shutdown();
+        }
+
+        int different = 0;
+        for (int i = 0; i < balls; i++) {
+            if (serial[i * 3] != phased[i * 3]
+                    || serial[i * 3 + 1] != phased[i * 3 + 1]
+                    || serial[i * 3 + 2] != phased[i * 3 + 2]) {
+                different++;
+            }
+        }
+        WE.getConsole().add(
+                balls + " balls, " + ticks + " ticks: "
+                + serialTime / ticks / 1000 / 1000f + " ms per tick serial, "
+                + phasedTime / ticks / 1000 / 1000f + " ms per tick phased, "
+                + (balls - different) + "/" + balls + " balls at the same position in both runs.\n",
+                "System"
+        );
+        return different == 0;
+    }
+
+    /**
+     * Spawns the balls, simulates them and removes them again.
+     *
+     * @param origin  where the balls are dropped
+     * @param balls
+     * @param ticks
+     * @param workers computes in parallel before committing serially, if null every ball is updated serially
+     * @param threads amount of slices for the workers
+     * @param out     the positions after the simulation
+     * @return time in ns
+     */
+    private long simulate(Point origin, int balls, int ticks, ExecutorService workers, int threads, float[] out) {
+        Random random = new Random(SEED);
+        BenchmarkBall[] spawned = new BenchmarkBall[balls];
+        for (int i = 0; i < balls; i++) {
+            BenchmarkBall ball = new BenchmarkBall();
+            ball.disableSpawning();
+            ball.setObstacle(true);
+            ball.setMass(1);
+            ball.setSaveToDisk(false);
+            ball.setMovement(new Vector3(random.nextFloat() * 4 - 2, random.nextFloat() * 4 - 2, -1));
+            ball.spawn(new Point(
+                    origin.x + (random.nextFloat() - 0.5f) * 10 * GAME_EDGELENGTH,
+                    origin.y + (random.nextFloat() - 0.5f) * 10 * GAME_EDGELENGTH,
+                    origin.z
+            ));
+            spawned[i] = ball;
+        }
+
+        ArrayList<Callable<Void>> slices = new ArrayList<>(threads);
+        int sliceSize = (balls + threads - 1) / threads;
+        for (int start = 0; start < balls; start += sliceSize) {
+            int from = start;
+            int to = Math.min(balls, start + sliceSize);
+            slices.add(Controller.bindTask(() -> {
+                for (int i = from; i < to; i++) {
+                    spawned[i].compute(DT);
+                }
+                return null;
+            }));
+        }
+
+        long start = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            if (workers == null) {
+                for (BenchmarkBall ball : spawned) {
+                    ball.update(DT);
+                }
+            } else {
+                try {
+                    for (Future<Void> future : workers.invokeAll(slices)) {
+                        future.get();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException ex) {
+                    throw new RuntimeException(ex.getCause());
+                }
+                for (BenchmarkBall ball : spawned) {
+                    ball.commit(DT);
+                }
+            }
+        }
+        long time = System.nanoTime() - start;
+
+        for (int i = 0; i < balls; i++) {
+            Point pos = spawned[i].getPosition();
+            if (pos != null) {
+                out[i * 3] = pos.x;
+                out[i * 3 + 1] = pos.y;
+                out[i * 3 + 2] = pos.z;
+            }
+            spawned[i].dispose();
+        }
+        return time;
+    }
+
+    @Override
+    public String getManual() {
+        return "Spawns colliding benchmark balls and simulates them serially and in parallel phases. Prints the time per tick and checks that both runs end at the same positions. Parameters: [balls] [ticks]";
+    }
+}
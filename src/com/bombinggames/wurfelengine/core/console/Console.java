@@ -105,6 +105,12 @@ public class Console {
         registeredCommands.add(new FullscreenCommand());
         registeredCommands.add(new ManCommand());
         registeredCommands.add(new FillWithAirCommand());
+        registeredCommands.add(new AllocCommand());
+        registeredCommands.add(new RaycastCommand());
+        registeredCommands.add(new LightBenchCommand());
+        registeredCommands.add(new LightTableCommand());
+        registeredCommands.add(new CollisionBenchCommand());
+        registeredCommands.add(new CellBenchCommand());
 
         log = new TextArea("Wurfel Engine " + WE.VERSION + " Console\n", skin);
         log.setBounds(xPos, yPos + 52, 750, 550);
@@ -0,0 +1,115 @@
+/*
+ * If this software is used for a game the official „Wurfel Engine“ logo or its name must be visible in an intro screen or main menu.
+ *
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, 
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice, 
+ *   this list of conditions and the following disclaimer in the documentation 
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors 
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.console;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.FrameProfiler;
+import com.bombinggames.wurfelengine.core.GameplayScreen;
+import com.bombinggames.wurfelengine.core.gameobjects.PointLightSource;
+import com.bombinggames.wurfelengine.core.map.Chunk;
+import com.bombinggames.wurfelengine.core.map.Coordinate;
+import com.bombinggames.wurfelengine.core.map.Point;
+
+import java.util.ArrayList;
+import java.util.StringTokenizer;
+
+/**
+ * Spawns static point lights around the camera and records the frame time.
+ *
+ * @author agent
+ */
+public class LightBenchCommand implements ConsoleCommand {
+
+    /**
+     * lights spawned by the last run
+     */
+    private final ArrayList<PointLightSource> lights = new ArrayList<>(50);
+
+    @Override
+    public String getCommandName() {
+        return "lightbench";
+    }
+
+    @Override
+    public boolean perform(StringTokenizer parameters, GameplayScreen gameplay) {
+        if (Controller.getMap() == null || gameplay.getView().getCameras().isEmpty()) {
+            WE.getConsole().add("Needs a map and a camera.\n", "System");
+            return false;
+        }
+        int amount = 50;
+        int frames = 300;
+        if (parameters.hasMoreElements()) {
+            amount = Integer.parseInt(parameters.nextToken());
+        }
+        if (parameters.hasMoreElements()) {
+            frames = Integer.parseInt(parameters.nextToken());
+        }
+
+        //remove lights of the last run
+        for (PointLightSource light : lights) {
+            light.dispose();
+        }
+        lights.clear();
+
+        //spawn in the 3x3 chunks around the camera
+        Point center = gameplay.getView().getCameras().get(0).getCenter();
+        Coordinate coord = new Coordinate();
+        for (int i = 0; i < amount; i++) {
+            coord.setFromPoint(center);
+            coord.set(
+                    coord.getX() + MathUtils.random(-Chunk.getBlocksX(), Chunk.getBlocksX()),
+                    coord.getY() + MathUtils.random(-Chunk.getBlocksY(), Chunk.getBlocksY()),
+                    MathUtils.random(1, Chunk.getBlocksZ() - 1)
+            );
+            PointLightSource light = new PointLightSource(
+                    new Color(MathUtils.random(), MathUtils.random(), MathUtils.random(), 1),
+                    5,
+                    10,
+                    gameplay.getView()
+            );
+            light.setSaveToDisk(false);
+            light.spawn(coord.toPoint());
+            lights.add(light);
+        }
+
+        FrameProfiler.record(frames, 60, -1);
+        WE.getConsole().add("Spawned " + amount + " lights. Recording " + frames + " frames after 60 warm up frames.\n", "System");
+        return true;
+    }
+
+    @Override
+    public String getManual() {
+        return "Spawns static point lights around the camera and prints the average frame time. Running it again replaces the lights, 0 removes them. Parameters: [lights] [frames]";
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * If this software is used for a game the official „Wurfel Engine“ logo or its name must be visible in an intro screen or main menu.
+ *
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, 
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice, 
+ *   this list of conditions and the following disclaimer in the documentation 
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors 
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.console;
+
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.GameplayScreen;
+import com.bombinggames.wurfelengine.core.lightengine.LightingTable;
+
+import java.util.StringTokenizer;
+
+/**
+ * Checks the error of the lighting table compared to the analytic phong shading against {@link LightingTable#TOLERANCE}.
+ *
+ * @author agent
+ */
+public class LightTableCommand implements ConsoleCommand {
+
+    @Override
+    public String getCommandName() {
+        return "lighttable";
+    }
+
+    @Override
+    public boolean perform(StringTokenizer parameters, GameplayScreen gameplay) {
+        if (Controller.getLightEngine() == null) {
+            WE.getConsole().add("No light engine active.\n", "System");
+            return false;
+        }
+        int samples = 500;
+        if (parameters.hasMoreElements()) {
+            samples = Integer.parseInt(parameters.nextToken());
+        }
+        LightingTable table = Controller.getLightEngine().getLightingTable();
+        float[] err = table.getMaxError(samples);
+        boolean passed = err[0] <= LightingTable.TOLERANCE
+                && err[1] <= LightingTable.TOLERANCE
+                && err[2] <= LightingTable.TOLERANCE
+                && err[3] <= LightingTable.TOLERANCE;
+        WE.getConsole().add(
+                (passed ? "passed" : "FAILED") + ": max error left: " + err[0]
+                + ", top: " + err[1]
+                + ", right: " + err[2]
+                + ", specular: " + err[3]
+                + ", tolerance: " + LightingTable.TOLERANCE + "\n",
+                "System"
+        );
+
+        //compare lookup with analytic formula
+        float sum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < samples * samples; i++) {
+            sum += table.getSpec1(i % 360, i % 180 - 90);
+        }
+        long lookup = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < samples * samples; i++) {
+            sum += table.calcSpec1(i % 360, i % 180 - 90);
+        }
+        long analytic = System.nanoTime() - start;
+        WE.getConsole().add(
+                "lookup: " + lookup / (samples * samples) + " ns, analytic: " + analytic / (samples * samples) + " ns (" + (sum > 0) + ")\n",
+                "System"
+        );
+        return passed;
+    }
+
+    @Override
+    public String getManual() {
+        return "Compares the precalculated lighting table with the analytic formulas and fails if the biggest error exceeds the tolerance. Prints the time per lookup. Parameters: [samples per axis]";
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * If this software is used for a game the official „Wurfel Engine“ logo or its name must be visible in an intro screen or main menu.
+ *
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, 
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice, 
+ *   this list of conditions and the following disclaimer in the documentation 
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors 
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.console;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.GameplayScreen;
+import com.bombinggames.wurfelengine.core.map.Chunk;
+import com.bombinggames.wurfelengine.core.map.Coordinate;
+import com.bombinggames.wurfelengine.core.gameobjects.Side;
+import com.bombinggames.wurfelengine.core.map.Intersection;
+import com.bombinggames.wurfelengine.core.map.Map;
+import com.bombinggames.wurfelengine.core.map.Point;
+import com.bombinggames.wurfelengine.core.map.RaycastBatch;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+
+import java.util.StringTokenizer;
+
+/**
+ * Checks the voxel traversal of {@link Point#raycast} against constructed rays with a known hit cell and the {@link RaycastBatch} against single rays. Compares with the fixed step marcher and measures rays per second. Fails if a constructed ray or a batched ray hits a different cell.
+ *
+ * @author agent
+ */
+public class RaycastCommand implements ConsoleCommand {
+
+    /**
+     * the block placed as target of the constructed rays
+     */
+    private static final byte MARKER = 1;
+
+    @Override
+    public String getCommandName() {
+        return "raycast";
+    }
+
+    @Override
+    public boolean perform(StringTokenizer parameters, GameplayScreen gameplay) {
+        if (Controller.getMap() == null) {
+            WE.getConsole().add("No map loaded.\n", "System");
+            return false;
+        }
+        int rays = 1000;
+        if (parameters.hasMoreElements()) {
+            rays = Integer.parseInt(parameters.nextToken());
+        }
+        float maxDistance = 20;
+
+        //shoot from the top of the map at the camera center downwards
+        Point origin;
+        if (gameplay.getView().getCameras().isEmpty()) {
+            origin = Controller.getMap().getCenter();
+        } else {
+            origin = gameplay.getView().getCameras().get(0).getCenter().cpy();
+        }
+        origin.setZ(Chunk.getGameHeight() - 1);
+
+        boolean passed = checkConstructed(origin.toCoord());
+
+        Vector3[] dirs = new Vector3[rays];
+        for (int i = 0; i < rays; i++) {
+            dirs[i] = new Vector3(
+                    MathUtils.random(-1f, 1f),
+                    MathUtils.random(-1f, 1f),
+                    MathUtils.random(-1f, -0.1f)
+            ).nor();
+        }
+
+        //the fixed step marcher can miss corners, so this is only reported
+        int agree = 0;
+        for (Vector3 dir : dirs) {
+            Intersection traversal = origin.raycast(dir, maxDistance, null, null);
+            Intersection marched = origin.rayMarchingFixedStep(dir, maxDistance, null, null);
+            if (traversal == null || marched == null) {
+                if (traversal == marched) {
+                    agree++;
+                }
+            } else {
+                Coordinate a = traversal.getPoint().toCoord();
+                Coordinate b = marched.getPoint().toCoord();
+                if (a.getX() == b.getX() && a.getY() == b.getY() && a.getZ() == b.getZ()) {
+                    agree++;
+                }
+            }
+        }
+        WE.getConsole().add(agree + "/" + rays + " rays hit the same cell as the fixed step marcher.\n", "System");
+
+        //benchmark
+        long start = System.nanoTime();
+        for (Vector3 dir : dirs) {
+            origin.raycast(dir, maxDistance, null, null);
+        }
+        long traversalTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (Vector3 dir : dirs) {
+            origin.rayMarchingFixedStep(dir, maxDistance, null, null);
+        }
+        long marchingTime = System.nanoTime() - start;
+        WE.getConsole().add(
+                "traversal: " + (int) (rays / (traversalTime / 1e9)) + " rays/s, fixed step: " + (int) (rays / (marchingTime / 1e9)) + " rays/s\n",
+                "System"
+        );
+
+        //batched rays must hit the same cells as single rays
+        RaycastBatch batch = new RaycastBatch(rays);
+        for (Vector3 dir : dirs) {
+            batch.add(origin.x, origin.y, origin.z, dir.x, dir.y, dir.z, maxDistance);
+        }
+        start = System.nanoTime();
+        batch.cast();
+        long batchTime = System.nanoTime() - start;
+        agree = 0;
+        for (int i = 0; i < rays; i++) {
+            Intersection single = origin.raycast(dirs[i], maxDistance, null, null);
+            if (single == null) {
+                if (!batch.isHit(i)) {
+                    agree++;
+                }
+            } else if (batch.isHit(i)) {
+                Coordinate a = single.getPoint().toCoord();
+                if (a.getX() == batch.getHitX()[i]
+                        && a.getY() == batch.getHitY()[i]
+                        && a.getZ() == Math.max(batch.getHitZ()[i], 0)) {//ground hits are at z=0
+                    agree++;
+                }
+            }
+        }
+        WE.getConsole().add(
+                "batch: " + (int) (rays / (batchTime / 1e9)) + " rays/s, " + agree + "/" + rays + " rays hit the same cell as single rays\n",
+                "System"
+        );
+        passed &= agree == rays;
+        WE.getConsole().add((passed ? "passed" : "FAILED") + "\n", "System");
+        return passed;
+    }
+
+    /**
+     * Places a marker block in the top layer and sends rays with a known result at it. Only the marker is hit. The block is restored afterwards.
+     *
+     * @param target in the top layer. Is moved if rays to it are blocked.
+     * @return true if every ray hit the expected cell
+     */
+    private boolean checkConstructed(Coordinate target) {
+        Map map = Controller.getMap();
+        float diag = RenderCell.GAME_DIAGLENGTH;
+        float edge = RenderCell.GAME_EDGELENGTH;
+        //origin offset, direction, hits the target, entered side
+        float[][] cases = {
+            {0, 0, 3 * edge, 0, 0, -1},//down
+            {-diag, -diag, 0, 1, 1, 0},//two cells along u
+            {-diag, diag, 0, 1, -1, 0},//two cells along v
+            {diag, diag, 3 * edge, -diag, -diag, -3 * edge},//from above at the side
+            {diag, 0, 3 * edge, 0, 0, -1}//down the neighbour column, misses
+        };
+        boolean[] hits = {true, true, true, true, false};
+        Side[] sides = {Side.TOP, Side.BACKLEFT, Side.LEFT, Side.TOP, null};
+
+        //find a place where nothing but the marker can be hit
+        Coordinate coord = target.cpy();
+        for (int i = 0; i < 10 && !isFree(coord, cases); i++) {
+            coord.add(3, 0, 0);
+        }
+        if (!isFree(coord, cases)) {
+            WE.getConsole().add("No free place for the constructed rays found.\n", "System");
+            return false;
+        }
+
+        int previous = map.getBlock(coord);
+        map.setBlock(coord, MARKER, (byte) 0);
+        int failed = 0;
+        try {
+            Point center = coord.toPoint().add(0, 0, edge / 2);
+            for (int i = 0; i < cases.length; i++) {
+                Intersection inters = cast(center, cases[i]);
+                boolean hit = inters != null && inters.getPoint().getZ() > 0 && coord.equals(inters.getPoint().toCoord());
+                if (hit != hits[i] || (hit && sides[i] != null && inters.getNormal() != sides[i])) {
+                    failed++;
+                    WE.getConsole().add(
+                            "Constructed ray " + i + " expected " + (hits[i] ? "a hit of " + coord : "no hit of " + coord)
+                            + (sides[i] != null ? " through " + sides[i] : "") + " but got "
+                            + (inters == null ? "nothing" : inters.getPoint().toCoord() + " through " + inters.getNormal()) + "\n",
+                            "System"
+                    );
+                }
+            }
+        } finally {
+            map.setBlock(coord, previous);
+        }
+        WE.getConsole().add((cases.length - failed) + "/" + cases.length + " constructed rays hit the expected cell.\n", "System");
+        return failed == 0;
+    }
+
+    /**
+     * @param coord
+     * @param cases
+     * @return true if the coordinate is loaded and the rays of the cases do not hit a marker before it is placed
+     */
+    private boolean isFree(Coordinate coord, float[][] cases) {
+        if (Controller.getMap().getChunkContaining(coord) == null || Controller.getMap().getBlockId(coord) == MARKER) {
+            return false;
+        }
+        Point center = coord.toPoint().add(0, 0, RenderCell.GAME_EDGELENGTH2);
+        for (float[] c : cases) {
+            Intersection inters = cast(center, c);
+            if (inters != null && inters.getPoint().getZ() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Intersection cast(Point center, float[] c) {
+        Point start = center.cpy().add(c[0], c[1], c[2]);
+        return start.raycast(new Vector3(c[3], c[4], c[5]), 6, null, id -> id == MARKER);
+    }
+
+    @Override
+    public String getManual() {
+        return "Checks the voxel traversal with constructed rays at a temporary block and checks that batched rays hit the same cells as single rays. Compares random rays with the fixed step marcher and prints rays per second of single, fixed step and batched rays. Parameters: [rays]";
+    }
+}
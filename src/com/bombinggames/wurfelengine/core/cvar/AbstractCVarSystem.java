@@ -38,6 +38,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -58,6 +59,10 @@ public abstract class AbstractCVarSystem {
      * list of all CVars*
      */
     private final HashMap<String, CVar> cvars = new HashMap<>(50);
+    /**
+     * the cvars by the name used to read them so that reading does not need to lower the case
+     */
+    private final ConcurrentHashMap<String, CVar> byName = new ConcurrentHashMap<>(50);
     /**
      * true if currently reading. Prevents saving
      */
@@ -77,7 +82,14 @@ public abstract class AbstractCVarSystem {
      * @return
      */
     public CVar get(String cvar) {
-        return cvars.get(cvar.toLowerCase());
+        CVar result = byName.get(cvar);
+        if (result == null) {
+            result = cvars.get(cvar.toLowerCase());
+            if (result != null) {
+                byName.put(cvar, result);
+            }
+        }
+        return result;
     }
 
     /**
@@ -86,7 +98,7 @@ public abstract class AbstractCVarSystem {
      */
     public boolean getValueB(String cvar) {
         try {
-            return (boolean) cvars.get(cvar.toLowerCase()).getValue();
+            return (boolean) get(cvar).getValue();
         } catch (NullPointerException ex) {
             throw new NullPointerException("Cvar \"" + cvar + "\" not defined.");
         }
@@ -98,7 +110,11 @@ public abstract class AbstractCVarSystem {
      */
     public int getValueI(String cvar) {
         try {
-            return (int) cvars.get(cvar.toLowerCase()).getValue();
+            CVar result = get(cvar);
+            if (result instanceof IntCVar) {
+                return ((IntCVar) result).intValue();
+            }
+            return (int) result.getValue();
         } catch (NullPointerException ex) {
             throw new NullPointerException("Cvar \"" + cvar + "\" not defined.");
         }
@@ -110,7 +126,11 @@ public abstract class AbstractCVarSystem {
      */
     public float getValueF(String cvar) {
         try {
-            return (float) cvars.get(cvar.toLowerCase()).getValue();
+            CVar result = get(cvar);
+            if (result instanceof FloatCVar) {
+                return ((FloatCVar) result).floatValue();
+            }
+            return (float) result.getValue();
         } catch (NullPointerException ex) {
             throw new NullPointerException("Cvar \"" + cvar + "\" not defined.");
         }
@@ -122,7 +142,7 @@ public abstract class AbstractCVarSystem {
      */
     public String getValueS(String cvar) {
         try {
-            return (String) cvars.get(cvar.toLowerCase()).getValue();
+            return (String) get(cvar).getValue();
         } catch (NullPointerException ex) {
             throw new NullPointerException("Cvar \"" + cvar + "\" not defined.");
         }
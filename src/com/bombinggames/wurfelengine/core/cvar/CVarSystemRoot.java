@@ -53,6 +53,10 @@ public class CVarSystemRoot extends AbstractCVarSystem {
         register(new BooleanCVar(false), "loadPixmap");
         register(new FloatCVar(0.00078125f), "LEazimutSpeed");
         register(new BooleanCVar(false), "LEnormalMapRendering");
+        register(new BooleanCVar(true), "sunShadows");
+        register(new FloatCVar(2f), "sunShadowThreshold");//degrees the sun must move before the shadows are recalculated
+        register(new IntCVar(24), "sunShadowDistance");//max length of a shadow in half blocks
+        register(new FloatCVar(0.4f), "sunShadowStrength");
         register(new IntCVar(1920), "renderResolutionWidth");
         register(new BooleanCVar(true), "enableLightEngine");
         register(new BooleanCVar(true), "enableFog");
@@ -125,9 +129,27 @@ public class CVarSystemRoot extends AbstractCVarSystem {
         register(new IntCVar(0), "resolutionX");
         register(new IntCVar(0), "resolutionY");
         register(new IntCVar(3500), "MaxSprites");
+        register(new BooleanCVar(false), "shareDepthList");//cameras with overlapping views share one depth list, disjoint ones are sorted in parallel
+        register(new BooleanCVar(true), "pickingBuffer");//mouse picking uses the front-most cells of the last frame instead of a raycast
+        register(new BooleanCVar(true), "parallelEntityUpdate");//entities with a phased update compute their movement on worker threads
+        register(new BooleanCVar(false), "entityLOD");//update far away entities less often. Changes the step size of their physics and AI
+        register(new FloatCVar(30), "entityLODDistance");//in blocks. Entities nearer to a camera are updated every frame
+        register(new FloatCVar(2), "entityLODBudget");//in ms. Time per frame for updating far away entities
+        register(new IntCVar(20000), "maxParticles");//particles are not spawned above this amount
+        register(new BooleanCVar(true), "parallelParticleUpdate");//large amounts of particles are updated on worker threads
+        register(new FloatCVar(60), "randomTickRate");//random ticks per chunk per second. Only logic blocks subscribed to random ticks are affected
+        register(new BooleanCVar(false), "cellSimulation");//simulate liquid and falling blocks. Water in existing maps starts flowing if enabled
+        register(new FloatCVar(100), "cellTickTime");//in ms. Time between two steps of the simulation of liquid and falling blocks
+        register(new BooleanCVar(true), "parallelCellSimulation");//chunks of the simulation of liquid and falling blocks are processed on worker threads
+        register(new BooleanCVar(false), "farTerrain");//render chunks outside the render storage as coarse impostors
+        register(new IntCVar(3), "farTerrainRadius");//chunks around the camera center which are read from the save for the far terrain if not loaded
         register(new IntCVar(90), "CameraLeapRadius");
         register(new FloatCVar(0.9f), "ambientOcclusion");
         register(new FloatCVar(200), "MaxDelta");//skip delta if under 5 FPS to prevent glitches
+        register(new IntCVar(0), "tickRate");//simulation ticks per second, 0 simulates once per frame with the frame time
+        register(new IntCVar(5), "maxTicksPerFrame");//catch-up limit, the simulation slows down if more ticks would be needed
+        register(new FloatCVar(0), "simulationBudget");//ms per frame after which no further tick is started, 0 for no limit
+        register(new BooleanCVar(true), "interpolateEntities");//render entities between the last two ticks
         register(new StringCVar(""), "loadedMap", CVarFlags.CVAR_VOLATILE);
         register(new StringCVar(""), "lastConsoleCommand");
         register(new IntCVar(20), "undohistorySize");
@@ -55,6 +55,13 @@ public class FloatCVar extends CVar {
         return value;
     }
 
+    /**
+     * @return the value without boxing
+     */
+    float floatValue() {
+        return value;
+    }
+
     /**
      * @param value
      */
@@ -53,6 +53,13 @@ public class IntCVar extends CVar {
         return value;
     }
 
+    /**
+     * @return the value without boxing
+     */
+    int intValue() {
+        return value;
+    }
+
     /**
      * @param value
      */
@@ -28,7 +28,6 @@
  */
 package com.bombinggames.wurfelengine.core.gameobjects;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.ai.msg.Telegraph;
 import com.bombinggames.wurfelengine.WE;
 import com.bombinggames.wurfelengine.core.Controller;
@@ -40,7 +39,6 @@ import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderStorage;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 
 import static com.bombinggames.wurfelengine.core.map.rendering.RenderCell.GAME_DIAGLENGTH2;
 import static com.bombinggames.wurfelengine.core.map.rendering.RenderCell.GAME_EDGELENGTH;
@@ -60,6 +58,15 @@ public abstract class AbstractEntity extends AbstractGameObject implements Teleg
     private float lightlevelB;
     private float health = 100f;
     private Point position;//the position in the map-grid
+    /**
+     * position at the start of the last simulation tick
+     */
+    private transient Point tickStartPosition;
+    /**
+     * time not yet passed to {@link #update(float)}
+     */
+    private transient float updateDelta;
+    private transient boolean sleeping;
     private int dimensionZ = GAME_EDGELENGTH;
     private boolean dispose;
     private boolean obstacle;
@@ -79,7 +86,11 @@ public abstract class AbstractEntity extends AbstractGameObject implements Teleg
     private char category = 'e';
     private boolean useRawDelta = false;
     private float mass = 0.4f;
-    private LinkedList<AbstractGameObject> covered = new LinkedList<>();
+    private transient ArrayList<AbstractGameObject> covered;
+    /**
+     * reused when searching the covered cells
+     */
+    private transient Coordinate coveredCoord;
     /**
      * Create an abstractEntity.
      *
@@ -140,10 +151,84 @@ public abstract class AbstractEntity extends AbstractGameObject implements Teleg
         }
 
         if (soundTimeLimit > 0) {
-            soundTimeLimit -= Gdx.graphics.getRawDeltaTime();
+            soundTimeLimit -= dt / 1000f;
         }
     }
 
+    /**
+     * Saves the position at the start of a simulation tick. Used to interpolate the rendered position between ticks.
+     */
+    public void saveTickStartPosition() {
+        if (position == null) {
+            tickStartPosition = null;
+        } else if (tickStartPosition == null) {
+            tickStartPosition = position.cpy();
+        } else {
+            tickStartPosition.set(position);
+        }
+    }
+
+    /**
+     * @return the position at the start of the last simulation tick, can be null
+     * @see com.bombinggames.wurfelengine.core.SimulationClock
+     */
+    public Point getTickStartPosition() {
+        return tickStartPosition;
+    }
+
+    /**
+     * Adds time which should be passed to the next update.
+     *
+     * @param dt  in ms
+     * @param max the accumulated time is capped at this so that a rarely updated entity does not make one huge step, in ms
+     * @see com.bombinggames.wurfelengine.core.map.EntityScheduler
+     */
+    public void addUpdateDelta(float dt, float max) {
+        updateDelta = Math.min(updateDelta + dt, max);
+    }
+
+    /**
+     * @return the time which should be passed to the next update in ms
+     */
+    public float getUpdateDelta() {
+        return updateDelta;
+    }
+
+    /**
+     * Resets the time which should be passed to the next update.
+     *
+     * @return the time before the reset in ms
+     */
+    public float takeUpdateDelta() {
+        float dt = updateDelta;
+        updateDelta = 0;
+        return dt;
+    }
+
+    /**
+     * A sleeping entity is not updated until it is woken up.
+     *
+     * @return
+     */
+    public boolean isSleeping() {
+        return sleeping;
+    }
+
+    /**
+     * @param sleeping
+     * @see #isSleeping()
+     */
+    protected void setSleeping(boolean sleeping) {
+        this.sleeping = sleeping;
+    }
+
+    /**
+     * Makes the entity be updated again.
+     */
+    public void wake() {
+        sleeping = false;
+    }
+
     //AbstractGameObject implementation
     @Override
     public final Point getPosition() {
@@ -157,11 +242,13 @@ public abstract class AbstractEntity extends AbstractGameObject implements Teleg
      */
     public void setPosition(Point pos) {
         this.position = pos;
+        wake();
     }
 
     @Override
     public void setPosition(Position pos) {
         this.position = pos.toPoint();
+        wake();
     }
 
     /**
@@ -202,6 +289,8 @@ public abstract class AbstractEntity extends AbstractGameObject implements Teleg
     public AbstractEntity spawn(Point point) {
         if (position == null) {
             setPosition(point);
+            tickStartPosition = null;
+            sleeping = false;
             dispose = false;
             Controller.getMap().addEntities(this);
             if (!this.isInMemoryArea()) {
@@ -431,6 +520,7 @@ public abstract class AbstractEntity extends AbstractGameObject implements Teleg
      * @see #isIndestructible()
      */
     public void takeDamage(byte value) {
+        wake();
         if (!indestructible) {
             if (health > 0) {
                 if (damageSounds != null && soundTimeLimit <= 0) {
@@ -499,6 +589,7 @@ public abstract class AbstractEntity extends AbstractGameObject implements Teleg
      * @see #takeDamage(byte)
      */
     public void setHealth(float health) {
+        wake();
         if (health > 100) health = 100;
         if (health < 0) health = 0;
         this.health = health;
@@ -589,10 +680,15 @@ public abstract class AbstractEntity extends AbstractGameObject implements Teleg
 
 
     @Override
-    public LinkedList<AbstractGameObject> getCovered(RenderStorage rs) {
+    public ArrayList<AbstractGameObject> getCovered(RenderStorage rs) {
+        //lazy init of transient fields
+        if (covered == null) {
+            covered = new ArrayList<>(1);
+            coveredCoord = new Coordinate();
+        }
         covered.clear();
         if (position != null) {
-            Coordinate coord = getCoord();
+            Coordinate coord = coveredCoord.setFromPoint(position);
             coord.add(0, 0, -1);//go one down because the ents are added one too high
             RenderCell block;
 //			block = rs.getCell(coord);//draw block in this cell first
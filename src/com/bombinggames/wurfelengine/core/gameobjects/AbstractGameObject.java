@@ -39,6 +39,7 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.bombinggames.wurfelengine.WE;
 import com.bombinggames.wurfelengine.core.Camera;
 import com.bombinggames.wurfelengine.core.GameView;
+import com.bombinggames.wurfelengine.core.map.Coordinate;
 import com.bombinggames.wurfelengine.core.map.Point;
 import com.bombinggames.wurfelengine.core.map.Position;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
@@ -70,6 +71,13 @@ public abstract class AbstractGameObject implements Serializable, Renderable {
     private static Texture textureDiff;
     private static Texture textureNormal;
     private static int currentMarkedFlag;
+    /**
+     * reused every time an object is rendered to avoid allocation
+     */
+    private transient static final Sprite tmpSprite = new Sprite();
+    private transient static final Color tmpColor = new Color();
+    private transient static final Color tmpFogColor = new Color();
+    private transient static final ThreadLocal<Coordinate> tmpCoord = ThreadLocal.withInitial(Coordinate::new);
     //render information
     private boolean hidden;
     private float rotation;
@@ -309,9 +317,11 @@ public abstract class AbstractGameObject implements Serializable, Renderable {
         if (!hidden && getPosition() != null) {
             Color fogcolor = null;
             if (WE.getCVars().getValueB("enableFog")) {
+                Position pos = getPosition();
+                int coordY = pos instanceof Coordinate ? ((Coordinate) pos).getY() : tmpCoord.get().setFromPoint(pos.getPoint()).getY();
                 //can use CVars for dynamic change. using harcored values for performance reasons
-                float factor = (float) (Math.exp(0.025f * (camera.getVisibleFrontBorderHigh() - getPosition().toCoord().getY() - 18.0)) - 1);
-                fogcolor = new Color(
+                float factor = (float) (Math.exp(0.025f * (camera.getVisibleFrontBorderHigh() - coordY - 18.0)) - 1);
+                fogcolor = tmpFogColor.set(
                         0.5f + 0.3f * factor,
                         0.5f + 0.4f * factor,
                         0.5f + 0.1f * factor,
@@ -350,7 +360,9 @@ public abstract class AbstractGameObject implements Serializable, Renderable {
     public void render(GameView view, int xPos, int yPos, Color color) {
         if (spriteId > 0 && spriteValue >= 0) {
             AtlasRegion texture = AbstractGameObject.getSprite(getCategory(), spriteId, spriteValue);
-            Sprite sprite = new Sprite(texture);
+            Sprite sprite = tmpSprite;
+            sprite.setRegion(texture);
+            sprite.setSize(Math.abs(texture.getRegionWidth()), Math.abs(texture.getRegionHeight()));
             sprite.setOrigin(
                     texture.originalWidth / 2 - texture.offsetX,
                     VIEW_HEIGHT2 - texture.offsetY
@@ -372,7 +384,7 @@ public abstract class AbstractGameObject implements Serializable, Renderable {
             }
             if (color != null) {
                 sprite.setColor(
-                        tint.cpy().mul(
+                        tmpColor.set(tint).mul(
                                 color.r + 0.5f,
                                 color.g + 0.5f,
                                 color.b + 0.5f,
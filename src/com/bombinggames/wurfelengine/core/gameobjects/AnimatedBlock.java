@@ -133,4 +133,9 @@ public class AnimatedBlock extends RenderCell implements Animatable {
     public void stop() {
         running = false;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean needsUpdate() {
+        return true;
+    }
+}
@@ -40,11 +40,15 @@ import static com.bombinggames.wurfelengine.core.map.rendering.RenderCell.GAME_E
 /**
  * @author Benedikt Vogler
  */
-public class BenchmarkBall extends MovableEntity {
+public class BenchmarkBall extends MovableEntity implements PhasedUpdate {
 
     private static final long serialVersionUID = 1L;
     private static float timer = 0;
     private static float timeTillBall = 1000;
+    /**
+     * if true does not spawn new balls
+     */
+    private transient boolean spawningDisabled;
 
     /**
      * Creates a Benchmark ball.
@@ -55,11 +59,28 @@ public class BenchmarkBall extends MovableEntity {
         setFloating(false);
     }
 
+    /**
+     * Stops this ball from spawning new balls, e.g. for a benchmark with a fixed amount.
+     */
+    public void disableSpawning() {
+        spawningDisabled = true;
+    }
+
+    @Override
+    public void compute(float dt) {
+        computeMovement(dt);
+    }
+
+    @Override
+    public void commit(float dt) {
+        update(dt);
+    }
+
     @Override
     public void update(float dt) {
         super.update(dt);
         timer += dt;
-        if (timer > timeTillBall) {
+        if (timer > timeTillBall && !spawningDisabled) {
             if (Gdx.graphics.getDeltaTime() < 0.013f) {//over 60 FPS
                 new BenchmarkBall().spawn(
                         Controller.getMap().getCenter(Chunk.getGameHeight() - 2 * GAME_EDGELENGTH)
@@ -31,7 +31,9 @@ package com.bombinggames.wurfelengine.core.gameobjects;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.graphics.Color;
 import com.bombinggames.wurfelengine.core.Camera;
+import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.GameView;
+import com.bombinggames.wurfelengine.core.map.Coordinate;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
 
 /**
@@ -44,6 +46,10 @@ public class EntityShadow extends AbstractEntity {
      * the parent class. The object where this is the shadow
      */
     private final AbstractEntity character;
+    /**
+     * temporary used every update
+     */
+    private transient Coordinate tmp;
 
     /**
      * @param character
@@ -63,15 +69,25 @@ public class EntityShadow extends AbstractEntity {
         } else {
             //find height of shadow surface
             getPoint().set(character.getPosition());//start at character
-            while (getPoint().getZ() > 0
-                    && (RenderCell.isTransparent(getPoint().getBlock()))
-                    ) {
-                getPoint().add(0, 0, -RenderCell.GAME_EDGELENGTH);
+            if (tmp == null) {
+                tmp = new Coordinate();
+            }
+            tmp.setFromPoint(getPoint());
+            int charZ = tmp.getZ();
+            int top = Controller.getMap().getTopOpaqueZ(tmp.getX(), tmp.getY());
+            if (top > charZ) {
+                //under a roof, walk down
+                while (getPoint().getZ() > 0
+                        && (RenderCell.isTransparent(getPoint().getBlock()))
+                        ) {
+                    getPoint().add(0, 0, -RenderCell.GAME_EDGELENGTH);
+                }
+                top = getPoint().getZGrid();
             }
             if (character.getPosition().getZ() < RenderCell.GAME_EDGELENGTH) {
                 getPoint().setZ(0);
             } else {
-                getPoint().setZ((getPoint().getZGrid() + 1) * RenderCell.GAME_EDGELENGTH);
+                getPoint().setZ((top + 1) * RenderCell.GAME_EDGELENGTH);
             }
         }
     }
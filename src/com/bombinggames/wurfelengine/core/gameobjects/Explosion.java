@@ -4,11 +4,13 @@ import com.badlogic.gdx.ai.msg.MessageManager;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.ai.msg.Telegraph;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Vector3;
 import com.bombinggames.wurfelengine.WE;
 import com.bombinggames.wurfelengine.core.Camera;
 import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.Events;
 import com.bombinggames.wurfelengine.core.map.Coordinate;
+import com.bombinggames.wurfelengine.core.map.Map;
 import com.bombinggames.wurfelengine.core.map.Point;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
 
@@ -21,6 +23,7 @@ public class Explosion extends AbstractEntity implements Telegraph {
 
     private static final long serialVersionUID = 1L;
     private static String explosionsound;
+    private static final Color DUST_COLOR = new Color(0.6f, 0.55f, 0.4f, 1f);
 
     private final int radius;
     private final int damage;
@@ -64,32 +67,47 @@ public class Explosion extends AbstractEntity implements Telegraph {
     @Override
     public AbstractEntity spawn(Point point) {
         super.spawn(point);
-        //replace blocks by air
+        Map map = Controller.getMap();
+        ParticleSystem particles = map.getParticleSystem();
+        //damage every block first and update the map once
+        map.beginEdit();
+        try {
+            for (int x = -radius; x < radius; x++) {
+                for (int y = -radius * 2; y < radius * 2; y++) {
+                    for (int z = -radius; z < radius; z++) {
+                        Coordinate coord = point.toCoord().add(x, y, z);
+                        int intdamage = (int) (damage
+                                * (1 - getPosition().distanceToSquared(coord)
+                                / (radius * radius * RenderCell.GAME_EDGELENGTH * RenderCell.GAME_EDGELENGTH)));
+                        if (intdamage > 0) {
+                            if (intdamage > 100) {
+                                intdamage = 100; //clamp so it's under 127 to avoid byte overflow
+                            }
+                            coord.damage(
+                                    (byte) intdamage
+                            );
+                        }
+                    }
+                }
+            }
+        } finally {
+            map.commit();
+        }
+
         for (int x = -radius; x < radius; x++) {
             for (int y = -radius * 2; y < radius * 2; y++) {
                 for (int z = -radius; z < radius; z++) {
                     Coordinate coord = point.toCoord().add(x, y, z);
-                    int intdamage = (int) (damage
-                            * (1 - getPosition().distanceToSquared(coord)
-                            / (radius * radius * RenderCell.GAME_EDGELENGTH * RenderCell.GAME_EDGELENGTH)));
-                    if (intdamage > 0) {
-                        if (intdamage > 100) {
-                            intdamage = 100; //clamp so it's under 127 to avoid byte overflow
-                        }
-                        coord.damage(
-                                (byte) intdamage
-                        );
-                    }
 
                     //get every entity which is attacked
                     ArrayList<MovableEntity> list
-                            = Controller.getMap().getEntitysOnCoord(
+                            = map.getEntitysOnCoord(
                             coord,
                             MovableEntity.class
                     );
 
                     for (MovableEntity ent : list) {
-                        intdamage = (int) (damage
+                        int intdamage = (int) (damage
                                 * (1 - getPosition().distanceToSquared(ent)
                                 / (radius * radius * RenderCell.GAME_EDGELENGTH * RenderCell.GAME_EDGELENGTH)));
                         intdamage *= 1.2;//entities should break a little easier
@@ -104,15 +122,21 @@ public class Explosion extends AbstractEntity implements Telegraph {
                         );
                     }
 
-                    Particle dust = (Particle) new Particle(
-                            (byte) 22,
-                            1700
-                    ).spawn(point.cpy().add((float) Math.random() * 20f, (float) Math.random() * 20f, (float) Math.random() * 20f));//spawn at center
-                    dust.setColor(new Color(0.6f, 0.55f, 0.4f, 1f));
-                    dust.setType(ParticleType.FIRE);
-                    dust.addMovement(
-                            coord.toPoint().sub(point).nor().scl(4f)
-                    );//move from center to outside
+                    //move from center to outside
+                    Vector3 dir = coord.toPoint().sub(point).nor().scl(4f);
+                    particles.add(
+                            point.x + (float) Math.random() * 20f,//spawn at center
+                            point.y + (float) Math.random() * 20f,
+                            point.z + (float) Math.random() * 20f,
+                            dir.x,
+                            dir.y,
+                            dir.z,
+                            1700,
+                            DUST_COLOR,
+                            ParticleType.FIRE,
+                            ParticleSystem.SPRITE_ID,
+                            true
+                    );
                 }
             }
         }
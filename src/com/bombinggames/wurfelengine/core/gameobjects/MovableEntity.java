@@ -35,10 +35,12 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.Events;
 import com.bombinggames.wurfelengine.core.GameView;
 import com.bombinggames.wurfelengine.core.map.Chunk;
 import com.bombinggames.wurfelengine.core.map.Point;
+import com.bombinggames.wurfelengine.core.map.VoxelCollision;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
 import com.bombinggames.wurfelengine.extension.AimBand;
 
@@ -100,6 +102,35 @@ public class MovableEntity extends AbstractEntity {
     private boolean walkingPaused = false;
     private transient MoveToAi moveToAi;
     private transient AimBand particleBand;
+    /**
+     * reused for the new position every update
+     */
+    private transient Point newPos;
+    /**
+     * the position from which {@link #newPos} was computed, null if not computed yet
+     */
+    private transient Point computedFrom;
+    /**
+     * the movement from which {@link #newPos} was computed
+     */
+    private transient Vector3 computedWith;
+    /**
+     * the movement after {@link #computeMovement(float)}, e.g. with gravity. Applied in {@link #update(float)}.
+     */
+    private transient Vector3 computedMovement;
+    /**
+     * the computed movement collided horizontal with the world
+     */
+    private transient boolean collidedHorizontal;
+    /**
+     * can fall asleep when resting
+     */
+    private boolean sleepAllowed;
+    /**
+     * where it fell asleep
+     */
+    private transient Point sleptAt;
+    private transient VoxelCollision collision;
     /**
      * Simple MovableEntity with no animation.
      *
@@ -268,38 +299,19 @@ public class MovableEntity extends AbstractEntity {
                 particleBand.update();
             }
 
-			/*HORIZONTAL MOVEMENT*/
-            //calculate new position
-            Vector3 dMove = new Vector3(
-                    t * movement.x * GAME_EDGELENGTH,
-                    t * movement.y * GAME_EDGELENGTH,
-                    0
-            );
-
-            Point newPos = getPosition().cpy().add(dMove);
-            //check if movement to new position is okay
-            if (collider && collidesWithWorld(newPos, colissionRadius)) {
-                //stop
-                setHorMovement(new Vector2());
-                MessageManager.getInstance().dispatchMessage(this, Events.collided.getId());
-            }
-
-			/*VERTICAL MOVEMENT*/
-            float oldHeight = getPosition().getZ();
-            //apply gravity
-            if (!floating && !isOnGround()) {
-                addMovement(
-                        0, 0, -WE.getCVars().getValueF("gravity") * t //in m/s
-                );
+            //use the result of the compute phase if nothing moved or accelerated the entity since then
+            if (computedFrom == null || !computedFrom.equals(getPosition()) || !computedWith.equals(movement)) {
+                computeMovement(dt);
             }
-
-            newPos = newPos.set(getPosition()).add(movement.cpy().scl(GAME_EDGELENGTH * t));
-
-            if (collider && movement.z > 0 && isOnCeil(newPos)) {
-                movement.z = 0;
-                newPos = newPos.set(getPosition()).add(movement.cpy().scl(GAME_EDGELENGTH * t));
+            computedFrom = null;
+            movement.set(computedMovement);
+            if (collidedHorizontal) {
+                collidedHorizontal = false;
+                MessageManager.getInstance().dispatchMessage(this, Events.collided.getId());
+                if (!hasPosition()) {
+                    return;//object may be destroyed during colission event
+                }
             }
-
             //check collision with other entities
             checkEntColl();
 
@@ -333,7 +345,7 @@ public class MovableEntity extends AbstractEntity {
                     }
                 }
                 if (collider) {
-                    getPosition().setZ((int) (oldHeight / GAME_EDGELENGTH) * GAME_EDGELENGTH);
+                    getPosition().setZ((int) (getPosition().getZ() / GAME_EDGELENGTH) * GAME_EDGELENGTH);
                 }
             }
 
@@ -380,15 +392,27 @@ public class MovableEntity extends AbstractEntity {
                 if (isOnGround()) {
                     //stop at a threshold
                     if (movement.x * movement.x + movement.y * movement.y > 0.1f) {
-                        setHorMovement(getMovementHor().scl(1f / (dt * friction + 1f)));//with this formula this fraction is always <1
+                        float brake = 1f / (dt * friction + 1f);//with this formula this fraction is always <1
+                        setHorMovement(movement.x * brake, movement.y * brake);
                     } else {
-                        setHorMovement(new Vector2());
+                        setHorMovement(0, 0);
                     }
                 }
 
                 updateSprite();
             }
 
+            //fall asleep when resting
+            if (sleepAllowed && moveToAi == null && movement.isZero() && (floating || isOnGround())) {
+                if (sleptAt == null) {
+                    sleptAt = new Point(0, 0, 0);
+                }
+                sleptAt.set(getPosition());
+                setSleeping(true);
+            } else {
+                setSleeping(false);
+            }
+
             /* SOUNDS */
             //should the runningsound be played?
             if (runningSound != null) {
@@ -418,6 +442,106 @@ public class MovableEntity extends AbstractEntity {
         }
     }
 
+    /**
+     * Calculates the new position and movement and checks it against the world. Only reads the map and does not change the movement, so it can be called in the parallel phase of a {@link PhasedUpdate}. The result is applied in the next {@link #update(float)}.
+     *
+     * @param dt time since last update in ms
+     */
+    public void computeMovement(float dt) {
+        if (!hasPosition()) {
+            return;
+        }
+        float t = dt * 0.001f; //t = time in s
+        if (computedMovement == null) {
+            computedMovement = new Vector3();
+            computedWith = new Vector3();
+        }
+        computedWith.set(this.movement);
+        Vector3 movement = computedMovement.set(this.movement);
+        collidedHorizontal = false;
+
+		/*HORIZONTAL MOVEMENT*/
+        if (this.newPos == null) {
+            this.newPos = new Point(0, 0, 0);
+        }
+        Point pos = getPosition();
+        Point newPos = this.newPos;
+        newPos.set(pos);
+        float dx = t * movement.x * GAME_EDGELENGTH;
+        float dy = t * movement.y * GAME_EDGELENGTH;
+        //move until the contact so that fast objects do not tunnel
+        if (collider) {
+            float free = getCollision().sweepHorizontal(pos.x, pos.y, pos.z, dx, dy, colissionRadius, getDimensionZ());
+            if (free < 1) {
+                //stop, the event is sent when applied
+                movement.x = 0;
+                movement.y = 0;
+                collidedHorizontal = true;
+                dx *= free;
+                dy *= free;
+            }
+        }
+        newPos.add(dx, dy, 0);
+
+		/*VERTICAL MOVEMENT*/
+        //apply gravity
+        if (!floating && !isOnGround()) {
+            movement.z -= WE.getCVars().getValueF("gravity") * t; //in m/s
+        }
+
+        float dz = t * movement.z * GAME_EDGELENGTH;
+        if (collider && dz != 0) {
+            float free = getCollision().sweepVertical(newPos.x, newPos.y, pos.z, dz, colissionRadius, getDimensionZ());
+            if (free < 1) {
+                if (dz > 0) {
+                    //hit the ceiling
+                    movement.z = 0;
+                    dz *= free;
+                } else {
+                    //stand on the top of the block, landing is handled when applied
+                    dz = (float) Math.floor((pos.z + dz * free) / GAME_EDGELENGTH) * GAME_EDGELENGTH - pos.z;
+                }
+            }
+        }
+        newPos.add(0, 0, dz);
+
+        if (computedFrom == null) {
+            computedFrom = new Point(0, 0, 0);
+        }
+        computedFrom.set(getPosition());
+    }
+
+    /**
+     * Sleeps until it moves or is moved.
+     *
+     * @return
+     */
+    @Override
+    public boolean isSleeping() {
+        return super.isSleeping()
+                && movement.isZero()
+                && moveToAi == null
+                && hasPosition()
+                && getPosition().equals(sleptAt);
+    }
+
+    /**
+     * Allows the entity to fall asleep when it is resting so that it is not updated until it moves. Should only be allowed if the update does nothing else when resting.
+     *
+     * @param sleepAllowed
+     */
+    public void setSleepAllowed(boolean sleepAllowed) {
+        this.sleepAllowed = sleepAllowed;
+    }
+
+    /**
+     * @return
+     * @see #setSleepAllowed(boolean)
+     */
+    public boolean isSleepAllowed() {
+        return sleepAllowed;
+    }
+
     /**
      *
      */
@@ -517,40 +641,6 @@ public class MovableEntity extends AbstractEntity {
         super.render(view, xPos, yPos);
     }
 
-    /**
-     * O(1)
-     *
-     * @param pos not modified
-     * @return true if colliding
-     */
-    private boolean checkCollisionCorners(final Point pos) {
-        int colRad = colissionRadius;
-        int block = (byte) pos.add(0, -colRad, 0).getBlock();
-        //back corner top
-        if (RenderCell.isObstacle(block)) {
-            pos.add(0, colRad, 0);
-            return true;
-        }
-        //front corner
-        block = pos.add(0, 2 * colRad, 0).getBlock();
-        if (RenderCell.isObstacle(block)) {
-            pos.add(0, -colRad, 0);
-            return true;
-        }
-
-        //check X
-        //left
-        block = pos.add(-colRad, -colRad, 0).getBlock();
-        if (RenderCell.isObstacle(block)) {
-            pos.add(colRad, 0, 0);
-            return true;
-        }
-        //bottom corner
-        block = pos.add(2 * colRad, 0, 0).getBlock();
-        pos.add(-colRad, 0, 0);
-        return RenderCell.isObstacle(block);
-    }
-
     /**
      * check for horizontal colission (x and y)<br>
      * O(1)
@@ -560,26 +650,7 @@ public class MovableEntity extends AbstractEntity {
      * @return true if colliding horizontal
      */
     public boolean collidesWithWorld(final Point pos, final float colissionRadius) {
-        if (checkCollisionCorners(pos)) {
-            return true;
-        }
-
-        float heightBefore = pos.z;
-        int dimZ = getDimensionZ();
-        //chek in the middle if bigger then a block
-        if (dimZ > RenderCell.GAME_EDGELENGTH) {
-            pos.add(0, 0, dimZ / 2);
-            if (checkCollisionCorners(pos)) {
-                pos.add(0, 0, -dimZ / 2);
-                return true;
-            }
-            pos.add(0, 0, dimZ / 2);
-        } else {
-            pos.add(0, 0, dimZ);
-        }
-        pos.z = heightBefore;
-        //check top
-        return checkCollisionCorners(pos);
+        return getCollision().collidesHorizontal(pos.x, pos.y, pos.z, (int) colissionRadius, getDimensionZ());
     }
 
     /**
@@ -592,10 +663,19 @@ public class MovableEntity extends AbstractEntity {
         if (pos == null || pos.getZ() <= 0 || pos.getZ() > Chunk.getGameHeight()) {
             return false;
         }
-        pos.z += getDimensionZ();
-        boolean result = checkCollisionCorners(pos);
-        pos.z -= getDimensionZ();
-        return result;
+        return getCollision().isOnCeil(pos.x, pos.y, pos.z, colissionRadius, getDimensionZ());
+    }
+
+    /**
+     * The collision with the world. Caches the blocks around this entity.
+     *
+     * @return
+     */
+    private VoxelCollision getCollision() {
+        if (collision == null) {
+            collision = new VoxelCollision();
+        }
+        return collision;
     }
 
     /**
@@ -744,8 +824,18 @@ public class MovableEntity extends AbstractEntity {
      * @param movement
      */
     public void setHorMovement(Vector2 movement) {
-        this.movement.x = movement.x;
-        this.movement.y = movement.y;
+        setHorMovement(movement.x, movement.y);
+    }
+
+    /**
+     * Set the horizontal movement and keeps z
+     *
+     * @param x
+     * @param y
+     */
+    public void setHorMovement(float x, float y) {
+        this.movement.x = x;
+        this.movement.y = y;
         updateOrientation();
     }
 
@@ -790,8 +880,8 @@ public class MovableEntity extends AbstractEntity {
      * updates the orientation vector
      */
     private void updateOrientation() {
-        if (getMovementHor().len2() != 0) {//only update if there is new information, else keep it
-            orientation = getMovementHor().nor();
+        if (movement.x * movement.x + movement.y * movement.y != 0) {//only update if there is new information, else keep it
+            orientation.set(movement.x, movement.y).nor();
         }
     }
 
@@ -841,12 +931,7 @@ public class MovableEntity extends AbstractEntity {
                 if (pos.getZ() > Chunk.getGameHeight()) {
                     return false;
                 }
-                pos.setZ(pos.getZ() - 1);//move one down for check
-
-                boolean colission = pos.isObstacle() || collidesWithWorld(pos, colissionRadius);
-                pos.setZ(pos.getZ() + 1);//reverse
-
-                return colission;
+                return getCollision().isOnGround(pos.x, pos.y, pos.z, colissionRadius);
             } else {
                 return true;
             }
@@ -962,20 +1047,35 @@ public class MovableEntity extends AbstractEntity {
      * checks the colissions with entities, O(n)
      */
     private void checkEntColl() {
-        ArrayList<MovableEntity> nearbyEnts = getCollidingEntities(MovableEntity.class);
-        for (MovableEntity ent : nearbyEnts) {
-            //if (this.collidesWith(ent))
+        ArrayList<AbstractEntity> ents = Controller.getMap().getEntities();
+        for (int i = 0; i < ents.size(); i++) {
+            AbstractEntity other = ents.get(i);
+            if (other == this || !(other instanceof MovableEntity) || !other.hasPosition() || !collidesWith(other)) {
+                continue;
+            }
+            MovableEntity ent = (MovableEntity) other;
             if (ent.isObstacle() && getMass() > 0.5f) {
-
-                Vector3 colVec3 = getPosition().sub(ent.getPosition());
-                Vector2 colVec2 = new Vector2(colVec3.x, colVec3.y);
-                float d = colVec2.len();
+                Point pos = getPosition();
+                Point entPos = ent.getPosition();
+                float colX = pos.x - entPos.x;
+                float colY = pos.y - entPos.y;
+                float d = (float) Math.sqrt(colX * colX + colY * colY);
+                if (d == 0) {
+                    continue;//no direction to push
+                }
 
                 // minimum translation distance to push balls apart after intersecting
-                Vector2 mtd = colVec2.scl(((colissionRadius + ent.colissionRadius) - d) / d);
+                float mtdScl = ((colissionRadius + ent.colissionRadius) - d) / d;
+                float mtdX = colX * mtdScl;
+                float mtdY = colY * mtdScl;
+                float mtdLen = (float) Math.sqrt(mtdX * mtdX + mtdY * mtdY);
+                if (mtdLen != 0) {
+                    mtdX /= mtdLen;
+                    mtdY /= mtdLen;
+                }
 
                 // impact speed
-                float vn = getMovementHor().sub(ent.getMovementHor()).dot(mtd.nor());
+                float vn = (movement.x - ent.movement.x) * mtdX + (movement.y - ent.movement.y) * mtdY;
 
                 // sphere intersecting but moving away from each other already
                 if (vn <= 0.0f) {
@@ -984,16 +1084,21 @@ public class MovableEntity extends AbstractEntity {
                     float im1 = 1 / getMass();
                     float im2 = 1 / ent.getMass();
                     // collision impulse
-                    Vector2 impulse = mtd.scl((-(1.0f + 90.1f) * vn) / (im1 + im2));
+                    float impulseScl = (-(1.0f + 90.1f) * vn) / (im1 + im2);
+                    float impulseX = mtdX * impulseScl;
+                    float impulseY = mtdY * impulseScl;
 
                     //hack to prevent ultra fast speed
-                    if (impulse.len2() > 26) {
-                        impulse.nor().scl(5);
+                    float impulseLen2 = impulseX * impulseX + impulseY * impulseY;
+                    if (impulseLen2 > 26) {
+                        float impulseLen = (float) Math.sqrt(impulseLen2);
+                        impulseX = impulseX / impulseLen * 5;
+                        impulseY = impulseY / impulseLen * 5;
                     }
 
                     // change in momentum
-                    addMovement(impulse.scl(im1));
-                    ent.addMovement(impulse.scl(-im2));
+                    addMovement(impulseX * im1, impulseY * im1, 0);
+                    ent.addMovement(-impulseX * im1 * im2, -impulseY * im1 * im2, 0);
 
                     MessageManager.getInstance().dispatchMessage(this, Events.collided.getId());
                 }
@@ -2,12 +2,13 @@ package com.bombinggames.wurfelengine.core.gameobjects;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Interpolation;
-import com.badlogic.gdx.utils.Pool;
 
 /**
+ * A particle which is an entity. Use it if the particle must be controlled after spawning. Otherwise the {@link ParticleSystem} of the map is much cheaper.
+ *
  * @author Benedikt Vogler
  */
-public class Particle extends MovableEntity {
+public class Particle extends MovableEntity implements PhasedUpdate {
 
     private static final long serialVersionUID = 2L;
 
@@ -23,7 +24,6 @@ public class Particle extends MovableEntity {
     private float startingAlpha;
     private ParticleType type = ParticleType.REGULAR;
     private boolean rotateRight;
-    private Pool<Particle> pool;
 
     /**
      * With TTL 2000.
@@ -100,6 +100,16 @@ public class Particle extends MovableEntity {
         }
     }
 
+    @Override
+    public void compute(float dt) {
+        computeMovement(dt);
+    }
+
+    @Override
+    public void commit(float dt) {
+        update(dt);
+    }
+
     @Override
     public void update(float dt) {
         super.update(dt);
@@ -155,16 +165,4 @@ public class Particle extends MovableEntity {
         return maxtime;
     }
 
-    void setPool(Pool<Particle> pool) {
-        this.pool = pool;
-    }
-
-    @Override
-    public void dispose() {
-        super.dispose();
-        if (pool != null) {
-            pool.free(this);
-        }
-    }
-
 }
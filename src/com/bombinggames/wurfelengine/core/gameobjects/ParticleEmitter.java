@@ -34,11 +34,12 @@ package com.bombinggames.wurfelengine.core.gameobjects;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.utils.Pool;
-import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.map.Point;
 
 /**
+ * Emits particles into the {@link ParticleSystem} of the map. The prototype is a template for the particles and is never spawned.
+ *
  * @author Benedikt Vogler
  */
 public class ParticleEmitter extends AbstractEntity {
@@ -57,8 +58,7 @@ public class ParticleEmitter extends AbstractEntity {
     private Vector3 startingVector = new Vector3(0, 0, 0);
     private Vector3 spread = new Vector3(0, 0, 0);
     private PointLightSource lightsource;
-    private Particle prototype = new Particle((byte) 22);
-    private Pool<Particle> pool;
+    private Particle prototype = new Particle(ParticleSystem.SPRITE_ID);
 
     /**
      * Initializes with defautl size
@@ -70,36 +70,14 @@ public class ParticleEmitter extends AbstractEntity {
     /**
      * active by default
      *
-     * @param size size of pool
+     * @param size not used anymore because the particles are stored in the {@link ParticleSystem}
      */
-    //public Emitter(Class<MovableEntity> emitterClass) {
     public ParticleEmitter(int size) {
         super((byte) 14);
-        //this.particleClass = Dust.class;
         disableShadow();
         setIndestructible(true);
         setName("Particle Emitter");
         setActive(true);
-        pool = new Pool<Particle>(size) {
-            @Override
-            protected Particle newObject() {
-                Particle particle = new Particle(prototype.getSpriteId(), prototype.getLivingTime());
-                return particle;
-            }
-
-            @Override
-            public Particle obtain() {
-                boolean init = false;
-                if (getFree() > 0) {
-                    init = true;//will obtain from pool
-                }
-                Particle particle = super.obtain();
-                if (init) {
-                    particle.init(2000f);
-                }
-                return particle;
-            }
-        };
     }
 
     @Override
@@ -109,6 +87,15 @@ public class ParticleEmitter extends AbstractEntity {
         return this;
     }
 
+    @Override
+    public void removeFromMap() {
+        //the light source is not spawned so it must be turned off manually
+        if (lightsource != null) {
+            lightsource.disable();
+        }
+        super.removeFromMap();
+    }
+
     @Override
     public void update(float dt) {
         super.update(dt);
@@ -116,33 +103,36 @@ public class ParticleEmitter extends AbstractEntity {
         if (active && hasPosition()) {
             setColor(new Color(1, 0, 0, 1));//only important if visible
             if (lightsource != null && prototype.getType() == ParticleType.FIRE) {
+                lightsource.enable();
                 lightsource.setPosition(getPosition());
                 lightsource.update(dt);
             }
 
             timer += dt;
+            ParticleSystem particles = Controller.getMap().getParticleSystem();
+            Point pos = getPosition();
             while (timer >= timeEachSpawn) {
                 timer -= timeEachSpawn;
-                Particle particle = pool.obtain();
-                particle.setPool(pool);
-                particle.setType(prototype.getType());
-                particle.getColor().set(prototype.getColor());
-                particle.setRotation((float) (Math.random() * 360f));
-                particle.addMovement(
-                        startingVector.add(
-                                (float) (Math.random() - 0.5f) * 2 * spread.x,
-                                (float) (Math.random() - 0.5f) * 2 * spread.y,
-                                (float) (Math.random() - 0.5f) * 2 * spread.z
-                        )
+                particles.add(
+                        pos.x,
+                        pos.y,
+                        pos.z,
+                        startingVector.x + (float) (Math.random() - 0.5f) * 2 * spread.x,
+                        startingVector.y + (float) (Math.random() - 0.5f) * 2 * spread.y,
+                        startingVector.z + (float) (Math.random() - 0.5f) * 2 * spread.z,
+                        prototype.getLivingTime(),
+                        prototype.getColor(),
+                        prototype.getType(),
+                        prototype.getSpriteId(),
+                        true
                 );
-                if (particle.hasPosition()) {
-                    particle.getPosition().set(getPosition());
-                } else {
-                    particle.spawn(getPosition().cpy());
-                }
             }
         } else {
             getColor().set(0.5f, 0.5f, 0.5f, 1);
+            //the light stays in the map until turned off
+            if (lightsource != null && lightsource.isEnabled()) {
+                lightsource.disable();
+            }
         }
     }
 
@@ -223,7 +213,7 @@ public class ParticleEmitter extends AbstractEntity {
     private void checkLightSource() {
         if (hasPosition() && prototype.getType() == ParticleType.FIRE) {
             if (lightsource == null) {
-                lightsource = new PointLightSource(Color.YELLOW, 5, 11, WE.getGameplay().getView());
+                lightsource = new PointLightSource(Color.YELLOW, 5, 11, null);
                 lightsource.setPosition(getPosition().cpy());
             } else {
                 lightsource.getPosition().set(getPosition());
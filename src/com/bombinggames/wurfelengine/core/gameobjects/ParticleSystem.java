@@ -0,0 +1,521 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.gameobjects;
+
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.Interpolation;
+import com.badlogic.gdx.math.Vector3;
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Camera;
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.GameView;
+import com.bombinggames.wurfelengine.core.map.Coordinate;
+import com.bombinggames.wurfelengine.core.map.Point;
+import com.bombinggames.wurfelengine.core.map.VoxelCollision;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.bombinggames.wurfelengine.core.map.rendering.RenderCell.GAME_EDGELENGTH;
+
+/**
+ * Simulates and renders particles without creating an entity for every particle. The data is stored in one array per attribute.<br>
+ * Particles fly in a straight line. They land on the top of the column below them, which is read from the height map. Under an overhang the cell is tested instead.<br>
+ * For rendering the visible particles are grouped by their cell. Every group is inserted into the depth list like a single entity.
+ *
+ * @author agent
+ * @see ParticleType
+ */
+public class ParticleSystem {
+
+    /**
+     * the default sprite of particles
+     */
+    public static final byte SPRITE_ID = 22;
+    private static final ParticleType[] TYPES = ParticleType.values();
+    private static final byte ROTATE_RIGHT = 1, COLLIDE = 2;
+    /**
+     * minimum amount of particles per thread
+     */
+    private static final int SLICE = 2048;
+    private ExecutorService workers;
+
+    private int count;
+    private float[] x, y, z;
+    /**
+     * in m/s
+     */
+    private float[] velX, velY, velZ;
+    /**
+     * in ms
+     */
+    private float[] ttl, maxTtl;
+    private float[] rotation, scaling;
+    private float[] red, green, blue, alpha;
+    private byte[] spriteId, type, flags;
+    /**
+     * one per slice so that the slices can run in parallel
+     */
+    private VoxelCollision[] collisions = new VoxelCollision[0];
+    private final ArrayList<Callable<Void>> slices = new ArrayList<>(8);
+    /**
+     * cell and index of the visible particles
+     */
+    private long[] keys = new long[0];
+    private final Map<Camera, ArrayList<Bucket>> buckets = new WeakHashMap<>(4);
+    private final Point tmpPoint = new Point(0, 0, 0);
+    private final Coordinate tmpCoord = new Coordinate();
+
+    /**
+     * @param capacity initial amount of particles
+     */
+    public ParticleSystem(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    private void allocate(int capacity) {
+        x = grow(x, capacity);
+        y = grow(y, capacity);
+        z = grow(z, capacity);
+        velX = grow(velX, capacity);
+        velY = grow(velY, capacity);
+        velZ = grow(velZ, capacity);
+        ttl = grow(ttl, capacity);
+        maxTtl = grow(maxTtl, capacity);
+        rotation = grow(rotation, capacity);
+        scaling = grow(scaling, capacity);
+        red = grow(red, capacity);
+        green = grow(green, capacity);
+        blue = grow(blue, capacity);
+        alpha = grow(alpha, capacity);
+        spriteId = grow(spriteId, capacity);
+        type = grow(type, capacity);
+        flags = grow(flags, capacity);
+    }
+
+    private static float[] grow(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static byte[] grow(byte[] array, int capacity) {
+        return array == null ? new byte[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /**
+     * Adds a particle with the default sprite.
+     *
+     * @param pos      start position, not referenced
+     * @param movement in m/s, not referenced
+     * @param ttl      time to live in ms
+     * @param color    the tint, not referenced. If null grey.
+     * @param type
+     * @return false if "maxParticles" is reached
+     */
+    public boolean add(Point pos, Vector3 movement, float ttl, Color color, ParticleType type) {
+        return add(pos.x, pos.y, pos.z, movement.x, movement.y, movement.z, ttl, color, type, SPRITE_ID, true);
+    }
+
+    /**
+     * Adds a particle.
+     *
+     * @param x        game space
+     * @param y        game space
+     * @param z        game space
+     * @param velX     in m/s
+     * @param velY     in m/s
+     * @param velZ     in m/s
+     * @param ttl      time to live in ms
+     * @param color    the tint, not referenced. If null grey.
+     * @param type
+     * @param spriteId entity sprite
+     * @param collide  if it stops at blocks
+     * @return false if "maxParticles" is reached
+     */
+    public boolean add(float x, float y, float z, float velX, float velY, float velZ, float ttl, Color color, ParticleType type, byte spriteId, boolean collide) {
+        if (count == this.x.length) {
+            int max = WE.getCVars().getValueI("maxParticles");
+            if (count >= max) {
+                return false;
+            }
+            allocate(Math.min(max, count * 2));
+        }
+        int i = count;
+        count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.z[i] = z;
+        this.velX[i] = velX;
+        this.velY[i] = velY;
+        this.velZ[i] = velZ;
+        this.ttl[i] = ttl;
+        this.maxTtl[i] = ttl;
+        this.rotation[i] = (float) (Math.random() * 360f);
+        this.scaling[i] = type.isGrowing() ? 0 : 0.3f;
+        if (color == null) {
+            red[i] = 0.5f;
+            green[i] = 0.5f;
+            blue[i] = 0.5f;
+            alpha[i] = 1;
+        } else {
+            red[i] = color.r;
+            green[i] = color.g;
+            blue[i] = color.b;
+            alpha[i] = color.a;
+        }
+        this.spriteId[i] = spriteId;
+        this.type[i] = (byte) type.ordinal();
+        byte flag = Math.random() > 0.5f ? ROTATE_RIGHT : 0;
+        if (collide) {
+            flag |= COLLIDE;
+        }
+        this.flags[i] = flag;
+        return true;
+    }
+
+    /**
+     * Moves the particles and removes the dead ones. Large amounts are split across the cores.
+     *
+     * @param dt time in ms
+     */
+    public void update(float dt) {
+        if (count == 0) {
+            return;
+        }
+        float friction = WE.getCVars().getValueF("friction");
+        int threads = Runtime.getRuntime().availableProcessors();
+        int sliceCount = Math.max(1, Math.min(threads, count / SLICE));
+        if (!WE.getCVars().getValueB("parallelParticleUpdate")) {
+            sliceCount = 1;
+        }
+        if (collisions.length < sliceCount) {
+            collisions = Arrays.copyOf(collisions, sliceCount);
+        }
+        for (int i = 0; i < sliceCount; i++) {
+            if (collisions[i] == null) {
+                collisions[i] = new VoxelCollision();
+            }
+        }
+
+        if (sliceCount == 1) {
+            integrate(0, count, dt, friction, collisions[0]);
+        } else {
+            if (workers == null) {
+                workers = Executors.newFixedThreadPool(
+                        threads,
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "particles");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                );
+            }
+            slices.clear();
+            int sliceSize = (count + sliceCount - 1) / sliceCount;
+            for (int s = 0; s < sliceCount; s++) {
+                int from = s * sliceSize;
+                int to = Math.min(count, from + sliceSize);
+                VoxelCollision collision = collisions[s];
+                slices.add(Controller.bindTask(() -> {
+                    integrate(from, to, dt, friction, collision);
+                    return null;
+                }));
+            }
+            try {
+                for (Future<Void> future : workers.invokeAll(slices)) {
+                    future.get();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                throw new RuntimeException(ex.getCause());
+            }
+        }
+
+        //remove dead particles by moving the last one into the gap
+        int i = 0;
+        while (i < count) {
+            if (ttl[i] <= 0) {
+                count--;
+                copy(count, i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private void integrate(int from, int to, float dt, float friction, VoxelCollision collision) {
+        float t = dt * 0.001f;
+        float brake = 1f / (dt * friction + 1f);
+        for (int i = from; i < to; i++) {
+            ttl[i] -= dt;
+            if (ttl[i] <= 0) {
+                continue;
+            }
+            if ((flags[i] & ROTATE_RIGHT) != 0) {
+                rotation[i] -= dt / 10f;
+            } else {
+                rotation[i] += dt / 10f;
+            }
+            if (TYPES[type[i]].isGrowing()) {
+                scaling[i] += dt / 800f;
+            }
+
+            float nx = x[i] + velX[i] * GAME_EDGELENGTH * t;
+            float ny = y[i] + velY[i] * GAME_EDGELENGTH * t;
+            float nz = z[i] + velZ[i] * GAME_EDGELENGTH * t;
+            if ((flags[i] & COLLIDE) != 0) {
+                float ground = collision.getGroundHeight(nx, ny);
+                if (nz <= ground && z[i] >= ground) {
+                    //land on the column
+                    nz = ground;
+                    velZ[i] = 0;
+                    if (velX[i] * velX[i] + velY[i] * velY[i] > 0.1f) {
+                        velX[i] *= brake;
+                        velY[i] *= brake;
+                    } else {
+                        velX[i] = 0;
+                        velY[i] = 0;
+                    }
+                } else if (nz < ground && collision.isObstacle(nx, ny, nz)) {
+                    //under an overhang
+                    nx = x[i];
+                    ny = y[i];
+                    nz = z[i];
+                    velX[i] = 0;
+                    velY[i] = 0;
+                    velZ[i] = 0;
+                }
+            }
+            x[i] = nx;
+            y[i] = ny;
+            z[i] = nz;
+        }
+    }
+
+    private void copy(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        z[to] = z[from];
+        velX[to] = velX[from];
+        velY[to] = velY[from];
+        velZ[to] = velZ[from];
+        ttl[to] = ttl[from];
+        maxTtl[to] = maxTtl[from];
+        rotation[to] = rotation[from];
+        scaling[to] = scaling[from];
+        red[to] = red[from];
+        green[to] = green[from];
+        blue[to] = blue[from];
+        alpha[to] = alpha[from];
+        spriteId[to] = spriteId[from];
+        type[to] = type[from];
+        flags[to] = flags[from];
+    }
+
+    /**
+     * Groups the visible particles by their cell and adds every group to the cell above like an entity. Must run on the main thread.
+     *
+     * @param camera        the camera building the depth list
+     * @param rs
+     * @param zLimit        particles at or above are not rendered
+     * @param modifiedCells cells which got a group
+     * @param appendix      groups without a cell which are rendered at the end
+     */
+    public void addToDepthList(Camera camera, RenderStorage rs, float zLimit, ArrayList<RenderCell> modifiedCells, ArrayList<AbstractEntity> appendix) {
+        ArrayList<Bucket> pool = buckets.computeIfAbsent(camera, c -> new ArrayList<>(20));
+        for (int i = 0; i < pool.size(); i++) {
+            pool.get(i).count = 0;
+        }
+        if (keys.length < count) {
+            keys = new long[x.length];
+        }
+        int visible = 0;
+        for (int i = 0; i < count; i++) {
+            if (z[i] < zLimit && camera.inViewFrustum(getViewSpcX(i), getViewSpcY(i))) {
+                tmpPoint.set(x[i], y[i], z[i] + GAME_EDGELENGTH);//add in cell above
+                tmpCoord.setFromPoint(tmpPoint);
+                keys[visible] = ((long) (tmpCoord.getX() & 0xFFFF) << 48)
+                        | ((long) (tmpCoord.getY() & 0xFFFF) << 32)
+                        | ((long) (tmpCoord.getZ() & 0xFF) << 24)
+                        | i;
+                visible++;
+            }
+        }
+        Arrays.sort(keys, 0, visible);
+
+        int used = 0;
+        int start = 0;
+        while (start < visible) {
+            long cellKey = keys[start] >>> 24;
+            int end = start + 1;
+            while (end < visible && keys[end] >>> 24 == cellKey) {
+                end++;
+            }
+            if (used == pool.size()) {
+                pool.add(new Bucket(this));
+            }
+            Bucket bucket = pool.get(used);
+            used++;
+            bucket.fill(keys, start, end);
+
+            int first = (int) (keys[start] & 0xFFFFFF);
+            tmpPoint.set(x[first], y[first], z[first] + GAME_EDGELENGTH);
+            RenderCell cell = rs.getCell(tmpPoint);
+            if (cell != null) {
+                cell.addCoveredEnts(bucket);
+                modifiedCells.add(cell);
+            } else {
+                appendix.add(bucket);
+            }
+            start = end;
+        }
+    }
+
+    private int getViewSpcX(int i) {
+        return (int) x[i];
+    }
+
+    private int getViewSpcY(int i) {
+        return (int) (-y[i] / 2 + (int) (z[i] * RenderCell.ZAXISSHORTENING));
+    }
+
+    /**
+     * @return amount of living particles
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Removes every particle.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Removes the particles and stops the worker threads.
+     */
+    public void dispose() {
+        clear();
+        buckets.clear();
+        if (workers != null) {
+            workers.shutdown();
+            workers = null;
+        }
+    }
+
+    /**
+     * The particles of one cell. Rendered like one entity in the depth list.
+     */
+    private static class Bucket extends AbstractEntity {
+
+        private static final long serialVersionUID = 1L;
+        private final transient ParticleSystem system;
+        private int[] indices = new int[8];
+        private int count;
+
+        Bucket(ParticleSystem system) {
+            super((byte) 0);
+            this.system = system;
+            setSaveToDisk(false);
+            disableShadow();
+            setName("Particles");
+            setPosition(new Point(0, 0, 0));
+            setColor(new Color(0.5f, 0.5f, 0.5f, 1f));
+        }
+
+        /**
+         * @param keys  sorted keys containing the particle index
+         * @param start first key of this cell
+         * @param end   after the last key of this cell
+         */
+        void fill(long[] keys, int start, int end) {
+            count = end - start;
+            if (indices.length < count) {
+                indices = new int[count * 2];
+            }
+            for (int i = 0; i < count; i++) {
+                indices[i] = (int) (keys[start + i] & 0xFFFFFF);
+            }
+            int first = indices[0];
+            getPoint().set(system.x[first], system.y[first], system.z[first]);
+        }
+
+        @Override
+        public void render(GameView view, Camera camera) {
+            ParticleSystem s = system;
+            Point pos = getPoint();
+            float bx = pos.x, by = pos.y, bz = pos.z;
+            Color color = getColor();
+            for (int j = 0; j < count; j++) {
+                int i = indices[j];
+                if (i >= s.count) {
+                    continue;//removed since the depth list was built
+                }
+                ParticleType particleType = TYPES[s.type[i]];
+                float life = s.ttl[i] / s.maxTtl[i];
+                color.set(s.red[i], s.green[i], s.blue[i], s.alpha[i]);
+                if (particleType.fade()) {
+                    color.a = s.alpha[i] * Interpolation.fade.apply(life);
+                }
+                if (particleType.fadeToBlack()) {
+                    color.r *= life;
+                    color.g *= life;
+                    color.b *= life;
+                }
+                setSpriteId(s.spriteId[i]);
+                setRotation(s.rotation[i]);
+                setScaling(s.scaling[i]);
+                pos.set(s.x[i], s.y[i], s.z[i]);
+                super.render(view, camera);
+            }
+            //not pickable
+            setSpriteId((byte) 0);
+            pos.set(bx, by, bz);
+        }
+
+        @Override
+        public boolean handleMessage(Telegram msg) {
+            return true;
+        }
+    }
+}
@@ -2,16 +2,13 @@ package com.bombinggames.wurfelengine.core.gameobjects;
 
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.math.Vector3;
+import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.GameView;
+import com.bombinggames.wurfelengine.core.lightengine.LightPropagation;
 import com.bombinggames.wurfelengine.core.map.Coordinate;
-import com.bombinggames.wurfelengine.core.map.Intersection;
-import com.bombinggames.wurfelengine.core.map.Point;
-import com.bombinggames.wurfelengine.core.map.Position;
-import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
 
 /**
- * A light source is an invisible entity which spawns light from one point.
+ * A light source is an invisible entity which spawns light from one point. The light is spread by the {@link LightPropagation} of the map.
  *
  * @author Benedikt Vogler
  */
@@ -20,146 +17,50 @@ public class PointLightSource extends AbstractEntity {
     private static final long serialVersionUID = 1L;
 
     private final int radius;
-    private final float floatradius;
-    /**
-     * brightness coordiante relative to center, last dimension is side
-     */
-    private final float[][][][] lightcache;
     /**
      * color of the light of this source
      */
     private final transient Color color;
-    private final GameView view;
     private float brightness;
     private boolean enabled = true;
-    private Point lastPos = new Point(0, 0, 0);
+    /**
+     * the registered light, null if not emitting
+     */
+    private transient LightPropagation.Emitter emitter;
+    private transient LightPropagation propagation;
+    /**
+     * temporary used every update
+     */
+    private transient Coordinate tmp;
 
     /**
      * @param color
      * @param maxRadius  cut at distance of this amount of meters. boosts
      *                   game performance if smaller
      * @param brightness empirical factor ~5-30
-     * @param view
+     * @param view       not used anymore because the light is stored in the map
      */
     public PointLightSource(Color color, float maxRadius, float brightness, GameView view) {
         super((byte) 0);
         setName("LightSource");
         disableShadow();
-        this.floatradius = maxRadius;
         this.radius = (int) Math.ceil(maxRadius);
         this.brightness = brightness;
         this.color = color;
-        if (radius == 0) {
-            this.lightcache = new float[1][1][1][3];
-        } else {
-            this.lightcache = new float[this.radius * 2][this.radius * 4][this.radius * 2][3];
-        }
-        this.view = view;
-    }
-
-    private void clearCache() {
-        for (float[][][] x : lightcache) {
-            for (float[][] y : x) {
-                for (float[] z : y) {
-                    z[0] = 0;
-                    z[1] = 0;
-                    z[2] = 0;
-                }
-            }
-        }
     }
 
-    @Override
-    public void setPosition(Point pos) {
-        super.setPosition(pos);
-
-        //if moved
-        if (hasPosition() && enabled && (lastPos == null || !lastPos.equals(getPosition()))) {
-            clearCache();
-        }
-    }
-
-    @Override
-    public void setPosition(Position pos) {
-        super.setPosition(pos);
-
-        //if moved
-        if (hasPosition() && enabled && (lastPos == null || !lastPos.equals(getPosition()))) {
-            clearCache();
-        }
-    }
-
-
     /**
-     * fills the cache by sending rays starting at the position
+     * The level of every channel. The light reaches at most the radius.
      *
-     * @param delta
+     * @return packed levels
      */
-    public void lightNearbyBlocks(float delta) {
-        if (hasPosition()) {
-            Point origin = getPosition();
-            lastPos.set(origin);
-
-            //light blocks around
-            Vector3 dir = new Vector3();
-            for (int z = -radius; z < radius; z++) {
-                for (int x = -radius; x < radius; x++) {
-                    for (int y = -radius * 2; y < radius * 2; y++) {
-
-                        //reset cell in cache
-                        if (lightcache[x + radius][y + radius * 2][z + radius][0] > 0) {
-                            lightcache[x + radius][y + radius * 2][z + radius][0] = 0;
-                        }
-                        if (lightcache[x + radius][y + radius * 2][z + radius][1] > 0) {
-                            lightcache[x + radius][y + radius * 2][z + radius][1] = 0;
-                        }
-                        if (lightcache[x + radius][y + radius * 2][z + radius][2] > 0) {
-                            lightcache[x + radius][y + radius * 2][z + radius][2] = 0;
-                        }
-
-                        //send rays
-                        dir.set(x + 0.1f, y + 0.2f, z - 0.4f).nor();//offset because???
-                        Intersection inters = origin.raycast(dir,
-                                floatradius * 2,
-                                null,
-                                (Byte t) -> !RenderCell.isTransparent(t, (byte) 0)
-                        );
-                        //check if intersected
-                        if (inters != null && inters.getPoint() != null) {
-                            //get back edge of block
-                            Point impactP = getPosition().toCoord().add(x, y, z).toPoint().add(0, -RenderCell.GAME_DIAGLENGTH2, 0);
-                            float pow = origin.distanceTo(impactP) / RenderCell.GAME_EDGELENGTH;
-                            float l = (1 + brightness) / (pow * pow);
-
-                            Vector3 vecToBlock = origin.cpy().sub(impactP).nor();
-                            //side 0
-                            float lambert = vecToBlock.dot(Side.LEFT.toVector());
-
-                            float newbright = l * lambert * (0.15f + 0.1f * 0.005f);
-                            if (lambert > 0 && newbright > lightcache[x + radius][y + radius * 2][z + radius][0]) {
-                                lightcache[x + radius][y + radius * 2][z + radius][0] = newbright;
-                            }
-
-                            //side 1
-                            lambert = vecToBlock.dot(Side.TOP.toVector());
-
-                            newbright = l * lambert * (0.15f + 0.2f * 0.005f);
-                            if (lambert > 0 && newbright > lightcache[x + radius][y + radius * 2][z + radius][1]) {
-                                lightcache[x + radius][y + radius * 2][z + radius][1] = newbright;
-                            }
-
-                            //side 2
-                            lambert = vecToBlock.dot(Side.RIGHT.toVector());
-
-                            newbright = l * lambert * (0.15f + 0.25f * 0.005f);
-                            if (lambert > 0 && newbright > lightcache[x + radius][y + radius * 2][z + radius][2]) {
-                                lightcache[x + radius][y + radius * 2][z + radius][2] = newbright;
-                            }
-                        }
-                    }
-                }
-            }
-        }
+    private int getLevels() {
+        int maxLevel = Math.min(LightPropagation.MAXLEVEL, radius + 1);
+        return LightPropagation.packLevels(
+                Math.min(maxLevel, Math.round(color.r * brightness)),
+                Math.min(maxLevel, Math.round(color.g * brightness)),
+                Math.min(maxLevel, Math.round(color.b * brightness))
+        );
     }
 
     @Override
@@ -167,34 +68,40 @@ public class PointLightSource extends AbstractEntity {
         super.update(dt);
 
         if (enabled && hasPosition()) {
-            //check if moved and therefore has to be recalculated
-            if (lastPos == null || !lastPos.equals(getPosition())) {
-                lightNearbyBlocks(dt);
+            if (tmp == null) {
+                tmp = new Coordinate();
             }
-
-            //apply cache
-            Coordinate tmp = getPosition().toCoord();
-            int xCenter = tmp.getX();
-            int yCenter = tmp.getY();
-            int zCenter = tmp.getZ();
-            for (int x = -radius; x < radius; x++) {
-                for (int y = -radius * 2; y < radius * 2; y++) {
-                    for (int z = -radius; z < radius; z++) {
-                        //get the light in the cache
-                        float[] blocklight = lightcache[x + radius][y + radius * 2][z + radius];
-                        tmp.set(xCenter + x, yCenter + y, zCenter + z);
-                        RenderCell rB = tmp.getRenderBlock(view.getRenderStorage());
-                        if (rB != null && !rB.isHidden()) {
-                            tmp.addLightToBackEdge(view, Side.LEFT, color.cpy().mul(blocklight[0]));
-                            tmp.addLightToBackEdge(view, Side.TOP, color.cpy().mul(blocklight[1]));
-                            tmp.addLightToBackEdge(view, Side.RIGHT, color.cpy().mul(blocklight[2]));
-                        }
-                    }
-                }
+            Coordinate coord = tmp.setFromPoint(getPosition());
+            LightPropagation current = Controller.getMap().getLightPropagation();
+            if (emitter == null || propagation != current) {
+                propagation = current;
+                emitter = propagation.addLight(coord.getX(), coord.getY(), coord.getZ(), getLevels());
+            } else {
+                //only recalculates if moved to another cell or changed
+                propagation.moveLight(emitter, coord.getX(), coord.getY(), coord.getZ(), getLevels());
             }
+        } else {
+            removeLight();
         }
     }
 
+    /**
+     * Removes the light from the map.
+     */
+    private void removeLight() {
+        if (emitter != null) {
+            propagation.removeLight(emitter);
+            emitter = null;
+            propagation = null;
+        }
+    }
+
+    @Override
+    public void removeFromMap() {
+        removeLight();
+        super.removeFromMap();
+    }
+
     /**
      * Turn light on.
      */
@@ -207,6 +114,7 @@ public class PointLightSource extends AbstractEntity {
      */
     public void disable() {
         enabled = false;
+        removeLight();
     }
 
     /**
@@ -7,7 +7,7 @@ import com.bombinggames.wurfelengine.core.map.Point;
 import com.bombinggames.wurfelengine.core.map.Position;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderStorage;
 
-import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Interface for objects whether they are blocks and entities.
@@ -93,5 +93,5 @@ public interface Renderable {
      * @param rs
      * @return
      */
-    LinkedList<AbstractGameObject> getCovered(RenderStorage rs);
+    List<AbstractGameObject> getCovered(RenderStorage rs);
 }
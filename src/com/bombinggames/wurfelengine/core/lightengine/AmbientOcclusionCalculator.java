@@ -30,8 +30,9 @@
  */
 package com.bombinggames.wurfelengine.core.lightengine;
 
+import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.map.Chunk;
-import com.bombinggames.wurfelengine.core.map.Coordinate;
+import com.bombinggames.wurfelengine.core.map.ChunkNeighbourhood;
 import com.bombinggames.wurfelengine.core.map.Iterators.DataIterator;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderChunk;
@@ -47,132 +48,133 @@ public class AmbientOcclusionCalculator {
      * @param chunk
      */
     public static void calcAO(RenderChunk chunk) {
+        if (chunk == null) throw new IllegalArgumentException("Chunk can not be null.");
+        ChunkNeighbourhood neighbourhood = new ChunkNeighbourhood();
+        neighbourhood.fill(Controller.getMap(), chunk.getChunk());
+        int[] aoFlags = new int[Chunk.getBlocksX() * Chunk.getBlocksY() * Chunk.getBlocksZ()];
+        calcAOFlags(neighbourhood, aoFlags);
+        applyAO(chunk, aoFlags);
+    }
+
+    /**
+     * Sets the ambient occlusion flags of every cell with sides.
+     *
+     * @param chunk
+     * @param aoFlags the flags in the lower 24 bits. Index is (x*blocksY+y)*blocksZ+z.
+     */
+    public static void applyAO(RenderChunk chunk, int[] aoFlags) {
         if (chunk == null) throw new IllegalArgumentException("Chunk can not be null.");
         //iterate over every block in chunk
-        Coordinate coord = new Coordinate(0, 0, 0);
         DataIterator<RenderCell> iterator = chunk.getIterator(0, Chunk.getBlocksZ() - 1);
+        int blocksY = Chunk.getBlocksY();
+        int blocksZ = Chunk.getBlocksZ();
         while (iterator.hasNext()) {
             RenderCell next = iterator.next();
             //skip air and blocks without sides
             if (next != null && next.hasSides()) {
-                //analyze top side
-                coord = coord.set(
-                        chunk.getTopLeftCoordinateX() + iterator.getCurrentIndex()[0],
-                        chunk.getTopLeftCoordinateY() + iterator.getCurrentIndex()[1],
-                        iterator.getCurrentIndex()[2] + 1
-                );
-
-                int aoFlags = 0;
-                //first check 0,2,4,6 then check 1,3,5,7
-                for (int side = 0; side < 9; side += 2) {//first round even sides
-                    //second round odd sides
-                    if (side == 8) {
-                        side = 1;
-                    }
-                    byte neighborId = coord.goToNeighbour(side).getBlockId();
-                    byte neighborValue = coord.getBlockValue();
-                    if (neighborId != 0 && !RenderCell.isTransparent(neighborId, neighborValue) && RenderCell.hasSides(neighborId, neighborValue)) {
-                        aoFlags |= 1 << (side + 8);
-                        //don't double draw the sides in between
-                        if (side % 2 == 1) {
-                            aoFlags &= ~(1 << (((side + 1) % 8) + 8));//set next to false
-                            aoFlags &= ~(1 << (((side + 7) % 8) + 8));//Set previous to false
+                int[] index = iterator.getCurrentIndex();
+                next.setAoFlags(aoFlags[(index[0] * blocksY + index[1]) * blocksZ + index[2]] & 0xFFFFFF);
+            }
+        }
+    }
+
+    /**
+     * Calculates the ambient occlusion flags of every cell. Only reads the neighbourhood so it can run on any thread.
+     *
+     * @param n   must be filled
+     * @param out the flags. Index is (x*blocksY+y)*blocksZ+z.
+     */
+    public static void calcAOFlags(ChunkNeighbourhood n, int[] out) {
+        int blocksX = Chunk.getBlocksX();
+        int blocksY = Chunk.getBlocksY();
+        int blocksZ = Chunk.getBlocksZ();
+        int right = n.getStrideX();
+        int front = n.getFrontOffset();
+        int up = n.getStrideZ();
+        for (int x = 0; x < blocksX; x++) {
+            for (int y = 0; y < blocksY; y++) {
+                int n3 = n.getNeighbourOffset(3, y);
+                int n5 = n.getNeighbourOffset(5, y);
+                for (int z = 0; z < blocksZ; z++) {
+                    int c = n.index(x, y, z);
+
+                    //analyze top side
+                    int top = c + up;
+                    int aoFlags = 0;
+                    //first check 0,2,4,6 then check 1,3,5,7
+                    for (int side = 0; side < 9; side += 2) {//first round even sides
+                        //second round odd sides
+                        if (side == 8) {
+                            side = 1;
+                        }
+                        if (n.isHidingPast(top + n.getNeighbourOffset(side, y))) {
+                            aoFlags |= 1 << (side + 8);
+                            //don't double draw the sides in between
+                            if (side % 2 == 1) {
+                                aoFlags &= ~(1 << (((side + 1) % 8) + 8));//set next to false
+                                aoFlags &= ~(1 << (((side + 7) % 8) + 8));//Set previous to false
+                            }
+                        } else {
+                            aoFlags &= ~(1 << (side + 8));
                         }
-                    } else {
-                        aoFlags &= ~(1 << (side + 8));
                     }
-                    coord.goToNeighbour((side + 4) % 8);//go back to center
-                }
 
-                //right side, side 2
-                //check right half, which is equivalent to top right at pos 1
-                coord = coord.set(
-                        chunk.getTopLeftCoordinateX() + iterator.getCurrentIndex()[0],
-                        chunk.getTopLeftCoordinateY() + iterator.getCurrentIndex()[1],
-                        iterator.getCurrentIndex()[2]
-                );//get current coordinate
-
-                //left side, side 0
-                //right corner
-                byte neighborId = coord.add(0, 2, -1).getBlockId();
-                byte neighborValue = coord.getBlockValue();
-                if (!RenderCell.isTransparent(neighborId, neighborValue) && RenderCell.hasSides(neighborId, neighborValue)) {
-                    aoFlags |= 1 << 3;//first byte position 3
-                }
-                coord.add(0, -2, 1);//revert
+                    //left side, side 0
+                    //right corner
+                    if (n.isHidingPast(c + front - up)) {
+                        aoFlags |= 1 << 3;//first byte position 3
+                    }
 
-                //check bottom left
-                neighborId = coord.add(-1, 0, -1).getBlockId();
-                neighborValue = coord.getBlockValue();
-                if (neighborId != 0 && !RenderCell.isTransparent(neighborId, neighborValue) && RenderCell.hasSides(neighborId, neighborValue)) {
-                    aoFlags |= 1 << 5;//first byte position 5
-                }
-                coord.add(1, 0, 1);
-
-                //check left half, which is equivalent to top right at pos 7
-                neighborId = coord.add(-1, 0, 0).getBlockId();//go to left
-                neighborValue = coord.getBlockValue();
-                if (neighborId != 0 && !RenderCell.isTransparent(neighborId, neighborValue) && RenderCell.hasSides(neighborId, neighborValue)) {
-                    aoFlags |= 1 << 6;//first byte position 6
-                    aoFlags &= ~(1 << 5);//set next to false
-                    aoFlags &= ~(1 << 7);//Set previous to false
-                }
-                coord.add(1, 0, 0);//revert
-
-                //check bottom side, which is equivalent ot top right at pos 5
-                neighborId = coord.add(0, 0, -1).goToNeighbour(5).getBlockId();//revert changes and go to neighbor
-                neighborValue = coord.getBlockValue();
-                if (neighborId != 0 && !RenderCell.isTransparent(neighborId, neighborValue) && RenderCell.hasSides(neighborId, neighborValue)) {
-                    aoFlags |= 1 << 4;//first byte position 4
-                    aoFlags &= ~(1 << 5);//set next to false
-                    aoFlags &= ~(1 << 3);//Set previous to false
-                }
-                coord.goToNeighbour(1).add(0, 0, 1);//revert
-
-                //right side, side 2
-                //check bottom left
-                neighborId = coord.add(1, 0, -1).getBlockId();
-                neighborValue = coord.getBlockValue();
-                if (neighborId != 0 && !RenderCell.isTransparent(neighborId, neighborValue) && RenderCell.hasSides(neighborId, neighborValue)) {
-                    aoFlags |= 1 << 19;//third byte position 3
-                }
-                coord.add(-1, 0, 1);
+                    //check bottom left
+                    if (n.isHidingPast(c - right - up)) {
+                        aoFlags |= 1 << 5;//first byte position 5
+                    }
 
-                //check left corner
-                neighborId = coord.add(0, 2, -1).getBlockId();//revert changes and go to neighbor
-                neighborValue = coord.getBlockValue();
-                if (neighborId != 0 && !RenderCell.isTransparent(neighborId, neighborValue) && RenderCell.hasSides(neighborId, neighborValue)) {
-                    aoFlags |= 1 << 21;//third byte position 5
-                }
-                coord.add(0, -2, 1);
-
-                //right
-                neighborId = coord.add(1, 0, 0).getBlockId();
-                neighborValue = coord.getBlockValue();
-                if (neighborId != 0 && !RenderCell.isTransparent(neighborId, neighborValue) && RenderCell.hasSides(neighborId, neighborValue)) {
-                    aoFlags |= 1 << 18;//third byte position 2
-                    aoFlags &= ~(1 << 17);//set next to false
-                    aoFlags &= ~(1 << 19);//Set previous to false
-                }
-                coord.add(-1, 0, 0);
-
-                //check bottom side, which is equivalent to top right at pos 3
-                neighborId = coord.add(0, 0, -1).goToNeighbour(3).getBlockId();//revert changes and go to neighbor
-                neighborValue = coord.getBlockValue();
-                if (neighborId != 0 && !RenderCell.isTransparent(neighborId, neighborValue) && RenderCell.hasSides(neighborId, neighborValue)) {
-                    aoFlags |= 1 << 20;//third byte position 4
-                    aoFlags &= ~(1 << 21);//set next to false
-                    aoFlags &= ~(1 << 19);//Set previous to false
-                }
-                coord.goToNeighbour(7).add(0, 0, 1);
+                    //check left half, which is equivalent to top right at pos 7
+                    if (n.isHidingPast(c - right)) {
+                        aoFlags |= 1 << 6;//first byte position 6
+                        aoFlags &= ~(1 << 5);//set next to false
+                        aoFlags &= ~(1 << 7);//Set previous to false
+                    }
+
+                    //check bottom side, which is equivalent ot top right at pos 5
+                    if (n.isHidingPast(c - up + n5)) {
+                        aoFlags |= 1 << 4;//first byte position 4
+                        aoFlags &= ~(1 << 5);//set next to false
+                        aoFlags &= ~(1 << 3);//Set previous to false
+                    }
+
+                    //right side, side 2
+                    //check bottom left
+                    if (n.isHidingPast(c + right - up)) {
+                        aoFlags |= 1 << 19;//third byte position 3
+                    }
+
+                    //check left corner
+                    if (n.isHidingPast(c + front - up)) {
+                        aoFlags |= 1 << 21;//third byte position 5
+                    }
 
-                neighborId = coord.add(0, 2, 0).getBlockId();//revert changes and go to neighbor
-                neighborValue = coord.getBlockValue();
-                if (neighborId != 0 && !RenderCell.isTransparent(neighborId, neighborValue) && RenderCell.hasSides(neighborId, neighborValue)) {
-                    aoFlags |= 1 << 2;//first byte position 2
-                    aoFlags |= 1 << 22;//third byte position 6
+                    //right
+                    if (n.isHidingPast(c + right)) {
+                        aoFlags |= 1 << 18;//third byte position 2
+                        aoFlags &= ~(1 << 17);//set next to false
+                        aoFlags &= ~(1 << 19);//Set previous to false
+                    }
+
+                    //check bottom side, which is equivalent to top right at pos 3
+                    if (n.isHidingPast(c - up + n3)) {
+                        aoFlags |= 1 << 20;//third byte position 4
+                        aoFlags &= ~(1 << 21);//set next to false
+                        aoFlags &= ~(1 << 19);//Set previous to false
+                    }
+
+                    if (n.isHidingPast(c + front)) {
+                        aoFlags |= 1 << 2;//first byte position 2
+                        aoFlags |= 1 << 22;//third byte position 6
+                    }
+                    out[(x * blocksY + y) * blocksZ + z] = aoFlags;
                 }
-                next.setAoFlags(aoFlags);
             }
         }
     }
@@ -202,7 +202,17 @@ public class GlobalLightSource {
      * @return copy safe
      */
     public Color getLight() {
-        return tone.cpy().mul(power);
+        return getLight(new Color());
+    }
+
+    /**
+     * Writes the diffuse light which this object emits into a color.
+     *
+     * @param out the color which gets modified
+     * @return out
+     */
+    public Color getLight(Color out) {
+        return out.set(tone).mul(power);
     }
 
     /**
@@ -211,13 +221,33 @@ public class GlobalLightSource {
      * @return copy safe
      */
     public Color getAmbient() {
-        return ambient.cpy().mul(power);
+        return getAmbient(new Color());
+    }
+
+    /**
+     * Writes the ambient light the GLS emits into a color.
+     *
+     * @param out the color which gets modified
+     * @return out
+     */
+    public Color getAmbient(Color out) {
+        return out.set(ambient).mul(power);
     }
 
     /**
      * @return the normal of the GlobalLightSource
      */
     public Vector3 getNormal() {
-        return new Vector3((float) -Math.cos(getAzimuth() * Math.PI / 180f), (float) Math.sin(getAzimuth() * Math.PI / 180f), (float) Math.sin(getHeight() * Math.PI / 180f)).nor();
+        return getNormal(new Vector3());
+    }
+
+    /**
+     * Writes the normal into a vector.
+     *
+     * @param out the vector which gets modified
+     * @return out
+     */
+    public Vector3 getNormal(Vector3 out) {
+        return out.set((float) -Math.cos(getAzimuth() * Math.PI / 180f), (float) Math.sin(getAzimuth() * Math.PI / 180f), (float) Math.sin(getHeight() * Math.PI / 180f)).nor();
     }
 }
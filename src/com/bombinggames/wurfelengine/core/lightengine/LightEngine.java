@@ -58,10 +58,10 @@ public class LightEngine {
     private static float I_0, I_1, I_2;
     private final int size = 500;
     //diffuse light
-    private final float k_diff = 100 / 255f; //the min and max span. value between 0 and 1 empirisch bestimmter Reflexionsfaktor für diffuse Komponente der Reflexion
+    private static final float k_diff = 100 / 255f; //the min and max span. value between 0 and 1 empirisch bestimmter Reflexionsfaktor für diffuse Komponente der Reflexion
     //specular light
-    private final int n_spec = 12; //  constant factor describing the Oberflächenbeschaffenheit (rau smaller 32, glatt bigger 32, infinity would be a perfect mirror)
-    private final float k_specular = 1 - k_diff; //empirisch bestimmter reflection factor of mirroring component of reflection. Value "k_diff+kspecular <= 1" therefore 1-k_diff is biggest possible value
+    private static final int n_spec = 12; //  constant factor describing the Oberflächenbeschaffenheit (rau smaller 32, glatt bigger 32, infinity would be a perfect mirror)
+    private static final float k_specular = 1 - k_diff; //empirisch bestimmter reflection factor of mirroring component of reflection. Value "k_diff+kspecular <= 1" therefore 1-k_diff is biggest possible value
     /**
      * display a visual representation of the data?
      */
@@ -78,6 +78,19 @@ public class LightEngine {
     private float I_spec1;
     private GlobalLightSource sun;
     private GlobalLightSource moon;
+    /**
+     * temporary colors used while shading
+     */
+    private final Color tmpDiff = new Color(), tmpMoon = new Color();
+    private final SunShadowMap sunShadowMap = new SunShadowMap();
+    /**
+     * precalculated intensities over azimuth and height
+     */
+    private final LightingTable table = createLightingTable();
+    /**
+     * color of each side, updated every frame
+     */
+    private final Color colorLeft = new Color(), colorTop = new Color(), colorRight = new Color();
 
     public LightEngine() {
         sun = new GlobalLightSource(
@@ -114,6 +127,13 @@ public class LightEngine {
         this.posY = yPos;
     }
 
+    /**
+     * @return a lighting table with the reflection factors of the light engine
+     */
+    public static LightingTable createLightingTable() {
+        return new LightingTable(k_diff, k_specular, n_spec);
+    }
+
     /**
      * Returns the average brightness.
      *
@@ -140,78 +160,34 @@ public class LightEngine {
             moon.update(dt);
             float moonI = moon.getPower();
             //calcualte moon light in diff and spec
-            float tmp = (float) (moonI * k_diff * Math.cos(((moon.getHeight()) * Math.PI) / 180) * Math.cos(((moon.getAzimuth() - 45) * Math.PI) / 180));
-            if (tmp > 0)
-                I_diff0 += tmp;
-
-            tmp = (float) (moonI * k_diff * Math.cos(((moon.getHeight() - 90) * Math.PI) / 180));
-            if (tmp > 0)
-                I_diff1 += tmp;
-
-            tmp = (float) (moonI * k_diff * Math.cos(((moon.getHeight()) * Math.PI) / 180) * Math.cos(((moon.getAzimuth() - 135) * Math.PI) / 180));
-            if (tmp > 0)
-                I_diff2 += tmp;
-
+            I_diff0 += moonI * table.getDiff0(moon.getAzimuth(), moon.getHeight());
+            I_diff1 += moonI * table.getDiff1(moon.getAzimuth(), moon.getHeight());
+            I_diff2 += moonI * table.getDiff2(moon.getAzimuth(), moon.getHeight());
             //specular
-            I_spec1 += (float) (moonI * k_specular * Math.pow(Math.sin((moon.getHeight()) * Math.PI / 180) * Math.sin((moon.getAzimuth()) * Math.PI / 180) / Math.sqrt(2)//y
-                    + Math.sin((moon.getHeight() - 90) * Math.PI / 180) / Math.sqrt(2)//z
-                    , n_spec) * (n_spec + 2) / (2 * Math.PI));
+            I_spec1 += moonI * table.getSpec1(moon.getAzimuth(), moon.getHeight());
         }
 
         float sunI = sun.getPower();
 
         //diffusion
-        //diff0
-        I_diff0 = (float) (sunI * k_diff * Math.cos(((sun.getHeight()) * Math.PI) / 180) * Math.cos(((sun.getAzimuth() - 45) * Math.PI) / 180));
-        if (I_diff0 < 0) {
-            I_diff0 = 0;
-        }
-
-        //diff0
-        I_diff1 = (float) (sunI * k_diff * Math.cos(((sun.getHeight() - 90) * Math.PI) / 180));
-        if (I_diff1 < 0) {
-            I_diff1 = 0;
-        }
-
-        //diff2
-        I_diff2 = (float) (sunI * k_diff * Math.cos(((sun.getHeight()) * Math.PI) / 180) * Math.cos(((sun.getAzimuth() - 135) * Math.PI) / 180));
-        if (I_diff2 < 0) {
-            I_diff2 = 0;
-        }
+        I_diff0 = sunI * table.getDiff0(sun.getAzimuth(), sun.getHeight());
+        I_diff1 = sunI * table.getDiff1(sun.getAzimuth(), sun.getHeight());
+        I_diff2 = sunI * table.getDiff2(sun.getAzimuth(), sun.getHeight());
 
         //specular
-
-        //it is impossible to get specular light with a GlobalLightSource over the horizon on side 0 and 2. Just left in case i it someday helps somebody.
-        //        I_spec0 =(int) (
-        //                        sunI
-        //                        * k_specular
-        //                        * Math.pow(
-        //                            Math.sin((sun.getHeight())*Math.PI/180)*Math.sin((sun.getAzimuth())*Math.PI/180)* Math.sqrt(2)/Math.sqrt(3)//y
-        //                          + Math.sin((sun.getHeight()-75)*Math.PI/180)/Math.sqrt(3)//z
-        //                        ,n_spec)
-        //                        *(n_spec+2)/(2*Math.PI)
-        //                        );
-
-
-        I_spec1 = (float) (sunI * k_specular * Math.pow(Math.sin(sun.getHeight() * Math.PI / 180) * Math.sin(sun.getAzimuth() * Math.PI / 180) / Math.sqrt(2)//y
-                + Math.sin((sun.getHeight() - 90) * Math.PI / 180) / Math.sqrt(2)//z
-                , n_spec) * (n_spec + 2) / (2 * Math.PI));
-
-        //it is impossible to get specular light with a GlobalLightSource over the horizon on side 0 and 2. Just left in case it someday may help somebody.
-        //        I_spec2 =(int) (
-        //                        sunI
-        //                        * k_specular
-        //                        * Math.pow(
-        //                            Math.cos((sun.getHeight() - 35.26) * Math.PI/360)
-        //                           *Math.cos((sun.getAzimuth() + 180) * Math.PI/360)
-        //                        ,n_spec)
-        //                        *(n_spec+2)/(2*Math.PI)
-        //                        );
+        //it is impossible to get specular light with a GlobalLightSource over the horizon on side 0 and 2.
+        I_spec1 = sunI * table.getSpec1(sun.getAzimuth(), sun.getHeight());
 
         I_0 = I_diff0;
         I_1 = I_diff1 + I_spec1;
         I_2 = I_diff2;
 
+        //cache the color of each side for this frame
+        Color emitting = getEmittingLights(null, tmpDiff);
+        colorLeft.set(emitting).mul(I_diff0, I_diff0, I_diff0, 1);
+        colorTop.set(emitting).mul(I_spec1).add(emitting.mul(I_diff1, I_diff1, I_diff1, 1));
+        colorRight.set(getEmittingLights(null, tmpDiff)).mul(I_diff2, I_diff2, I_diff2, 1);
+
 
         //update input
         if (Gdx.input.isButtonPressed(0) && debuging && controlTime) {
@@ -221,6 +197,24 @@ public class LightEngine {
                 moon.setAzimuth(Gdx.input.getX() - 180);
             }
         }
+
+        sunShadowMap.update(sun);
+    }
+
+    /**
+     * Which cells are in the shadow of the sun.
+     *
+     * @return
+     */
+    public SunShadowMap getSunShadowMap() {
+        return sunShadowMap;
+    }
+
+    /**
+     * Stops the shadow calculation.
+     */
+    public void dispose() {
+        sunShadowMap.dispose();
     }
 
     /**
@@ -334,7 +328,38 @@ public class LightEngine {
      * @return
      */
     public Color getColor(Side normal, Position pos) {
-        return getSpec(normal, pos).add(getDiff(normal, pos));
+        return getColor(normal, pos, new Color());
+    }
+
+    /**
+     * Writes the color of a side into a color. Same as {@link #getColor(Side, Position)} without allocation. The color is cached once per update.
+     *
+     * @param normal
+     * @param pos
+     * @param out    the color which gets modified
+     * @return out
+     */
+    public Color getColor(Side normal, Position pos, Color out) {
+        if (null == normal || pos == null) {
+            throw new IllegalArgumentException();
+        }
+        switch (normal) {
+            case LEFT:
+                return out.set(colorLeft);
+            case TOP:
+                return out.set(colorTop);
+            default:
+                return out.set(colorRight);
+        }
+    }
+
+    /**
+     * The precalculated intensities used for the shading.
+     *
+     * @return
+     */
+    public LightingTable getLightingTable() {
+        return table;
     }
 
 
@@ -345,11 +370,22 @@ public class LightEngine {
      * @return a color with a tone
      */
     public Color getAmbient(Position pos) {
-        Color amb = getSun(pos).getAmbient();
+        return getAmbient(pos, new Color());
+    }
+
+    /**
+     * Writes the sum of every light source's ambient light into a color.
+     *
+     * @param pos
+     * @param out the color which gets modified
+     * @return out
+     */
+    public Color getAmbient(Position pos, Color out) {
+        getSun(pos).getAmbient(out);
         if (getMoon(pos) != null) {
-            amb.add(getMoon(pos).getAmbient());
+            out.add(getMoon(pos).getAmbient(tmpMoon));
         }
-        return amb;
+        return out;
     }
 
     /**
@@ -358,11 +394,22 @@ public class LightEngine {
      * @return a color with a tone, copy safe
      */
     private Color getEmittingLights(Position pos) {
-        Color light = getSun(pos).getLight();
+        return getEmittingLights(pos, new Color());
+    }
+
+    /**
+     * Mix of both light sources written into a color.
+     *
+     * @param pos
+     * @param out the color which gets modified
+     * @return out
+     */
+    private Color getEmittingLights(Position pos, Color out) {
+        getSun(pos).getLight(out);
         if (getMoon(pos) != null) {
-            light.add(getMoon(pos).getLight());
+            out.add(getMoon(pos).getLight(tmpMoon));
         }
-        return light;
+        return out;
     }
 
     /**
@@ -0,0 +1,511 @@
+/*
+ * If this software is used for a game the official „Wurfel Engine“ logo or its name must be visible in an intro screen or main menu.
+ *
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, 
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice, 
+ *   this list of conditions and the following disclaimer in the documentation 
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors 
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.lightengine;
+
+import com.badlogic.gdx.ai.msg.MessageManager;
+import com.badlogic.gdx.utils.IntArray;
+import com.bombinggames.wurfelengine.core.Events;
+import com.bombinggames.wurfelengine.core.map.Chunk;
+import com.bombinggames.wurfelengine.core.map.Map;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+
+import java.util.ArrayList;
+
+/**
+ * Spreads the light of point lights through transparent cells with a breadth first flood fill. Each color channel has its own level from 0 to {@link #MAXLEVEL} which drops by one per cell. The levels are stored in the chunks ({@link Chunk#getLightLevels()}) packed as r&lt;&lt;8|g&lt;&lt;4|b.<br>
+ * Moving or removing a light or changing a block only updates the cells which are affected. After every change {@link Events#lightChanged} is dispatched with the changed box as int[]{minX, minY, minZ, maxX, maxY, maxZ}.
+ *
+ * @author agent
+ */
+public class LightPropagation {
+
+    /**
+     * the highest light level of a channel
+     */
+    public static final int MAXLEVEL = 15;
+    /**
+     * light added to a side per level
+     */
+    public static final float LEVELBRIGHTNESS = 1 / 8f;
+    private static final int[] SHIFTS = new int[]{8, 4, 0};
+
+    private final Map map;
+    private final ArrayList<Emitter> emitters = new ArrayList<>(10);
+    /**
+     * x, y, z triples
+     */
+    private final IntArray propagateQueue = new IntArray(256);
+    /**
+     * x, y, z, level quadruples
+     */
+    private final IntArray removeQueue = new IntArray(256);
+    private Chunk lastChunk;
+    private int minX, minY, minZ, maxX, maxY, maxZ;
+    private boolean changed;
+
+    /**
+     * @param map the map where the light is stored
+     */
+    public LightPropagation(Map map) {
+        this.map = map;
+    }
+
+    /**
+     * A cell emitting light.
+     */
+    public static class Emitter {
+
+        private int x, y, z;
+        /**
+         * packed r&lt;&lt;8|g&lt;&lt;4|b
+         */
+        private int levels;
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getZ() {
+            return z;
+        }
+
+        public int getLevels() {
+            return levels;
+        }
+    }
+
+    /**
+     * Packs channel levels.
+     *
+     * @param r 0-{@link #MAXLEVEL}
+     * @param g 0-{@link #MAXLEVEL}
+     * @param b 0-{@link #MAXLEVEL}
+     * @return
+     */
+    public static int packLevels(int r, int g, int b) {
+        return (clampLevel(r) << 8) | (clampLevel(g) << 4) | clampLevel(b);
+    }
+
+    private static int clampLevel(int level) {
+        return level < 0 ? 0 : (level > MAXLEVEL ? MAXLEVEL : level);
+    }
+
+    /**
+     * Adds a light and spreads it.
+     *
+     * @param x      coordinate
+     * @param y      coordinate
+     * @param z      coordinate
+     * @param levels packed levels, see {@link #packLevels(int, int, int)}
+     * @return the emitter to move or remove the light
+     */
+    public Emitter addLight(int x, int y, int z, int levels) {
+        Emitter emitter = new Emitter();
+        emitter.x = x;
+        emitter.y = y;
+        emitter.z = z;
+        emitter.levels = levels;
+        emitters.add(emitter);
+        seed(emitter);
+        propagate();
+        dispatchChanges();
+        return emitter;
+    }
+
+    /**
+     * Removes the light of an emitter and restores the light of the other emitters where it overlapped.
+     *
+     * @param emitter
+     */
+    public void removeLight(Emitter emitter) {
+        if (emitters.remove(emitter)) {
+            removeAt(emitter.x, emitter.y, emitter.z);
+            reseed();
+            propagate();
+            dispatchChanges();
+        }
+    }
+
+    /**
+     * Moves a light. Does nothing if the position and the levels did not change.
+     *
+     * @param emitter
+     * @param x       coordinate
+     * @param y       coordinate
+     * @param z       coordinate
+     * @param levels  packed levels, see {@link #packLevels(int, int, int)}
+     */
+    public void moveLight(Emitter emitter, int x, int y, int z, int levels) {
+        if (emitter.x == x && emitter.y == y && emitter.z == z && emitter.levels == levels) {
+            return;
+        }
+        if (!emitters.contains(emitter)) {
+            emitters.add(emitter);
+        } else {
+            removeAt(emitter.x, emitter.y, emitter.z);
+        }
+        emitter.x = x;
+        emitter.y = y;
+        emitter.z = z;
+        emitter.levels = levels;
+        reseed();
+        propagate();
+        dispatchChanges();
+    }
+
+    /**
+     * Updates the light after a block changed. Opaque blocks stop the light, transparent ones let the light of the neighbours in.
+     *
+     * @param x coordinate
+     * @param y coordinate
+     * @param z coordinate
+     */
+    public void blockChanged(int x, int y, int z) {
+        if (getLevels(x, y, z) < 0) {
+            return;
+        }
+        removeBlock(x, y, z);
+        reseed();
+        propagate();
+        dispatchChanges();
+    }
+
+    /**
+     * Updates the light after many blocks changed. Propagates only once.
+     *
+     * @param coords the changed cells as x, y, z
+     * @param count  amount of cells in coords
+     */
+    public void blocksChanged(int[] coords, int count) {
+        for (int i = 0; i < count; i++) {
+            int x = coords[i * 3];
+            int y = coords[i * 3 + 1];
+            int z = coords[i * 3 + 2];
+            if (getLevels(x, y, z) >= 0) {
+                removeBlock(x, y, z);
+            }
+        }
+        reseed();
+        propagate();
+        dispatchChanges();
+    }
+
+    /**
+     * Removes the light at a changed cell and lets the surrounding light flow back in if transparent.
+     */
+    private void removeBlock(int x, int y, int z) {
+        removeAt(x, y, z);
+        if (isTransparent(x, y, z)) {
+            for (int i = 0; i < 6; i++) {
+                int nX = neighbourX(x, y, i);
+                int nY = neighbourY(y, i);
+                int nZ = neighbourZ(z, i);
+                if (getLevels(nX, nY, nZ) > 0) {
+                    enqueuePropagation(nX, nY, nZ);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lets the light of the surrounding cells and of the emitters inside flow into a newly loaded chunk.
+     *
+     * @param chunk
+     */
+    public void chunkLoaded(Chunk chunk) {
+        lastChunk = null;
+        int left = chunk.getTopLeftCoordinateX();
+        int top = chunk.getTopLeftCoordinateY();
+        for (int x = left - 1; x <= left + Chunk.getBlocksX(); x++) {
+            for (int y = top - 1; y <= top + Chunk.getBlocksY(); y++) {
+                if (x >= left && x < left + Chunk.getBlocksX() && y >= top && y < top + Chunk.getBlocksY()) {
+                    continue;//only the ring around the chunk
+                }
+                for (int z = 0; z < Chunk.getBlocksZ(); z++) {
+                    if (getLevels(x, y, z) > 0) {
+                        enqueuePropagation(x, y, z);
+                    }
+                }
+            }
+        }
+        reseed();
+        propagate();
+        dispatchChanges();
+    }
+
+    /**
+     * @return every registered light
+     */
+    public ArrayList<Emitter> getEmitters() {
+        return emitters;
+    }
+
+    /**
+     * @param x coordinate
+     * @param y coordinate
+     * @param z coordinate
+     * @return packed levels r&lt;&lt;8|g&lt;&lt;4|b, -1 if the chunk is not loaded
+     */
+    public int getLevels(int x, int y, int z) {
+        if (z < 0 || z >= Chunk.getBlocksZ()) {
+            return -1;
+        }
+        Chunk chunk = getChunk(x, y);
+        if (chunk == null) {
+            return -1;
+        }
+        return chunk.getLightLevels()[index(chunk, x, y, z)];
+    }
+
+    /**
+     * Zeros the light at a cell and removes every light which came through it. Cells lit by other sources are queued for propagation.
+     */
+    private void removeAt(int x, int y, int z) {
+        int levels = getLevels(x, y, z);
+        if (levels <= 0) {
+            return;
+        }
+        for (int shift : SHIFTS) {
+            int level = (levels >> shift) & MAXLEVEL;
+            if (level == 0) {
+                continue;
+            }
+            setLevel(x, y, z, shift, 0);
+            enqueueRemoval(x, y, z, level);
+            for (int head = 0; head < removeQueue.size; head += 4) {
+                int cX = removeQueue.get(head);
+                int cY = removeQueue.get(head + 1);
+                int cZ = removeQueue.get(head + 2);
+                int cLevel = removeQueue.get(head + 3);
+                for (int i = 0; i < 6; i++) {
+                    int nX = neighbourX(cX, cY, i);
+                    int nY = neighbourY(cY, i);
+                    int nZ = neighbourZ(cZ, i);
+                    int nLevels = getLevels(nX, nY, nZ);
+                    if (nLevels <= 0) {
+                        continue;
+                    }
+                    int nLevel = (nLevels >> shift) & MAXLEVEL;
+                    if (nLevel != 0 && nLevel < cLevel) {
+                        setLevel(nX, nY, nZ, shift, 0);
+                        enqueueRemoval(nX, nY, nZ, nLevel);
+                    } else if (nLevel >= cLevel) {
+                        enqueuePropagation(nX, nY, nZ);
+                    }
+                }
+            }
+            removeQueue.clear();
+        }
+    }
+
+    /**
+     * Restores the light at every emitter where it was removed.
+     */
+    private void reseed() {
+        for (int i = 0; i < emitters.size(); i++) {
+            seed(emitters.get(i));
+        }
+    }
+
+    private void seed(Emitter emitter) {
+        int levels = getLevels(emitter.x, emitter.y, emitter.z);
+        if (levels < 0) {
+            return;//not loaded
+        }
+        boolean raised = false;
+        for (int shift : SHIFTS) {
+            int level = (emitter.levels >> shift) & MAXLEVEL;
+            if (((levels >> shift) & MAXLEVEL) < level) {
+                setLevel(emitter.x, emitter.y, emitter.z, shift, level);
+                raised = true;
+            }
+        }
+        if (raised) {
+            enqueuePropagation(emitter.x, emitter.y, emitter.z);
+        }
+    }
+
+    /**
+     * Spreads the light of the queued cells to the transparent neighbours.
+     */
+    private void propagate() {
+        for (int head = 0; head < propagateQueue.size; head += 3) {
+            int x = propagateQueue.get(head);
+            int y = propagateQueue.get(head + 1);
+            int z = propagateQueue.get(head + 2);
+            int levels = getLevels(x, y, z);
+            if (levels <= 0) {
+                continue;
+            }
+            for (int i = 0; i < 6; i++) {
+                int nX = neighbourX(x, y, i);
+                int nY = neighbourY(y, i);
+                int nZ = neighbourZ(z, i);
+                int nLevels = getLevels(nX, nY, nZ);
+                if (nLevels < 0 || !isTransparent(nX, nY, nZ)) {
+                    continue;
+                }
+                boolean raised = false;
+                for (int shift : SHIFTS) {
+                    int level = ((levels >> shift) & MAXLEVEL) - 1;
+                    if (((nLevels >> shift) & MAXLEVEL) < level) {
+                        setLevel(nX, nY, nZ, shift, level);
+                        raised = true;
+                    }
+                }
+                if (raised) {
+                    enqueuePropagation(nX, nY, nZ);
+                }
+            }
+        }
+        propagateQueue.clear();
+    }
+
+    private void enqueuePropagation(int x, int y, int z) {
+        propagateQueue.add(x);
+        propagateQueue.add(y);
+        propagateQueue.add(z);
+    }
+
+    private void enqueueRemoval(int x, int y, int z, int level) {
+        removeQueue.add(x);
+        removeQueue.add(y);
+        removeQueue.add(z);
+        removeQueue.add(level);
+    }
+
+    private void setLevel(int x, int y, int z, int shift, int level) {
+        Chunk chunk = getChunk(x, y);
+        short[] lightLevels = chunk.getLightLevels();
+        int i = index(chunk, x, y, z);
+        lightLevels[i] = (short) ((lightLevels[i] & ~(MAXLEVEL << shift)) | (level << shift));
+
+        //grow changed box
+        if (!changed) {
+            changed = true;
+            minX = maxX = x;
+            minY = maxY = y;
+            minZ = maxZ = z;
+        } else {
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+    }
+
+    private void dispatchChanges() {
+        if (changed) {
+            changed = false;
+            MessageManager.getInstance().dispatchMessage(
+                    Events.lightChanged.getId(),
+                    new int[]{minX, minY, minZ, maxX, maxY, maxZ}
+            );
+        }
+    }
+
+    private boolean isTransparent(int x, int y, int z) {
+        Chunk chunk = getChunk(x, y);
+        byte[] column = chunk.getData()[x - chunk.getTopLeftCoordinateX()][y - chunk.getTopLeftCoordinateY()];
+        return RenderCell.isTransparent(column[z * 3], column[z * 3 + 1]);
+    }
+
+    private Chunk getChunk(int x, int y) {
+        Chunk chunk = lastChunk;
+        if (chunk == null
+                || x < chunk.getTopLeftCoordinateX()
+                || x >= chunk.getTopLeftCoordinateX() + Chunk.getBlocksX()
+                || y < chunk.getTopLeftCoordinateY()
+                || y >= chunk.getTopLeftCoordinateY() + Chunk.getBlocksY()) {
+            Chunk[][] chunks = map.getData();
+            int chunkX = Math.floorDiv(x, Chunk.getBlocksX()) + chunks.length / 2;
+            int chunkY = Math.floorDiv(y, Chunk.getBlocksY()) + chunks[0].length / 2;
+            if (chunkX < 0 || chunkX >= chunks.length || chunkY < 0 || chunkY >= chunks[0].length) {
+                return null;
+            }
+            chunk = chunks[chunkX][chunkY];
+            if (chunk != null) {
+                lastChunk = chunk;
+            }
+        }
+        return chunk;
+    }
+
+    private static int index(Chunk chunk, int x, int y, int z) {
+        return ((x - chunk.getTopLeftCoordinateX()) * Chunk.getBlocksY() + y - chunk.getTopLeftCoordinateY()) * Chunk.getBlocksZ() + z;
+    }
+
+    /**
+     * The six cells sharing a face: 0-3 are the horizontal neighbours 1, 3, 5, 7 of the staggered grid, 4 is above, 5 below.
+     */
+    private static int neighbourX(int x, int y, int i) {
+        switch (i) {
+            case 0:
+            case 1:
+                return x + (y % 2 != 0 ? 1 : 0);
+            case 2:
+            case 3:
+                return x - (y % 2 != 0 ? 0 : 1);
+            default:
+                return x;
+        }
+    }
+
+    private static int neighbourY(int y, int i) {
+        switch (i) {
+            case 0:
+            case 3:
+                return y - 1;
+            case 1:
+            case 2:
+                return y + 1;
+            default:
+                return y;
+        }
+    }
+
+    private static int neighbourZ(int z, int i) {
+        switch (i) {
+            case 4:
+                return z + 1;
+            case 5:
+                return z - 1;
+            default:
+                return z;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, 
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice, 
+ *   this list of conditions and the following disclaimer in the documentation 
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Bombing Games nor Benedikt Vogler nor the names of its contributors 
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.lightengine;
+
+/**
+ * Precalculated phong shading of the three sides for a global light source
+ * with power 1. The intensities are sampled over azimuth and height at
+ * startup and bilinear interpolated at runtime.
+ *
+ * @author agent
+ */
+public class LightingTable {
+
+    /**
+     * degrees between two samples
+     */
+    public static final float STEP = 1f;
+    /**
+     * the biggest error of an interpolated intensity which passes the accuracy check
+     */
+    public static final float TOLERANCE = 1e-3f;
+    private static final int SIZE_AZ = (int) (360 / STEP) + 1;
+    private static final int SIZE_H = (int) (180 / STEP) + 1;
+
+    private final float k_diff;
+    private final float k_specular;
+    private final int n_spec;
+    /**
+     * index [az * SIZE_H + h]
+     */
+    private final float[] diff0, diff1, diff2, spec1;
+
+    /**
+     * @param k_diff     reflection factor of the diffuse component
+     * @param k_specular reflection factor of the specular component
+     * @param n_spec     shininess
+     */
+    public LightingTable(float k_diff, float k_specular, int n_spec) {
+        this.k_diff = k_diff;
+        this.k_specular = k_specular;
+        this.n_spec = n_spec;
+        diff0 = new float[SIZE_AZ * SIZE_H];
+        diff1 = new float[SIZE_AZ * SIZE_H];
+        diff2 = new float[SIZE_AZ * SIZE_H];
+        spec1 = new float[SIZE_AZ * SIZE_H];
+        for (int a = 0; a < SIZE_AZ; a++) {
+            float az = a * STEP;
+            for (int h = 0; h < SIZE_H; h++) {
+                float height = h * STEP - 90;
+                int i = a * SIZE_H + h;
+                diff0[i] = calcDiff0(az, height);
+                diff1[i] = calcDiff1(az, height);
+                diff2[i] = calcDiff2(az, height);
+                spec1[i] = calcSpec1(az, height);
+            }
+        }
+    }
+
+    /**
+     * diffuse light on the left side
+     *
+     * @param azimuth in degrees
+     * @param height  in degrees
+     * @return
+     */
+    public float calcDiff0(float azimuth, float height) {
+        return Math.max(0, (float) (k_diff * Math.cos(height * Math.PI / 180) * Math.cos((azimuth - 45) * Math.PI / 180)));
+    }
+
+    /**
+     * diffuse light on the top side
+     *
+     * @param azimuth in degrees
+     * @param height  in degrees
+     * @return
+     */
+    public float calcDiff1(float azimuth, float height) {
+        return Math.max(0, (float) (k_diff * Math.cos((height - 90) * Math.PI / 180)));
+    }
+
+    /**
+     * diffuse light on the right side
+     *
+     * @param azimuth in degrees
+     * @param height  in degrees
+     * @return
+     */
+    public float calcDiff2(float azimuth, float height) {
+        return Math.max(0, (float) (k_diff * Math.cos(height * Math.PI / 180) * Math.cos((azimuth - 135) * Math.PI / 180)));
+    }
+
+    /**
+     * specular light on the top side. Only the top side can have specular light.
+     *
+     * @param azimuth in degrees
+     * @param height  in degrees
+     * @return
+     */
+    public float calcSpec1(float azimuth, float height) {
+        return (float) (k_specular * Math.pow(Math.sin(height * Math.PI / 180) * Math.sin(azimuth * Math.PI / 180) / Math.sqrt(2)//y
+                + Math.sin((height - 90) * Math.PI / 180) / Math.sqrt(2)//z
+                , n_spec) * (n_spec + 2) / (2 * Math.PI));
+    }
+
+    /**
+     * @param azimuth in degrees
+     * @param height  in degrees
+     * @return interpolated {@link #calcDiff0(float, float)}
+     */
+    public float getDiff0(float azimuth, float height) {
+        return sample(diff0, azimuth, height);
+    }
+
+    /**
+     * @param azimuth in degrees
+     * @param height  in degrees
+     * @return interpolated {@link #calcDiff1(float, float)}
+     */
+    public float getDiff1(float azimuth, float height) {
+        return sample(diff1, azimuth, height);
+    }
+
+    /**
+     * @param azimuth in degrees
+     * @param height  in degrees
+     * @return interpolated {@link #calcDiff2(float, float)}
+     */
+    public float getDiff2(float azimuth, float height) {
+        return sample(diff2, azimuth, height);
+    }
+
+    /**
+     * @param azimuth in degrees
+     * @param height  in degrees
+     * @return interpolated {@link #calcSpec1(float, float)}
+     */
+    public float getSpec1(float azimuth, float height) {
+        return sample(spec1, azimuth, height);
+    }
+
+    /**
+     * bilinear interpolation between the four surrounding samples
+     *
+     * @param table
+     * @param azimuth wrapped to [0, 360)
+     * @param height  clamped to [-90, 90]
+     * @return
+     */
+    private static float sample(float[] table, float azimuth, float height) {
+        float az = (azimuth % 360) / STEP;
+        if (az < 0) {
+            az += 360 / STEP;
+        }
+        float h = (Math.max(-90, Math.min(90, height)) + 90) / STEP;
+        int a0 = Math.min((int) az, SIZE_AZ - 2);
+        int h0 = Math.min((int) h, SIZE_H - 2);
+        float fa = az - a0;
+        float fh = h - h0;
+        int i = a0 * SIZE_H + h0;
+        float bottom = table[i] + (table[i + SIZE_H] - table[i]) * fa;
+        float top = table[i + 1] + (table[i + SIZE_H + 1] - table[i + 1]) * fa;
+        return bottom + (top - bottom) * fh;
+    }
+
+    /**
+     * Compares the interpolated values with the analytic formulas between the
+     * samples.
+     *
+     * @param samples amount of tested positions per axis
+     * @return the biggest absolute error of each table: diff0, diff1, diff2, spec1
+     */
+    public float[] getMaxError(int samples) {
+        float[] err = new float[4];
+        for (int a = 0; a < samples; a++) {
+            //offset so that the positions lie between the samples
+            float az = (a + 0.5f) * 360f / samples;
+            for (int h = 0; h < samples; h++) {
+                float height = (h + 0.5f) * 180f / samples - 90;
+                err[0] = Math.max(err[0], Math.abs(getDiff0(az, height) - calcDiff0(az, height)));
+                err[1] = Math.max(err[1], Math.abs(getDiff1(az, height) - calcDiff1(az, height)));
+                err[2] = Math.max(err[2], Math.abs(getDiff2(az, height) - calcDiff2(az, height)));
+                err[3] = Math.max(err[3], Math.abs(getSpec1(az, height) - calcSpec1(az, height)));
+            }
+        }
+        return err;
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * If this software is used for a game the official „Wurfel Engine“ logo or its name must be visible in an intro screen or main menu.
+ *
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, 
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice, 
+ *   this list of conditions and the following disclaimer in the documentation 
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors 
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.lightengine;
+
+import com.badlogic.gdx.ai.msg.MessageManager;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.msg.Telegraph;
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.Events;
+import com.bombinggames.wurfelengine.core.map.Chunk;
+import com.bombinggames.wurfelengine.core.map.Map;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Calculates which cells are in the shadow of the sun by projecting the sun direction over the column height maps of the chunks ({@link Chunk#getTopOpaqueZ(int, int)}). Overhangs are treated as if they were filled to the ground.<br>
+ * For every column the height below which it is in shadow is stored. The map is only recalculated if the sun moved more than the threshold "sunShadowThreshold" or a chunk changed. The chunks are calculated in parallel on worker threads. After a chunk got new values {@link Events#sunShadowChanged} is dispatched with the chunk.
+ *
+ * @author agent
+ */
+public class SunShadowMap implements Telegraph {
+
+    /**
+     * below this angle the shadows would get too long
+     */
+    private static final float MINELEVATION = 5;
+    private ExecutorService workers;
+
+    /**
+     * The shadow height in game space of every column of a chunk. Index is x*blocksY+y. Only accessed on the main thread.
+     */
+    private final HashMap<Chunk, float[]> shadowHeights = new HashMap<>(30);
+    /**
+     * results finished by the workers
+     */
+    private final ConcurrentLinkedQueue<Result> finished = new ConcurrentLinkedQueue<>();
+    /**
+     * chunks which are currently calculated
+     */
+    private final HashSet<Chunk> computing = new HashSet<>(16);
+    /**
+     * chunks which must be recalculated
+     */
+    private final HashSet<Chunk> dirty = new HashSet<>(16);
+    private Map map;
+    private float lastAzimuth;
+    private float lastHeight;
+    /**
+     * true if the chunks got calculated with the last sun position
+     */
+    private boolean valid;
+
+    public SunShadowMap() {
+        MessageManager.getInstance().addListener(this, Events.chunkChanged.getId());
+    }
+
+    /**
+     * Collects the finished chunks and starts a new calculation if needed. Must be called on the main thread.
+     *
+     * @param sun
+     */
+    public void update(GlobalLightSource sun) {
+        Map current = Controller.getMap();
+        if (map != current) {
+            map = current;
+            clear();
+        }
+
+        //add finished chunks
+        Result result;
+        while ((result = finished.poll()) != null) {
+            computing.remove(result.chunk);
+            Chunk chunk = result.chunk;
+            if (getLoadedChunk(map.getData(), chunk.getChunkX(), chunk.getChunkY()) == chunk) {
+                shadowHeights.put(chunk, result.heights);
+                MessageManager.getInstance().dispatchMessage(Events.sunShadowChanged.getId(), chunk);
+            }
+        }
+
+        //no shadows at night
+        if (!WE.getCVars().getValueB("sunShadows") || sun.getHeight() <= 0) {
+            if (!shadowHeights.isEmpty()) {
+                for (Chunk chunk : shadowHeights.keySet()) {
+                    MessageManager.getInstance().dispatchMessage(Events.sunShadowChanged.getId(), chunk);
+                }
+                shadowHeights.clear();
+            }
+            dirty.clear();
+            valid = false;
+            return;
+        }
+
+        ArrayList<Chunk> loaded = map.getLoadedChunks();
+        float threshold = WE.getCVars().getValueF("sunShadowThreshold");
+        if (!valid
+                || Math.abs(getAngleDifference(sun.getAzimuth(), lastAzimuth)) > threshold
+                || Math.abs(sun.getHeight() - lastHeight) > threshold) {
+            lastAzimuth = sun.getAzimuth();
+            lastHeight = sun.getHeight();
+            valid = true;
+            dirty.addAll(loaded);
+        } else {
+            //new chunks
+            for (int i = 0; i < loaded.size(); i++) {
+                Chunk chunk = loaded.get(i);
+                if (!shadowHeights.containsKey(chunk) && !computing.contains(chunk)) {
+                    dirty.add(chunk);
+                }
+            }
+        }
+
+        if (!dirty.isEmpty()) {
+            if (workers == null) {
+                workers = Executors.newFixedThreadPool(
+                        Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "sunShadow");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                );
+            }
+            //the direction to the sun in game space, same as used by the light engine for the sides
+            float dirX = (float) -Math.cos(lastAzimuth * Math.PI / 180);
+            float dirY = (float) Math.sin(lastAzimuth * Math.PI / 180);
+            float slope = (float) Math.tan(Math.max(lastHeight, MINELEVATION) * Math.PI / 180);
+            int maxSteps = WE.getCVars().getValueI("sunShadowDistance");
+            Chunk[][] data = map.getData();
+
+            Iterator<Chunk> it = dirty.iterator();
+            while (it.hasNext()) {
+                Chunk chunk = it.next();
+                //wait until the last calculation is finished
+                if (!computing.contains(chunk)) {
+                    it.remove();
+                    computing.add(chunk);
+                    workers.execute(
+                            () -> finished.add(new Result(chunk, calcShadowHeights(chunk, data, dirX, dirY, slope, maxSteps)))
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the shadow height of every column of a chunk. Reads the height maps of the neighbour chunks.
+     *
+     * @param chunk
+     * @param data     the chunks of the map
+     * @param dirX     horizontal direction to the sun
+     * @param dirY     horizontal direction to the sun
+     * @param slope    rise per horizontal game space unit
+     * @param maxSteps max distance in steps of half a block
+     * @return the shadow height in game space of every column
+     */
+    private static float[] calcShadowHeights(Chunk chunk, Chunk[][] data, float dirX, float dirY, float slope, int maxSteps) {
+        int blocksX = Chunk.getBlocksX();
+        int blocksY = Chunk.getBlocksY();
+        float mapHeight = Chunk.getGameHeight();
+        float step = RenderCell.GAME_DIAGLENGTH2;
+        float[] heights = new float[blocksX * blocksY];
+
+        for (int x = 0; x < blocksX; x++) {
+            for (int y = 0; y < blocksY; y++) {
+                int coordX = chunk.getTopLeftCoordinateX() + x;
+                int coordY = chunk.getTopLeftCoordinateY() + y;
+                //center of the column
+                float startX = coordX * RenderCell.GAME_DIAGLENGTH + (coordY % 2 != 0 ? RenderCell.GAME_DIAGLENGTH2 : 0);
+                float startY = coordY * RenderCell.GAME_DIAGLENGTH2;
+
+                //everything below the own top is covered
+                float shadow = chunk.getTopOpaqueZ(coordX, coordY) * RenderCell.GAME_EDGELENGTH;
+
+                for (int i = 1; i <= maxSteps; i++) {
+                    float dist = i * step;
+                    //no column can be higher than the map
+                    if (mapHeight - dist * slope <= shadow) {
+                        break;
+                    }
+                    float px = startX + dirX * dist;
+                    float py = startY + dirY * dist;
+                    //rotated grid to find the column
+                    int u = (int) Math.floor((px + py) / RenderCell.GAME_DIAGLENGTH + 0.5f);
+                    int v = (int) Math.floor((px - py) / RenderCell.GAME_DIAGLENGTH + 0.5f);
+                    int colX = Math.floorDiv(u + v, 2);
+                    int colY = u - v;
+                    Chunk other = getLoadedChunk(
+                            data,
+                            Math.floorDiv(colX, blocksX),
+                            Math.floorDiv(colY, blocksY)
+                    );
+                    if (other != null) {
+                        int top = other.getTopOpaqueZ(colX, colY);
+                        if (top >= 0) {
+                            shadow = Math.max(shadow, (top + 1) * RenderCell.GAME_EDGELENGTH - dist * slope);
+                        }
+                    }
+                }
+                heights[x * blocksY + y] = shadow;
+            }
+        }
+        return heights;
+    }
+
+    /**
+     * @param data   the chunks of the map
+     * @param chunkX chunk coordinate
+     * @param chunkY chunk coordinate
+     * @return null if not loaded or outside
+     */
+    private static Chunk getLoadedChunk(Chunk[][] data, int chunkX, int chunkY) {
+        int indexX = chunkX + data.length / 2;
+        int indexY = chunkY + data.length / 4;
+        if (indexX < 0 || indexX >= data.length || indexY < 0 || indexY >= data[indexX].length) {
+            return null;
+        }
+        return data[indexX][indexY];
+    }
+
+    /**
+     * @param a degrees
+     * @param b degrees
+     * @return difference in range [-180, 180)
+     */
+    private static float getAngleDifference(float a, float b) {
+        float diff = (a - b) % 360;
+        if (diff < -180) {
+            diff += 360;
+        } else if (diff >= 180) {
+            diff -= 360;
+        }
+        return diff;
+    }
+
+    /**
+     * How much of the sun reaches the top of a cell. O(1)
+     *
+     * @param chunk
+     * @param idexX index pos
+     * @param idexY index pos
+     * @param idexZ index pos
+     * @return 0 is full shadow, 1 is full sun
+     */
+    public float getVisibility(Chunk chunk, int idexX, int idexY, int idexZ) {
+        float[] heights = shadowHeights.get(chunk);
+        if (heights == null) {
+            return 1;
+        }
+        float vis = ((idexZ + 1) * RenderCell.GAME_EDGELENGTH - heights[idexX * Chunk.getBlocksY() + idexY]) / RenderCell.GAME_EDGELENGTH;
+        if (vis < 0) {
+            return 0;
+        }
+        if (vis > 1) {
+            return 1;
+        }
+        return vis;
+    }
+
+    /**
+     * Forces a recalculation of every chunk.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    private void clear() {
+        shadowHeights.clear();
+        computing.clear();
+        finished.clear();
+        dirty.clear();
+        valid = false;
+    }
+
+    @Override
+    public boolean handleMessage(Telegram msg) {
+        if (msg.message == Events.chunkChanged.getId() && msg.extraInfo instanceof Chunk && map != null) {
+            Chunk chunk = (Chunk) msg.extraInfo;
+            //shadows are cast over the chunk borders
+            Chunk[][] data = map.getData();
+            for (int x = -1; x <= 1; x++) {
+                for (int y = -1; y <= 1; y++) {
+                    Chunk neighbour = getLoadedChunk(data, chunk.getChunkX() + x, chunk.getChunkY() + y);
+                    if (neighbour != null && (shadowHeights.containsKey(neighbour) || computing.contains(neighbour))) {
+                        dirty.add(neighbour);
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Stops listening and drops the shadows.
+     */
+    public void dispose() {
+        MessageManager.getInstance().removeListener(this, Events.chunkChanged.getId());
+        clear();
+        if (workers != null) {
+            workers.shutdown();
+            workers = null;
+        }
+    }
+
+    private static class Result {
+
+        private final Chunk chunk;
+        private final float[] heights;
+
+        Result(Chunk chunk, float[] heights) {
+            this.chunk = chunk;
+            this.heights = heights;
+        }
+    }
+}
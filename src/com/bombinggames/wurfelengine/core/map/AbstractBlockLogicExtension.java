@@ -23,6 +23,15 @@ public abstract class AbstractBlockLogicExtension {
      * Is only used for validity check.
      */
     private final byte id;
+    /**
+     * the scheduler of the chunk, null until added to a chunk
+     */
+    private BlockTickScheduler scheduler;
+    /**
+     * tick requested before the logic was added to a chunk, negative if none
+     */
+    private float pendingDelay = -1;
+    private boolean randomTicks;
 
     /**
      * Called when spawned. Should not access the map because during map
@@ -60,9 +69,86 @@ public abstract class AbstractBlockLogicExtension {
     }
 
     /**
+     * Called every frame if not {@link #isScheduled() scheduled}.
+     *
      * @param dt
      */
-    public abstract void update(float dt);
+    public void update(float dt) {
+    }
+
+    /**
+     * A scheduled logic is not updated every frame. It only receives the ticks requested via {@link #scheduleTick(float)} and {@link #setRandomTicks(boolean)}.
+     *
+     * @return false by default
+     */
+    public boolean isScheduled() {
+        return false;
+    }
+
+    /**
+     * Requests a call of {@link #onScheduledTick()}. Can already be called in the constructor. Only used if {@link #isScheduled()}.
+     *
+     * @param delay in ms
+     */
+    protected void scheduleTick(float delay) {
+        if (scheduler != null) {
+            scheduler.schedule(this, delay);
+        } else if (pendingDelay < 0 || delay < pendingDelay) {
+            pendingDelay = Math.max(0, delay);
+        }
+    }
+
+    /**
+     * Subscribes to random ticks. The rate is set by the CVar "randomTickRate" per chunk. Only used if {@link #isScheduled()}.
+     *
+     * @param enabled
+     */
+    protected void setRandomTicks(boolean enabled) {
+        randomTicks = enabled;
+        if (scheduler != null) {
+            scheduler.setRandomTicks(this, enabled);
+        }
+    }
+
+    /**
+     * Called when added to a chunk.
+     *
+     * @param scheduler
+     */
+    void attach(BlockTickScheduler scheduler) {
+        this.scheduler = scheduler;
+        if (pendingDelay >= 0) {
+            scheduler.schedule(this, pendingDelay);
+            pendingDelay = -1;
+        }
+        if (randomTicks) {
+            scheduler.setRandomTicks(this, true);
+        }
+    }
+
+    /**
+     * Called when removed from the chunk.
+     */
+    void detach() {
+        if (scheduler != null) {
+            scheduler.remove(this);
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Called when a tick requested via {@link #scheduleTick(float)} is due.
+     */
+    public void onScheduledTick() {
+    }
+
+    /**
+     * Called when picked by a random tick.
+     *
+     * @see #setRandomTicks(boolean)
+     */
+    public void onRandomTick() {
+    }
 
     /**
      * called when removed
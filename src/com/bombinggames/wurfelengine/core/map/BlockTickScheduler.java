@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.map;
+
+import com.badlogic.gdx.math.RandomXS128;
+import java.util.ArrayList;
+import java.util.PriorityQueue;
+
+/**
+ * Ticks the scheduled logic blocks of one chunk. Scheduled ticks are kept in a priority queue ordered by the time they are due. Random ticks pick a random cell of the chunk at a fixed rate and tick the logic there if it subscribed. Every scheduler has its own seeded generator so that a chunk ticks the same way in every run and on every thread. Costs nothing if nothing is pending.
+ *
+ * @author agent
+ * @see AbstractBlockLogicExtension#isScheduled()
+ */
+public class BlockTickScheduler {
+
+    /**
+     * a tick which is due at a time
+     */
+    private static class Tick implements Comparable<Tick> {
+
+        private final AbstractBlockLogicExtension logic;
+        private final double due;
+        /**
+         * keeps the order of ticks due at the same time
+         */
+        private final long sequence;
+
+        Tick(AbstractBlockLogicExtension logic, double due, long sequence) {
+            this.logic = logic;
+            this.due = due;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Tick o) {
+            int cmp = Double.compare(due, o.due);
+            if (cmp != 0) {
+                return cmp;
+            }
+            return Long.compare(sequence, o.sequence);
+        }
+    }
+
+    private final PriorityQueue<Tick> queue = new PriorityQueue<>();
+    /**
+     * logic blocks receiving random ticks
+     */
+    private final ArrayList<AbstractBlockLogicExtension> randomTicked = new ArrayList<>(4);
+    /**
+     * amount of cells in a chunk
+     */
+    private final int cells;
+    /**
+     * local clock in ms. Only runs while something is pending. A double so that adding a tick still changes it after days of running.
+     */
+    private double time;
+    private float randomTickAccumulator;
+    private long sequence;
+    private final RandomXS128 random;
+
+    /**
+     * @param cells amount of cells which can be picked by a random tick
+     * @param seed  seed of the random ticks
+     */
+    public BlockTickScheduler(int cells, long seed) {
+        this.cells = cells;
+        random = new RandomXS128(seed);
+    }
+
+    /**
+     * Schedules a tick.
+     *
+     * @param logic
+     * @param delay in ms
+     */
+    void schedule(AbstractBlockLogicExtension logic, float delay) {
+        queue.add(new Tick(logic, time + Math.max(0, delay), sequence++));
+    }
+
+    /**
+     * @param logic
+     * @param enabled
+     */
+    void setRandomTicks(AbstractBlockLogicExtension logic, boolean enabled) {
+        if (enabled) {
+            if (!randomTicked.contains(logic)) {
+                randomTicked.add(logic);
+            }
+        } else {
+            randomTicked.remove(logic);
+        }
+    }
+
+    /**
+     * Removes every pending tick of a logic.
+     *
+     * @param logic
+     */
+    void remove(AbstractBlockLogicExtension logic) {
+        queue.removeIf(tick -> tick.logic == logic);
+        randomTicked.remove(logic);
+    }
+
+    /**
+     * @return true if no ticks are pending
+     */
+    public boolean isIdle() {
+        return queue.isEmpty() && randomTicked.isEmpty();
+    }
+
+    /**
+     * @return amount of scheduled ticks
+     */
+    public int getPendingTicks() {
+        return queue.size();
+    }
+
+    /**
+     * Runs the due ticks.
+     *
+     * @param dt                   time in ms
+     * @param randomTicksPerSecond amount of cells picked per second
+     */
+    public void update(float dt, float randomTicksPerSecond) {
+        time += dt;
+
+        //ticks scheduled while ticking are run not before the next update
+        int limit = queue.size();
+        while (limit > 0 && !queue.isEmpty() && queue.peek().due <= time) {
+            limit--;
+            AbstractBlockLogicExtension logic = queue.poll().logic;
+            if (logic.isValid()) {
+                logic.onScheduledTick();
+            }
+        }
+
+        if (randomTicked.isEmpty()) {
+            randomTickAccumulator = 0;
+        } else {
+            randomTickAccumulator += dt / 1000f * randomTicksPerSecond;
+            int picks = (int) randomTickAccumulator;
+            randomTickAccumulator -= picks;
+            for (int i = 0; i < picks; i++) {
+                //every subscribed logic has the same chance as a single cell
+                int cell = random.nextInt(cells);
+                if (cell < randomTicked.size()) {
+                    AbstractBlockLogicExtension logic = randomTicked.get(cell);
+                    if (logic.isValid()) {
+                        logic.onRandomTick();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.map;
+
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+
+/**
+ * A rule of the {@link CellularAutomaton}. Decides what an active cell does in a step. Provided by {@link CustomBlocks#getCellRule(byte, byte)}.
+ * <br>
+ * A rule may only read and change the cell and its direct neighbours because neighbouring chunks are processed in parallel.
+ *
+ * @author agent
+ */
+public interface CellRule {
+
+    /**
+     * Liquids fall down and flow over edges.
+     */
+    public static final CellRule LIQUID = new Liquid();
+    /**
+     * Falls down if there is air or liquid below.
+     */
+    public static final CellRule FALLING = new Falling();
+
+    /**
+     * Called for an active cell. Changes made via {@link CellularAutomaton.Step#set(int, int, int, byte, byte)} activate the surrounding cells for the next step.
+     *
+     * @param step  access to the blocks
+     * @param x     coordinate
+     * @param y     coordinate
+     * @param z     coordinate
+     * @param id    the block at the cell
+     * @param value the block at the cell
+     * @return true if the cell should stay active although nothing changed
+     */
+    public boolean step(CellularAutomaton.Step step, int x, int y, int z, byte id, byte value);
+
+    /**
+     * Falls down. If the cell below is blocked flows to a side where it can fall down.
+     */
+    public static class Liquid implements CellRule {
+
+        @Override
+        public boolean step(CellularAutomaton.Step step, int x, int y, int z, byte id, byte value) {
+            if (step.isAir(x, y, z - 1)) {
+                step.set(x, y, z - 1, id, value);
+                step.set(x, y, z, (byte) 0, (byte) 0);
+                return false;
+            }
+            int start = step.getRandom().nextInt(4);
+            for (int n = 0; n < 4; n++) {
+                int i = (start + n) % 4;
+                int nX = CellularAutomaton.neighbourX(x, y, i);
+                int nY = CellularAutomaton.neighbourY(y, i);
+                if (step.isAir(nX, nY, z) && step.isAir(nX, nY, z - 1)) {
+                    step.set(nX, nY, z, id, value);
+                    step.set(x, y, z, (byte) 0, (byte) 0);
+                    return false;
+                }
+            }
+            return false;//rests until a neighbour changes
+        }
+    }
+
+    /**
+     * Falls down through air and liquids.
+     */
+    public static class Falling implements CellRule {
+
+        @Override
+        public boolean step(CellularAutomaton.Step step, int x, int y, int z, byte id, byte value) {
+            byte belowId = step.getId(x, y, z - 1);
+            byte belowValue = step.getValue(x, y, z - 1);
+            if (belowId == 0 || RenderCell.isLiquid(belowId, belowValue)) {
+                step.set(x, y, z - 1, id, value);
+                step.set(x, y, z, belowId, belowValue);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.map;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulates liquid and falling blocks. Only active cells are processed. A cell becomes active if it or a neighbour changed and its block has a {@link CellRule}.<br>
+ * The chunks are processed in four phases like a checkerboard so that chunks processed at the same time are never neighbours. The chunks of a phase run in parallel. The changes are written to the map with {@link Map#beginEdit()} so the map is only updated once per step.<br>
+ * Games opt in with the CVar "cellSimulation".
+ *
+ * @author agent
+ */
+public class CellularAutomaton {
+
+    private ExecutorService workers;
+
+    /**
+     * the active cells of a chunk
+     */
+    private static class ActiveCells {
+
+        /**
+         * index (x*blocksY+y)*blocksZ+z
+         */
+        private final IntArray cells = new IntArray(32);
+        private final BitSet queued = new BitSet();
+    }
+
+    /**
+     * Processes the active cells of one chunk. Changes are not written to the map until the phase is over.
+     */
+    public static class Step implements Callable<Void> {
+
+        private final Map map;
+        private final Chunk chunk;
+        private final int[] cells;
+        private final Random random;
+        private final byte groundId;
+        /**
+         * changed blocks as id | value &lt;&lt; 8
+         */
+        private final HashMap<Long, Integer> written = new HashMap<>(32);
+        /**
+         * changed cells as x, y, z in order of the first change
+         */
+        private final IntArray changed = new IntArray(48);
+        /**
+         * cells staying active as x, y, z
+         */
+        private final IntArray requeued = new IntArray(0);
+        private int processed;
+
+        Step(Map map, Chunk chunk, int[] cells, long seed, byte groundId) {
+            this.map = map;
+            this.chunk = chunk;
+            this.cells = cells;
+            this.random = new Random(seed);
+            this.groundId = groundId;
+        }
+
+        @Override
+        public Void call() {
+            int blocksY = Chunk.getBlocksY();
+            int blocksZ = Chunk.getBlocksZ();
+            for (int cell : cells) {
+                int x = chunk.getTopLeftCoordinateX() + cell / blocksZ / blocksY;
+                int y = chunk.getTopLeftCoordinateY() + (cell / blocksZ) % blocksY;
+                int z = cell % blocksZ;
+                byte id = getId(x, y, z);
+                byte value = getValue(x, y, z);
+                CellRule rule = RenderCell.getCellRule(id, value);
+                if (rule != null) {
+                    processed++;
+                    if (rule.step(this, x, y, z, id, value)) {
+                        requeued.add(x);
+                        requeued.add(y);
+                        requeued.add(z);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static long key(int x, int y, int z) {
+            return ((long) x << 40) ^ ((long) (y & 0xFFFFF) << 20) ^ (z & 0xFFFFF);
+        }
+
+        /**
+         * @param x
+         * @param y
+         * @param z
+         * @return the block id including the changes of this step. Cells below the map or in chunks which are not loaded read as the ground block.
+         */
+        public byte getId(int x, int y, int z) {
+            Integer block = written.get(key(x, y, z));
+            if (block != null) {
+                return (byte) (block & 255);
+            }
+            if (z < 0) {
+                return groundId;
+            }
+            Chunk target = map.getChunkChecked(Math.floorDiv(x, Chunk.getBlocksX()), Math.floorDiv(y, Chunk.getBlocksY()));
+            if (target == null) {
+                return groundId;
+            }
+            return target.getBlockId(x, y, z);
+        }
+
+        /**
+         * @param x
+         * @param y
+         * @param z
+         * @return the block value including the changes of this step
+         */
+        public byte getValue(int x, int y, int z) {
+            Integer block = written.get(key(x, y, z));
+            if (block != null) {
+                return (byte) ((block >> 8) & 255);
+            }
+            if (z < 0) {
+                return 0;
+            }
+            Chunk target = map.getChunkChecked(Math.floorDiv(x, Chunk.getBlocksX()), Math.floorDiv(y, Chunk.getBlocksY()));
+            if (target == null) {
+                return 0;
+            }
+            return target.getBlockValue(x, y, z);
+        }
+
+        /**
+         * @param x
+         * @param y
+         * @param z
+         * @return true if there is air at the cell
+         */
+        public boolean isAir(int x, int y, int z) {
+            return getId(x, y, z) == 0;
+        }
+
+        /**
+         * Changes a block. Written to the map after the phase. Cells outside the map are ignored.
+         *
+         * @param x
+         * @param y
+         * @param z
+         * @param id
+         * @param value
+         */
+        public void set(int x, int y, int z, byte id, byte value) {
+            if (z < 0 || z >= Chunk.getBlocksZ()) {
+                return;
+            }
+            if (map.getChunkChecked(Math.floorDiv(x, Chunk.getBlocksX()), Math.floorDiv(y, Chunk.getBlocksY())) == null) {
+                return;
+            }
+            if (written.put(key(x, y, z), (id & 255) | (value & 255) << 8) == null) {
+                changed.add(x);
+                changed.add(y);
+                changed.add(z);
+            }
+        }
+
+        /**
+         * @return random generator of this step. Seeded by the chunk and the step so the simulation is reproducible.
+         */
+        public Random getRandom() {
+            return random;
+        }
+
+        /**
+         * Writes the changes to the map.
+         */
+        private void apply() {
+            for (int i = 0; i < changed.size; i += 3) {
+                int block = written.get(key(changed.items[i], changed.items[i + 1], changed.items[i + 2]));
+                map.setBlock(
+                        new Coordinate(changed.items[i], changed.items[i + 1], changed.items[i + 2]),
+                        (byte) (block & 255),
+                        (byte) ((block >> 8) & 255)
+                );
+            }
+        }
+    }
+
+    /**
+     * x of the horizontal neighbours which share a side.
+     *
+     * @param x
+     * @param y
+     * @param i 0-3
+     * @return
+     */
+    public static int neighbourX(int x, int y, int i) {
+        switch (i) {
+            case 0:
+            case 1:
+                return x + (y % 2 != 0 ? 1 : 0);
+            default:
+                return x - (y % 2 != 0 ? 0 : 1);
+        }
+    }
+
+    /**
+     * y of the horizontal neighbours which share a side.
+     *
+     * @param y
+     * @param i 0-3
+     * @return
+     */
+    public static int neighbourY(int y, int i) {
+        switch (i) {
+            case 0:
+            case 3:
+                return y - 1;
+            default:
+                return y + 1;
+        }
+    }
+
+    private final Map map;
+    private HashMap<Chunk, ActiveCells> active = new HashMap<>(16);
+    private float timeSinceStep;
+    private long stepCount;
+    private long processedCells;
+    private long processingTime;
+
+    /**
+     * @param map
+     */
+    public CellularAutomaton(Map map) {
+        this.map = map;
+    }
+
+    /**
+     * Activates a changed cell and its neighbours. Does nothing if the CVar "cellSimulation" is disabled.
+     *
+     * @param x
+     * @param y
+     * @param z
+     */
+    public void cellChanged(int x, int y, int z) {
+        if (!WE.getCVars().getValueB("cellSimulation")) {
+            return;
+        }
+        activate(x, y, z);
+        activate(x, y, z + 1);
+        activate(x, y, z - 1);
+        for (int i = 0; i < 4; i++) {
+            activate(neighbourX(x, y, i), neighbourY(y, i), z);
+        }
+    }
+
+    /**
+     * Processes the cell in the next step if its block has a rule.
+     *
+     * @param x
+     * @param y
+     * @param z
+     */
+    public void activate(int x, int y, int z) {
+        if (z < 0 || z >= Chunk.getBlocksZ()) {
+            return;
+        }
+        Chunk chunk = map.getChunkChecked(Math.floorDiv(x, Chunk.getBlocksX()), Math.floorDiv(y, Chunk.getBlocksY()));
+        if (chunk == null) {
+            return;
+        }
+        byte id = chunk.getBlockId(x, y, z);
+        if (id == 0 || RenderCell.getCellRule(id, chunk.getBlockValue(x, y, z)) == null) {
+            return;
+        }
+        ActiveCells cells = active.get(chunk);
+        if (cells == null) {
+            cells = new ActiveCells();
+            active.put(chunk, cells);
+        }
+        int index = ((x - chunk.getTopLeftCoordinateX()) * Chunk.getBlocksY() + y - chunk.getTopLeftCoordinateY()) * Chunk.getBlocksZ() + z;
+        if (!cells.queued.get(index)) {
+            cells.queued.set(index);
+            cells.cells.add(index);
+        }
+    }
+
+    /**
+     * Steps at the rate of the CVar "cellTickTime".
+     *
+     * @param dt time in ms
+     */
+    public void update(float dt) {
+        if (!WE.getCVars().getValueB("cellSimulation")) {
+            active.clear();
+        }
+        if (active.isEmpty()) {
+            timeSinceStep = 0;
+            return;
+        }
+        timeSinceStep += dt;
+        if (timeSinceStep >= WE.getCVars().getValueF("cellTickTime")) {
+            timeSinceStep = 0;
+            step();
+        }
+    }
+
+    /**
+     * Processes every active cell once.
+     *
+     * @return amount of processed cells
+     */
+    public int step() {
+        if (active.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        byte groundId = (byte) WE.getCVars().getValueI("groundBlockID");
+        List<List<Step>> phases = new ArrayList<>(4);
+        for (int i = 0; i < 4; i++) {
+            phases.add(new ArrayList<>(4));
+        }
+        //cells activated by this step are collected in a new set
+        HashMap<Chunk, ActiveCells> current = active;
+        active = new HashMap<>(16);
+        current.forEach((chunk, cells) -> {
+            if (map.getChunkChecked(chunk.getChunkX(), chunk.getChunkY()) != chunk) {
+                return;//unloaded
+            }
+            int[] sorted = Arrays.copyOf(cells.cells.items, cells.cells.size);
+            //lowest cells of a column first
+            Arrays.sort(sorted);
+            long seed = stepCount * 31 + chunk.getChunkX() * 73856093L ^ chunk.getChunkY() * 19349663L;
+            phases.get((chunk.getChunkX() & 1) | (chunk.getChunkY() & 1) << 1).add(new Step(map, chunk, sorted, seed, groundId));
+        });
+        stepCount++;
+
+        int processed = 0;
+        map.beginEdit();
+        try {
+            for (List<Step> phase : phases) {
+                if (phase.isEmpty()) {
+                    continue;
+                }
+                run(phase);
+                for (Step step : phase) {
+                    step.apply();
+                    processed += step.processed;
+                    for (int i = 0; i < step.requeued.size; i += 3) {
+                        activate(step.requeued.items[i], step.requeued.items[i + 1], step.requeued.items[i + 2]);
+                    }
+                }
+            }
+        } finally {
+            map.commit();
+        }
+        processedCells += processed;
+        processingTime += System.nanoTime() - start;
+        return processed;
+    }
+
+    /**
+     * Runs the steps of one phase. They never touch the same cells.
+     *
+     * @param phase
+     */
+    private void run(List<Step> phase) {
+        if (phase.size() == 1 || !WE.getCVars().getValueB("parallelCellSimulation")) {
+            for (Step step : phase) {
+                step.call();
+            }
+            return;
+        }
+        if (workers == null) {
+            workers = Executors.newFixedThreadPool(
+                    Runtime.getRuntime().availableProcessors(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "cells");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+            );
+        }
+        ArrayList<Callable<Void>> tasks = new ArrayList<>(phase.size());
+        for (Step step : phase) {
+            tasks.add(Controller.bindTask(step));
+        }
+        try {
+            for (Future<Void> future : workers.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    /**
+     * @return amount of cells waiting for the next step
+     */
+    public int getActiveCount() {
+        int count = 0;
+        for (ActiveCells cells : active.values()) {
+            count += cells.cells.size;
+        }
+        return count;
+    }
+
+    /**
+     * @return amount of cells processed since creation
+     */
+    public long getProcessedCells() {
+        return processedCells;
+    }
+
+    /**
+     * @return time spent in {@link #step()} since creation in ns
+     */
+    public long getProcessingTime() {
+        return processingTime;
+    }
+
+    /**
+     * Deactivates every cell.
+     */
+    public void clear() {
+        active.clear();
+    }
+
+    /**
+     * Deactivates every cell and stops the worker threads.
+     */
+    public void dispose() {
+        clear();
+        if (workers != null) {
+            workers.shutdown();
+            workers = null;
+        }
+    }
+}
@@ -35,6 +35,7 @@ import com.badlogic.gdx.ai.msg.MessageManager;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.ai.msg.Telegraph;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.IntArray;
 import com.bombinggames.wurfelengine.WE;
 import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.Events;
@@ -45,6 +46,7 @@ import com.bombinggames.wurfelengine.core.map.rendering.RenderStorage;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -65,6 +67,7 @@ public class Chunk implements Telegraph {
     private final static char SIGN_COMMAND = '~';//126 OR 0x7e
     private final static char SIGN_EMTPYLAYER = 'e';//only valid after a command sign
     private final static char SIGN_ENDBLOCKS = 'b';//only valid after a command sign
+    private final static char SIGN_BAKEDSHADING = 'a';//only valid after a command sign
     private static int blocksX = 10;
     private static int blocksY = 40;//blocksY must be even number
     private static int blocksZ = 10;
@@ -80,11 +83,61 @@ public class Chunk implements Telegraph {
      * the ids are stored here
      */
     private final byte data[][][];
+    /**
+     * light levels of point lights packed as r&lt;&lt;8|g&lt;&lt;4|b. Index is (x*blocksY+y)*blocksZ+z.
+     *
+     * @see com.bombinggames.wurfelengine.core.lightengine.LightPropagation
+     */
+    private final short[] lightLevels;
+    /**
+     * z of the topmost block which is not transparent per column, -1 if there is none. Index is x*blocksY+y.
+     */
+    private final byte[] topOpaque;
+    /**
+     * z of the topmost block which is not air per column, -1 if there is none. Index is x*blocksY+y.
+     */
+    private final byte[] topNonAir;
+    /**
+     * The ambient occlusion flags and the clipping of every cell calculated by the {@link RenderStorage}. Index is (x*blocksY+y)*blocksZ+z. null if not baked or invalid.
+     */
+    private int[] bakedShading;
+    /**
+     * the {@link #getBlockHash()} of the eight neighbour chunks while baking, 0 if the neighbour was not loaded
+     */
+    private final int[] bakedNeighbours = new int[8];
+    /**
+     * hash of the ids and values, 0 if it must be recalculated
+     */
+    private int blockHash;
+    /**
+     * counts the changes of the blocks
+     */
+    private int blockVersion;
     /**
      * A list containing the logic blocks. Each logic block points to some block in this chunk.
      */
     private final ArrayList<AbstractBlockLogicExtension> logicBlocks = new ArrayList<>(4);
+    /**
+     * the logic blocks which are not scheduled and therefore updated every frame
+     */
+    private final ArrayList<AbstractBlockLogicExtension> updatedLogic = new ArrayList<>(4);
+    /**
+     * ticks the scheduled logic blocks. null until one is added.
+     */
+    private BlockTickScheduler tickScheduler;
+    /**
+     * blocks changed so scheduled logic blocks may be invalid
+     */
+    private boolean logicInvalid;
     private boolean modified;
+    /**
+     * changed only by {@link Map#commit()}, which already notified the render storage
+     */
+    private boolean committed;
+    /**
+     * cells changed since {@link Map#beginEdit()}. Index (x*blocksY+y)*blocksZ+z shifted by one, the lowest bit is set if a logic must be created.
+     */
+    private IntArray edits;
     private ArrayList<AbstractEntity> entities = new ArrayList<>(15);
     private int topleftX;
     private int topleftY;
@@ -109,6 +162,11 @@ public class Chunk implements Telegraph {
         topleftX = coordX * blocksX;
         topleftY = coordY * blocksY;
         data = new byte[blocksX][blocksY][blocksZ * 3];
+        lightLevels = new short[blocksX * blocksY * blocksZ];
+        topOpaque = new byte[blocksX * blocksY];
+        topNonAir = new byte[blocksX * blocksY];
+        Arrays.fill(topOpaque, (byte) -1);
+        Arrays.fill(topNonAir, (byte) -1);
 
         for (int x = 0; x < blocksX; x++) {
             for (int y = 0; y < blocksY; y++) {
@@ -232,25 +290,67 @@ public class Chunk implements Telegraph {
     /**
      * Updates the chunk. should be called once per frame.
      *
-     * @param dt time since last frame in game time
+     * @param dt                   time since last frame in game time
+     * @param randomTicksPerSecond random ticks per second of the logic blocks which requested them
      */
-    public void update(float dt) {
+    public void update(float dt, float randomTicksPerSecond) {
         processModification();
 
         //update logicblocks
-        for (AbstractBlockLogicExtension logicBlock : logicBlocks) {
+        for (int i = 0; i < updatedLogic.size(); i++) {
+            AbstractBlockLogicExtension logicBlock = updatedLogic.get(i);
             if (logicBlock.isValid()) {
                 logicBlock.update(dt);
             }
         }
+        if (tickScheduler != null && !tickScheduler.isIdle()) {
+            tickScheduler.update(dt, randomTicksPerSecond);
+        }
+
         //check if block at position corespodends to saved, garbage collection
-        logicBlocks.removeIf((AbstractBlockLogicExtension lb) -> {
-            boolean remove = !lb.isValid();
-            if (remove) {
-                lb.dispose();
+        if (!updatedLogic.isEmpty() && updatedLogic.removeIf((AbstractBlockLogicExtension lb) -> !lb.isValid())) {
+            logicInvalid = true;//removed from logicBlocks and disposed in one pass below
+        }
+        //scheduled logic can only become invalid if a block changed
+        if (logicInvalid) {
+            logicInvalid = false;
+            logicBlocks.removeIf((AbstractBlockLogicExtension lb) -> {
+                boolean remove = !lb.isValid();
+                if (remove) {
+                    lb.detach();
+                    lb.dispose();
+                }
+                return remove;
+            });
+        }
+    }
+
+    /**
+     * Adds a logic block to the chunk. Scheduled ones are ticked by the {@link BlockTickScheduler}, the others are updated every frame.
+     *
+     * @param logic can be null
+     */
+    private void registerLogic(AbstractBlockLogicExtension logic) {
+        if (logic == null) {
+            return;
+        }
+        logicBlocks.add(logic);
+        if (logic.isScheduled()) {
+            if (tickScheduler == null) {
+                //seeded by the position so that every run ticks the same
+                tickScheduler = new BlockTickScheduler(blocksX * blocksY * blocksZ, ((long) chunkX << 32) ^ (chunkY & 0xffffffffL));
             }
-            return remove;
-        });
+            logic.attach(tickScheduler);
+        } else {
+            updatedLogic.add(logic);
+        }
+    }
+
+    /**
+     * @return can be null if no scheduled logic block was ever added
+     */
+    public BlockTickScheduler getTickScheduler() {
+        return tickScheduler;
     }
 
     /**
@@ -260,10 +360,14 @@ public class Chunk implements Telegraph {
     public void processModification() {
         if (modified) {
             modified = false;
+            committed = false;
 
             Controller.getMap().setModified();
             //notify observers that a chunk changed
             MessageManager.getInstance().dispatchMessage(this, Events.chunkChanged.getId(), this);
+        } else if (committed) {
+            committed = false;
+            MessageManager.getInstance().dispatchMessage(this, Events.chunkChanged.getId(), this);
         }
     }
 
@@ -287,13 +391,10 @@ public class Chunk implements Telegraph {
                     data[x][y][z + 1] = (byte) ((generated >> 8) & 255);
                     data[x][y][z + 2] = 100;
                     if (data[x][y][z] != 0) {
-                        AbstractBlockLogicExtension logic = RenderCell.createLogicInstance(data[x][y][z],
+                        registerLogic(RenderCell.createLogicInstance(data[x][y][z],
                                 data[x][y][z + 1],
                                 new Coordinate(chunkX * blocksX + x, chunkY * blocksY + y, z)
-                        );
-                        if (logic != null) {
-                            logicBlocks.add(logic);
-                        }
+                        ));
                     }
 
                     generator.spawnEntities(
@@ -304,6 +405,10 @@ public class Chunk implements Telegraph {
                 }
             }
         }
+        updateHeightmap();
+        blockHash = 0;
+        blockVersion++;
+        logicInvalid = true;
         modified = true;
     }
 
@@ -333,7 +438,7 @@ public class Chunk implements Telegraph {
      * @return -1 if eof, if sucessuf read then {@link #SIGN_ENDBLOCKS}
      * @throws IOException
      */
-    private byte loadBlocks(FileInputStream fis) throws IOException {
+    private byte loadBlocks(InputStream fis) throws IOException {
         byte[][][] data = this.data;
         int z = 0;
         int x = 0;
@@ -407,7 +512,7 @@ public class Chunk implements Telegraph {
                                                     z
                                             )
                                     );
-                                    logicBlocks.add(logic);
+                                    registerLogic(logic);
                                 }
                             }
                             x++;
@@ -431,13 +536,45 @@ public class Chunk implements Telegraph {
         return bChar;
     }
 
+    /**
+     * Reads the baked shading if it follows the blocks.
+     *
+     * @param fis
+     * @throws IOException
+     */
+    private void loadBakedShading(BufferedInputStream fis) throws IOException {
+        fis.mark(2);
+        if (fis.read() != SIGN_COMMAND || fis.read() != SIGN_BAKEDSHADING) {
+            fis.reset();
+            return;
+        }
+        DataInputStream dis = new DataInputStream(fis);
+        int[] neighbours = new int[bakedNeighbours.length];
+        for (int i = 0; i < neighbours.length; i++) {
+            neighbours[i] = dis.readInt();
+        }
+        int[] baked = new int[blocksX * blocksY * blocksZ];
+        //only cells which are not air are stored
+        for (int x = 0; x < blocksX; x++) {
+            for (int y = 0; y < blocksY; y++) {
+                for (int z = 0; z < blocksZ; z++) {
+                    if (data[x][y][z * 3] != 0) {
+                        baked[(x * blocksY + y) * blocksZ + z] = dis.readInt();
+                    }
+                }
+            }
+        }
+        bakedShading = baked;
+        System.arraycopy(neighbours, 0, bakedNeighbours, 0, neighbours.length);
+    }
+
     /**
      * fills entitie cache
      *
      * @param fis
      * @param path
      */
-    private void loadEntities(FileInputStream fis, File path) {
+    private void loadEntities(InputStream fis, File path) {
         //ends with a sign for logic or entities or eof
         try (ObjectInputStream ois = new ObjectInputStream(fis)) {
             byte bChar = ois.readByte();
@@ -489,9 +626,16 @@ public class Chunk implements Telegraph {
             Gdx.app.debug("Chunk", "Loading Chunk: " + coordX + ", " + coordY);
             //Reading map files test
             try {
-                FileInputStream fis = new FileInputStream(savepath.file());
+                BufferedInputStream fis = new BufferedInputStream(new FileInputStream(savepath.file()));
 
                 byte bChar = loadBlocks(fis);
+                if (bChar == SIGN_ENDBLOCKS) {
+                    loadBakedShading(fis);
+                }
+                updateHeightmap();
+                blockHash = 0;
+                blockVersion++;
+                logicInvalid = true;
                 //if (bChar == SIGN_ENDBLOCKS)
                 //Gdx.app.debug("Chunk","Loaded blocks sucessfull");
 
@@ -514,6 +658,30 @@ public class Chunk implements Telegraph {
         return false;
     }
 
+    /**
+     * Reads only the blocks of a saved chunk. Does not restore, generate or load entities, so it can be used from other threads on a chunk which is not part of the map, e.g. for previews.
+     *
+     * @param path     the map name on storage
+     * @param saveSlot
+     * @return false if the chunk is not saved or the file is corrupt
+     */
+    public boolean loadSavedBlocks(final File path, int saveSlot) {
+        File savepath = new File(path + "/save" + saveSlot + "/chunk" + chunkX + "," + chunkY + "." + CHUNKFILESUFFIX);
+        if (!savepath.exists()) {
+            return false;
+        }
+        try (BufferedInputStream fis = new BufferedInputStream(new FileInputStream(savepath))) {
+            loadBlocks(fis);
+            updateHeightmap();
+            blockHash = 0;
+            blockVersion++;
+            return true;
+        } catch (IOException | ArrayIndexOutOfBoundsException ex) {
+            Gdx.app.error("Chunk", "Reading the blocks of chunk " + chunkX + "," + chunkY + " failed: " + ex);
+            return false;
+        }
+    }
+
     public ArrayList<AbstractEntity> retrieveEntities() {
         ArrayList<AbstractEntity> tmp = entities;
         entities = null;
@@ -562,6 +730,24 @@ public class Chunk implements Telegraph {
             }
         }
         fos.write(new byte[]{SIGN_COMMAND, SIGN_ENDBLOCKS});
+
+        if (bakedShading != null) {
+            fos.write(new byte[]{SIGN_COMMAND, SIGN_BAKEDSHADING});
+            DataOutputStream dos = new DataOutputStream(fos);//not closed because the entities follow
+            for (int hash : bakedNeighbours) {
+                dos.writeInt(hash);
+            }
+            for (int x = 0; x < blocksX; x++) {
+                for (int y = 0; y < blocksY; y++) {
+                    for (int z = 0; z < blocksZ; z++) {
+                        if (data[x][y][z * 3] != 0) {
+                            dos.writeInt(bakedShading[(x * blocksY + y) * blocksZ + z]);
+                        }
+                    }
+                }
+            }
+            dos.flush();
+        }
         fos.flush();
 
         ArrayList<AbstractEntity> entities = map.getEntitiesOnChunkSavedOnly(chunkX, chunkY);
@@ -598,6 +784,16 @@ public class Chunk implements Telegraph {
         return data;
     }
 
+    /**
+     * Light levels of point lights packed as r&lt;&lt;8|g&lt;&lt;4|b. Index is (x*blocksY+y)*blocksZ+z.
+     *
+     * @return
+     * @see com.bombinggames.wurfelengine.core.lightengine.LightPropagation
+     */
+    public short[] getLightLevels() {
+        return lightLevels;
+    }
+
     /**
      * Check if the chunk has the coordinate inside. Only checks x and y.<br>
      * O(1)
@@ -703,15 +899,11 @@ public class Chunk implements Telegraph {
             data[xIndex][yIndex][z] = rblock.getId();
             data[xIndex][yIndex][z + 1] = rblock.getValue();
             data[xIndex][yIndex][z + 2] = rblock.getHealth();
-            modified = true;
+            blockChanged(xIndex, yIndex, z / 3);
         }
 
         //get corresponding logic and update
-        if (rblock.getId() != 0) {
-            AbstractBlockLogicExtension logic = RenderCell.createLogicInstance(rblock.getId(), rblock.getValue(), rblock.getPosition());
-            if (logic != null)
-                logicBlocks.add(logic);
-        }
+        addLogic(rblock.getId(), rblock.getValue(), rblock.getPosition());
     }
 
     /**
@@ -732,15 +924,11 @@ public class Chunk implements Telegraph {
             data[xIndex][yIndex][z] = id;
             data[xIndex][yIndex][z + 1] = value;
             data[xIndex][yIndex][z + 2] = health;
-            modified = true;
+            blockChanged(xIndex, yIndex, z / 3);
         }
 
         //get corresponding logic and update
-        if (id != 0) {
-            AbstractBlockLogicExtension logic = RenderCell.createLogicInstance(id, value, coord);
-            if (logic != null)
-                logicBlocks.add(logic);
-        }
+        addLogic(id, value, coord);
     }
 
     public void setBlock(Coordinate coord, byte id, byte value) {
@@ -750,15 +938,11 @@ public class Chunk implements Telegraph {
         if (z >= 0) {
             data[xIndex][yIndex][z] = id;
             data[xIndex][yIndex][z + 1] = value;
-            modified = true;
+            blockChanged(xIndex, yIndex, z / 3);
         }
 
         //get corresponding logic and update
-        if (id != 0) {
-            AbstractBlockLogicExtension logic = RenderCell.createLogicInstance(id, value, coord);
-            if (logic != null)
-                logicBlocks.add(logic);
-        }
+        addLogic(id, value, coord);
     }
 
     /**
@@ -775,15 +959,11 @@ public class Chunk implements Telegraph {
             data[xIndex][yIndex][z] = id;
             data[xIndex][yIndex][z + 1] = 0;
             data[xIndex][yIndex][z + 2] = 100;
-            modified = true;
+            blockChanged(xIndex, yIndex, z / 3);
         }
 
         //get corresponding logic and update
-        if (id != 0) {
-            AbstractBlockLogicExtension logic = RenderCell.createLogicInstance(id, (byte) 0, coord);
-            if (logic != null)
-                logicBlocks.add(logic);
-        }
+        addLogic(id, (byte) 0, coord);
     }
 
     /**
@@ -797,7 +977,7 @@ public class Chunk implements Telegraph {
         if (z >= 0) {
             if (data[xIndex][yIndex][z + 1] != value) {
                 data[xIndex][yIndex][z + 1] = value;
-                modified = true;
+                blockChanged(xIndex, yIndex, z / 3);
             }
         }
     }
@@ -814,11 +994,311 @@ public class Chunk implements Telegraph {
         }
     }
 
+    /**
+     * Updates the height map and the light after a block changed. The light is ignored while the chunk is not yet part of the map.
+     *
+     * @param xIndex index pos
+     * @param yIndex index pos
+     * @param z      index pos
+     */
+    private void blockChanged(int xIndex, int yIndex, int z) {
+        logicInvalid = true;
+        blockHash = 0;
+        blockVersion++;
+        if (map.getChunk(chunkX, chunkY) == this) {
+            map.getCellularAutomaton().cellChanged(topleftX + xIndex, topleftY + yIndex, z);
+        }
+        if (isRecording()) {
+            recordEdit(xIndex, yIndex, z, false);
+            return;
+        }
+        modified = true;
+        updateColumn(xIndex, yIndex, z);
+        bakedShading = null;
+        if (map.getChunk(chunkX, chunkY) == this) {
+            int x = topleftX + xIndex;
+            int y = topleftY + yIndex;
+            map.getLightPropagation().blockChanged(x, y, z);
+
+            //neighbour chunks which have this cell in their halo
+            for (int cx = Math.floorDiv(x - ChunkNeighbourhood.HALOX, blocksX); cx <= Math.floorDiv(x + ChunkNeighbourhood.HALOX, blocksX); cx++) {
+                for (int cy = Math.floorDiv(y - ChunkNeighbourhood.HALOY, blocksY); cy <= Math.floorDiv(y + ChunkNeighbourhood.HALOY, blocksY); cy++) {
+                    Chunk neighbour = map.getChunkChecked(cx, cy);
+                    if (neighbour != null) {
+                        neighbour.invalidateBakedShading();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the logic instance of a block. Deferred while the map is edited.
+     *
+     * @param id
+     * @param value
+     * @param coord
+     */
+    private void addLogic(byte id, byte value, Coordinate coord) {
+        if (id == 0) {
+            return;
+        }
+        if (coord.getZ() >= 0 && isRecording()) {
+            recordEdit(coord.getX() - topleftX, coord.getY() - topleftY, coord.getZ(), true);
+            return;
+        }
+        registerLogic(RenderCell.createLogicInstance(id, value, coord));
+    }
+
+    /**
+     * @return true if changes are recorded for {@link Map#commit()}
+     */
+    private boolean isRecording() {
+        return map.isEditing() && map.getChunk(chunkX, chunkY) == this;
+    }
+
+    private void recordEdit(int xIndex, int yIndex, int z, boolean logic) {
+        if (edits == null) {
+            edits = new IntArray(64);
+        }
+        if (edits.size == 0) {
+            map.chunkEdited(this);
+        }
+        edits.add((((xIndex * blocksY + yIndex) * blocksZ + z) << 1) | (logic ? 1 : 0));
+    }
+
+    /**
+     * Applies the follow-ups of the changes recorded since {@link Map#beginEdit()} in one pass. The blocks are already set. Updates the height map and creates the logic instances. The light is updated by the map.
+     *
+     * @param changedCells every changed cell is added as x, y, z
+     * @param box          extended by the changed cells, int[]{minX, minY, minZ, maxX, maxY, maxZ}
+     */
+    void applyEdits(IntArray changedCells, int[] box) {
+        if (edits == null || edits.size == 0) {
+            return;
+        }
+        int[] items = edits.items;
+        int size = edits.size;
+        //every cell only once
+        Arrays.sort(items, 0, size);
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        int lastCell = -1;
+        int lastLogic = -1;
+        for (int i = 0; i < size; i++) {
+            int cell = items[i] >> 1;
+            int z = cell % blocksZ;
+            int yIndex = (cell / blocksZ) % blocksY;
+            int xIndex = cell / blocksZ / blocksY;
+            if ((items[i] & 1) != 0) {
+                byte id = data[xIndex][yIndex][z * 3];
+                if (id != 0 && cell != lastLogic) {
+                    lastLogic = cell;
+                    registerLogic(RenderCell.createLogicInstance(
+                            id,
+                            data[xIndex][yIndex][z * 3 + 1],
+                            new Coordinate(topleftX + xIndex, topleftY + yIndex, z)
+                    ));
+                }
+            } else if (cell != lastCell) {
+                lastCell = cell;
+                updateColumn(xIndex, yIndex, z);
+                int x = topleftX + xIndex;
+                int y = topleftY + yIndex;
+                changedCells.add(x);
+                changedCells.add(y);
+                changedCells.add(z);
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                box[2] = Math.min(box[2], z);
+                box[5] = Math.max(box[5], z);
+            }
+        }
+        edits.clear();
+        if (lastCell < 0) {
+            return;//only logic
+        }
+        box[0] = Math.min(box[0], minX);
+        box[1] = Math.min(box[1], minY);
+        box[3] = Math.max(box[3], maxX);
+        box[4] = Math.max(box[4], maxY);
+
+        bakedShading = null;
+        //neighbour chunks which have changed cells in their halo
+        for (int cx = Math.floorDiv(minX - ChunkNeighbourhood.HALOX, blocksX); cx <= Math.floorDiv(maxX + ChunkNeighbourhood.HALOX, blocksX); cx++) {
+            for (int cy = Math.floorDiv(minY - ChunkNeighbourhood.HALOY, blocksY); cy <= Math.floorDiv(maxY + ChunkNeighbourhood.HALOY, blocksY); cy++) {
+                Chunk neighbour = map.getChunkChecked(cx, cy);
+                if (neighbour != null) {
+                    neighbour.invalidateBakedShading();
+                }
+            }
+        }
+        committed = true;
+    }
+
+    /**
+     * The baked ambient occlusion flags and clipping. Only valid if no neighbour got loaded or changed since baking.
+     *
+     * @return null if not baked or invalid. Index is (x*blocksY+y)*blocksZ+z.
+     */
+    public int[] getBakedShading() {
+        if (bakedShading != null) {
+            for (int i = 0; i < bakedNeighbours.length; i++) {
+                Chunk neighbour = getNeighbour(i);
+                if (neighbour != null && neighbour.getBlockHash() != bakedNeighbours[i]) {
+                    bakedShading = null;
+                    break;
+                }
+            }
+        }
+        return bakedShading;
+    }
+
+    /**
+     * Stores the ambient occlusion and clipping so that it can be reused and saved with the chunk. Remembers the blocks of the loaded neighbours.
+     *
+     * @param bakedShading Index is (x*blocksY+y)*blocksZ+z.
+     */
+    public void setBakedShading(int[] bakedShading) {
+        this.bakedShading = bakedShading;
+        for (int i = 0; i < bakedNeighbours.length; i++) {
+            Chunk neighbour = getNeighbour(i);
+            bakedNeighbours[i] = neighbour == null ? 0 : neighbour.getBlockHash();
+        }
+    }
+
+    /**
+     * Drops the baked shading.
+     */
+    public void invalidateBakedShading() {
+        bakedShading = null;
+    }
+
+    /**
+     * @param index 0-7, the neighbours row by row without this chunk
+     * @return null if not loaded
+     */
+    private Chunk getNeighbour(int index) {
+        int cell = index < 4 ? index : index + 1;
+        return map.getChunkChecked(chunkX + cell / 3 - 1, chunkY + cell % 3 - 1);
+    }
+
+    /**
+     * Changes every time a block of this chunk changes. Used to invalidate caches of blocks.
+     *
+     * @return
+     */
+    public int getBlockVersion() {
+        return blockVersion;
+    }
+
+    /**
+     * Hash of the ids and values of every block. Cached until a block changes.
+     *
+     * @return never 0
+     */
+    public int getBlockHash() {
+        if (blockHash == 0) {
+            int hash = 1;
+            for (int x = 0; x < blocksX; x++) {
+                for (int y = 0; y < blocksY; y++) {
+                    for (int z = 0; z < blocksZ * 3; z += 3) {
+                        hash = 31 * hash + data[x][y][z];
+                        hash = 31 * hash + data[x][y][z + 1];
+                    }
+                }
+            }
+            blockHash = hash == 0 ? 1 : hash;
+        }
+        return blockHash;
+    }
+
+    /**
+     * Recalculates the height map of every column.
+     */
+    private void updateHeightmap() {
+        for (int x = 0; x < blocksX; x++) {
+            for (int y = 0; y < blocksY; y++) {
+                topOpaque[x * blocksY + y] = findTopOpaque(data[x][y], blocksZ - 1);
+                topNonAir[x * blocksY + y] = findTopNonAir(data[x][y], blocksZ - 1);
+            }
+        }
+    }
+
+    /**
+     * Updates the height map of one column after the cell at z changed. Only scans the column if the topmost block got removed.
+     *
+     * @param xIndex index pos
+     * @param yIndex index pos
+     * @param z      index pos
+     */
+    private void updateColumn(int xIndex, int yIndex, int z) {
+        byte[] column = data[xIndex][yIndex];
+        int i = xIndex * blocksY + yIndex;
+        byte id = column[z * 3];
+
+        if (!RenderCell.isTransparent(id, column[z * 3 + 1])) {
+            if (z > topOpaque[i]) {
+                topOpaque[i] = (byte) z;
+            }
+        } else if (z == topOpaque[i]) {
+            topOpaque[i] = findTopOpaque(column, z - 1);
+        }
+
+        if (id != 0) {
+            if (z > topNonAir[i]) {
+                topNonAir[i] = (byte) z;
+            }
+        } else if (z == topNonAir[i]) {
+            topNonAir[i] = findTopNonAir(column, z - 1);
+        }
+    }
+
+    private static byte findTopOpaque(byte[] column, int fromZ) {
+        int z = fromZ;
+        while (z >= 0 && RenderCell.isTransparent(column[z * 3], column[z * 3 + 1])) {
+            z--;
+        }
+        return (byte) z;
+    }
+
+    private static byte findTopNonAir(byte[] column, int fromZ) {
+        int z = fromZ;
+        while (z >= 0 && column[z * 3] == 0) {
+            z--;
+        }
+        return (byte) z;
+    }
+
+    /**
+     * The topmost block in this column which is not transparent.
+     *
+     * @param x coordinate
+     * @param y coordinate
+     * @return z coordinate, -1 if there is none
+     */
+    public int getTopOpaqueZ(int x, int y) {
+        return topOpaque[(x - topleftX) * blocksY + y - topleftY];
+    }
+
+    /**
+     * The topmost block in this column which is not air.
+     *
+     * @param x coordinate
+     * @param y coordinate
+     * @return z coordinate, -1 if there is none
+     */
+    public int getTopNonAirZ(int x, int y) {
+        return topNonAir[(x - topleftX) * blocksY + y - topleftY];
+    }
+
     /**
      * @param block
      */
     protected void addLogic(AbstractBlockLogicExtension block) {
-        logicBlocks.add(block);
+        registerLogic(block);
     }
 
     /**
@@ -41,7 +41,8 @@ public class ChunkLoader implements Runnable {
     private final int coordY;
     private final int coordX;
     private final Map map;
-    private Chunk chunk;
+    private volatile Chunk chunk;
+    private volatile RuntimeException failure;
 
     public ChunkLoader(final Map map, final File path, final int coordX, final int coordY, final Generator generator) {
         this.map = map;
@@ -54,7 +55,12 @@ public class ChunkLoader implements Runnable {
 
     @Override
     public void run() {
-        chunk = new Chunk(map, path, coordX, coordY, generator);
+        try {
+            chunk = new Chunk(map, path, coordX, coordY, generator);
+        } catch (RuntimeException ex) {
+            failure = ex;
+            throw ex;
+        }
     }
 
     /**
@@ -66,6 +72,15 @@ public class ChunkLoader implements Runnable {
         return chunk;
     }
 
+    /**
+     * the exception which stopped the loading
+     *
+     * @return null if the chunk is still loading or has loaded
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
     public int getCoordX() {
         return coordX;
     }
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.map;
+
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+
+/**
+ * A flat copy of the blocks of a chunk including a halo of the neighbour cells. One halo column in x, two rows in y (the cell in front is two rows away) and one layer in z. The layer below the map contains the ground block.<br>
+ * After {@link #fill(Map, Chunk)} neighbourhood kernels like ambient occlusion and hidden surface detection can run over the plain array without chunk lookups and also on other threads.<br>
+ * Cells are stored like {@link Chunk#getBlock(int, int, int)}: id | value&lt;&lt;8 | health&lt;&lt;16.
+ *
+ * @author agent
+ */
+public class ChunkNeighbourhood {
+
+    /**
+     * halo in x direction
+     */
+    public static final int HALOX = 1;
+    /**
+     * halo in y direction
+     */
+    public static final int HALOY = 2;
+    /**
+     * halo in z direction
+     */
+    public static final int HALOZ = 1;
+
+    private int sizeX, sizeY, sizeZ;
+    private int[] cells;
+    /**
+     * index offset of the eight neighbours in even and odd rows
+     */
+    private final int[] offsetsEven = new int[8], offsetsOdd = new int[8];
+    private int topLeftX, topLeftY;
+
+    public ChunkNeighbourhood() {
+        resize();
+    }
+
+    /**
+     * Allocates the buffer if the chunk size changed.
+     */
+    private void resize() {
+        sizeX = Chunk.getBlocksX() + 2 * HALOX;
+        sizeY = Chunk.getBlocksY() + 2 * HALOY;
+        sizeZ = Chunk.getBlocksZ() + 2 * HALOZ;
+        cells = new int[sizeX * sizeY * sizeZ];
+
+        int strideX = sizeY * sizeZ;
+        for (int side = 0; side < 8; side++) {
+            offsetsEven[side] = getNeighbourOffset(side, false, strideX);
+            offsetsOdd[side] = getNeighbourOffset(side, true, strideX);
+        }
+    }
+
+    /**
+     * @param side    the neighbour numbering of {@link Coordinate#goToNeighbour(int)}
+     * @param odd     if the row is odd
+     * @param strideX
+     * @return
+     */
+    private int getNeighbourOffset(int side, boolean odd, int strideX) {
+        switch (side) {
+            case 0:
+                return -2 * sizeZ;
+            case 1:
+                return (odd ? strideX : 0) - sizeZ;
+            case 2:
+                return strideX;
+            case 3:
+                return (odd ? strideX : 0) + sizeZ;
+            case 4:
+                return 2 * sizeZ;
+            case 5:
+                return (odd ? 0 : -strideX) + sizeZ;
+            case 6:
+                return -strideX;
+            default:
+                return (odd ? 0 : -strideX) - sizeZ;
+        }
+    }
+
+    /**
+     * Copies the blocks of the chunk and of the cells around it. Must be called on the thread which modifies the map.
+     *
+     * @param map
+     * @param chunk
+     */
+    public void fill(Map map, Chunk chunk) {
+        int blocksX = Chunk.getBlocksX();
+        int blocksY = Chunk.getBlocksY();
+        int blocksZ = Chunk.getBlocksZ();
+        if (sizeX != blocksX + 2 * HALOX || sizeY != blocksY + 2 * HALOY || sizeZ != blocksZ + 2 * HALOZ) {
+            resize();
+        }
+        topLeftX = chunk.getTopLeftCoordinateX();
+        topLeftY = chunk.getTopLeftCoordinateY();
+        int ground = WE.getCVars().getValueI("groundBlockID") & 255;
+
+        for (int hx = 0; hx < sizeX; hx++) {
+            int x = topLeftX + hx - HALOX;
+            for (int hy = 0; hy < sizeY; hy++) {
+                int y = topLeftY + hy - HALOY;
+                int base = (hx * sizeY + hy) * sizeZ;
+                cells[base] = ground;
+                cells[base + sizeZ - 1] = 0;
+
+                Chunk src;
+                if (hx >= HALOX && hx < HALOX + blocksX && hy >= HALOY && hy < HALOY + blocksY) {
+                    src = chunk;
+                } else {
+                    src = map.getChunkChecked(Math.floorDiv(x, blocksX), Math.floorDiv(y, blocksY));
+                }
+
+                if (src == null) {
+                    for (int z = 0; z < blocksZ; z++) {
+                        cells[base + HALOZ + z] = 0;
+                    }
+                } else {
+                    byte[] column = src.getData()[x - src.getTopLeftCoordinateX()][y - src.getTopLeftCoordinateY()];
+                    for (int z = 0; z < blocksZ; z++) {
+                        cells[base + HALOZ + z] = (column[z * 3] & 255)
+                                | (column[z * 3 + 1] & 255) << 8
+                                | (column[z * 3 + 2] & 255) << 16;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param idexX index pos in the chunk, -{@link #HALOX} to blocksX-1+{@link #HALOX}
+     * @param idexY index pos in the chunk, -{@link #HALOY} to blocksY-1+{@link #HALOY}
+     * @param idexZ index pos in the chunk, -{@link #HALOZ} to blocksZ-1+{@link #HALOZ}
+     * @return index in the buffer
+     */
+    public int index(int idexX, int idexY, int idexZ) {
+        return ((idexX + HALOX) * sizeY + idexY + HALOY) * sizeZ + idexZ + HALOZ;
+    }
+
+    /**
+     * The offset of a neighbour in the same layer. Rows are shifted so the offset depends on the row.
+     *
+     * @param side  the neighbour numbering of {@link Coordinate#goToNeighbour(int)}
+     * @param idexY index pos of the row
+     * @return index offset
+     */
+    public int getNeighbourOffset(int side, int idexY) {
+        return idexY % 2 == 0 ? offsetsEven[side] : offsetsOdd[side];
+    }
+
+    /**
+     * @return index offset of the cell one higher
+     */
+    public int getStrideZ() {
+        return 1;
+    }
+
+    /**
+     * @return index offset of the cell two rows in front
+     */
+    public int getFrontOffset() {
+        return 2 * sizeZ;
+    }
+
+    /**
+     * @return index offset of the cell one to the right
+     */
+    public int getStrideX() {
+        return sizeY * sizeZ;
+    }
+
+    /**
+     * @param i index in the buffer
+     * @return id | value&lt;&lt;8 | health&lt;&lt;16
+     */
+    public int get(int i) {
+        return cells[i];
+    }
+
+    public byte getId(int i) {
+        return (byte) (cells[i] & 255);
+    }
+
+    public byte getValue(int i) {
+        return (byte) ((cells[i] >> 8) & 255);
+    }
+
+    /**
+     * @param i index in the buffer
+     * @return true if the cell is not transparent and has sides, like {@link RenderCell#hidingPastBlock()}
+     */
+    public boolean isHidingPast(int i) {
+        int cell = cells[i];
+        byte id = (byte) (cell & 255);
+        byte value = (byte) ((cell >> 8) & 255);
+        return id != 0 && !RenderCell.isTransparent(id, value) && RenderCell.hasSides(id, value);
+    }
+
+    /**
+     * @param i index in the buffer
+     * @return
+     */
+    public boolean isLiquid(int i) {
+        int cell = cells[i];
+        byte id = (byte) (cell & 255);
+        return id != 0 && RenderCell.isLiquid(id, (byte) ((cell >> 8) & 255));
+    }
+
+    public int getTopLeftCoordinateX() {
+        return topLeftX;
+    }
+
+    public int getTopLeftCoordinateY() {
+        return topLeftY;
+    }
+}
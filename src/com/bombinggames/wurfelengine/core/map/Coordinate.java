@@ -466,11 +466,23 @@ public class Coordinate implements Position {
      */
     @Override
     public Point toPoint() {
-        return new Point(
+        return toPoint(new Point(0, 0, 0));
+    }
+
+    /**
+     * avoids a new instance.
+     *
+     * @param store the point which gets the coordinate's origin
+     * @return store
+     * @see #toPoint()
+     */
+    public Point toPoint(Point store) {
+        store.set(
                 x * RenderCell.GAME_DIAGLENGTH + (y % 2 != 0 ? RenderCell.VIEW_WIDTH2 : 0),
                 y * RenderCell.GAME_DIAGLENGTH2,
                 z * RenderCell.GAME_EDGELENGTH
         );
+        return store;
     }
 
     @Override
@@ -92,4 +92,15 @@ public interface CustomBlocks {
      */
     public AbstractBlockLogicExtension newLogicInstance(byte id, byte value, Coordinate coord);
 
+    /**
+     * The rule of the {@link CellularAutomaton}. Liquids flow by default. Return {@link CellRule#FALLING} for blocks like sand.
+     *
+     * @param id
+     * @param value
+     * @return null if the block is not simulated
+     */
+    public default CellRule getCellRule(byte id, byte value) {
+        return isLiquid(id, value) ? CellRule.LIQUID : null;
+    }
+
 }
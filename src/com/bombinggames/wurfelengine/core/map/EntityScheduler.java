@@ -0,0 +1,343 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.map;
+
+import com.badlogic.gdx.ai.msg.MessageManager;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.ai.sched.LoadBalancingScheduler;
+import com.badlogic.gdx.ai.sched.Schedulable;
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Camera;
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.Events;
+import com.bombinggames.wurfelengine.core.gameobjects.AbstractEntity;
+import com.bombinggames.wurfelengine.core.gameobjects.PhasedUpdate;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Decides which entities of a map are updated in a frame.<br>
+ * Entities near a camera are updated every frame. Entities further away than "entityLODDistance" are updated every second frame and beyond the double distance every fourth frame, with the time of the skipped frames added up. These buckets are run by a {@link LoadBalancingScheduler} which spreads them over the frames and splits the time budget "entityLODBudget" between them. Sleeping entities are skipped until they are woken up.
+ *
+ * @author agent
+ */
+public class EntityScheduler implements Telegraph {
+
+    /**
+     * computes the {@link PhasedUpdate} entities in parallel
+     */
+    private ExecutorService workers;
+    private final Map map;
+    private final LoadBalancingScheduler scheduler = new LoadBalancingScheduler(100);
+    /**
+     * updated every frame
+     */
+    private final ArrayList<AbstractEntity> near = new ArrayList<>(40);
+    /**
+     * entities computed in the parallel phase of this frame
+     */
+    private final ArrayList<AbstractEntity> phased = new ArrayList<>(40);
+    private final ArrayList<Callable<Void>> phasedSlices = new ArrayList<>(8);
+    /**
+     * buckets of the reduced frequencies: two with frequency 2, then four with frequency 4
+     */
+    private final Bucket[] buckets = new Bucket[6];
+    private final ArrayList<Point> focus = new ArrayList<>(4);
+    private int updated, skipped, sleeping;
+
+    /**
+     * @param map
+     */
+    public EntityScheduler(Map map) {
+        this.map = map;
+        for (int i = 0; i < buckets.length; i++) {
+            int frequency = i < 2 ? 2 : 4;
+            buckets[i] = new Bucket();
+            scheduler.add(buckets[i], frequency, i < 2 ? i : i - 2);
+        }
+        MessageManager.getInstance().addListener(this, Events.chunkChanged.getId());
+        MessageManager.getInstance().addListener(this, Events.mapChanged.getId());
+    }
+
+    /**
+     * Updates the entities of the map.
+     *
+     * @param dt       game time in ms
+     * @param rawDelta real time in ms
+     */
+    public void update(float dt, float rawDelta) {
+        ArrayList<AbstractEntity> entityList = map.getEntities();
+        updated = 0;
+        skipped = 0;
+        sleeping = 0;
+        near.clear();
+        phased.clear();
+        for (Bucket bucket : buckets) {
+            bucket.entities.clear();
+        }
+
+        boolean lod = WE.getCVars().getValueB("entityLOD");
+        float maxDelta = WE.getCVars().getValueF("MaxDelta");
+        float lodDistance2 = WE.getCVars().getValueF("entityLODDistance") * RenderCell.GAME_EDGELENGTH;
+        lodDistance2 *= lodDistance2;
+        updateFocus();
+
+        //sort into the buckets
+        for (int i = 0; i < entityList.size(); i++) {
+            AbstractEntity entity = entityList.get(i);
+            if (!entity.isInMemoryArea()) {
+                entity.requestChunk();
+            }
+            entity.addUpdateDelta(entity.useRawDelta() ? rawDelta : dt, maxDelta);
+            if (entity.isSleeping()) {
+                entity.takeUpdateDelta();
+                sleeping++;
+                continue;
+            }
+            float dist2 = lod && entity.hasPosition() ? getFocusDistance2(entity.getPosition()) : 0;
+            if (dist2 < lodDistance2) {
+                near.add(entity);
+                if (entity instanceof PhasedUpdate && entity.hasPosition()) {
+                    phased.add(entity);
+                }
+            } else {
+                //stable bucket per entity so that it is updated in a fixed rhythm
+                int hash = System.identityHashCode(entity) & Integer.MAX_VALUE;
+                if (dist2 < lodDistance2 * 4) {
+                    buckets[hash % 2].entities.add(entity);
+                } else {
+                    buckets[2 + hash % 4].entities.add(entity);
+                }
+            }
+        }
+
+        computePhased();
+
+        //near entities in list order
+        for (int i = 0; i < near.size(); i++) {
+            AbstractEntity entity = near.get(i);
+            if (entity.hasPosition()) {
+                commit(entity);
+            }
+        }
+
+        //far entities within the budget
+        scheduler.run((long) (WE.getCVars().getValueF("entityLODBudget") * 1000000));
+        for (Bucket bucket : buckets) {
+            skipped += bucket.entities.size() - bucket.done;
+            bucket.done = 0;
+        }
+    }
+
+    private void commit(AbstractEntity entity) {
+        float delta = entity.takeUpdateDelta();
+        if (entity instanceof PhasedUpdate) {
+            ((PhasedUpdate) entity).commit(delta);
+        } else {
+            entity.update(delta);
+        }
+        updated++;
+    }
+
+    /**
+     * The parallel phase of the entity update. Every near {@link PhasedUpdate} entity computes its next state while the map is only read.
+     */
+    private void computePhased() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (!WE.getCVars().getValueB("parallelEntityUpdate") || phased.size() < 64 || threads < 2) {
+            for (int i = 0; i < phased.size(); i++) {
+                AbstractEntity entity = phased.get(i);
+                ((PhasedUpdate) entity).compute(entity.getUpdateDelta());
+            }
+            return;
+        }
+        if (workers == null) {
+            workers = Executors.newFixedThreadPool(
+                    threads,
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "entityUpdate");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+            );
+        }
+        phasedSlices.clear();
+        int sliceSize = (phased.size() + threads - 1) / threads;
+        for (int start = 0; start < phased.size(); start += sliceSize) {
+            int from = start;
+            int to = Math.min(phased.size(), start + sliceSize);
+            phasedSlices.add(Controller.bindTask(() -> {
+                for (int i = from; i < to; i++) {
+                    AbstractEntity entity = phased.get(i);
+                    ((PhasedUpdate) entity).compute(entity.getUpdateDelta());
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<Void> future : workers.invokeAll(phasedSlices)) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    /**
+     * the centers of the cameras
+     */
+    private void updateFocus() {
+        focus.clear();
+        if (WE.getGameplay() != null && WE.getGameplay().getView() != null) {
+            ArrayList<Camera> cameras = WE.getGameplay().getView().getCameras();
+            for (int i = 0; i < cameras.size(); i++) {
+                focus.add(cameras.get(i).getCenter());
+            }
+        }
+    }
+
+    /**
+     * @param pos
+     * @return squared distance to the closest camera, 0 if there is no camera
+     */
+    private float getFocusDistance2(Point pos) {
+        if (focus.isEmpty()) {
+            return 0;
+        }
+        float min = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < focus.size(); i++) {
+            Point center = focus.get(i);
+            float dx = pos.x - center.x;
+            float dy = pos.y - center.y;
+            min = Math.min(min, dx * dx + dy * dy);
+        }
+        return min;
+    }
+
+    /**
+     * @return entities updated in the last frame
+     */
+    public int getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @return entities not due or over the budget in the last frame
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return sleeping entities in the last frame
+     */
+    public int getSleeping() {
+        return sleeping;
+    }
+
+    @Override
+    public boolean handleMessage(Telegram msg) {
+        ArrayList<AbstractEntity> entityList = map.getEntities();
+        if (msg.message == Events.chunkChanged.getId() && msg.extraInfo instanceof Chunk) {
+            //the ground may be gone, wake up everything on the chunk and its neighbours
+            Chunk chunk = (Chunk) msg.extraInfo;
+            for (int i = 0; i < entityList.size(); i++) {
+                AbstractEntity entity = entityList.get(i);
+                if (entity.isSleeping()
+                        && entity.hasPosition()
+                        && Math.abs(entity.getPosition().getChunkX() - chunk.getChunkX()) <= 1
+                        && Math.abs(entity.getPosition().getChunkY() - chunk.getChunkY()) <= 1) {
+                    entity.wake();
+                }
+            }
+        } else if (msg.message == Events.mapChanged.getId()) {
+            for (int i = 0; i < entityList.size(); i++) {
+                entityList.get(i).wake();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stops listening and the worker threads.
+     */
+    public void dispose() {
+        MessageManager.getInstance().removeListener(this, Events.chunkChanged.getId());
+        MessageManager.getInstance().removeListener(this, Events.mapChanged.getId());
+        if (workers != null) {
+            workers.shutdown();
+            workers = null;
+        }
+    }
+
+    /**
+     * Entities updated with a reduced frequency.
+     */
+    private class Bucket implements Schedulable {
+
+        private final ArrayList<AbstractEntity> entities = new ArrayList<>(20);
+        /**
+         * where to start next time so that entities over the budget are not always the same
+         */
+        private int offset;
+        private int done;
+
+        @Override
+        public void run(long nanoTimeToRun) {
+            long start = System.nanoTime();
+            int size = entities.size();
+            if (size > 0) {
+                offset %= size;
+            }
+            for (int i = 0; i < size; i++) {
+                if (i > 0 && System.nanoTime() - start > nanoTimeToRun) {
+                    //over budget, the rest keeps its time for the next run
+                    offset += i;
+                    return;
+                }
+                AbstractEntity entity = entities.get((offset + i) % size);
+                if (entity.hasPosition()) {
+                    commit(entity);
+                }
+                done++;
+            }
+        }
+    }
+}
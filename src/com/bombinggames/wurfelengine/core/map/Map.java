@@ -39,12 +39,15 @@ import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
 import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.bombinggames.wurfelengine.WE;
 import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.Events;
 import com.bombinggames.wurfelengine.core.cvar.CVarSystemMap;
 import com.bombinggames.wurfelengine.core.cvar.CVarSystemSave;
 import com.bombinggames.wurfelengine.core.gameobjects.AbstractEntity;
+import com.bombinggames.wurfelengine.core.gameobjects.ParticleSystem;
+import com.bombinggames.wurfelengine.core.lightengine.LightPropagation;
 import com.bombinggames.wurfelengine.core.map.Generators.AirGenerator;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
 
@@ -53,6 +56,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -77,6 +82,22 @@ public class Map implements IndexedGraph<PfNode> {
     private final ArrayList<ChunkLoader> loadingRunnables = new ArrayList<>(9);
     private final int chunkDim;
     private boolean modified = true;
+    /**
+     * nesting depth of {@link #beginEdit()}
+     */
+    private int editDepth;
+    /**
+     * chunks with changes recorded since {@link #beginEdit()}
+     */
+    private final ArrayList<Chunk> editedChunks = new ArrayList<>(9);
+    /**
+     * changed cells as x, y, z, reused by every commit
+     */
+    private final IntArray editedCells = new IntArray(256);
+    /**
+     * the changed box sent with {@link Events#blocksChanged}, reused by every commit
+     */
+    private final int[] editedBox = new int[6];
     /**
      * observer pattern
      */
@@ -90,6 +111,23 @@ public class Map implements IndexedGraph<PfNode> {
      * contains evey chunk which was loaded
      */
     private ArrayList<Chunk> loadedChunks;
+    /**
+     * spreads the light of point lights
+     */
+    private final LightPropagation lightPropagation = new LightPropagation(this);
+    /**
+     * decides which entities are updated
+     */
+    private final EntityScheduler entityScheduler = new EntityScheduler(this);
+    private final ParticleSystem particleSystem = new ParticleSystem(256);
+    /**
+     * simulates liquid and falling blocks
+     */
+    private final CellularAutomaton cellularAutomaton = new CellularAutomaton(this);
+    /**
+     * traces the rays of the {@link RaycastBatch}es of this map
+     */
+    private ExecutorService raycastWorkers;
     /**
      * Loads a map using the default generator.
      *
@@ -203,43 +241,63 @@ public class Map implements IndexedGraph<PfNode> {
      * @param dt time in ms
      */
     public void update(float dt) {
+        update(dt, dt);
+    }
+
+    /**
+     * Updates amostly the entities.
+     *
+     * @param dt       time in ms
+     * @param rawDelta time in ms without game speed for entities using the raw delta
+     */
+    public void update(float dt, float rawDelta) {
         dt *= WE.getCVars().getValueF("timespeed");//apply game speed
 
-        //add parralell loaded chunks serial to avoid conflicts
+        addLoadedChunks();
+
+        float randomTickRate = WE.getCVars().getValueF("randomTickRate");
+        for (int i = 0; i < loadedChunks.size(); i++) {
+            Chunk chunk = loadedChunks.get(i);
+            if (chunk != null) {
+                chunk.update(dt, randomTickRate);
+            }
+        }
+        cellularAutomaton.update(dt);
+
+        //update every entity
+        entityScheduler.update(dt, rawDelta);
+        particleSystem.update(dt);
+
+        //remove not spawned objects from list
+        entityList.removeIf((AbstractEntity entity) -> !entity.hasPosition());
+    }
+
+    /**
+     * Adds the chunks loaded in parallel serial to avoid conflicts. Called every update.
+     *
+     * @return amount of chunks which are still loading
+     */
+    public int addLoadedChunks() {
         for (int i = 0; i < loadingRunnables.size(); i++) {
             ChunkLoader runnable = loadingRunnables.get(i);
+            if (runnable.getFailure() != null) {
+                //drop the loader so that the chunk can be requested again
+                Gdx.app.error("Map", "Loading chunk " + runnable.getCoordX() + "," + runnable.getCoordY() + " failed", runnable.getFailure());
+                loadingRunnables.remove(i);
+                i--;
+                continue;
+            }
             if (runnable.getChunk() != null) {
                 loadedChunks.add(runnable.getChunk());
                 data[runnable.getCoordX() + chunkDim / 2][runnable.getCoordY() + chunkDim / 4] = runnable.getChunk();
                 addEntities(runnable.getChunk().retrieveEntities());
+                lightPropagation.chunkLoaded(runnable.getChunk());
                 setModified();
                 loadingRunnables.remove(i);
+                i--;
             }
         }
-
-        for (Chunk chunk : loadedChunks) {
-            if (chunk != null) {
-                chunk.update(dt);
-            }
-        }
-
-        //update every entity
-        //old style for loop because allows modification during loop
-        float rawDelta = Gdx.graphics.getRawDeltaTime() * 1000f;
-        for (int i = 0; i < entityList.size(); i++) {
-            AbstractEntity entity = entityList.get(i);
-            if (!entity.isInMemoryArea()) {
-                entity.requestChunk();
-            }
-            if (entity.useRawDelta()) {
-                entity.update(rawDelta);
-            } else {
-                entity.update(dt);
-            }
-        }
-
-        //remove not spawned objects from list
-        entityList.removeIf((AbstractEntity entity) -> !entity.hasPosition());
+        return loadingRunnables.size();
     }
 
     /**
@@ -249,7 +307,8 @@ public class Map implements IndexedGraph<PfNode> {
      */
     public void postUpdate(float dt) {
         //check for modification flag
-        for (Chunk chunk : loadedChunks) {
+        for (int i = 0; i < loadedChunks.size(); i++) {
+            Chunk chunk = loadedChunks.get(i);
             if (chunk != null) {
                 chunk.processModification();
             }
@@ -269,7 +328,7 @@ public class Map implements IndexedGraph<PfNode> {
             if (!isLoading(chunkX, chunkY)) {
                 ChunkLoader cl = new ChunkLoader(this, getPath(), chunkX, chunkY, getGenerator());
                 loadingRunnables.add(cl);
-                Thread thread = new Thread(cl, "loadChunk " + chunkX + "," + chunkY);
+                Thread thread = new Thread(Controller.bindTask(cl), "loadChunk " + chunkX + "," + chunkY);
                 thread.start();
             }
         }
@@ -298,6 +357,13 @@ public class Map implements IndexedGraph<PfNode> {
         return loadedChunks;
     }
 
+    /**
+     * @return the light of the point lights on this map
+     */
+    public LightPropagation getLightPropagation() {
+        return lightPropagation;
+    }
+
     /**
      * Returns a block without checking the parameters first. Good for debugging
      * and also faster. O(n)
@@ -351,6 +417,59 @@ public class Map implements IndexedGraph<PfNode> {
         }
     }
 
+    /**
+     * The topmost block in this column which is not transparent. Read from the height map of the chunk, so O(1).
+     *
+     * @param x coordinate
+     * @param y coordinate
+     * @return z coordinate, -1 if there is none or the chunk is not loaded
+     */
+    public int getTopOpaqueZ(int x, int y) {
+        Chunk chunk = getChunkContaining(x, y);
+        if (chunk == null) {
+            return -1;
+        }
+        return chunk.getTopOpaqueZ(x, y);
+    }
+
+    /**
+     * The topmost block in this column which is not air. Read from the height map of the chunk, so O(1).
+     *
+     * @param x coordinate
+     * @param y coordinate
+     * @return z coordinate, -1 if there is none or the chunk is not loaded
+     */
+    public int getTopNonAirZ(int x, int y) {
+        Chunk chunk = getChunkContaining(x, y);
+        if (chunk == null) {
+            return -1;
+        }
+        return chunk.getTopNonAirZ(x, y);
+    }
+
+    /**
+     * Checks if there is no opaque block above this cell, e.g. if the sun can reach it.
+     *
+     * @param coord
+     * @return
+     */
+    public boolean isUnderOpenSky(Coordinate coord) {
+        return coord.getZ() > getTopOpaqueZ(coord.getX(), coord.getY());
+    }
+
+    /**
+     * Returns a point on top of the topmost block which is not air. Useful for spawning.
+     *
+     * @param x coordinate
+     * @param y coordinate
+     * @return the point in the center of the cell above the surface
+     */
+    public Point getSurfacePoint(int x, int y) {
+        Point point = new Coordinate(x, y, 0).toPoint();
+        point.setZ((getTopNonAirZ(x, y) + 1) * RenderCell.GAME_EDGELENGTH);
+        return point;
+    }
+
     public byte getHealth(Coordinate coord) {
         return (byte) ((getBlock(coord) >> 16) & 255);
     }
@@ -486,6 +605,22 @@ public class Map implements IndexedGraph<PfNode> {
         return data[chunkX + chunkDim / 2][chunkY + chunkDim / 4];
     }
 
+    /**
+     * Like {@link #getChunk(int, int)} but checks the bounds of the map first. Can be called from other threads.
+     *
+     * @param chunkX
+     * @param chunkY
+     * @return null if not in memory or outside of the map
+     */
+    public Chunk getChunkChecked(int chunkX, int chunkY) {
+        int indexX = chunkX + chunkDim / 2;
+        int indexY = chunkY + chunkDim / 4;
+        if (indexX < 0 || indexX >= data.length || indexY < 0 || indexY >= data[indexX].length) {
+            return null;
+        }
+        return data[indexX][indexY];
+    }
+
     /**
      * Get every entity on a chunk.
      *
@@ -707,6 +842,55 @@ public class Map implements IndexedGraph<PfNode> {
         this.modified = true;
     }
 
+    /**
+     * Starts a bulk edit. Blocks set until {@link #commit()} are written immediately but the height map, the logic, the light and the rendering are updated only once at the commit. Can be nested.
+     */
+    public void beginEdit() {
+        editDepth++;
+    }
+
+    /**
+     * @return true if inside {@link #beginEdit()} and {@link #commit()}
+     */
+    public boolean isEditing() {
+        return editDepth > 0;
+    }
+
+    /**
+     * Called by a chunk when the first change is recorded.
+     *
+     * @param chunk
+     */
+    void chunkEdited(Chunk chunk) {
+        editedChunks.add(chunk);
+    }
+
+    /**
+     * Ends a bulk edit started with {@link #beginEdit()}. The outermost commit applies every change and notifies once with {@link Events#blocksChanged}.
+     */
+    public void commit() {
+        if (editDepth <= 0) {
+            throw new IllegalStateException("commit without beginEdit");
+        }
+        editDepth--;
+        if (editDepth > 0 || editedChunks.isEmpty()) {
+            return;
+        }
+        editedCells.clear();
+        int[] box = editedBox;
+        Arrays.fill(box, 0, 3, Integer.MAX_VALUE);
+        Arrays.fill(box, 3, 6, Integer.MIN_VALUE);
+        for (Chunk chunk : editedChunks) {
+            chunk.applyEdits(editedCells, box);
+        }
+        editedChunks.clear();
+        if (editedCells.size == 0) {
+            return;
+        }
+        lightPropagation.blocksChanged(editedCells.items, editedCells.size / 3);
+        MessageManager.getInstance().dispatchMessage(Events.blocksChanged.getId(), box);
+    }
+
     /**
      * Returns a coordinate pointing to the absolute center of the map. Height
      * is half the map's height.
@@ -731,6 +915,52 @@ public class Map implements IndexedGraph<PfNode> {
         );
     }
 
+    /**
+     * Decides which entities are updated in a frame.
+     *
+     * @return
+     */
+    public EntityScheduler getEntityScheduler() {
+        return entityScheduler;
+    }
+
+    /**
+     * Simulates liquid and falling blocks.
+     *
+     * @return
+     */
+    public CellularAutomaton getCellularAutomaton() {
+        return cellularAutomaton;
+    }
+
+    /**
+     * The worker threads of the raycast batches of this map. Created on first use.
+     *
+     * @return
+     */
+    synchronized ExecutorService getRaycastWorkers() {
+        if (raycastWorkers == null) {
+            raycastWorkers = Executors.newFixedThreadPool(
+                    Runtime.getRuntime().availableProcessors(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "raycast");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+            );
+        }
+        return raycastWorkers;
+    }
+
+    /**
+     * The particles of this map. They are not entities.
+     *
+     * @return
+     */
+    public ParticleSystem getParticleSystem() {
+        return particleSystem;
+    }
+
     /**
      * Returns a copy of the entityList.
      *
@@ -773,6 +1003,7 @@ public class Map implements IndexedGraph<PfNode> {
     public void disposeEntities() {
         entityList.forEach((AbstractEntity e) -> e.dispose());
         entityList.clear();
+        particleSystem.clear();
     }
 
     /**
@@ -905,6 +1136,15 @@ public class Map implements IndexedGraph<PfNode> {
             }
         }
         disposeEntities();
+        entityScheduler.dispose();
+        particleSystem.dispose();
+        cellularAutomaton.dispose();
+        synchronized (this) {
+            if (raycastWorkers != null) {
+                raycastWorkers.shutdown();
+                raycastWorkers = null;
+            }
+        }
     }
 
     private static class ManhattanDistanceHeuristic implements Heuristic<PfNode> {
@@ -372,163 +372,156 @@ public class Point extends Vector3 implements Position {
     }
 
     /**
-     * Trace a ray through the map until ray hits non air block.<br>
-     * Does not work properly with the staggered map.
+     * Trace a ray through the map until ray hits non air block. Visits every cell the ray crosses exactly once using a voxel traversal ("A Fast Voxel Traversal Algorithm for Ray Tracing" by John Amanatides and Andrew Woo, 1987).<br>
+     * The staggered grid is a regular grid when turned by 45°: every cell is a unit square in u=(x+y)/diag, v=(x-y)/diag and one block high in z.
      *
-     * @param dir          dir of the ray
+     * @param dir          dir of the ray, does not need to be normalized
      * @param maxDistance  the distane after which it should stop. (in game meters)
-     * @param view
-     * @param hitCondition
-     * @return can return <i>null</i> if not hitting anything. The normal on the back sides may be wrong. The normals are in a turned coordiante system.
+     * @param view         if not null clipped cells are ignored
+     * @param hitCondition can be null
+     * @return can return <i>null</i> if not hitting anything. The normal is the side of the cell through which the ray entered.
      * @since 1.2.29
      */
     public Intersection raycast(final Vector3 dir, float maxDistance, final GameView view, final Predicate<Byte> hitCondition) {
-        /*  Call the callback with (x,y,z,value,normal) of all blocks along the line
-		segment from point 'origin' in vector dir 'dir' of length
-		'maxDistance'. 'maxDistance' may be infinite.
-		'normal' is the normal vector of the normal of that block that was entered.
-		It should not be used after the callback returns.
-		If the callback returns a true value, the traversal will be stopped.
-		 */
-        // From "A Fast Voxel Traversal Algorithm for Ray Tracing"
-        // by John Amanatides and Andrew Woo, 1987
-        // <http://www.cse.yorku.ca/~amana/research/grid.pdf>
-        // <http://citeseer.ist.psu.edu/viewdoc/summary?doi=10.1.1.42.3443>
-        // Extensions to the described algorithm:
-        //   • Imposed a distance limit.
-        //   • The normal passed through to reach the current cube is provided to
-        //     the callback.
-        // The foundation of this algorithm is a parameterized representation of
-        // the provided ray,
-        //                    origin + t * dir,
-        // except that t is not actually stored; rather, at any given point in the
-        // traversal, we keep track of the *greater* t values which we would have
-        // if we took a step sufficient to cross a cube boundary along that axis
-        // (i.e. change the integer part of the coordinate) in the variables
-        // tMaxX, tMaxY, and tMaxZ.
-        // Cube containing origin point.
-
+        if (dir == null) {
+            throw new NullPointerException("Direction of raycasting not defined");
+        }
         // Avoids an infinite loop.
         if (dir.isZero()) {
             throw new Error("Raycast in zero direction!");
         }
-        dir.cpy().nor();
-
-        Coordinate isectC = toCoord();
-        Point isectP = new Point(0, 0, 0);
-        //curent coordinate position
-        int curX = isectC.getX();
-        int curY = isectC.getY();
-        int curZ = isectC.getZ();
-
-        // Direction to increment x,y,z when stepping.
-        int stepX = (int) Math.signum(dir.x);
-        int stepY = (int) Math.signum(dir.y);
-        int stepZ = (int) Math.signum(dir.z);
-        // See description above. The initial values depend on the fractional
-        // part of the origin.
-        float tMaxX = intbound(x, dir.x);
-        float tMaxY = intbound(y, dir.y);
-        float tMaxZ = intbound(z, dir.z);
-        // The change in t when taking a step (always positive).
-        float tDeltaX = stepX / dir.x;
-        float tDeltaY = stepY / dir.y;
-        float tDeltaZ = stepZ / dir.z;
 
-		/* ray has not gone past bounds of world */
-        while (
-                (stepZ > 0 ? curZ < Chunk.getBlocksZ() : curZ >= 0)
-                        && isectC.isInMemoryAreaHorizontal()
-                ) {
-
-            isectC.set(curX, curY, curZ);
-            //intersect?
-            if (
-                    view == null
-                            ||
-                            (curZ < view.getRenderStorage().getZRenderingLimit() && !view.getRenderStorage().isClipped(isectC))
-                    ) {
-                byte id = isectC.getBlockId();
-                if (
-                        id != 0
-                                && (hitCondition == null || hitCondition.test(id))
-                        ) {
-                    //found intersection point
-                    isectP.setFromCoord(isectC);
-                    if (distanceTo(isectP) <= maxDistance * RenderCell.GAME_EDGELENGTH)
-                        return Intersection.intersect(isectC, this, dir);
-                    else return null;
-                }
+        Map map = Controller.getMap();
+        Chunk[][] chunks = map.getData();
+        float len = dir.len();
+        float dx = dir.x / len;
+        float dy = dir.y / len;
+        float dz = dir.z / len;
+        float maxT = maxDistance * RenderCell.GAME_EDGELENGTH;
+
+        //position and direction in the turned grid
+        float u = (x + y) / RenderCell.GAME_DIAGLENGTH + 0.5f;
+        float v = (x - y) / RenderCell.GAME_DIAGLENGTH + 0.5f;
+        float w = z / RenderCell.GAME_EDGELENGTH;
+        float du = (dx + dy) / RenderCell.GAME_DIAGLENGTH;
+        float dv = (dx - dy) / RenderCell.GAME_DIAGLENGTH;
+        float dw = dz / RenderCell.GAME_EDGELENGTH;
+
+        int cellU = (int) Math.floor(u);
+        int cellV = (int) Math.floor(v);
+        int cellZ = (int) Math.floor(w);
+
+        // Direction to increment when stepping.
+        int stepU = du > 0 ? 1 : -1;
+        int stepV = dv > 0 ? 1 : -1;
+        int stepW = dw > 0 ? 1 : -1;
+        // t at which the next cell boundary along this axis is crossed
+        float tMaxU = du == 0 ? Float.POSITIVE_INFINITY : (du > 0 ? cellU + 1 - u : cellU - u) / du;
+        float tMaxV = dv == 0 ? Float.POSITIVE_INFINITY : (dv > 0 ? cellV + 1 - v : cellV - v) / dv;
+        float tMaxW = dw == 0 ? Float.POSITIVE_INFINITY : (dw > 0 ? cellZ + 1 - w : cellZ - w) / dw;
+        // The change in t when taking a step (always positive).
+        float tDeltaU = du == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / du);
+        float tDeltaV = dv == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dv);
+        float tDeltaW = dw == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dw);
+
+        float t = 0;
+        Side entered = null;
+        Chunk chunk = null;
+        Coordinate clipCoord = view == null ? null : new Coordinate();
+        while (t <= maxT) {
+            //ground hit
+            if (cellZ < 0) {
+                return new Intersection(new Point(x + dx * t, y + dy * t, 0), Side.TOP, t);
             }
 
-            /*tMaxX stores the t-value at which we cross a cube boundary along the
-             X axis, and similarly for Y and Z. Therefore, choosing the least tMax
-            chooses the closest cube boundary. Only the first case of the four
-            has been commented in detail.*/
-            if (tMaxX < tMaxY) {
-                if (tMaxX < tMaxZ) {
-                    if (tMaxX > maxDistance) break;
-                    // Update which cube we are now in.
-                    curX += stepX;
-                    // Adjust tMaxX to the next X-oriented boundary crossing.
-                    tMaxX += tDeltaX;
-                } else {
-                    if (tMaxZ > maxDistance) break;
-                    curZ += stepZ;
-                    tMaxZ += tDeltaZ;
+            if (cellZ >= Chunk.getBlocksZ()) {
+                //above the map, can only enter it again if going down
+                if (dw >= 0) {
+                    return null;
                 }
             } else {
-                if (tMaxY < tMaxZ) {
-                    if (tMaxY > maxDistance) break;
-                    curY += stepY;
-                    tMaxY += tDeltaY;
-                } else {
-                    // Identical to the second case, repeated for simplicity in
-                    // the conditionals.
-                    if (tMaxZ > maxDistance) break;
-                    curZ += stepZ;
-                    tMaxZ += tDeltaZ;
+                int coordX = Math.floorDiv(cellU + cellV, 2);
+                int coordY = cellU - cellV;
+                //only look up the chunk when leaving the current one
+                if (chunk == null
+                        || coordX < chunk.getTopLeftCoordinateX()
+                        || coordX >= chunk.getTopLeftCoordinateX() + Chunk.getBlocksX()
+                        || coordY < chunk.getTopLeftCoordinateY()
+                        || coordY >= chunk.getTopLeftCoordinateY() + Chunk.getBlocksY()) {
+                    int chunkX = Math.floorDiv(coordX, Chunk.getBlocksX()) + chunks.length / 2;
+                    int chunkY = Math.floorDiv(coordY, Chunk.getBlocksY()) + chunks[0].length / 2;
+                    if (chunkX < 0 || chunkX >= chunks.length || chunkY < 0 || chunkY >= chunks[0].length) {
+                        return null;
+                    }
+                    chunk = chunks[chunkX][chunkY];
+                    if (chunk == null) {
+                        return null;//left the loaded area
+                    }
+                }
+
+                byte id = (byte) (chunk.getBlock(coordX, coordY, cellZ) & 255);
+                if (id != 0
+                        && (view == null
+                        || (cellZ < view.getRenderStorage().getZRenderingLimit()
+                        && !view.getRenderStorage().isClipped(clipCoord.set(coordX, coordY, cellZ))))
+                        && (hitCondition == null || hitCondition.test(id))) {
+                    //move a bit into the cell so that the point is inside the hit cell
+                    float inside = Math.min(t + 0.05f, maxT);
+                    Intersection inters = new Intersection(
+                            new Point(x + dx * inside, y + dy * inside, z + dz * inside),
+                            entered,
+                            t
+                    );
+                    if (entered == null) {
+                        //ray started inside the cell
+                        inters.calcNormal(inters.getPoint());
+                    }
+                    return inters;
                 }
             }
-        }
-        //ground hit
-        if (curZ <= 0) {
-            Point intersectpoint = new Point(
-                    curX * RenderCell.GAME_DIAGLENGTH + (curY % 2 != 0 ? RenderCell.VIEW_WIDTH2 : 0),
-                    curY * RenderCell.GAME_DIAGLENGTH2,
-                    0
-            );
-            float distance = this.distanceTo(intersectpoint);
-            if (distance <= RenderCell.GAME_EDGELENGTH * maxDistance) {
-                return new Intersection(intersectpoint, Side.TOP, distance);
+
+            //go to the closest cell boundary
+            if (tMaxU < tMaxV && tMaxU < tMaxW) {
+                t = tMaxU;
+                cellU += stepU;
+                tMaxU += tDeltaU;
+                entered = stepU > 0 ? Side.BACKLEFT : Side.RIGHT;
+            } else if (tMaxV < tMaxW) {
+                t = tMaxV;
+                cellV += stepV;
+                tMaxV += tDeltaV;
+                entered = stepV > 0 ? Side.LEFT : Side.BACKRIGHT;
             } else {
-                return null;
+                t = tMaxW;
+                cellZ += stepW;
+                tMaxW += tDeltaW;
+                entered = stepW > 0 ? Side.BOTTOM : Side.TOP;
             }
-        } else {
-            return null;
         }
+        return null;
     }
 
     /**
-     * Find the smallest positive t such that s+t*ds is an integer.
+     * Sends a ray though the map. Uses the same exact traversal as {@link #raycast(com.badlogic.gdx.math.Vector3, float, com.bombinggames.wurfelengine.core.GameView, java.util.function.Predicate) }.
      *
-     * @param s
-     * @param ds
+     * @param direction
+     * @param maxDistance  game space in meters
+     * @param view
+     * @param hitCondition can be null
      * @return
-     * @since 1.2.29
+     * @see #raycast(com.badlogic.gdx.math.Vector3, float, com.bombinggames.wurfelengine.core.GameView, java.util.function.Predicate)
      */
-    private int intbound(float s, float ds) {
-        if (ds < 0) {
-            return intbound(-s, -ds);
-        } else {
-            s = (s % 1 + 1) % 1;//modulo
-            // problem is now s+t*ds = 1
-            return (int) ((1 - s) / ds);
-        }
+    public Intersection rayMarching(
+            final Vector3 direction,
+            float maxDistance,
+            final GameView view,
+            final Predicate<Byte> hitCondition
+    ) {
+        return raycast(direction, maxDistance, view, hitCondition);
     }
 
     /**
-     * Sends a ray by moving a coordiante though the map. Slow but it works.<br>
+     * Sends a ray by moving a coordiante though the map with a fixed step. Slow and can skip cells if the step is big. Only used as reference for the traversal.<br>
      * Stops at first point where the criteria are met, so positions relative to coordinate may differ.
      *
      * @param direction
@@ -538,7 +531,7 @@ public class Point extends Vector3 implements Position {
      * @return
      * @see #raycast(com.badlogic.gdx.math.Vector3, float, com.bombinggames.wurfelengine.core.GameView, java.util.function.Predicate)
      */
-    public Intersection rayMarching(
+    public Intersection rayMarchingFixedStep(
             final Vector3 direction,
             float maxDistance,
             final GameView view,
@@ -0,0 +1,425 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.map;
+
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.gameobjects.Side;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Casts many rays at once. Rays are added with {@link #add(float, float, float, float, float, float, float)} and traced with {@link #cast()}. The results are stored in primitive arrays, so nothing is allocated per ray.<br>
+ * The rays are sorted by the chunk of their origin and split into slices which are traced by worker threads. Uses the same traversal as {@link Point#raycast(com.badlogic.gdx.math.Vector3, float, com.bombinggames.wurfelengine.core.GameView, java.util.function.Predicate)}.
+ *
+ * @author agent
+ */
+public class RaycastBatch {
+
+    /**
+     * batches with fewer rays are traced on the calling thread
+     */
+    private static final int MINPARALLEL = 64;
+
+    private int size;
+    /**
+     * x, y, z of every ray
+     */
+    private float[] origins;
+    /**
+     * normalized x, y, z of every ray
+     */
+    private float[] directions;
+    /**
+     * in game space
+     */
+    private float[] maxDistances;
+    private int[] hitX, hitY, hitZ;
+    /**
+     * the id of the side through which the ray entered the cell, -1 if it started inside
+     */
+    private byte[] hitSide;
+    /**
+     * in game space, -1 if nothing was hit
+     */
+    private float[] hitDistance;
+    /**
+     * which block ids stop a ray
+     */
+    private final boolean[] hitIds = new boolean[256];
+    /**
+     * rays sorted by chunk: chunk key in the upper, ray index in the lower bits
+     */
+    private long[] order;
+    private final ArrayList<Callable<Void>> slices = new ArrayList<>(8);
+
+    /**
+     * @param capacity initial amount of rays
+     */
+    public RaycastBatch(int capacity) {
+        capacity = Math.max(1, capacity);
+        origins = new float[capacity * 3];
+        directions = new float[capacity * 3];
+        maxDistances = new float[capacity];
+        hitX = new int[capacity];
+        hitY = new int[capacity];
+        hitZ = new int[capacity];
+        hitSide = new byte[capacity];
+        hitDistance = new float[capacity];
+        order = new long[capacity];
+        setHitCondition(null);
+    }
+
+    /**
+     * Set which blocks stop the rays. The condition is evaluated once per id, so it must not depend on anything else than the id.
+     *
+     * @param hitCondition if null every non-air block is hit
+     */
+    public void setHitCondition(Predicate<Byte> hitCondition) {
+        hitIds[0] = false;
+        for (int id = 1; id < 256; id++) {
+            hitIds[id] = hitCondition == null || hitCondition.test((byte) id);
+        }
+    }
+
+    /**
+     * Removes every ray.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @param x           origin in game space
+     * @param y           origin in game space
+     * @param z           origin in game space
+     * @param dirX        does not need to be normalized
+     * @param dirY        does not need to be normalized
+     * @param dirZ        does not need to be normalized
+     * @param maxDistance in game meters
+     * @return index of the ray
+     */
+    public int add(float x, float y, float z, float dirX, float dirY, float dirZ, float maxDistance) {
+        float len = (float) Math.sqrt(dirX * dirX + dirY * dirY + dirZ * dirZ);
+        if (len == 0) {
+            throw new IllegalArgumentException("Raycast in zero direction!");
+        }
+        if (size == maxDistances.length) {
+            grow(size * 2);
+        }
+        int i = size;
+        origins[i * 3] = x;
+        origins[i * 3 + 1] = y;
+        origins[i * 3 + 2] = z;
+        directions[i * 3] = dirX / len;
+        directions[i * 3 + 1] = dirY / len;
+        directions[i * 3 + 2] = dirZ / len;
+        maxDistances[i] = maxDistance * RenderCell.GAME_EDGELENGTH;
+        size++;
+        return i;
+    }
+
+    /**
+     * Adds many rays at once.
+     *
+     * @param origins      x, y, z of every ray in game space
+     * @param directions   x, y, z of every ray
+     * @param maxDistances in game meters
+     * @param count        amount of rays
+     */
+    public void add(float[] origins, float[] directions, float[] maxDistances, int count) {
+        if (size + count > this.maxDistances.length) {
+            grow(Math.max(size + count, size * 2));
+        }
+        for (int i = 0; i < count; i++) {
+            add(
+                    origins[i * 3], origins[i * 3 + 1], origins[i * 3 + 2],
+                    directions[i * 3], directions[i * 3 + 1], directions[i * 3 + 2],
+                    maxDistances[i]
+            );
+        }
+    }
+
+    private void grow(int capacity) {
+        origins = Arrays.copyOf(origins, capacity * 3);
+        directions = Arrays.copyOf(directions, capacity * 3);
+        maxDistances = Arrays.copyOf(maxDistances, capacity);
+        hitX = Arrays.copyOf(hitX, capacity);
+        hitY = Arrays.copyOf(hitY, capacity);
+        hitZ = Arrays.copyOf(hitZ, capacity);
+        hitSide = Arrays.copyOf(hitSide, capacity);
+        hitDistance = Arrays.copyOf(hitDistance, capacity);
+        order = Arrays.copyOf(order, capacity);
+    }
+
+    /**
+     * Traces every ray through the current map. Blocks until every ray is finished.
+     */
+    public void cast() {
+        if (size == 0) {
+            return;
+        }
+        Map map = Controller.getMap();
+        Chunk[][] chunks = map.getData();
+
+        //group by the chunk of the origin so that a slice touches few chunks
+        for (int i = 0; i < size; i++) {
+            int chunkX = Math.floorDiv((int) origins[i * 3], Chunk.getGameWidth());
+            int chunkY = Math.floorDiv((int) origins[i * 3 + 1], Chunk.getGameDepth());
+            long key = ((long) (chunkX & 0xFFFF) << 16) | (chunkY & 0xFFFF);
+            order[i] = (key << 32) | i;
+        }
+        Arrays.sort(order, 0, size);
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (size < MINPARALLEL || threads < 2) {
+            castSlice(chunks, 0, size);
+            return;
+        }
+        slices.clear();
+        int sliceSize = (size + threads - 1) / threads;
+        for (int start = 0; start < size; start += sliceSize) {
+            int from = start;
+            int to = Math.min(size, start + sliceSize);
+            slices.add(Controller.bindTask(() -> {
+                castSlice(chunks, from, to);
+                return null;
+            }));
+        }
+        try {
+            for (Future<Void> future : map.getRaycastWorkers().invokeAll(slices)) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    private void castSlice(Chunk[][] chunks, int from, int to) {
+        for (int j = from; j < to; j++) {
+            castRay(chunks, (int) order[j]);
+        }
+    }
+
+    /**
+     * Voxel traversal in the turned grid, writes into the result arrays.
+     *
+     * @param chunks
+     * @param i      index of the ray
+     */
+    private void castRay(Chunk[][] chunks, int i) {
+        float x = origins[i * 3];
+        float y = origins[i * 3 + 1];
+        float z = origins[i * 3 + 2];
+        float dx = directions[i * 3];
+        float dy = directions[i * 3 + 1];
+        float dz = directions[i * 3 + 2];
+        float maxT = maxDistances[i];
+        hitDistance[i] = -1;
+
+        //position and direction in the turned grid
+        float u = (x + y) / RenderCell.GAME_DIAGLENGTH + 0.5f;
+        float v = (x - y) / RenderCell.GAME_DIAGLENGTH + 0.5f;
+        float w = z / RenderCell.GAME_EDGELENGTH;
+        float du = (dx + dy) / RenderCell.GAME_DIAGLENGTH;
+        float dv = (dx - dy) / RenderCell.GAME_DIAGLENGTH;
+        float dw = dz / RenderCell.GAME_EDGELENGTH;
+
+        int cellU = (int) Math.floor(u);
+        int cellV = (int) Math.floor(v);
+        int cellZ = (int) Math.floor(w);
+
+        int stepU = du > 0 ? 1 : -1;
+        int stepV = dv > 0 ? 1 : -1;
+        int stepW = dw > 0 ? 1 : -1;
+        float tMaxU = du == 0 ? Float.POSITIVE_INFINITY : (du > 0 ? cellU + 1 - u : cellU - u) / du;
+        float tMaxV = dv == 0 ? Float.POSITIVE_INFINITY : (dv > 0 ? cellV + 1 - v : cellV - v) / dv;
+        float tMaxW = dw == 0 ? Float.POSITIVE_INFINITY : (dw > 0 ? cellZ + 1 - w : cellZ - w) / dw;
+        float tDeltaU = du == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / du);
+        float tDeltaV = dv == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dv);
+        float tDeltaW = dw == 0 ? Float.POSITIVE_INFINITY : Math.abs(1 / dw);
+
+        float t = 0;
+        byte entered = -1;
+        Chunk chunk = null;
+        while (t <= maxT) {
+            int coordX = Math.floorDiv(cellU + cellV, 2);
+            int coordY = cellU - cellV;
+            //ground hit
+            if (cellZ < 0) {
+                setHit(i, coordX, coordY, -1, (byte) Side.TOP.getCode(), t);
+                return;
+            }
+
+            if (cellZ >= Chunk.getBlocksZ()) {
+                //above the map, can only enter it again if going down
+                if (dw >= 0) {
+                    return;
+                }
+            } else {
+                //only look up the chunk when leaving the current one
+                if (chunk == null
+                        || coordX < chunk.getTopLeftCoordinateX()
+                        || coordX >= chunk.getTopLeftCoordinateX() + Chunk.getBlocksX()
+                        || coordY < chunk.getTopLeftCoordinateY()
+                        || coordY >= chunk.getTopLeftCoordinateY() + Chunk.getBlocksY()) {
+                    int chunkX = Math.floorDiv(coordX, Chunk.getBlocksX()) + chunks.length / 2;
+                    int chunkY = Math.floorDiv(coordY, Chunk.getBlocksY()) + chunks[0].length / 2;
+                    if (chunkX < 0 || chunkX >= chunks.length || chunkY < 0 || chunkY >= chunks[0].length) {
+                        return;
+                    }
+                    chunk = chunks[chunkX][chunkY];
+                    if (chunk == null) {
+                        return;//left the loaded area
+                    }
+                }
+
+                if (hitIds[chunk.getBlock(coordX, coordY, cellZ) & 255]) {
+                    setHit(i, coordX, coordY, cellZ, entered, t);
+                    return;
+                }
+            }
+
+            //go to the closest cell boundary
+            if (tMaxU < tMaxV && tMaxU < tMaxW) {
+                t = tMaxU;
+                cellU += stepU;
+                tMaxU += tDeltaU;
+                entered = (byte) (stepU > 0 ? Side.BACKLEFT : Side.RIGHT).getCode();
+            } else if (tMaxV < tMaxW) {
+                t = tMaxV;
+                cellV += stepV;
+                tMaxV += tDeltaV;
+                entered = (byte) (stepV > 0 ? Side.LEFT : Side.BACKRIGHT).getCode();
+            } else {
+                t = tMaxW;
+                cellZ += stepW;
+                tMaxW += tDeltaW;
+                entered = (byte) (stepW > 0 ? Side.BOTTOM : Side.TOP).getCode();
+            }
+        }
+    }
+
+    private void setHit(int i, int x, int y, int z, byte side, float t) {
+        hitX[i] = x;
+        hitY[i] = y;
+        hitZ[i] = z;
+        hitSide[i] = side;
+        hitDistance[i] = t;
+    }
+
+    /**
+     * @return amount of rays
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param i index of the ray
+     * @return true if the ray hit a block or the ground
+     */
+    public boolean isHit(int i) {
+        return hitDistance[i] >= 0;
+    }
+
+    /**
+     * Coordinate of the hit cells. Only valid if {@link #isHit(int)}.
+     *
+     * @return indexed by ray
+     */
+    public int[] getHitX() {
+        return hitX;
+    }
+
+    /**
+     * @return indexed by ray
+     * @see #getHitX()
+     */
+    public int[] getHitY() {
+        return hitY;
+    }
+
+    /**
+     * -1 if the ground was hit
+     *
+     * @return indexed by ray
+     * @see #getHitX()
+     */
+    public int[] getHitZ() {
+        return hitZ;
+    }
+
+    /**
+     * The {@link Side#getCode()} of the face through which the ray entered the cell. -1 if the ray started inside the cell.
+     *
+     * @return indexed by ray
+     */
+    public byte[] getHitSide() {
+        return hitSide;
+    }
+
+    /**
+     * Distance in game space to the entry of the cell. -1 if nothing was hit.
+     *
+     * @return indexed by ray
+     */
+    public float[] getHitDistance() {
+        return hitDistance;
+    }
+
+    /**
+     * Writes the point where the ray entered the hit cell.
+     *
+     * @param i   index of the ray
+     * @param out the point which gets modified
+     * @return out, or null if nothing was hit
+     */
+    public Point getHitPoint(int i, Point out) {
+        if (!isHit(i)) {
+            return null;
+        }
+        float t = hitDistance[i];
+        out.set(
+                origins[i * 3] + directions[i * 3] * t,
+                origins[i * 3 + 1] + directions[i * 3 + 1] * t,
+                origins[i * 3 + 2] + directions[i * 3 + 2] * t
+        );
+        return out;
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * If this software is used for a game the official „Wurfel Engine“ logo or its name must be
+ *   visible in an intro screen or main menu.
+ * * Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.map;
+
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
+
+import java.util.Arrays;
+
+/**
+ * Collision of an entity with the voxel world. The shape is a diamond with the collision radius as corners, probed at the feet and, if the entity is taller than a block, in the middle.<br>
+ * Movements are swept in steps of half a collision radius, so fast objects can not tunnel through blocks. The contact point is refined by bisection.<br>
+ * Every instance caches the obstacle flags of the cells around the entity, so that probes do not go through the map. The cache is cleared when a block of a chunk under it changes. Does not allocate. An instance may only be used by one thread at a time.
+ *
+ * @author agent
+ */
+public class VoxelCollision {
+
+    /**
+     * size of the cached neighbourhood in coordinates
+     */
+    private static final int SIZE_X = 4, SIZE_Y = 8, SIZE_Z = 4;
+    /**
+     * maximum length of a sweep step in game space
+     */
+    private static final float STEP = RenderCell.GAME_DIAGLENGTH2 / 2f;
+    /**
+     * iterations to find the contact point
+     */
+    private static final int BISECTIONS = 4;
+    private static final byte UNKNOWN = 0, FREE = 1, OBSTACLE = 2;
+    private static final int HORIZONTAL = 0, DOWN = 1, UP = 2;
+
+    private final byte[] cells = new byte[SIZE_X * SIZE_Y * SIZE_Z];
+    private int originX, originY, originZ;
+    private Map map;
+    /**
+     * the chunks at the corners of the cache and their {@link Chunk#getBlockVersion()} when the cache was cleared, null if not loaded
+     */
+    private final Chunk[] chunks = new Chunk[4];
+    private final int[] chunkVersions = new int[4];
+    /**
+     * result of {@link #locate(float, float)}
+     */
+    private int cellX, cellY;
+    private int probes;
+
+    /**
+     * Is there an obstacle at this point? Cached.
+     *
+     * @param x game space
+     * @param y game space
+     * @param z game space
+     * @return
+     */
+    public boolean isObstacle(float x, float y, float z) {
+        validate();
+        return probe(x, y, z);
+    }
+
+    /**
+     * Is the shape colliding horizontally at this position?
+     *
+     * @param x      game space
+     * @param y      game space
+     * @param z      game space
+     * @param radius collision radius
+     * @param height dimension in z
+     * @return
+     */
+    public boolean collidesHorizontal(float x, float y, float z, int radius, int height) {
+        validate();
+        return test(x, y, z, radius, height, HORIZONTAL);
+    }
+
+    /**
+     * Is the shape standing on something at this position? Checks one unit under the feet.
+     *
+     * @param x      game space
+     * @param y      game space
+     * @param z      game space
+     * @param radius collision radius
+     * @return
+     */
+    public boolean isOnGround(float x, float y, float z, int radius) {
+        validate();
+        return test(x, y, z - 1, radius, 0, DOWN);
+    }
+
+    /**
+     * Is the top of the shape colliding at this position?
+     *
+     * @param x      game space
+     * @param y      game space
+     * @param z      game space
+     * @param radius collision radius
+     * @param height dimension in z
+     * @return
+     */
+    public boolean isOnCeil(float x, float y, float z, int radius, int height) {
+        validate();
+        return test(x, y, z, radius, height, UP);
+    }
+
+    /**
+     * Sweeps a horizontal movement.
+     *
+     * @param x      start in game space
+     * @param y      start in game space
+     * @param z      start in game space
+     * @param dx     movement in game space
+     * @param dy     movement in game space
+     * @param radius collision radius
+     * @param height dimension in z
+     * @return the free fraction of the movement [0,1]. 1 if not colliding.
+     */
+    public float sweepHorizontal(float x, float y, float z, float dx, float dy, int radius, int height) {
+        return sweep(x, y, z, dx, dy, 0, radius, height, HORIZONTAL);
+    }
+
+    /**
+     * Sweeps a vertical movement. Falling is tested at the feet, rising at the top of the shape.
+     *
+     * @param x      start in game space
+     * @param y      start in game space
+     * @param z      start in game space
+     * @param dz     movement in game space
+     * @param radius collision radius
+     * @param height dimension in z
+     * @return the free fraction of the movement [0,1]. 1 if not colliding.
+     */
+    public float sweepVertical(float x, float y, float z, float dz, int radius, int height) {
+        if (dz == 0) {
+            return 1;
+        }
+        return sweep(x, y, z, 0, 0, dz, radius, height, dz < 0 ? DOWN : UP);
+    }
+
+    /**
+     * The height of the top of the highest block in this column. Read from the height map, so O(1). Not cached.
+     *
+     * @param x game space
+     * @param y game space
+     * @return game space, 0 if the column is empty or not loaded
+     */
+    public float getGroundHeight(float x, float y) {
+        validate();
+        locate(x, y);
+        return (map.getTopNonAirZ(cellX, cellY) + 1) * RenderCell.GAME_EDGELENGTH;
+    }
+
+    /**
+     * @return amount of cells read from the map since the creation
+     */
+    public int getProbes() {
+        return probes;
+    }
+
+    private float sweep(float x, float y, float z, float dx, float dy, float dz, int radius, int height, int mode) {
+        validate();
+        if (test(x, y, z, radius, height, mode)) {
+            //already stuck, only the end position decides so that it can get out
+            return test(x + dx, y + dy, z + dz, radius, height, mode) ? 0 : 1;
+        }
+        float length = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        int steps = Math.max(1, (int) Math.ceil(length / STEP));
+        for (int i = 1; i <= steps; i++) {
+            float blocked = i / (float) steps;
+            if (test(x + dx * blocked, y + dy * blocked, z + dz * blocked, radius, height, mode)) {
+                float free = (i - 1) / (float) steps;
+                for (int j = 0; j < BISECTIONS; j++) {
+                    float mid = (free + blocked) * 0.5f;
+                    if (test(x + dx * mid, y + dy * mid, z + dz * mid, radius, height, mode)) {
+                        blocked = mid;
+                    } else {
+                        free = mid;
+                    }
+                }
+                return free;
+            }
+        }
+        return 1;
+    }
+
+    private boolean test(float x, float y, float z, int radius, int height, int mode) {
+        if (mode == UP) {
+            return corners(x, y, z + height, radius);
+        }
+        if (mode == DOWN) {
+            return probe(x, y, z) || corners(x, y, z, radius);
+        }
+        if (corners(x, y, z, radius)) {
+            return true;
+        }
+        //check in the middle if bigger then a block
+        return height > RenderCell.GAME_EDGELENGTH && corners(x, y, z + height / 2, radius);
+    }
+
+    private boolean corners(float x, float y, float z, int radius) {
+        return probe(x, y - radius, z)
+                || probe(x, y + radius, z)
+                || probe(x - radius, y, z)
+                || probe(x + radius, y, z);
+    }
+
+    /**
+     * Clears the cache if the map or a chunk under the cache changed.
+     */
+    private void validate() {
+        Map current = Controller.getMap();
+        if (current != map) {
+            map = current;
+            clear();
+            return;
+        }
+        for (int i = 0; i < chunks.length; i++) {
+            Chunk chunk = getCornerChunk(i);
+            if (chunk != chunks[i] || (chunk != null && chunk.getBlockVersion() != chunkVersions[i])) {
+                clear();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Empties the cache and remembers the versions of the chunks under it.
+     */
+    private void clear() {
+        Arrays.fill(cells, UNKNOWN);
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = getCornerChunk(i);
+            chunkVersions[i] = chunks[i] == null ? 0 : chunks[i].getBlockVersion();
+        }
+    }
+
+    /**
+     * The cache is smaller than a chunk, so the chunks at its four corners are all chunks under it.
+     *
+     * @param corner 0-3
+     * @return null if not loaded
+     */
+    private Chunk getCornerChunk(int corner) {
+        return map.getChunkChecked(
+                Math.floorDiv(originX + (corner & 1) * (SIZE_X - 1), Chunk.getBlocksX()),
+                Math.floorDiv(originY + (corner >> 1) * (SIZE_Y - 1), Chunk.getBlocksY())
+        );
+    }
+
+    private boolean probe(float x, float y, float z) {
+        if (z >= Chunk.getGameHeight()) {
+            return false;
+        }
+        locate(x, y);
+        int cellZ = (int) Math.floor(z / RenderCell.GAME_EDGELENGTH);
+        int relX = cellX - originX;
+        int relY = cellY - originY;
+        int relZ = cellZ - originZ;
+        if (relX < 0 || relX >= SIZE_X || relY < 0 || relY >= SIZE_Y || relZ < 0 || relZ >= SIZE_Z) {
+            //center the cache around the new cell
+            originX = cellX - SIZE_X / 2;
+            originY = cellY - SIZE_Y / 2;
+            originZ = cellZ - SIZE_Z / 2;
+            relX = SIZE_X / 2;
+            relY = SIZE_Y / 2;
+            relZ = SIZE_Z / 2;
+            clear();
+        }
+        int index = (relZ * SIZE_Y + relY) * SIZE_X + relX;
+        byte cell = cells[index];
+        if (cell == UNKNOWN) {
+            probes++;
+            cell = RenderCell.isObstacle(map.getBlock(cellX, cellY, cellZ)) ? OBSTACLE : FREE;
+            cells[index] = cell;
+        }
+        return cell == OBSTACLE;
+    }
+
+    /**
+     * Finds the coordinate of a point without allocating. Same as {@link Point#getBlock()}.
+     *
+     * @param x game space
+     * @param y game space
+     */
+    private void locate(float x, float y) {
+        int xCoord = Math.floorDiv((int) x, RenderCell.GAME_DIAGLENGTH);
+        int yCoord = Math.floorDiv((int) y, RenderCell.GAME_DIAGLENGTH) * 2 + 1;
+        switch (Coordinate.getNeighbourSide(
+                x % RenderCell.GAME_DIAGLENGTH,
+                y % RenderCell.GAME_DIAGLENGTH
+        )) {
+            case 0:
+                yCoord -= 2;
+                break;
+            case 1:
+                xCoord += yCoord % 2 == 0 ? 0 : 1;
+                yCoord--;
+                break;
+            case 2:
+                xCoord++;
+                break;
+            case 3:
+                xCoord += yCoord % 2 == 0 ? 0 : 1;
+                yCoord++;
+                break;
+            case 4:
+                yCoord += 2;
+                break;
+            case 5:
+                xCoord -= yCoord % 2 == 0 ? 1 : 0;
+                yCoord++;
+                break;
+            case 6:
+                xCoord--;
+                break;
+            case 7:
+                xCoord -= yCoord % 2 == 0 ? 1 : 0;
+                yCoord--;
+                break;
+        }
+        cellX = xCoord;
+        cellY = yCoord;
+    }
+}
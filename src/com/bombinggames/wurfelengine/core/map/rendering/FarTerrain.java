@@ -0,0 +1,361 @@
+/*
+ * If this software is used for a game the official „Wurfel Engine“ logo or its name must be visible in an intro screen or main menu.
+ *
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, 
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice, 
+ *   this list of conditions and the following disclaimer in the documentation 
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors 
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.map.rendering;
+
+import com.badlogic.gdx.ai.msg.MessageManager;
+import com.badlogic.gdx.ai.msg.Telegram;
+import com.badlogic.gdx.ai.msg.Telegraph;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.IntSet;
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Camera;
+import com.bombinggames.wurfelengine.core.Controller;
+import com.bombinggames.wurfelengine.core.Events;
+import com.bombinggames.wurfelengine.core.gameobjects.AbstractGameObject;
+import com.bombinggames.wurfelengine.core.map.Chunk;
+import com.bombinggames.wurfelengine.core.map.Map;
+import com.bombinggames.wurfelengine.core.map.Point;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Renders chunks outside the {@link RenderStorage} as coarse {@link TerrainImpostor}s to extend the view distance. Impostors are built from the loaded chunks and from the saves of chunks around the cameras which are not loaded. They are built on a background thread and rebuilt when a chunk changes. Never loads chunks into the map.
+ *
+ * @author agent
+ */
+public class FarTerrain implements Telegraph {
+
+    /**
+     * builds the impostors
+     */
+    private ExecutorService builder;
+    /**
+     * sorted by chunk y so that they can be drawn back to front
+     */
+    private final ArrayList<TerrainImpostor> impostors = new ArrayList<>(40);
+    /**
+     * impostors finished by the builder thread
+     */
+    private final ConcurrentLinkedQueue<TerrainImpostor> finished = new ConcurrentLinkedQueue<>();
+    /**
+     * chunks which are currently built, see {@link #key(int, int)}
+     */
+    private final IntSet building = new IntSet(16);
+    /**
+     * chunks which changed while they were built
+     */
+    private final IntSet changedWhileBuilding = new IntSet(4);
+    /**
+     * chunks without a save, they are not read again until they were loaded
+     */
+    private final IntSet notSaved = new IntSet(16);
+    /**
+     * chunks the builder thread found no save for
+     */
+    private final ConcurrentLinkedQueue<Integer> notSavedFound = new ConcurrentLinkedQueue<>();
+    private final Color tint = new Color();
+    private final Color tmpColor = new Color();
+
+    /**
+     * @param chunkX
+     * @param chunkY
+     * @return a single int for a chunk coordinate
+     */
+    private static int key(int chunkX, int chunkY) {
+        return (chunkX << 16) | (chunkY & 0xFFFF);
+    }
+
+    /**
+     * Adds new impostors and starts building missing ones. Must be called on the main thread.
+     *
+     * @param cameras
+     */
+    public void update(List<Camera> cameras) {
+        Map map = Controller.getMap();
+        if (map == null || !WE.getCVars().getValueB("farTerrain") || AbstractGameObject.getPixmap() == null) {
+            return;
+        }
+
+        //add finished impostors
+        TerrainImpostor impostor;
+        while ((impostor = finished.poll()) != null) {
+            int key = key(impostor.getChunkX(), impostor.getChunkY());
+            building.remove(key);
+            Chunk chunk = map.getChunkChecked(impostor.getChunkX(), impostor.getChunkY());
+            if (changedWhileBuilding.remove(key) && chunk != null) {
+                build(chunk);
+            }
+            //a save is outdated as soon as the chunk is loaded
+            if (impostor.getChunk() != null || chunk == null) {
+                replace(impostor);
+            }
+        }
+        Integer notFound;
+        while ((notFound = notSavedFound.poll()) != null) {
+            building.remove(notFound);
+            notSaved.add(notFound);
+        }
+
+        int radius = WE.getCVars().getValueI("farTerrainRadius");
+        //remove impostors of chunks which are not in the map anymore and saves which are loaded or out of range
+        impostors.removeIf(imp -> {
+            Chunk chunk = map.getChunkChecked(imp.getChunkX(), imp.getChunkY());
+            if (imp.getChunk() != null) {
+                if (chunk != imp.getChunk()) {
+                    notSaved.remove(key(imp.getChunkX(), imp.getChunkY()));//saved when unloaded
+                    return true;
+                }
+                return false;
+            }
+            return chunk != null || !inRange(cameras, imp.getChunkX(), imp.getChunkY(), radius);
+        });
+
+        //build impostors of loaded chunks
+        ArrayList<Chunk> loaded = map.getLoadedChunks();
+        for (int i = 0; i < loaded.size(); i++) {
+            Chunk chunk = loaded.get(i);
+            TerrainImpostor imp = getImpostor(chunk.getChunkX(), chunk.getChunkY());
+            if (!building.contains(key(chunk.getChunkX(), chunk.getChunkY())) && (imp == null || imp.getChunk() != chunk)) {
+                build(chunk);
+            }
+        }
+
+        //read the saves of chunks in the radius which are not loaded
+        if (!WE.getCVars().getValueB("shouldLoadMap") || map.getPath() == null) {
+            return;
+        }
+        for (Camera camera : cameras) {
+            if (camera.isEnabled()) {
+                for (int x = camera.getCenterChunkX() - radius; x <= camera.getCenterChunkX() + radius; x++) {
+                    for (int y = camera.getCenterChunkY() - radius; y <= camera.getCenterChunkY() + radius; y++) {
+                        int key = key(x, y);
+                        if (!building.contains(key)
+                                && !notSaved.contains(key)
+                                && map.getChunkChecked(x, y) == null
+                                && !map.isLoading(x, y)
+                                && getImpostor(x, y) == null) {
+                            buildFromSave(map, x, y);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param cameras
+     * @param chunkX
+     * @param chunkY
+     * @param radius
+     * @return true if the chunk is in the radius of an enabled camera
+     */
+    private boolean inRange(List<Camera> cameras, int chunkX, int chunkY, int radius) {
+        for (Camera camera : cameras) {
+            if (camera.isEnabled()
+                    && Math.abs(camera.getCenterChunkX() - chunkX) <= radius
+                    && Math.abs(camera.getCenterChunkY() - chunkY) <= radius) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ExecutorService getBuilder() {
+        if (builder == null) {
+            builder = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "farTerrain");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return builder;
+    }
+
+    /**
+     * Copies the columns of a loaded chunk and builds the impostor on the builder thread.
+     *
+     * @param chunk
+     */
+    private void build(Chunk chunk) {
+        building.add(key(chunk.getChunkX(), chunk.getChunkY()));
+        TerrainImpostor impostor = new TerrainImpostor(chunk, true);
+        getBuilder().execute(() -> finished.add(impostor.build()));
+    }
+
+    /**
+     * Reads the blocks of a saved chunk and builds the impostor on the builder thread. The chunk is not added to the map.
+     *
+     * @param map
+     * @param chunkX
+     * @param chunkY
+     */
+    private void buildFromSave(Map map, int chunkX, int chunkY) {
+        int key = key(chunkX, chunkY);
+        building.add(key);
+        File path = map.getPath();
+        int saveSlot = map.getCurrentSaveSlot();
+        getBuilder().execute(() -> {
+            Chunk saved = new Chunk(map, chunkX, chunkY);
+            if (saved.loadSavedBlocks(path, saveSlot)) {
+                finished.add(new TerrainImpostor(saved, false).build());
+            } else {
+                notSavedFound.add(key);
+            }
+        });
+    }
+
+    /**
+     * Replaces the impostor of the same chunk or inserts it sorted by chunk y.
+     *
+     * @param impostor
+     */
+    private void replace(TerrainImpostor impostor) {
+        for (int i = 0; i < impostors.size(); i++) {
+            if (impostors.get(i).getChunkX() == impostor.getChunkX()
+                    && impostors.get(i).getChunkY() == impostor.getChunkY()) {
+                impostors.set(i, impostor);
+                return;
+            }
+        }
+        int i = 0;
+        while (i < impostors.size() && impostors.get(i).getChunkY() <= impostor.getChunkY()) {
+            i++;
+        }
+        impostors.add(i, impostor);
+    }
+
+    /**
+     * @param chunkX
+     * @param chunkY
+     * @return can be null
+     */
+    public TerrainImpostor getImpostor(int chunkX, int chunkY) {
+        for (int i = 0; i < impostors.size(); i++) {
+            if (impostors.get(i).getChunkX() == chunkX && impostors.get(i).getChunkY() == chunkY) {
+                return impostors.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Renders the impostors of chunks which are not in the render storage and visible by the camera. Must be called outside of a sprite batch.
+     *
+     * @param sh
+     * @param storage chunks in this storage are rendered in full detail
+     * @param camera
+     * @param front   if true renders the chunks in front of the camera's center chunks, else the ones behind and beside
+     */
+    public void render(ShapeRenderer sh, RenderStorage storage, Camera camera, boolean front) {
+        if (impostors.isEmpty() || !WE.getCVars().getValueB("farTerrain")) {
+            return;
+        }
+        if (WE.getCVars().getValueB("enablelightengine") && Controller.getLightEngine() != null) {
+            Point center = camera.getCenter();
+            Controller.getLightEngine().getAmbient(center, tint);
+            tint.add(Controller.getLightEngine().getSun(center).getLight(tmpColor)).clamp();
+            tint.a = 1;
+        } else {
+            tint.set(Color.WHITE);
+        }
+
+        float left = camera.getViewSpaceX() - camera.getWidthInProjSpc() / 2;
+        float right = camera.getViewSpaceX() + camera.getWidthInProjSpc() / 2;
+        float bottom = camera.getViewSpaceY() - camera.getHeightInProjSpc() / 2;
+        float top = camera.getViewSpaceY() + camera.getHeightInProjSpc() / 2;
+        boolean begun = false;
+        for (int i = 0; i < impostors.size(); i++) {
+            TerrainImpostor impostor = impostors.get(i);
+            if ((impostor.getChunkY() > camera.getCenterChunkY() + 1) != front
+                    || storage.getChunk(impostor.getChunkX(), impostor.getChunkY()) != null) {
+                continue;
+            }
+            //chunk bounds in view space
+            float chunkLeft = impostor.getChunkX() * Chunk.getViewWidth() - RenderCell.VIEW_WIDTH2;
+            float chunkTop = -impostor.getChunkY() * Chunk.getBlocksY() * RenderCell.VIEW_DEPTH2
+                    + Chunk.getBlocksZ() * RenderCell.VIEW_HEIGHT + RenderCell.VIEW_DEPTH;
+            float chunkBottom = -(impostor.getChunkY() + 1) * Chunk.getBlocksY() * RenderCell.VIEW_DEPTH2
+                    - RenderCell.VIEW_HEIGHT;
+            if (chunkLeft > right
+                    || chunkLeft + Chunk.getViewWidth() + RenderCell.VIEW_WIDTH < left
+                    || chunkBottom > top
+                    || chunkTop < bottom) {
+                continue;
+            }
+            if (!begun) {
+                sh.begin(ShapeRenderer.ShapeType.Filled);
+                begun = true;
+            }
+            impostor.render(sh, tint);
+        }
+        if (begun) {
+            sh.end();
+        }
+    }
+
+    @Override
+    public boolean handleMessage(Telegram msg) {
+        if (msg.message == Events.chunkChanged.getId() && msg.extraInfo instanceof Chunk) {
+            Chunk chunk = (Chunk) msg.extraInfo;
+            int key = key(chunk.getChunkX(), chunk.getChunkY());
+            if (building.contains(key)) {
+                changedWhileBuilding.add(key);
+            } else if (getImpostor(chunk.getChunkX(), chunk.getChunkY()) != null) {
+                build(chunk);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes every impostor and stops listening.
+     */
+    public void dispose() {
+        MessageManager.getInstance().removeListener(this, Events.chunkChanged.getId());
+        impostors.clear();
+        finished.clear();
+        building.clear();
+        changedWhileBuilding.clear();
+        notSaved.clear();
+        notSavedFound.clear();
+        if (builder != null) {
+            builder.shutdown();
+            builder = null;
+        }
+    }
+}
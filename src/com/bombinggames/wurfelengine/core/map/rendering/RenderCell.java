@@ -39,7 +39,7 @@ import com.bombinggames.wurfelengine.core.GameView;
 import com.bombinggames.wurfelengine.core.gameobjects.*;
 import com.bombinggames.wurfelengine.core.map.*;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 
 /**
  * It is something which can be rendered and therefore render information saved shared across cameras. A RenderCell should not use the event system. The class extends (wraps) the plain data of the {@link Block} with a position and {@link AbstractGameObject} class methods. The wrapped {@link Block} is not referenced, so changing this {@link RenderCell} changes the data in the map.<br>
@@ -133,6 +133,15 @@ public class RenderCell extends AbstractGameObject {
     private static long rebuildCoverList = 0;
     private static SimpleEntity destruct = new SimpleEntity((byte) 3, (byte) 0);
     private static Color tmpColor = new Color();
+    private static final Color tmpLightColor = new Color();
+    /**
+     * reused position of the damage overlay
+     */
+    private static final ThreadLocal<Point> destructPos = ThreadLocal.withInitial(() -> new Point(0, 0, 0));
+    /**
+     * reused for calculating the fog
+     */
+    private static final ThreadLocal<Coordinate> tmpCoord = ThreadLocal.withInitial(Coordinate::new);
     /**
      * the factory for custom blocks
      */
@@ -178,11 +187,11 @@ public class RenderCell extends AbstractGameObject {
 //			this.value = 0;
 //		}
 //	}
-    private final LinkedList<AbstractGameObject> covered = new LinkedList<>();
+    private final ArrayList<AbstractGameObject> covered = new ArrayList<>(8);
     /**
      * for topological sort. Contains entities and blocks
      */
-    private final LinkedList<AbstractGameObject> coveredEnts = new LinkedList<>();
+    private final ArrayList<AbstractGameObject> coveredEnts = new ArrayList<>(8);
     private byte value;
     private Coordinate coord = new Coordinate(0, 0, 0);
     /**
@@ -383,6 +392,20 @@ public class RenderCell extends AbstractGameObject {
         return isLiquid((byte) (block & 255), (byte) ((block >> 8) & 255));
     }
 
+    /**
+     * The rule of the {@link CellularAutomaton} for this block.
+     *
+     * @param id
+     * @param value
+     * @return null if the block is not simulated
+     */
+    public static CellRule getCellRule(byte id, byte value) {
+        if (id > 9 && customBlocks != null) {
+            return customBlocks.getCellRule(id, value);
+        }
+        return id == 9 ? CellRule.LIQUID : null;
+    }
+
     public static boolean isIndestructible(byte id, byte value) {
         if (customBlocks != null) {
             return customBlocks.isIndestructible(id, value);
@@ -503,13 +526,13 @@ public class RenderCell extends AbstractGameObject {
     }
 
     /**
-     * Returns a color representing the block. Picks from the sprite sprite.
+     * Returns a color representing the block. Picks from the sprite sprite. Thread-safe.
      *
      * @param id    id of the RenderCell
      * @param value the value of the block.
      * @return copy of a color representing the block
      */
-    public static Color getRepresentingColor(final byte id, final byte value) {
+    public static synchronized Color getRepresentingColor(final byte id, final byte value) {
         if (COLORLIST[id][value] == null) { //if not in list, add it to the list
             COLORLIST[id][value] = new Color();
             int colorInt;
@@ -722,7 +745,8 @@ public class RenderCell extends AbstractGameObject {
         Color color = tmpColor;
         if (fogEnabled) {
             //can use CVars for dynamic change. using harcored values for performance reasons
-            float factor = (float) (Math.exp(0.025f * (camera.getVisibleFrontBorderHigh() - coords.toCoord().getY() - 18.0)) - 1);
+            int coordY = coords instanceof Coordinate ? ((Coordinate) coords).getY() : tmpCoord.get().setFromPoint(coords.getPoint()).getY();
+            float factor = (float) (Math.exp(0.025f * (camera.getVisibleFrontBorderHigh() - coordY - 18.0)) - 1);
             //float factor = (float) (Math.exp( 0.0005f*(coords.getDepth(view)-500) )-1 );
             color.set(0.5f + 0.3f * factor, 0.5f + 0.4f * factor, 0.5f + 1f * factor, 1);
         } else {
@@ -731,7 +755,7 @@ public class RenderCell extends AbstractGameObject {
 
         //if vertex shaded then use different shading for each side
         if (Controller.getLightEngine() != null && !Controller.getLightEngine().isShadingPixelBased()) {
-            color = Controller.getLightEngine().getColor(side, getPosition()).mul(color.r + 0.5f, color.g + 0.5f, color.b + 0.5f, color.a + 0.5f);
+            color = Controller.getLightEngine().getColor(side, getPosition(), tmpLightColor).mul(color.r + 0.5f, color.g + 0.5f, color.b + 0.5f, color.a + 0.5f);
         }
 
         renderSide(
@@ -762,25 +786,26 @@ public class RenderCell extends AbstractGameObject {
 
             if (damageOverlayStep > -1) {
                 //render damage
+                Point destructPos = getPosition().toPoint(RenderCell.destructPos.get());
                 switch (side) {
                     case LEFT:
                         renderDamageOverlay(view,
                                 camera,
-                                getPosition().toPoint().add(-RenderCell.GAME_DIAGLENGTH2 / 2, 0, 0),
+                                destructPos.add(-RenderCell.GAME_DIAGLENGTH2 / 2, 0, 0),
                                 (byte) (3 * damageOverlayStep)
                         );
                         break;
                     case TOP:
                         renderDamageOverlay(view,
                                 camera,
-                                getPosition().toPoint().add(0, 0, RenderCell.GAME_EDGELENGTH),
+                                destructPos.add(0, 0, RenderCell.GAME_EDGELENGTH),
                                 (byte) (3 * damageOverlayStep + 1)
                         );
                         break;
                     case RIGHT:
                         renderDamageOverlay(view,
                                 camera,
-                                getPosition().toPoint().add(RenderCell.GAME_DIAGLENGTH2 / 2, 0, 0),
+                                destructPos.add(RenderCell.GAME_DIAGLENGTH2 / 2, 0, 0),
                                 (byte) (3 * damageOverlayStep + 2)
                         );
                         break;
@@ -799,7 +824,7 @@ public class RenderCell extends AbstractGameObject {
      * @param aopos
      * @param value  damage sprite value
      */
-    private void renderDamageOverlay(final GameView view, final Camera camera, final Position aopos, final byte value) {
+    private void renderDamageOverlay(final GameView view, final Camera camera, final Point aopos, final byte value) {
         destruct.setSpriteValue(value);
         destruct.setPosition(aopos);
         destruct.getColor().set(0.5f, 0.5f, 0.5f, 0.7f);
@@ -817,9 +842,9 @@ public class RenderCell extends AbstractGameObject {
     public void renderSide(final GameView view, final int xPos, final int yPos, final Side side) {
         Color color;
         if (Controller.getLightEngine() != null && !Controller.getLightEngine().isShadingPixelBased()) {
-            color = Controller.getLightEngine().getColor(side, getPosition());
+            color = Controller.getLightEngine().getColor(side, getPosition(), tmpLightColor);
         } else {
-            color = Color.GRAY.cpy();
+            color = tmpLightColor.set(Color.GRAY);
         }
 
         renderSide(
@@ -917,6 +942,15 @@ public class RenderCell extends AbstractGameObject {
     public void update(float dt) {
     }
 
+    /**
+     * Cells which return true are registered in their {@link RenderChunk} and get {@link #update(float)} called every frame. Override if the cell has cosmetic logic.
+     *
+     * @return false if {@link #update(float)} does nothing
+     */
+    public boolean needsUpdate() {
+        return false;
+    }
+
     @Override
     public char getCategory() {
         return 'b';
@@ -1266,7 +1300,7 @@ public class RenderCell extends AbstractGameObject {
     }
 
     @Override
-    public LinkedList<AbstractGameObject> getCovered(RenderStorage rs) {
+    public ArrayList<AbstractGameObject> getCovered(RenderStorage rs) {
         if (lastRebuild < rebuildCoverList) {
             rebuildCovered(rs);
         }
@@ -1284,16 +1318,18 @@ public class RenderCell extends AbstractGameObject {
                     return -1;
                 }
             });
-            coveredEnts.addAll(covered);
+            for (int i = 0; i < covered.size(); i++) {
+                coveredEnts.add(covered.get(i));
+            }
             return coveredEnts;
         }
         return covered;
     }
 
     private void rebuildCovered(RenderStorage rs) {
-        LinkedList<AbstractGameObject> covered = this.covered;
+        ArrayList<AbstractGameObject> covered = this.covered;
         covered.clear();
-        Coordinate nghb = getPosition();
+        Coordinate nghb = getPosition().cpy();//own position may be read by other threads while sorting
         RenderCell block;
         if (nghb.getZ() > 0) {
             block = rs.getCell(nghb.add(0, 0, -1));//go down
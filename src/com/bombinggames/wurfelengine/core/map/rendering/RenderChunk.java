@@ -31,16 +31,24 @@
 package com.bombinggames.wurfelengine.core.map.rendering;
 
 import com.badlogic.gdx.utils.Pool;
+import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.gameobjects.Side;
+import com.bombinggames.wurfelengine.core.lightengine.LightEngine;
+import com.bombinggames.wurfelengine.core.lightengine.LightPropagation;
 import com.bombinggames.wurfelengine.core.map.Chunk;
 import com.bombinggames.wurfelengine.core.map.Iterators.DataIterator;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+
 /**
  * @author Benedikt Vogler
  */
 public class RenderChunk {
 
     private static final Pool<RenderCell[][][]> DATAPOOL;
+    private static final Pool<float[]> LIGHTPOOL;
 
     static {
         DATAPOOL = new Pool<RenderCell[][][]>(3) {
@@ -49,9 +57,31 @@ public class RenderChunk {
                 return new RenderCell[Chunk.getBlocksX()][Chunk.getBlocksY()][Chunk.getBlocksZ()];
             }
         };
+        LIGHTPOOL = new Pool<float[]>(3) {
+            @Override
+            protected float[] newObject() {
+                return new float[Chunk.getBlocksX() * Chunk.getBlocksY() * Chunk.getBlocksZ() * 9];
+            }
+        };
     }
 
     private final RenderCell data[][][];
+    /**
+     * cells which need an update every frame
+     */
+    private final ArrayList<RenderCell> activeCells = new ArrayList<>(10);
+    /**
+     * cells marked for a shading reset. Index is (x*blocksY+y)*blocksZ+z.
+     */
+    private final BitSet dirtyCells = new BitSet(Chunk.getBlocksX() * Chunk.getBlocksY() * Chunk.getBlocksZ());
+    /**
+     * accumulated light of point lights of the left, top and right side of every cell. Index is ((x*blocksY+y)*blocksZ+z)*9+side*3+channel.
+     */
+    private final float[] pointLight;
+    /**
+     * cells where the point light changed. Same index as dirtyCells.
+     */
+    private final BitSet pointLightDirtyCells = new BitSet(Chunk.getBlocksX() * Chunk.getBlocksY() * Chunk.getBlocksZ());
     private Chunk chunk;
     private boolean cameraAccess;
 
@@ -63,11 +93,13 @@ public class RenderChunk {
      */
     public RenderChunk(RenderStorage rS, Chunk chunk) {
         data = DATAPOOL.obtain();
+        pointLight = LIGHTPOOL.obtain();
         init(rS, chunk);
     }
 
     public static void clearPool() {
         DATAPOOL.clear();
+        LIGHTPOOL.clear();
     }
 
     /**
@@ -94,6 +126,9 @@ public class RenderChunk {
         int blocksZ = Chunk.getBlocksZ();
         int blocksX = Chunk.getBlocksX();
         int blocksY = Chunk.getBlocksY();
+        activeCells.clear();
+        dirtyCells.clear();//every cell gets reset anyway
+        pointLightDirtyCells.clear();
         for (int xInd = 0; xInd < blocksX; xInd++) {
             for (int yInd = 0; yInd < blocksY; yInd++) {
                 for (int z = 0; z < blocksZ; z++) {
@@ -108,7 +143,11 @@ public class RenderChunk {
                             z
                     );
                     data[xInd][yInd][z].setUnclipped();
+                    accumulatePointLight(xInd, yInd, z);
                     resetShadingFor(xInd, yInd, z);
+                    if (data[xInd][yInd][z].needsUpdate()) {
+                        activeCells.add(data[xInd][yInd][z]);
+                    }
                 }
             }
         }
@@ -131,6 +170,31 @@ public class RenderChunk {
         return data;
     }
 
+    /**
+     * @return the linked chunk
+     */
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    /**
+     * Updates only the cells which registered for updates.
+     *
+     * @param dt time in ms
+     */
+    void updateActiveCells(float dt) {
+        for (int i = 0; i < activeCells.size(); i++) {
+            activeCells.get(i).update(dt);
+        }
+    }
+
+    /**
+     * @return the cells which get updated every frame
+     */
+    public ArrayList<RenderCell> getActiveCells() {
+        return activeCells;
+    }
+
     /**
      *
      */
@@ -185,8 +249,224 @@ public class RenderChunk {
                         data[idexX][idexY][idexZ].setLightlevel(0.9f, Side.TOP, 3);//todo every vertex
                     }
                 }
+                addSunShadow(block, idexX, idexY, idexZ);
+                addPointLight(block, idexX, idexY, idexZ);
+            }
+        }
+    }
+
+    /**
+     * Darkens the sides if the cell is in the shadow of the sun.
+     *
+     * @param cell
+     * @param idexX index pos
+     * @param idexY index pos
+     * @param idexZ index pos
+     * @see com.bombinggames.wurfelengine.core.lightengine.SunShadowMap
+     */
+    private void addSunShadow(RenderCell cell, int idexX, int idexY, int idexZ) {
+        LightEngine le = Controller.getLightEngine();
+        if (le == null) {
+            return;
+        }
+        float vis = le.getSunShadowMap().getVisibility(chunk, idexX, idexY, idexZ);
+        if (vis >= 1) {
+            return;
+        }
+        float factor = 1 - WE.getCVars().getValueF("sunShadowStrength") * (1 - vis);
+        for (int vertex = 0; vertex < 4; vertex++) {
+            cell.setLightlevel(cell.getLightlevel(Side.LEFT, vertex, 0) * factor, Side.LEFT, vertex);
+            cell.setLightlevel(cell.getLightlevel(Side.TOP, vertex, 0) * factor, Side.TOP, vertex);
+            cell.setLightlevel(cell.getLightlevel(Side.RIGHT, vertex, 0) * factor, Side.RIGHT, vertex);
+        }
+    }
+
+    /**
+     * Adds the accumulated light of point lights to the sides.
+     *
+     * @param cell
+     * @param idexX index pos
+     * @param idexY index pos
+     * @param idexZ index pos
+     */
+    private void addPointLight(RenderCell cell, int idexX, int idexY, int idexZ) {
+        int i = ((idexX * Chunk.getBlocksY() + idexY) * Chunk.getBlocksZ() + idexZ) * 9;
+        addPointLight(cell, Side.LEFT, i);
+        addPointLight(cell, Side.TOP, i + 3);
+        addPointLight(cell, Side.RIGHT, i + 6);
+    }
+
+    private void addPointLight(RenderCell cell, Side side, int i) {
+        float r = pointLight[i];
+        float g = pointLight[i + 1];
+        float b = pointLight[i + 2];
+        if (r == 0 && g == 0 && b == 0) {
+            return;
+        }
+        for (int vertex = 0; vertex < 4; vertex++) {
+            cell.addLightlevel(r, side, 0, vertex);
+            cell.addLightlevel(g, side, 1, vertex);
+            cell.addLightlevel(b, side, 2, vertex);
+        }
+    }
+
+    /**
+     * Recalculates the accumulated point light of a cell from the light levels in front of the three visible sides.
+     *
+     * @param idexX index pos
+     * @param idexY index pos
+     * @param idexZ index pos
+     */
+    private void accumulatePointLight(int idexX, int idexY, int idexZ) {
+        int x = chunk.getTopLeftCoordinateX() + idexX;
+        int y = chunk.getTopLeftCoordinateY() + idexY;
+        int i = ((idexX * Chunk.getBlocksY() + idexY) * Chunk.getBlocksZ() + idexZ) * 9;
+        storePointLight(i, getLightLevels(x - (y % 2 != 0 ? 0 : 1), y + 1, idexZ));//neighbour 5
+        storePointLight(i + 3, getLightLevels(x, y, idexZ + 1));
+        storePointLight(i + 6, getLightLevels(x + (y % 2 != 0 ? 1 : 0), y + 1, idexZ));//neighbour 3
+    }
+
+    private void storePointLight(int i, int levels) {
+        if (levels <= 0) {
+            pointLight[i] = 0;
+            pointLight[i + 1] = 0;
+            pointLight[i + 2] = 0;
+        } else {
+            pointLight[i] = ((levels >> 8) & LightPropagation.MAXLEVEL) * LightPropagation.LEVELBRIGHTNESS;
+            pointLight[i + 1] = ((levels >> 4) & LightPropagation.MAXLEVEL) * LightPropagation.LEVELBRIGHTNESS;
+            pointLight[i + 2] = (levels & LightPropagation.MAXLEVEL) * LightPropagation.LEVELBRIGHTNESS;
+        }
+    }
+
+    /**
+     * Marks a box of cells whose point light changed. Indices are clamped to this chunk.
+     *
+     * @param fromX index pos, including
+     * @param fromY index pos, including
+     * @param fromZ index pos, including
+     * @param toX   index pos, including
+     * @param toY   index pos, including
+     * @param toZ   index pos, including
+     * @return true if this is the first marked cell in this chunk
+     */
+    boolean setPointLightDirty(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        fromX = Math.max(fromX, 0);
+        fromY = Math.max(fromY, 0);
+        fromZ = Math.max(fromZ, 0);
+        toX = Math.min(toX, Chunk.getBlocksX() - 1);
+        toY = Math.min(toY, Chunk.getBlocksY() - 1);
+        toZ = Math.min(toZ, Chunk.getBlocksZ() - 1);
+        if (fromX > toX || fromY > toY || fromZ > toZ) {
+            return false;
+        }
+        boolean wasClean = pointLightDirtyCells.isEmpty();
+        int blocksY = Chunk.getBlocksY();
+        int blocksZ = Chunk.getBlocksZ();
+        for (int x = fromX; x <= toX; x++) {
+            for (int y = fromY; y <= toY; y++) {
+                int base = (x * blocksY + y) * blocksZ;
+                pointLightDirtyCells.set(base + fromZ, base + toZ + 1);
             }
         }
+        return wasClean;
+    }
+
+    /**
+     * Recalculates the point light of the marked cells and marks them for a shading reset.
+     *
+     * @return true if a cell got marked for a shading reset and this chunk was clean before
+     */
+    boolean accumulateDirtyPointLight() {
+        if (pointLightDirtyCells.isEmpty()) {
+            return false;
+        }
+        int blocksY = Chunk.getBlocksY();
+        int blocksZ = Chunk.getBlocksZ();
+        for (int i = pointLightDirtyCells.nextSetBit(0); i >= 0; i = pointLightDirtyCells.nextSetBit(i + 1)) {
+            accumulatePointLight(i / (blocksY * blocksZ), (i / blocksZ) % blocksY, i % blocksZ);
+        }
+        boolean wasClean = dirtyCells.isEmpty();
+        dirtyCells.or(pointLightDirtyCells);
+        pointLightDirtyCells.clear();
+        return wasClean;
+    }
+
+    /**
+     * Reads the light levels from the linked chunk. Only asks the map if outside.
+     *
+     * @param x coordinate
+     * @param y coordinate
+     * @param z coordinate
+     * @return packed levels, -1 if not loaded
+     */
+    private int getLightLevels(int x, int y, int z) {
+        int idexX = x - chunk.getTopLeftCoordinateX();
+        int idexY = y - chunk.getTopLeftCoordinateY();
+        if (idexX >= 0 && idexX < Chunk.getBlocksX()
+                && idexY >= 0 && idexY < Chunk.getBlocksY()
+                && z >= 0 && z < Chunk.getBlocksZ()) {
+            return chunk.getLightLevels()[(idexX * Chunk.getBlocksY() + idexY) * Chunk.getBlocksZ() + z];
+        }
+        return Controller.getMap().getLightPropagation().getLevels(x, y, z);
+    }
+
+    /**
+     * Marks a cell for a shading reset. O(1)
+     *
+     * @param idexX index pos
+     * @param idexY index pos
+     * @param idexZ index pos
+     * @return true if this is the first dirty cell in this chunk
+     */
+    boolean setDirty(int idexX, int idexY, int idexZ) {
+        boolean wasClean = dirtyCells.isEmpty();
+        dirtyCells.set((idexX * Chunk.getBlocksY() + idexY) * Chunk.getBlocksZ() + idexZ);
+        return wasClean;
+    }
+
+    /**
+     * Marks a box of cells for a shading reset. Indices are clamped to this chunk.
+     *
+     * @param fromX index pos, including
+     * @param fromY index pos, including
+     * @param fromZ index pos, including
+     * @param toX   index pos, including
+     * @param toY   index pos, including
+     * @param toZ   index pos, including
+     * @return true if this is the first dirty cell in this chunk
+     */
+    boolean setDirty(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        fromX = Math.max(fromX, 0);
+        fromY = Math.max(fromY, 0);
+        fromZ = Math.max(fromZ, 0);
+        toX = Math.min(toX, Chunk.getBlocksX() - 1);
+        toY = Math.min(toY, Chunk.getBlocksY() - 1);
+        toZ = Math.min(toZ, Chunk.getBlocksZ() - 1);
+        if (fromX > toX || fromY > toY || fromZ > toZ) {
+            return false;
+        }
+        boolean wasClean = dirtyCells.isEmpty();
+        int blocksY = Chunk.getBlocksY();
+        int blocksZ = Chunk.getBlocksZ();
+        for (int x = fromX; x <= toX; x++) {
+            for (int y = fromY; y <= toY; y++) {
+                int base = (x * blocksY + y) * blocksZ;
+                dirtyCells.set(base + fromZ, base + toZ + 1);//z is continuous
+            }
+        }
+        return wasClean;
+    }
+
+    /**
+     * Resets the shading of every cell marked as dirty and clears the marks.
+     */
+    void resetShadingForDirty() {
+        int blocksY = Chunk.getBlocksY();
+        int blocksZ = Chunk.getBlocksZ();
+        for (int i = dirtyCells.nextSetBit(0); i >= 0; i = dirtyCells.nextSetBit(i + 1)) {
+            resetShadingFor(i / (blocksY * blocksZ), (i / blocksZ) % blocksY, i % blocksZ);
+        }
+        dirtyCells.clear();
     }
 
     public int getTopLeftCoordinateX() {
@@ -243,7 +523,11 @@ public class RenderChunk {
     }
 
     protected void dispose() {
+        activeCells.clear();
+        dirtyCells.clear();
+        pointLightDirtyCells.clear();
         DATAPOOL.free(data);
+        LIGHTPOOL.free(pointLight);
     }
 
 }
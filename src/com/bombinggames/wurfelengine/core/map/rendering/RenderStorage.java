@@ -39,8 +39,8 @@ import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.Events;
 import com.bombinggames.wurfelengine.core.lightengine.AmbientOcclusionCalculator;
 import com.bombinggames.wurfelengine.core.map.Chunk;
+import com.bombinggames.wurfelengine.core.map.ChunkNeighbourhood;
 import com.bombinggames.wurfelengine.core.map.Coordinate;
-import com.bombinggames.wurfelengine.core.map.Iterators.DataIterator;
 import com.bombinggames.wurfelengine.core.map.Point;
 
 import java.util.ArrayList;
@@ -64,10 +64,23 @@ public class RenderStorage implements Telegraph {
      */
     private final ArrayList<Integer> lastCenterX, lastCenterY;
     /**
-     * a list of Blocks marked as dirty. Dirty blocks are reshaded.
+     * a list of chunks containing cells marked as dirty. Dirty cells are reshaded.
      */
-    private final LinkedList<RenderCell> dirtyFlags = new LinkedList<>();
+    private final ArrayList<RenderChunk> dirtyChunks = new ArrayList<>(9);
+    /**
+     * a list of chunks containing cells where the light of point lights changed
+     */
+    private final ArrayList<RenderChunk> pointLightDirtyChunks = new ArrayList<>(9);
     private int zRenderingLimit;
+    /**
+     * copy of the chunk which gets processed, reused
+     */
+    private final ChunkNeighbourhood neighbourhood = new ChunkNeighbourhood();
+    private int[] tmpFlags;
+    /**
+     * the chunks reset by {@link #reinitChunks(int, int, int, int)}, reused
+     */
+    private final ArrayList<RenderChunk> affectedChunks = new ArrayList<>(4);
 
     /**
      * Creates a new renderstorage.
@@ -80,22 +93,15 @@ public class RenderStorage implements Telegraph {
     }
 
     public void preUpdate(float dt) {
+        accumulateDirtyPointLight();
         resetShadingForDirty();
     }
 
     public void update(float dt) {
         checkNeededChunks();
-        //update rendderblocks
+        //update only renderblocks which need it
         for (RenderChunk renderChunk : data) {
-            for (RenderCell[][] x : renderChunk.getData()) {
-                for (RenderCell[] y : x) {
-                    for (RenderCell z : y) {
-                        if (z != null) {
-                            z.update(dt);
-                        }
-                    }
-                }
-            }
+            renderChunk.updateActiveCells(dt);
         }
     }
 
@@ -130,6 +136,8 @@ public class RenderStorage implements Telegraph {
         //remove chunks which are not used
         data.forEach(chunk -> {
             if (!chunk.cameraAccess()) {
+                dirtyChunks.remove(chunk);
+                pointLightDirtyChunks.remove(chunk);
                 chunk.dispose();
             }
         });
@@ -153,8 +161,7 @@ public class RenderStorage implements Telegraph {
                 rChunk = new RenderChunk(this, mapChunk);
                 data.add(rChunk);
                 rChunk.setCameraAccess(true);
-                AmbientOcclusionCalculator.calcAO(rChunk);
-                hiddenSurfaceDetection(rChunk, zRenderingLimit - 1);
+                calcAOAndHSD(rChunk);
 
                 //update neighbors
                 RenderChunk neighbor = getChunk(x - 1, y);
@@ -176,33 +183,102 @@ public class RenderStorage implements Telegraph {
     }
 
 
+    /**
+     * Recalculates the point light where it changed. The cells get marked as dirty.
+     */
+    private void accumulateDirtyPointLight() {
+        for (int i = 0; i < pointLightDirtyChunks.size(); i++) {
+            RenderChunk chunk = pointLightDirtyChunks.get(i);
+            if (chunk.accumulateDirtyPointLight()) {
+                dirtyChunks.add(chunk);
+            }
+        }
+        pointLightDirtyChunks.clear();
+    }
+
+    /**
+     * Marks every loaded cell inside the box for recalculation of the point light.
+     *
+     * @param fromX coordinate, including
+     * @param fromY coordinate, including
+     * @param fromZ coordinate, including
+     * @param toX   coordinate, including
+     * @param toY   coordinate, including
+     * @param toZ   coordinate, including
+     */
+    public void setPointLightFlags(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        for (RenderChunk chunk : data) {
+            int left = chunk.getTopLeftCoordinateX();
+            int top = chunk.getTopLeftCoordinateY();
+            if (chunk.setPointLightDirty(
+                    fromX - left,
+                    fromY - top,
+                    fromZ,
+                    toX - left,
+                    toY - top,
+                    toZ)
+                    ) {
+                pointLightDirtyChunks.add(chunk);
+            }
+        }
+    }
+
     /**
      * reset light to normal level for cordinates marked as dirty
      */
     private void resetShadingForDirty() {
-        for (RenderCell rb : dirtyFlags) {
-            Coordinate coord = rb.getPosition();
-            RenderChunk chunk = getChunk(coord);
-            //should be loaded but check nevertheless
-            if (chunk != null) {
-                chunk.resetShadingFor(
-                        coord.getX() - chunk.getTopLeftCoordinateX(),
-                        coord.getY() - chunk.getTopLeftCoordinateY(),
-                        coord.getZ()
-                );
-            }
+        for (int i = 0; i < dirtyChunks.size(); i++) {
+            dirtyChunks.get(i).resetShadingForDirty();
         }
-        dirtyFlags.clear();
+        dirtyChunks.clear();
     }
 
     /**
-     * Marks this block as "dirty". O(n)
+     * Marks this block as "dirty". O(c) c: amount of chunks -&gt; O(1)
      *
      * @param rB
      */
     public void setLightFlag(RenderCell rB) {
-        if (!dirtyFlags.contains(rB))
-            dirtyFlags.add(rB);
+        Coordinate coord = rB.getPosition();
+        RenderChunk chunk = getChunk(coord);
+        //should be loaded but check nevertheless
+        if (chunk != null
+                && coord.getZ() >= 0
+                && coord.getZ() < Chunk.getBlocksZ()
+                && chunk.setDirty(
+                coord.getX() - chunk.getTopLeftCoordinateX(),
+                coord.getY() - chunk.getTopLeftCoordinateY(),
+                coord.getZ())
+                ) {
+            dirtyChunks.add(chunk);
+        }
+    }
+
+    /**
+     * Marks every loaded cell inside the box as "dirty".
+     *
+     * @param fromX coordinate, including
+     * @param fromY coordinate, including
+     * @param fromZ coordinate, including
+     * @param toX   coordinate, including
+     * @param toY   coordinate, including
+     * @param toZ   coordinate, including
+     */
+    public void setLightFlags(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        for (RenderChunk chunk : data) {
+            int left = chunk.getTopLeftCoordinateX();
+            int top = chunk.getTopLeftCoordinateY();
+            if (chunk.setDirty(
+                    fromX - left,
+                    fromY - top,
+                    fromZ,
+                    toX - left,
+                    toY - top,
+                    toZ)
+                    ) {
+                dirtyChunks.add(chunk);
+            }
+        }
     }
 
 
@@ -217,12 +293,44 @@ public class RenderStorage implements Telegraph {
         dataclone.forEach((RenderChunk rChunk) -> {
             rChunk.initData(rS);
         });
+        dirtyChunks.clear();//initData resets every cell
+        pointLightDirtyChunks.clear();
         dataclone.forEach((RenderChunk rChunk) -> {
-            AmbientOcclusionCalculator.calcAO(rChunk);
-            hiddenSurfaceDetection(rChunk, zRenderingLimit - 1);
+            calcAOAndHSD(rChunk);
         });
     }
 
+    /**
+     * Resets only the RenderChunks intersecting the area.
+     *
+     * @param minX
+     * @param minY
+     * @param maxX
+     * @param maxY
+     */
+    public void reinitChunks(int minX, int minY, int maxX, int maxY) {
+        ArrayList<RenderChunk> affected = affectedChunks;
+        affected.clear();
+        for (RenderChunk rChunk : data) {
+            int left = rChunk.getTopLeftCoordinateX();
+            int top = rChunk.getTopLeftCoordinateY();
+            if (maxX >= left && minX < left + Chunk.getBlocksX()
+                && maxY >= top && minY < top + Chunk.getBlocksY()) {
+                affected.add(rChunk);
+            }
+        }
+        for (int i = 0; i < affected.size(); i++) {
+            RenderChunk rChunk = affected.get(i);
+            rChunk.initData(this);
+            dirtyChunks.remove(rChunk);//initData resets every cell
+            pointLightDirtyChunks.remove(rChunk);
+        }
+        for (int i = 0; i < affected.size(); i++) {
+            calcAOAndHSD(affected.get(i));
+        }
+        affected.clear();
+    }
+
     /**
      * get the chunk where the coordinates are on
      *
@@ -240,7 +348,6 @@ public class RenderStorage implements Telegraph {
                     && coord.getX() < left + Chunk.getBlocksX()
                     && top <= coord.getY()
                     && coord.getY() < top + Chunk.getBlocksY()) {
-                data.addFirst(data.removeLast());
                 return chunk;
             }
         }
@@ -290,7 +397,6 @@ public class RenderStorage implements Telegraph {
                     && y >= top
                     && y < top + Chunk.getBlocksY()
                     ) {
-                data.addFirst(data.removeLast());//move in front to speed up lookup
                 chunkWithBlock = chunk;
                 break;
             }
@@ -374,6 +480,42 @@ public class RenderStorage implements Telegraph {
     }
 
 
+    /**
+     * Applies the ambient occlusion and the hidden surfaces of a chunk. Uses the shading baked into the chunk if it is still valid.
+     *
+     * @param chunk
+     */
+    private void calcAOAndHSD(final RenderChunk chunk) {
+        int[] baked = getBakedShading(chunk.getChunk());
+        AmbientOcclusionCalculator.applyAO(chunk, baked);
+        applyClipping(chunk, baked, zRenderingLimit - 1);
+    }
+
+    /**
+     * Calculates the ambient occlusion flags (lower 24 bits) and the clipping (bits 24-26) of every cell if the chunk has no valid baked shading and stores them in the chunk.
+     *
+     * @param chunk
+     * @return Index is (x*blocksY+y)*blocksZ+z.
+     */
+    private int[] getBakedShading(Chunk chunk) {
+        int[] baked = chunk.getBakedShading();
+        if (baked == null) {
+            int cells = Chunk.getBlocksX() * Chunk.getBlocksY() * Chunk.getBlocksZ();
+            if (tmpFlags == null || tmpFlags.length < cells) {
+                tmpFlags = new int[cells];
+            }
+            baked = new int[cells];
+            neighbourhood.fill(Controller.getMap(), chunk);
+            AmbientOcclusionCalculator.calcAOFlags(neighbourhood, baked);
+            calcClipping(neighbourhood, Chunk.getBlocksZ() - 1, tmpFlags);
+            for (int i = 0; i < cells; i++) {
+                baked[i] |= tmpFlags[i] << 24;
+            }
+            chunk.setBakedShading(baked);
+        }
+        return baked;
+    }
+
     /**
      * performs a simple viewFrustum check by looking at the direct neighbours.
      *
@@ -384,65 +526,39 @@ public class RenderStorage implements Telegraph {
         if (chunk == null) {
             throw new IllegalArgumentException();
         }
-        RenderCell[][][] chunkData = chunk.getData();
+        applyClipping(chunk, getBakedShading(chunk.getChunk()), toplimit);
+    }
 
+    /**
+     * Sets the clipping of every cell up to the limit.
+     *
+     * @param chunk
+     * @param baked    clipping in bits 24-26
+     * @param toplimit
+     */
+    private void applyClipping(final RenderChunk chunk, int[] baked, final int toplimit) {
         chunk.resetClipping();
-
-        //loop over floor for ground level
-        //DataIterator floorIterator = chunk.getIterator(0, 0);
-//		while (floorIterator.hasNext()) {
-//			if (((Block) floorIterator.next()).hidingPastBlock())
-//				chunk.getCell(
-//					floorIterator.getCurrentIndex()[0],
-//					floorIterator.getCurrentIndex()[1],
-//					chunkY)setClippedTop(
-//					floorIterator.getCurrentIndex()[0],
-//					floorIterator.getCurrentIndex()[1],
-//					-1
-//				);
-//		}
-        //iterate over chunk
-        DataIterator<RenderCell> dataIter = new DataIterator<>(
-                chunkData,
-                0,
-                toplimit
-        );
-
-        while (dataIter.hasNext()) {
-            RenderCell current = dataIter.next();//next is the current block
-
-            if (current != null) {
-                //calculate index position relative to camera border
-                final int x = dataIter.getCurrentIndex()[0];
-                final int y = dataIter.getCurrentIndex()[1];
-                final int z = dataIter.getCurrentIndex()[2];
-
-                //left side
-                //get neighbour block
-                RenderCell neighbour = getCellByIndex(chunk, x - ((y % 2 == 0) ? 1 : 0), y + 1, z);//next row can be shifted right(?)
-
-                if (neighbour != null
-                        && (neighbour.hidingPastBlock() || (neighbour.isLiquid() && current.isLiquid()))) {
-                    current.setClippedLeft();
-                }
-
-                //right side
-                //get neighbour block
-                neighbour = getCellByIndex(chunk, x + ((y % 2 == 0) ? 0 : 1), y + 1, z);//next row is shifted right
-
-                if (neighbour != null
-                        && (neighbour.hidingPastBlock() || (neighbour.isLiquid() && current.isLiquid()))) {
-                    current.setClippedRight();
-                }
-
-                //check top
-                if (z < Chunk.getBlocksZ() - 1) {
-                    neighbour = getCellByIndex(chunk, x, y + 2, z + 1);
-                    if ((chunkData[x][y][z + 1] != null
-                            && (chunkData[x][y][z + 1].hidingPastBlock()
-                            || chunkData[x][y][z + 1].isLiquid() && current.isLiquid()))
-                            || (neighbour != null && neighbour.hidingPastBlock())) {
-                        current.setClippedTop();
+        int blocksX = Chunk.getBlocksX();
+        int blocksY = Chunk.getBlocksY();
+        int blocksZ = Chunk.getBlocksZ();
+        int topZ = Math.min(Math.max(toplimit, 1), blocksZ - 1);
+        for (int x = 0; x < blocksX; x++) {
+            for (int y = 0; y < blocksY; y++) {
+                for (int z = 0; z <= topZ; z++) {
+                    int clip = baked[(x * blocksY + y) * blocksZ + z] >> 24;
+                    if (clip != 0) {
+                        RenderCell current = chunk.getCellByIndex(x, y, z);
+                        if (current != null) {
+                            if ((clip & 1) != 0) {
+                                current.setClippedLeft();
+                            }
+                            if ((clip & 2) != 0) {
+                                current.setClippedTop();
+                            }
+                            if ((clip & 4) != 0) {
+                                current.setClippedRight();
+                            }
+                        }
                     }
                 }
             }
@@ -450,24 +566,51 @@ public class RenderStorage implements Telegraph {
     }
 
     /**
-     * Helper function. Gets a block at an index. index can be outside of this chunk. If it is outside will get the correct chunk.
+     * Calculates which sides are hidden by the neighbours. Only reads the neighbourhood so it can run on any thread.
      *
-     * @param chunk the chunk where the index shoulde be found on
-     * @param x     index
-     * @param y     index
-     * @param z     index
-     * @return
+     * @param n        must be filled
+     * @param toplimit the highest layer which is checked
+     * @param out      1 if left is clipped, 2 if top is clipped, 4 if right is clipped. Index is (x*blocksY+y)*blocksZ+z.
+     * @return the highest layer which got checked
      */
-    private RenderCell getCellByIndex(RenderChunk chunk, int x, int y, int z) {
-        if (x < 0 || y >= Chunk.getBlocksY() || x >= Chunk.getBlocksX()) {//index outside current chunk
-            return getCell(
-                    chunk.getTopLeftCoordinateX() + x,
-                    chunk.getTopLeftCoordinateY() + y,
-                    z
-            );
-        } else {
-            return chunk.getCellByIndex(x, y, z);
+    public static int calcClipping(ChunkNeighbourhood n, int toplimit, int[] out) {
+        int blocksX = Chunk.getBlocksX();
+        int blocksY = Chunk.getBlocksY();
+        int blocksZ = Chunk.getBlocksZ();
+        int topZ = Math.min(Math.max(toplimit, 1), blocksZ - 1);
+        int up = n.getStrideZ();
+        int frontUp = n.getFrontOffset() + up;
+        for (int x = 0; x < blocksX; x++) {
+            for (int y = 0; y < blocksY; y++) {
+                int left = n.getNeighbourOffset(5, y);
+                int right = n.getNeighbourOffset(3, y);
+                for (int z = 0; z <= topZ; z++) {
+                    int c = n.index(x, y, z);
+                    boolean liquid = n.isLiquid(c);
+                    int clip = 0;
+
+                    //left side
+                    if (n.isHidingPast(c + left) || (liquid && n.isLiquid(c + left))) {
+                        clip |= 1;
+                    }
+
+                    //right side
+                    if (n.isHidingPast(c + right) || (liquid && n.isLiquid(c + right))) {
+                        clip |= 4;
+                    }
+
+                    //check top
+                    if (z < blocksZ - 1
+                            && (n.isHidingPast(c + up)
+                            || (liquid && n.isLiquid(c + up))
+                            || n.isHidingPast(c + frontUp))) {
+                        clip |= 2;
+                    }
+                    out[(x * blocksY + y) * blocksZ + z] = clip;
+                }
+            }
         }
+        return topZ;
     }
 
     private RenderCell getNewGroundCellInstance() {
@@ -526,12 +669,48 @@ public class RenderStorage implements Telegraph {
             return true;
         }
 
+        if (msg.message == Events.blocksChanged.getId()) {
+            int[] box = (int[]) msg.extraInfo;
+            //neighbours have the changed cells in their halo
+            reinitChunks(
+                box[0] - ChunkNeighbourhood.HALOX,
+                box[1] - ChunkNeighbourhood.HALOY,
+                box[3] + ChunkNeighbourhood.HALOX,
+                box[4] + ChunkNeighbourhood.HALOY
+            );
+            RenderCell.setRebuildCoverList(WE.getGameplay().getFrameNum());
+            return true;
+        }
+
+        if (msg.message == Events.lightChanged.getId()) {
+            int[] box = (int[]) msg.extraInfo;
+            //cells below and behind the changed cells have a side facing them
+            setPointLightFlags(box[0] - 1, box[1] - 1, box[2] - 1, box[3] + 1, box[4], box[5]);
+            return true;
+        }
+
+        if (msg.message == Events.sunShadowChanged.getId()) {
+            Chunk chunk = (Chunk) msg.extraInfo;
+            setLightFlags(
+                    chunk.getTopLeftCoordinateX(),
+                    chunk.getTopLeftCoordinateY(),
+                    0,
+                    chunk.getTopLeftCoordinateX() + Chunk.getBlocksX() - 1,
+                    chunk.getTopLeftCoordinateY() + Chunk.getBlocksY() - 1,
+                    Chunk.getBlocksZ() - 1
+            );
+            return true;
+        }
+
         return false;
     }
 
     public void dispose() {
         RenderChunk.clearPool();
         MessageManager.getInstance().removeListener(this, Events.mapChanged.getId());
+        MessageManager.getInstance().removeListener(this, Events.lightChanged.getId());
+        MessageManager.getInstance().removeListener(this, Events.blocksChanged.getId());
+        MessageManager.getInstance().removeListener(this, Events.sunShadowChanged.getId());
     }
 
 }
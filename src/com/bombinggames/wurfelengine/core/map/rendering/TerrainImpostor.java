@@ -0,0 +1,199 @@
+/*
+ * If this software is used for a game the official „Wurfel Engine“ logo or its name must be visible in an intro screen or main menu.
+ *
+ * Copyright 2026 agent.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, 
+ *   this list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice, 
+ *   this list of conditions and the following disclaimer in the documentation 
+ *   and/or other materials provided with the distribution.
+ * * Neither the name of Benedikt Vogler nor the names of its contributors 
+ *   may be used to endorse or promote products derived from this software without specific
+ *   prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.bombinggames.wurfelengine.core.map.rendering;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.bombinggames.wurfelengine.core.map.Chunk;
+
+/**
+ * A coarse representation of a chunk used when the chunk is outside the {@link RenderStorage}. Stores the height and the color of the topmost block of every column. The constructor copies the columns, {@link #build()} can then run on a background thread.
+ *
+ * @author agent
+ */
+public class TerrainImpostor {
+
+    private static final Color TMPCOLOR = new Color();
+    private final Chunk chunk;
+    private final int chunkX, chunkY;
+    private final int topLeftX, topLeftY;
+    /**
+     * topmost non-air block of every column plus one, 0 if the column is empty. index is x*blocksY+y
+     */
+    private final byte[] heightmap;
+    /**
+     * id and value of the topmost block of every column
+     */
+    private final byte[] topIds, topValues;
+    /**
+     * how many blocks the column is visible below its top
+     */
+    private final byte[] skirt;
+    /**
+     * rgba8888 of the top face
+     */
+    private final int[] colormap;
+
+    /**
+     * Copies the topmost blocks of the chunk. Must be called on the thread which modifies the chunk.
+     *
+     * @param chunk
+     * @param loaded false if the chunk was only read for this impostor and is not part of the map
+     */
+    public TerrainImpostor(Chunk chunk, boolean loaded) {
+        this.chunk = loaded ? chunk : null;
+        this.chunkX = chunk.getChunkX();
+        this.chunkY = chunk.getChunkY();
+        this.topLeftX = chunk.getTopLeftCoordinateX();
+        this.topLeftY = chunk.getTopLeftCoordinateY();
+        int blocksX = Chunk.getBlocksX();
+        int blocksY = Chunk.getBlocksY();
+        heightmap = new byte[blocksX * blocksY];
+        topIds = new byte[blocksX * blocksY];
+        topValues = new byte[blocksX * blocksY];
+        skirt = new byte[blocksX * blocksY];
+        colormap = new int[blocksX * blocksY];
+
+        byte[][][] data = chunk.getData();
+        for (int x = 0; x < blocksX; x++) {
+            for (int y = 0; y < blocksY; y++) {
+                int z = chunk.getTopNonAirZ(topLeftX + x, topLeftY + y);
+                if (z >= 0) {
+                    heightmap[x * blocksY + y] = (byte) (z + 1);
+                    topIds[x * blocksY + y] = data[x][y][z * 3];
+                    topValues[x * blocksY + y] = data[x][y][z * 3 + 1];
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the colors and skirts from the copied columns. May be called from another thread.
+     *
+     * @return this
+     */
+    public TerrainImpostor build() {
+        int blocksX = Chunk.getBlocksX();
+        int blocksY = Chunk.getBlocksY();
+        for (int i = 0; i < heightmap.length; i++) {
+            if (heightmap[i] > 0) {
+                colormap[i] = Color.rgba8888(RenderCell.getRepresentingColor(topIds[i], topValues[i]));
+            }
+        }
+
+        //the sides are visible down to the lower of the two columns in front
+        for (int x = 0; x < blocksX; x++) {
+            for (int y = 0; y < blocksY; y++) {
+                int height = heightmap[x * blocksY + y];
+                int front = height - 1;
+                if (y + 1 < blocksY) {
+                    int leftX = y % 2 == 0 ? x - 1 : x;
+                    int rightX = leftX + 1;
+                    if (leftX >= 0) {
+                        front = Math.min(front, heightmap[leftX * blocksY + y + 1]);
+                    }
+                    if (rightX < blocksX) {
+                        front = Math.min(front, heightmap[rightX * blocksY + y + 1]);
+                    }
+                }
+                skirt[x * blocksY + y] = (byte) Math.max(1, height - Math.max(front, 0));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return the chunk this impostor was built from, null if it was built from the save
+     */
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    /**
+     * @param x relative to the chunk
+     * @param y relative to the chunk
+     * @return topmost non-air block plus one, 0 if empty
+     */
+    public int getHeight(int x, int y) {
+        return heightmap[x * Chunk.getBlocksY() + y];
+    }
+
+    /**
+     * Draws the top faces and a shaded skirt below them back to front. The shape renderer must be in filled mode.
+     *
+     * @param sh
+     * @param tint multiplied with every color
+     */
+    public void render(ShapeRenderer sh, Color tint) {
+        int blocksX = Chunk.getBlocksX();
+        int blocksY = Chunk.getBlocksY();
+        final int w2 = RenderCell.VIEW_WIDTH2;
+        final int h = RenderCell.VIEW_HEIGHT;
+        final int h2 = RenderCell.VIEW_HEIGHT2;
+        final int d2 = RenderCell.VIEW_DEPTH2;
+        for (int y = 0; y < blocksY; y++) {
+            for (int x = 0; x < blocksX; x++) {
+                int height = heightmap[x * blocksY + y];
+                if (height == 0) {
+                    continue;
+                }
+                int cellY = topLeftY + y;
+                float vx = (topLeftX + x) * RenderCell.VIEW_WIDTH + (cellY % 2 != 0 ? w2 : 0);
+                float vy = -cellY * d2 + (height - 1) * h;
+                Color.rgba8888ToColor(TMPCOLOR, colormap[x * blocksY + y]);
+                TMPCOLOR.mul(tint);
+
+                //skirt, darker than the top
+                int skirtHeight = skirt[x * blocksY + y] * h;
+                sh.setColor(TMPCOLOR.r * 0.6f, TMPCOLOR.g * 0.6f, TMPCOLOR.b * 0.6f, 1);
+                sh.rect(vx - w2, vy + h2 + d2 - skirtHeight, w2 * 2, skirtHeight);
+                sh.triangle(
+                        vx - w2, vy + h2 + d2 - skirtHeight,
+                        vx, vy + h2 - skirtHeight,
+                        vx + w2, vy + h2 + d2 - skirtHeight
+                );
+
+                //top face
+                sh.setColor(TMPCOLOR.r, TMPCOLOR.g, TMPCOLOR.b, 1);
+                sh.triangle(vx - w2, vy + h2 + d2, vx, vy + h2, vx + w2, vy + h2 + d2);
+                sh.triangle(vx - w2, vy + h2 + d2, vx, vy + h2 + d2 * 2, vx + w2, vy + h2 + d2);
+            }
+        }
+    }
+}
@@ -133,10 +133,7 @@ public class Minimap implements Telegraph {
         //fing top tile
         for (int x = 0; x < mapdata.length; x++) {
             for (int y = 0; y < mapdata[x].length; y++) {
-                int z = Chunk.getBlocksZ() - 1;//start at top
-                while (z > -1 && Controller.getMap().getBlockId(x, y, z) == 0) {
-                    z--;//find topmost block in row
-                }
+                int z = Controller.getMap().getTopNonAirZ(x, y);//find topmost block in row
 
                 topTileZ[x][y] = z;
                 if (z > maximumZ)
@@ -34,9 +34,11 @@ import com.badlogic.gdx.ai.msg.MessageManager;
 import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.graphics.Color;
 import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.Events;
 import com.bombinggames.wurfelengine.core.gameobjects.*;
 import com.bombinggames.wurfelengine.core.map.Coordinate;
+import com.bombinggames.wurfelengine.core.map.Point;
 
 import java.util.ArrayList;
 
@@ -110,11 +112,11 @@ public class Bullet extends MovableEntity {
                     Events.damage.getId(),
                     damage
             );
-            Particle blood = new Particle();
-            blood.setColor(new Color(0.1f, 0.05f, 0.05f, 1));
-            blood.setTTL(300);
-            blood.setType(ParticleType.SMOKE);//blood
-            blood.spawn(getPosition().cpy());
+            //blood
+            Point pos = getPosition();
+            Controller.getMap().getParticleSystem().add(
+                    pos.x, pos.y, pos.z, 0, 0, 0, 300, new Color(0.1f, 0.05f, 0.05f, 1), ParticleType.SMOKE, ParticleSystem.SPRITE_ID, true
+            );
             dispose();
         }
     }
@@ -201,11 +203,10 @@ public class Bullet extends MovableEntity {
                             && ignoreId != getPosition().getBlockId()
                     ) {
                 if (impactSprite != 0) {
-                    Particle impactPart = new Particle();
-                    impactPart.setTTL(400);
-                    impactPart.setColor(new Color(0.4f, 0.3f, 0.2f, 1));
-                    impactPart.setType(ParticleType.SMOKE);
-                    impactPart.spawn(getPosition().cpy());
+                    Point pos = getPosition();
+                    Controller.getMap().getParticleSystem().add(
+                            pos.x, pos.y, pos.z, 0, 0, 0, 400, new Color(0.4f, 0.3f, 0.2f, 1), ParticleType.SMOKE, ParticleSystem.SPRITE_ID, true
+                    );
                 }
                 dispose();
             }
@@ -34,8 +34,8 @@ import com.badlogic.gdx.ai.msg.Telegram;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector3;
 import com.bombinggames.wurfelengine.core.gameobjects.SimpleEntity;
-import com.bombinggames.wurfelengine.core.map.Intersection;
 import com.bombinggames.wurfelengine.core.map.Point;
+import com.bombinggames.wurfelengine.core.map.RaycastBatch;
 import com.bombinggames.wurfelengine.core.map.rendering.RenderCell;
 
 /**
@@ -48,6 +48,14 @@ public class Laserdot extends SimpleEntity {
     private static final long serialVersionUID = 1L;
 
     private byte ignoreId;
+    /**
+     * reused every update
+     */
+    private transient RaycastBatch ray;
+    /**
+     * the hit point is written into this instance, which then becomes the position
+     */
+    private transient Point nextPosition;
 
     public Laserdot() {
         super((byte) 22);
@@ -67,22 +75,28 @@ public class Laserdot extends SimpleEntity {
     public void update(Vector3 aimDir, Point origin) {
         if (hasPosition() && !aimDir.isZero()) {
 
-            Intersection raycast = origin.rayMarching(aimDir,
-                    12,
-                    null,
-                    (Byte t) -> !RenderCell.isTransparent(t, (byte) 0) && t != ignoreId
-            );
-            setHidden(raycast == null);
-            if (raycast != null && raycast.getPoint() != null) {
-                setPosition(raycast.getPoint());
-            } else {
-                getPosition().set(getPosition());
+            if (ray == null) {
+                ray = new RaycastBatch(1);
+                ray.setHitCondition((Byte t) -> !RenderCell.isTransparent(t, (byte) 0) && t != ignoreId);
+            }
+            ray.clear();
+            ray.add(origin.x, origin.y, origin.z, aimDir.x, aimDir.y, aimDir.z, 12);
+            ray.cast();
+            setHidden(!ray.isHit(0));
+            if (ray.isHit(0)) {
+                if (nextPosition == null) {
+                    nextPosition = new Point(0, 0, 0);
+                }
+                Point hit = ray.getHitPoint(0, nextPosition);
+                nextPosition = getPosition();//setPosition keeps the instance, so swap them
+                setPosition(hit);
             }
         }
     }
 
     public void ignoreBlock(byte ignoreId) {
         this.ignoreId = ignoreId;
+        ray = null;
     }
 
 
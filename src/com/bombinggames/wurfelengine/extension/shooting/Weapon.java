@@ -35,6 +35,7 @@ import com.badlogic.gdx.ai.msg.Telegraph;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector3;
 import com.bombinggames.wurfelengine.WE;
+import com.bombinggames.wurfelengine.core.Controller;
 import com.bombinggames.wurfelengine.core.Events;
 import com.bombinggames.wurfelengine.core.gameobjects.*;
 import com.bombinggames.wurfelengine.core.map.Point;
@@ -370,12 +371,12 @@ public class Weapon extends AbstractEntity implements Telegraph {
             firing = true;
 
             //muzzle flash
-            Particle flash = new Particle();
-            flash.setTTL(400);
-            flash.setColor(Color.YELLOW.cpy());
-            flash.setType(ParticleType.FIRE);
-            flash.spawn(getPosition().toPoint());
-            flash.setMovement(aimDir.cpy().scl(4f));
+            Point flashPos = getPosition().toPoint();
+            Controller.getMap().getParticleSystem().add(
+                    flashPos.x, flashPos.y, flashPos.z,
+                    aimDir.x * 4f, aimDir.y * 4f, aimDir.z * 4f,
+                    400, Color.YELLOW, ParticleType.FIRE, ParticleSystem.SPRITE_ID, true
+            );
 
             //shot bullets
             for (int i = 0; i < bps; i++) {
@@ -485,6 +486,8 @@ public class Weapon extends AbstractEntity implements Telegraph {
         super.dispose();
         if (laserdot != null)
             laserdot.dispose();
+        if (lightSource != null)
+            lightSource.dispose();
     }
 
 
@@ -615,21 +615,13 @@ public class EditorView extends GameView implements Telegraph {
             AbstractEntity entityUnderMouse = null;
             if (toolSelection.getLeftTool() == Tool.SELECT && !selecting) {
                 //find ent under mouse
-                for (AbstractEntity ent : getMap().getEntities()) {
-                    if (
-                            ent.hasPosition()
-                                    && ent.getSpriteId() > 0
-                                    && ent.getSpriteValue() > -1
-                                    && ent.getPosition().getViewSpcX() + ent.getSprite().getRegionWidth() / 2 >= (int) screenXtoView(screenX, camera) //right sprite borde
-                                    && ent.getPosition().getViewSpcX() - ent.getSprite().getRegionWidth() / 2 <= (int) screenXtoView(screenX, camera) //left spr. border
-                                    && ent.getPosition().getViewSpcY() - ent.getSprite().getRegionHeight() / 2 <= (int) screenYtoView(screenY, camera) //bottom spr. border
-                                    && ent.getPosition().getViewSpcY() + ent.getSprite().getRegionHeight() / 2 >= (int) screenYtoView(screenY, camera) //top spr. border
-                                    && !(ent instanceof EntityShadow)
-                                    && !ent.getName().equals("normal")
-                                    && !ent.getName().equals("selectionEntity")
-                            )
-                        entityUnderMouse = ent;
-                }
+                entityUnderMouse = screenToEntity(
+                        screenX,
+                        screenY,
+                        ent -> !(ent instanceof EntityShadow)
+                        && !ent.getName().equals("normal")
+                        && !ent.getName().equals("selectionEntity")
+                );
             }
 
             //if entity under mosue is selected
@@ -683,6 +675,7 @@ public class EditorView extends GameView implements Telegraph {
                 bottom = from.getY();
             }
 
+            getMap().beginEdit();
             for (int x = left; x <= right; x++) {
                 for (int y = top; y <= bottom; y++) {
                     getMap().setBlock(
@@ -692,6 +685,7 @@ public class EditorView extends GameView implements Telegraph {
                     );
                 }
             }
+            getMap().commit();
         }
 
     }